@@ -1,5 +1,6 @@
 package io.microsphere.classloading;
 
+import io.microsphere.io.scanner.ParallelScanEngine;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -7,7 +8,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.Collection;
-import java.util.Enumeration;
+import java.util.List;
 import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 
@@ -16,6 +17,7 @@ import static io.microsphere.net.URLUtils.isArchiveURL;
 import static io.microsphere.util.ArrayUtils.isNotEmpty;
 import static io.microsphere.util.StringUtils.split;
 import static java.lang.System.getProperty;
+import static java.util.Collections.list;
 
 /**
  * The class {@link ArtifactResolver} based on the resource "META-INF/MANIFEST.MF"
@@ -69,9 +71,11 @@ public class ManifestArtifactResolver extends AbstractArtifactResolver {
     @Override
     protected void doResolve(Collection<Artifact> artifactSet, URLClassLoader urlClassLoader) {
         try {
-            Enumeration<URL> manifestResourceURLs = urlClassLoader.getResources(MANIFEST_RESOURCE_PATH);
-            while (manifestResourceURLs.hasMoreElements()) {
-                Artifact artifact = resolveArtifactMetaInfoInManifest(manifestResourceURLs.nextElement());
+            List<URL> manifestResourceURLs = list(urlClassLoader.getResources(MANIFEST_RESOURCE_PATH));
+            // the manifests are resolved in parallel
+            List<Artifact> artifacts = ParallelScanEngine.INSTANCE.map(manifestResourceURLs,
+                    this::resolveArtifactMetaInfoInManifest);
+            for (Artifact artifact : artifacts) {
                 if (artifact != null) {
                     artifactSet.add(artifact);
                 }
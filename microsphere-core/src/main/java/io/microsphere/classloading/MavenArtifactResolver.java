@@ -1,22 +1,26 @@
 package io.microsphere.classloading;
 
-import io.microsphere.filter.JarEntryFilter;
-import io.microsphere.util.jar.JarUtils;
+import io.microsphere.io.scanner.JarEntryNameScanner;
+import io.microsphere.io.scanner.ParallelScanEngine;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.stream.Stream;
+import java.util.zip.ZipException;
 
-import static io.microsphere.net.URLUtils.isJarURL;
+import static io.microsphere.constants.ProtocolConstants.FILE_PROTOCOL;
+import static io.microsphere.net.URLUtils.resolveArchiveFile;
 import static io.microsphere.util.ClassLoaderUtils.findAllClassPathURLs;
-import static io.microsphere.util.jar.JarUtils.toJarFile;
 
 /**
  * Maven {@link ArtifactResolver}
@@ -30,8 +34,6 @@ public class MavenArtifactResolver extends AbstractArtifactResolver {
 
     private static final String MAVEN_POM_PROPERTIES_RESOURCE_SUFFIX = "/pom.properties";
 
-    private static final MavenPomPropertiesFilter MAVEN_POM_PROPERTIES_FILTER = new MavenPomPropertiesFilter();
-
     private static final String GROUP_ID_PROPERTY_NAME = "groupId";
 
     private static final String ARTIFACT_ID_PROPERTY_NAME = "artifactId";
@@ -49,41 +51,63 @@ public class MavenArtifactResolver extends AbstractArtifactResolver {
 
         Set<URL> classPathURLs = findAllClassPathURLs(urlClassLoader);
 
-        for (URL classPathURL : classPathURLs) {
-            URL mavenPomPropertiesResource = null;
-            try {
-                mavenPomPropertiesResource = findMavenPomPropertiesResource(classPathURL, urlClassLoader);
-                if (mavenPomPropertiesResource != null) {
-                    Artifact artifact = resolveArtifactMetaInfoInMavenPomProperties(mavenPomPropertiesResource);
-                    if (artifact != null) {
-                        artifactSet.add(artifact);
-                        if (logger.isDebugEnabled()) {
-                            logger.debug("The artifact was resolved from the the Maven pom.properties[resource : {}] : {}", mavenPomPropertiesResource, artifact);
-                        }
-                    }
+        // the JarFiles are resolved in parallel
+        List<Artifact> artifacts = ParallelScanEngine.INSTANCE.map(classPathURLs,
+                classPathURL -> resolveArtifact(classPathURL, urlClassLoader));
+        for (Artifact artifact : artifacts) {
+            if (artifact != null) {
+                artifactSet.add(artifact);
+            }
+        }
+    }
+
+    private Artifact resolveArtifact(URL classPathURL, URLClassLoader urlClassLoader) {
+        Artifact artifact = null;
+        try {
+            URL mavenPomPropertiesResource = findMavenPomPropertiesResource(classPathURL, urlClassLoader);
+            if (mavenPomPropertiesResource != null) {
+                artifact = resolveArtifactMetaInfoInMavenPomProperties(mavenPomPropertiesResource);
+                if (artifact != null && logger.isDebugEnabled()) {
+                    logger.debug("The artifact was resolved from the the Maven pom.properties[resource : {}] : {}", mavenPomPropertiesResource, artifact);
                 }
-            } catch (IOException e) {
-                logger.warn("The artifact[class-path : {}] can't be open.", e);
             }
+        } catch (IOException e) {
+            logger.warn("The artifact[class-path : {}] can't be open.", classPathURL, e);
         }
+        return artifact;
     }
 
     private URL findMavenPomPropertiesResource(URL classPathURL, URLClassLoader urlClassLoader) throws IOException {
-        if (isJarURL(classPathURL)) {
-            return findMavenPomPropertiesResourceInJar(classPathURL, urlClassLoader);
+        File archiveFile = resolveJarFile(classPathURL);
+        if (archiveFile == null || !archiveFile.isFile()) {
+            return null;
         }
-        return null;
+        return findMavenPomPropertiesResourceInJar(archiveFile, urlClassLoader);
     }
 
-    private URL findMavenPomPropertiesResourceInJar(URL classPathURL, URLClassLoader urlClassLoader) throws IOException {
-        JarFile jarFile = toJarFile(classPathURL);
-        List<JarEntry> entries = JarUtils.filter(jarFile, MAVEN_POM_PROPERTIES_FILTER);
-        if (entries.isEmpty()) {
+    private File resolveJarFile(URL classPathURL) {
+        if (FILE_PROTOCOL.equals(classPathURL.getProtocol())) {
+            try {
+                return new File(classPathURL.toURI());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return resolveArchiveFile(classPathURL);
+    }
+
+    private URL findMavenPomPropertiesResourceInJar(File jarFile, URLClassLoader urlClassLoader) throws IOException {
+        Optional<String> relativePath;
+        // only the central directory is read
+        try (Stream<String> names = JarEntryNameScanner.INSTANCE.stream(jarFile)) {
+            relativePath = names.filter(MavenArtifactResolver::isMavenPomPropertiesResource).findFirst();
+        } catch (ZipException e) {
+            // not a JarFile
             return null;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-        JarEntry jarEntry = entries.get(0);
-        String relativePath = jarEntry.getName();
-        return urlClassLoader.getResource(relativePath);
+        return relativePath.isPresent() ? urlClassLoader.getResource(relativePath.get()) : null;
     }
 
     private Artifact resolveArtifactMetaInfoInMavenPomProperties(URL mavenPomPropertiesResourceURL) {
@@ -107,19 +131,14 @@ public class MavenArtifactResolver extends AbstractArtifactResolver {
         return MavenArtifact.create(groupId, artifactId, version, artifactResourceURL);
     }
 
-    private static class MavenPomPropertiesFilter implements JarEntryFilter {
-
-        @Override
-        public boolean accept(JarEntry entry) {
-            String name = entry.getName();
-            int begin = name.indexOf(MAVEN_POM_PROPERTIES_RESOURCE_PREFIX);
-            if (begin == 0) {
-                begin += MAVEN_POM_PROPERTIES_RESOURCE_PREFIX.length();
-                int end = name.lastIndexOf(MAVEN_POM_PROPERTIES_RESOURCE_SUFFIX);
-                return end > begin;
-            }
-
-            return false;
+    private static boolean isMavenPomPropertiesResource(String name) {
+        int begin = name.indexOf(MAVEN_POM_PROPERTIES_RESOURCE_PREFIX);
+        if (begin == 0) {
+            begin += MAVEN_POM_PROPERTIES_RESOURCE_PREFIX.length();
+            int end = name.lastIndexOf(MAVEN_POM_PROPERTIES_RESOURCE_SUFFIX);
+            return end > begin;
         }
+
+        return false;
     }
 }
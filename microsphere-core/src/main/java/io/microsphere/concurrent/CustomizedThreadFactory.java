@@ -16,6 +16,7 @@
  */
 package io.microsphere.concurrent;
 
+import java.lang.reflect.Method;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -27,6 +28,17 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class CustomizedThreadFactory implements ThreadFactory {
 
+    /**
+     * The class name of <code>java.lang.Thread.Builder</code> since JDK 21
+     */
+    private static final String THREAD_BUILDER_CLASS_NAME = "java.lang.Thread$Builder";
+
+    /**
+     * The method <code>java.lang.Thread#ofVirtual()</code>, or <code>null</code> if the virtual threads are not
+     * supported
+     */
+    private static final Method OF_VIRTUAL_METHOD = findOfVirtualMethod();
+
     private final ThreadGroup group;
 
     private final AtomicInteger threadNumber;
@@ -78,6 +90,48 @@ public class CustomizedThreadFactory implements ThreadFactory {
         return new CustomizedThreadFactory(namePrefix, daemon, priority, stackSize);
     }
 
+    /**
+     * Create a new {@link ThreadFactory} for virtual threads if the current runtime supports(JDK 21+), or fallback to
+     * the daemon platform threads.
+     *
+     * @param namePrefix the prefix of thread name
+     * @return non-null
+     * @see #isVirtualThreadSupported()
+     */
+    public static ThreadFactory newVirtualThreadFactory(String namePrefix) {
+        if (OF_VIRTUAL_METHOD != null) {
+            try {
+                Class<?> builderClass = Class.forName(THREAD_BUILDER_CLASS_NAME);
+                Object builder = OF_VIRTUAL_METHOD.invoke(null);
+                builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix + "-virtual-thread-", 1L);
+                return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            } catch (Throwable ignored) {
+            }
+        }
+        return newThreadFactory(namePrefix, true);
+    }
+
+    /**
+     * Whether the current runtime supports the virtual threads(JDK 21+) or not
+     *
+     * @return <code>true</code> if supported
+     */
+    public static boolean isVirtualThreadSupported() {
+        return OF_VIRTUAL_METHOD != null;
+    }
+
+    private static Method findOfVirtualMethod() {
+        try {
+            Class.forName(THREAD_BUILDER_CLASS_NAME);
+            Method method = Thread.class.getMethod("ofVirtual");
+            // the preview API(JDK 19 and 20) throws UnsupportedOperationException if it's not enabled
+            method.invoke(null);
+            return method;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
     public Thread newThread(Runnable r) {
         Thread t = new Thread(group, r, namePrefix + threadNumber.getAndIncrement(), stackSize);
         t.setDaemon(daemon);
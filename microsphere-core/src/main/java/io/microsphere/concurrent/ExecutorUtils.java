@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.concurrent;
+
+import io.microsphere.util.BaseUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import static io.microsphere.concurrent.CustomizedThreadFactory.isVirtualThreadSupported;
+import static io.microsphere.concurrent.CustomizedThreadFactory.newThreadFactory;
+import static io.microsphere.concurrent.CustomizedThreadFactory.newVirtualThreadFactory;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+
+/**
+ * The utilities class for {@link java.util.concurrent.Executor}
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see Executors
+ * @since 1.0.0
+ */
+public abstract class ExecutorUtils extends BaseUtils {
+
+    /**
+     * The method <code>java.util.concurrent.Executors#newThreadPerTaskExecutor(ThreadFactory)</code> since JDK 21
+     */
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR_METHOD = findNewThreadPerTaskExecutorMethod();
+
+    /**
+     * Create a new {@link ExecutorService} that starts a new virtual thread for each task if the current runtime
+     * supports(JDK 21+), or fallback to the {@link Executors#newCachedThreadPool(ThreadFactory) cached pool} of
+     * daemon platform threads.
+     * <p>
+     * It's suitable for the tasks that do blocking I/O, which would starve the shared
+     * {@link java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+     *
+     * @param namePrefix the prefix of thread name
+     * @return non-null
+     * @see CustomizedThreadFactory#newVirtualThreadFactory(String)
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix) {
+        if (isVirtualThreadSupported() && NEW_THREAD_PER_TASK_EXECUTOR_METHOD != null) {
+            try {
+                ThreadFactory threadFactory = newVirtualThreadFactory(namePrefix);
+                return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR_METHOD.invoke(null, threadFactory);
+            } catch (Throwable ignored) {
+            }
+        }
+        return newCachedThreadPool(newThreadFactory(namePrefix, true));
+    }
+
+    private static Method findNewThreadPerTaskExecutorMethod() {
+        try {
+            return Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+}
@@ -16,6 +16,8 @@
  */
 package io.microsphere.event;
 
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
@@ -24,12 +26,16 @@ import java.util.ServiceLoader;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import static io.microsphere.event.EventListener.findEventType;
 import static io.microsphere.util.ServiceLoaderUtils.loadServicesList;
+import static java.util.Arrays.asList;
+import static java.util.Arrays.sort;
 import static java.util.Collections.sort;
 import static java.util.Collections.unmodifiableList;
 
@@ -45,12 +51,29 @@ import static java.util.Collections.unmodifiableList;
  */
 public abstract class AbstractEventDispatcher implements EventDispatcher {
 
-    private final Object mutex = new Object();
+    private static final EventListener[] EMPTY_LISTENERS = new EventListener[0];
 
-    private final ConcurrentMap<Class<? extends Event>, List<EventListener>> listenersCache = new ConcurrentHashMap<>();
+    /**
+     * The event type as key, the immutable sorted array of {@link EventListener listeners} as value that is
+     * swapped by CAS when the listeners are changed
+     */
+    private final ConcurrentMap<Class<? extends Event>, AtomicReference<EventListener[]>> listenersCache = new ConcurrentHashMap<>();
+
+    /**
+     * The version of listeners that is increased after any change
+     */
+    private final AtomicLong listenersVersion = new AtomicLong();
+
+    /**
+     * The dispatch table : the concrete class of {@link Event} as key, the sorted {@link EventListener listeners}
+     * whose event type is assignable from the key as value, which is rebuilt if its' version is outdated
+     */
+    private final ConcurrentMap<Class<? extends Event>, DispatchEntry> dispatchTable = new ConcurrentHashMap<>();
 
     private final Executor executor;
 
+    private volatile EventDispatchMetrics metrics;
+
     /**
      * Constructor with an instance of {@link Executor}
      *
@@ -98,6 +121,8 @@ public abstract class AbstractEventDispatcher implements EventDispatcher {
         return listenersCache
                 .entrySet()
                 .stream()
+                .<Map.Entry<Class<? extends Event>, List<EventListener>>>map(entry ->
+                        new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), asList(entry.getValue().get())))
                 .filter(predicate)
                 .map(Map.Entry::getValue)
                 .flatMap(Collection::stream)
@@ -115,20 +140,106 @@ public abstract class AbstractEventDispatcher implements EventDispatcher {
 
         Executor executor = getExecutor();
 
-        // execute in sequential or parallel execution model
-        executor.execute(() -> {
-            sortedListeners(entry -> entry.getKey().isAssignableFrom(event.getClass()))
-                    .forEach(listener -> {
-                        if (listener instanceof ConditionalEventListener) {
-                            ConditionalEventListener predicateEventListener = (ConditionalEventListener) listener;
-                            if (!predicateEventListener.accept(event)) { // No accept
-                                return;
-                            }
-                        }
-                        // Handle the event
-                        listener.onEvent(event);
-                    });
-        });
+        EventListener[] listeners = getDispatchListeners(event.getClass());
+
+        if (executor == DIRECT_EXECUTOR) { // execute in sequential execution model without the task allocation
+            invokeListeners(event, listeners);
+        } else { // execute in parallel execution model
+            executor.execute(() -> invokeListeners(event, listeners));
+        }
+    }
+
+    /**
+     * Dispatch the {@link Event event} to the matched {@link EventListener event listeners} in the current thread,
+     * regardless of {@link #getExecutor() the executor}, it's used by the sub-class that manages the threads itself.
+     *
+     * @param event a {@link Event event}
+     */
+    protected final void doDispatch(Event event) {
+        invokeListeners(event, getDispatchListeners(event.getClass()));
+    }
+
+    private void invokeListeners(Event event, EventListener[] listeners) {
+        for (int i = 0; i < listeners.length; i++) {
+            invokeListener(listeners[i], event);
+        }
+    }
+
+    /**
+     * Invoke the specified {@link EventListener event listener} if it accepts the {@link Event event}
+     *
+     * @param listener {@link EventListener event listener}
+     * @param event    a {@link Event event}
+     */
+    protected void invokeListener(EventListener listener, Event event) {
+        if (listener instanceof ConditionalEventListener) {
+            ConditionalEventListener predicateEventListener = (ConditionalEventListener) listener;
+            if (!predicateEventListener.accept(event)) { // No accept
+                return;
+            }
+        }
+        EventDispatchMetrics metrics = this.metrics;
+        if (metrics == null) {
+            // Handle the event
+            listener.onEvent(event);
+            return;
+        }
+        long startTime = System.nanoTime();
+        boolean failed = true;
+        try {
+            // Handle the event
+            listener.onEvent(event);
+            failed = false;
+        } finally {
+            metrics.record(listener, event, System.nanoTime() - startTime, failed);
+        }
+    }
+
+    /**
+     * Get the sorted {@link EventListener listeners} from the dispatch table for the specified concrete class of
+     * {@link Event}, the table entry will be rebuilt if it's absent or outdated.
+     *
+     * @param eventClass the concrete class of {@link Event}
+     * @return non-null read-only array, the caller must not modify it
+     */
+    protected EventListener[] getDispatchListeners(Class<? extends Event> eventClass) {
+        long version = listenersVersion.get();
+        DispatchEntry entry = dispatchTable.get(eventClass);
+        if (entry == null || entry.version != version) {
+            // The listeners read after the version are never older than it,
+            // the entry will be rebuilt again if they are changed concurrently
+            entry = new DispatchEntry(version, buildDispatchListeners(eventClass));
+            dispatchTable.put(eventClass, entry);
+        }
+        return entry.listeners;
+    }
+
+    private EventListener[] buildDispatchListeners(Class<? extends Event> eventClass) {
+        List<EventListener> listeners = new ArrayList<>();
+        for (Map.Entry<Class<? extends Event>, AtomicReference<EventListener[]>> entry : listenersCache.entrySet()) {
+            if (entry.getKey().isAssignableFrom(eventClass)) {
+                listeners.addAll(asList(entry.getValue().get()));
+            }
+        }
+        EventListener[] dispatchListeners = listeners.toArray(EMPTY_LISTENERS);
+        sort(dispatchListeners);
+        return dispatchListeners;
+    }
+
+    /**
+     * Set the {@link EventDispatchMetrics} to record the invocations of {@link EventListener event listeners}
+     *
+     * @param metrics {@link EventDispatchMetrics}, <code>null</code> means the instrumentation is disabled
+     */
+    public void setMetrics(EventDispatchMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return the {@link EventDispatchMetrics} if the instrumentation is enabled, or <code>null</code>
+     */
+    public EventDispatchMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -139,16 +250,33 @@ public abstract class AbstractEventDispatcher implements EventDispatcher {
         return executor;
     }
 
+    /**
+     * Change the {@link EventListener listeners} of the event type that the specified {@link EventListener listener}
+     * handles without locking, the {@link Consumer consumer} is applied to a copy of current listeners, which is
+     * sorted and swapped by CAS, it may be applied more than once if the listeners are changed concurrently.
+     *
+     * @param listener {@link EventListener listener}
+     * @param consumer the {@link Consumer consumer} to change the listeners
+     */
     protected void doInListener(EventListener<?> listener, Consumer<Collection<EventListener>> consumer) {
         Class<? extends Event> eventType = findEventType(listener);
         if (eventType != null) {
-            synchronized (mutex) {
-                List<EventListener> listeners = listenersCache.computeIfAbsent(eventType, e -> new LinkedList<>());
+            AtomicReference<EventListener[]> listenersRef = listenersCache.computeIfAbsent(eventType,
+                    e -> new AtomicReference<>(EMPTY_LISTENERS));
+            for (; ; ) {
+                EventListener[] currentListeners = listenersRef.get();
+                List<EventListener> listeners = new ArrayList<>(asList(currentListeners));
                 // consume
                 consumer.accept(listeners);
                 // sort
                 sort(listeners);
+                // swap
+                if (listenersRef.compareAndSet(currentListeners, listeners.toArray(EMPTY_LISTENERS))) {
+                    break;
+                }
             }
+            // outdate the dispatch table
+            listenersVersion.incrementAndGet();
         }
     }
 
@@ -170,4 +298,16 @@ public abstract class AbstractEventDispatcher implements EventDispatcher {
         } catch (Throwable ignored) {
         }
     }
+
+    private static final class DispatchEntry {
+
+        private final long version;
+
+        private final EventListener[] listeners;
+
+        private DispatchEntry(long version, EventListener[] listeners) {
+            this.version = version;
+            this.listeners = listeners;
+        }
+    }
 }
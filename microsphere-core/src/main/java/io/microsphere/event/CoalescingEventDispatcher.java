@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.event;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+import static io.microsphere.concurrent.CustomizedThreadFactory.newThreadFactory;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+
+/**
+ * The {@link EventDispatcher} decorator coalesces the bursty {@link Event events} with the same key, which is
+ * resolved by the user-supplied function, the merged {@link Event event} will be delivered to the delegate
+ * {@link EventDispatcher} when :
+ * <ul>
+ * <li>the time window since the first {@link Event event} of the key is expired</li>
+ * <li>the count of {@link Event events} of the key reaches the count window</li>
+ * <li>{@link #flush()} is invoked explicitly</li>
+ * </ul>
+ * By default, the latest {@link Event event} wins. The {@link Event events} whose key is <code>null</code> are
+ * delivered immediately.
+ * <p>
+ * For instance, the {@link io.microsphere.io.event.FileChangedEvent file changed events} raised by saving a file
+ * could be coalesced by {@link #keyBySource()}.
+ *
+ * @see EventDispatcher
+ * @since 1.0.0
+ */
+public class CoalescingEventDispatcher implements EventDispatcher, AutoCloseable {
+
+    private final EventDispatcher delegate;
+
+    private final Function<? super Event, ?> keyResolver;
+
+    private final long windowNanos;
+
+    private final int maxCount;
+
+    private final BinaryOperator<Event> merger;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final boolean ownedScheduler;
+
+    private final ConcurrentMap<Object, PendingEvent> pendingEvents = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+
+    /**
+     * Constructor with the time window only
+     *
+     * @param delegate    the delegate {@link EventDispatcher}
+     * @param keyResolver the function to resolve the key of {@link Event event}
+     * @param window      the time window
+     * @param unit        the {@link TimeUnit} of time window
+     */
+    public CoalescingEventDispatcher(EventDispatcher delegate, Function<? super Event, ?> keyResolver,
+                                     long window, TimeUnit unit) {
+        this(delegate, keyResolver, window, unit, Integer.MAX_VALUE, latest());
+    }
+
+    public CoalescingEventDispatcher(EventDispatcher delegate, Function<? super Event, ?> keyResolver,
+                                     long window, TimeUnit unit, int maxCount, BinaryOperator<Event> merger) {
+        this(delegate, keyResolver, window, unit, maxCount, merger,
+                newSingleThreadScheduledExecutor(newThreadFactory("CoalescingEventDispatcher", true)), true);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param delegate    the delegate {@link EventDispatcher}
+     * @param keyResolver the function to resolve the key of {@link Event event}
+     * @param window      the time window, the non-positive value means no time window
+     * @param unit        the {@link TimeUnit} of time window
+     * @param maxCount    the count window, {@link Integer#MAX_VALUE} means no count window
+     * @param merger      the function to merge the previous {@link Event event} and the current one
+     * @param scheduler   the {@link ScheduledExecutorService} to deliver the merged {@link Event events} when the
+     *                    time window is expired, it will not be shutdown by {@link #close()}
+     * @throws NullPointerException     if any argument is <code>null</code>
+     * @throws IllegalArgumentException if <code>maxCount</code> is not positive, or neither the time window nor the
+     *                                  count window is specified
+     */
+    public CoalescingEventDispatcher(EventDispatcher delegate, Function<? super Event, ?> keyResolver,
+                                     long window, TimeUnit unit, int maxCount, BinaryOperator<Event> merger,
+                                     ScheduledExecutorService scheduler) throws NullPointerException, IllegalArgumentException {
+        this(delegate, keyResolver, window, unit, maxCount, merger, scheduler, false);
+    }
+
+    private CoalescingEventDispatcher(EventDispatcher delegate, Function<? super Event, ?> keyResolver,
+                                      long window, TimeUnit unit, int maxCount, BinaryOperator<Event> merger,
+                                      ScheduledExecutorService scheduler, boolean ownedScheduler) {
+        if (delegate == null || keyResolver == null || unit == null || merger == null || scheduler == null) {
+            throw new NullPointerException("The arguments must not be null");
+        }
+        if (maxCount < 1) {
+            throw new IllegalArgumentException("The 'maxCount' argument must be positive : " + maxCount);
+        }
+        if (window <= 0 && maxCount == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Either the 'window' or the 'maxCount' argument must be specified, " +
+                    "or the events would be held until flush");
+        }
+        this.delegate = delegate;
+        this.keyResolver = keyResolver;
+        this.windowNanos = unit.toNanos(window);
+        this.maxCount = maxCount;
+        this.merger = merger;
+        this.scheduler = scheduler;
+        this.ownedScheduler = ownedScheduler;
+    }
+
+    /**
+     * The key resolver uses {@link Event#getSource() the source of event}
+     *
+     * @return non-null
+     */
+    public static Function<Event, Object> keyBySource() {
+        return Event::getSource;
+    }
+
+    /**
+     * The merger that the latest {@link Event event} wins
+     *
+     * @return non-null
+     */
+    public static BinaryOperator<Event> latest() {
+        return (previous, current) -> current;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if the dispatcher is closed
+     */
+    @Override
+    public void dispatch(Event event) throws IllegalStateException {
+        if (closed) {
+            throw new IllegalStateException("CoalescingEventDispatcher has been closed");
+        }
+        Object key = keyResolver.apply(event);
+        if (key == null) {
+            delegate.dispatch(event);
+            return;
+        }
+        PendingEvent pendingEvent = pendingEvents.compute(key, (k, previous) -> {
+            if (previous == null) {
+                PendingEvent current = new PendingEvent(event);
+                if (windowNanos > 0 && maxCount > 1) {
+                    try {
+                        current.future = scheduler.schedule(() -> flush(k, current), windowNanos, TimeUnit.NANOSECONDS);
+                    } catch (RejectedExecutionException e) {
+                        // closed concurrently, the event will be flushed below
+                    }
+                }
+                return current;
+            }
+            previous.event = merger.apply(previous.event, event);
+            previous.count++;
+            return previous;
+        });
+        if (pendingEvent.count >= maxCount || closed) {
+            flush(key, pendingEvent);
+        }
+    }
+
+    /**
+     * Deliver all pending merged {@link Event events} to the delegate {@link EventDispatcher} immediately
+     */
+    public void flush() {
+        pendingEvents.forEach(this::flush);
+    }
+
+    private void flush(Object key, PendingEvent pendingEvent) {
+        if (pendingEvents.remove(key, pendingEvent)) {
+            ScheduledFuture<?> future = pendingEvent.future;
+            if (future != null) {
+                future.cancel(false);
+            }
+            delegate.dispatch(pendingEvent.event);
+        }
+    }
+
+    /**
+     * @return the count of keys that have the pending {@link Event events}
+     */
+    public int getPendingCount() {
+        return pendingEvents.size();
+    }
+
+    /**
+     * {@link #flush() Flush} the pending {@link Event events}, and shutdown the internal scheduler if it's owned
+     */
+    @Override
+    public void close() {
+        closed = true;
+        flush();
+        if (ownedScheduler) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Override
+    public void addEventListener(EventListener<?> listener) throws NullPointerException, IllegalArgumentException {
+        delegate.addEventListener(listener);
+    }
+
+    @Override
+    public void removeEventListener(EventListener<?> listener) throws NullPointerException, IllegalArgumentException {
+        delegate.removeEventListener(listener);
+    }
+
+    @Override
+    public List<EventListener<?>> getAllEventListeners() {
+        return delegate.getAllEventListeners();
+    }
+
+    @Override
+    public Executor getExecutor() {
+        return delegate.getExecutor();
+    }
+
+    /**
+     * @return the delegate {@link EventDispatcher}
+     */
+    public EventDispatcher getDelegate() {
+        return delegate;
+    }
+
+    private static class PendingEvent {
+
+        private Event event;
+
+        private int count = 1;
+
+        private ScheduledFuture<?> future;
+
+        private PendingEvent(Event event) {
+            this.event = event;
+        }
+    }
+}
@@ -46,4 +46,13 @@ public abstract class Event extends EventObject {
     public long getTimestamp() {
         return timestamp;
     }
+
+    /**
+     * Restore the transient source after the event is deserialized
+     *
+     * @param source the source of event
+     */
+    void restoreSource(Object source) {
+        this.source = source;
+    }
 }
@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.event;
+
+import io.microsphere.management.JmxUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.management.ManagementFactory.getPlatformMBeanServer;
+import static java.util.Collections.unmodifiableList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * The metrics of {@link EventListener event listeners} invocations that are recorded by
+ * {@link AbstractEventDispatcher} per {@link Event} type and {@link EventListener} class, including the invocation
+ * count, the error count and the {@link LatencyHistogram latency histogram}.
+ * <p>
+ * If an invocation exceeds {@link #setSlowListenerThreshold(long, TimeUnit) the slow-listener threshold}, a warning
+ * will be logged, and a {@link SlowEventListenerEvent} will be dispatched if
+ * {@link #setDiagnosticEventDispatcher(EventDispatcher) the diagnostic dispatcher} is present.
+ * <p>
+ * The metrics could be exposed as a JMX MBean by {@link #registerMBean(String)}.
+ *
+ * @see AbstractEventDispatcher#setMetrics(EventDispatchMetrics)
+ * @see EventDispatchMetricsMXBean
+ * @since 1.0.0
+ */
+public class EventDispatchMetrics implements EventDispatchMetricsMXBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventDispatchMetrics.class);
+
+    /**
+     * The domain of {@link ObjectName} to register the MBean
+     */
+    public static final String MBEAN_DOMAIN = "io.microsphere.event";
+
+    /**
+     * The event type as the key, the map of the {@link EventListener} class and its' metrics as the value
+     */
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, ListenerMetrics>> metricsTable = new ConcurrentHashMap<>();
+
+    private final LongAdder invocationCount = new LongAdder();
+
+    private final LongAdder errorCount = new LongAdder();
+
+    private final LongAdder slowCount = new LongAdder();
+
+    private volatile long slowListenerThresholdNanos = Long.MAX_VALUE;
+
+    private volatile EventDispatcher diagnosticEventDispatcher;
+
+    /**
+     * Record an invocation of {@link EventListener}
+     *
+     * @param listener     {@link EventListener}
+     * @param event        the handled {@link Event event}
+     * @param elapsedNanos the elapsed time in nanoseconds
+     * @param failed       the invocation is failed or not
+     */
+    public void record(EventListener<?> listener, Event event, long elapsedNanos, boolean failed) {
+        ListenerMetrics metrics = getListenerMetrics(event.getClass(), listener.getClass());
+        metrics.invocationCount.increment();
+        metrics.latencyHistogram.record(elapsedNanos);
+        invocationCount.increment();
+        if (failed) {
+            metrics.errorCount.increment();
+            errorCount.increment();
+        }
+        if (elapsedNanos > slowListenerThresholdNanos) {
+            metrics.slowCount.increment();
+            slowCount.increment();
+            onSlowListener(listener, event, elapsedNanos);
+        }
+    }
+
+    private ListenerMetrics getListenerMetrics(Class<?> eventType, Class<?> listenerClass) {
+        ConcurrentMap<Class<?>, ListenerMetrics> listenersMetrics = metricsTable.get(eventType);
+        if (listenersMetrics == null) {
+            listenersMetrics = metricsTable.computeIfAbsent(eventType, t -> new ConcurrentHashMap<>());
+        }
+        ListenerMetrics metrics = listenersMetrics.get(listenerClass);
+        if (metrics == null) {
+            metrics = listenersMetrics.computeIfAbsent(listenerClass, c -> new ListenerMetrics(eventType, c));
+        }
+        return metrics;
+    }
+
+    private void onSlowListener(EventListener<?> listener, Event event, long elapsedNanos) {
+        if (logger.isWarnEnabled()) {
+            logger.warn("The listener[{}] took {} ms to handle the event : {}", listener,
+                    NANOSECONDS.toMillis(elapsedNanos), event);
+        }
+        EventDispatcher diagnosticEventDispatcher = this.diagnosticEventDispatcher;
+        // avoid the recursive diagnostic events
+        if (diagnosticEventDispatcher != null && !(event instanceof SlowEventListenerEvent)) {
+            diagnosticEventDispatcher.dispatch(new SlowEventListenerEvent(listener, event, elapsedNanos));
+        }
+    }
+
+    /**
+     * Get the {@link LatencyHistogram} of the specified {@link Event} type and {@link EventListener} class
+     *
+     * @param eventType     the concrete class of {@link Event}
+     * @param listenerClass the class of {@link EventListener}
+     * @return <code>null</code> if not recorded
+     */
+    public LatencyHistogram getLatencyHistogram(Class<? extends Event> eventType, Class<?> listenerClass) {
+        ConcurrentMap<Class<?>, ListenerMetrics> listenersMetrics = metricsTable.get(eventType);
+        ListenerMetrics metrics = listenersMetrics == null ? null : listenersMetrics.get(listenerClass);
+        return metrics == null ? null : metrics.latencyHistogram;
+    }
+
+    @Override
+    public List<EventListenerStatistics> getListenerStatistics() {
+        List<EventListenerStatistics> statistics = new ArrayList<>();
+        metricsTable.values().forEach(listenersMetrics ->
+                listenersMetrics.values().forEach(metrics -> statistics.add(metrics.toStatistics())));
+        return unmodifiableList(statistics);
+    }
+
+    @Override
+    public long getInvocationCount() {
+        return invocationCount.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    @Override
+    public long getSlowCount() {
+        return slowCount.sum();
+    }
+
+    /**
+     * Set the slow-listener threshold
+     *
+     * @param threshold the threshold, the non-positive value disables the slow-listener detection
+     * @param unit      {@link TimeUnit}
+     */
+    public void setSlowListenerThreshold(long threshold, TimeUnit unit) {
+        this.slowListenerThresholdNanos = threshold > 0 ? unit.toNanos(threshold) : Long.MAX_VALUE;
+    }
+
+    @Override
+    public long getSlowListenerThresholdMillis() {
+        long thresholdNanos = this.slowListenerThresholdNanos;
+        return thresholdNanos == Long.MAX_VALUE ? -1 : NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    @Override
+    public void setSlowListenerThresholdMillis(long thresholdMillis) {
+        setSlowListenerThreshold(thresholdMillis, MILLISECONDS);
+    }
+
+    /**
+     * Set the {@link EventDispatcher} to dispatch the {@link SlowEventListenerEvent diagnostic events}
+     *
+     * @param diagnosticEventDispatcher {@link EventDispatcher}, <code>null</code> means no diagnostic event
+     */
+    public void setDiagnosticEventDispatcher(EventDispatcher diagnosticEventDispatcher) {
+        this.diagnosticEventDispatcher = diagnosticEventDispatcher;
+    }
+
+    @Override
+    public void reset() {
+        metricsTable.clear();
+        invocationCount.reset();
+        errorCount.reset();
+        slowCount.reset();
+    }
+
+    /**
+     * Register current instance into the {@link java.lang.management.ManagementFactory#getPlatformMBeanServer()
+     * platform MBeanServer} with the name "io.microsphere.event:type=EventDispatchMetrics,name={name}"
+     *
+     * @param name the name of MBean
+     * @return the {@link ObjectName} if registered, or <code>null</code>
+     */
+    public ObjectName registerMBean(String name) {
+        ObjectName objectName = buildObjectName(name);
+        MBeanServer mBeanServer = getPlatformMBeanServer();
+        return JmxUtils.registerMBean(mBeanServer, this, objectName) ? objectName : null;
+    }
+
+    /**
+     * Unregister current instance from the {@link java.lang.management.ManagementFactory#getPlatformMBeanServer()
+     * platform MBeanServer}
+     *
+     * @param name the name of MBean
+     * @return <code>true</code> if unregistered
+     */
+    public boolean unregisterMBean(String name) {
+        return JmxUtils.unregisterMBean(getPlatformMBeanServer(), buildObjectName(name));
+    }
+
+    private ObjectName buildObjectName(String name) {
+        try {
+            return new ObjectName(MBEAN_DOMAIN + ":type=EventDispatchMetrics,name=" + ObjectName.quote(name));
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("The MBean name is illegal : " + name, e);
+        }
+    }
+
+    private static class ListenerMetrics {
+
+        private final Class<?> eventType;
+
+        private final Class<?> listenerClass;
+
+        private final LongAdder invocationCount = new LongAdder();
+
+        private final LongAdder errorCount = new LongAdder();
+
+        private final LongAdder slowCount = new LongAdder();
+
+        private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+        private ListenerMetrics(Class<?> eventType, Class<?> listenerClass) {
+            this.eventType = eventType;
+            this.listenerClass = listenerClass;
+        }
+
+        EventListenerStatistics toStatistics() {
+            LatencyHistogram histogram = this.latencyHistogram;
+            return new EventListenerStatistics(eventType.getName(), listenerClass.getName(),
+                    invocationCount.sum(), errorCount.sum(), slowCount.sum(),
+                    histogram.getMean(), histogram.getMax(),
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                    histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9));
+        }
+    }
+}
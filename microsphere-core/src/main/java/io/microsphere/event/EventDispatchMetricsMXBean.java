@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.event;
+
+import java.util.List;
+
+/**
+ * The management interface of {@link EventDispatchMetrics}
+ *
+ * @see EventDispatchMetrics
+ * @since 1.0.0
+ */
+public interface EventDispatchMetricsMXBean {
+
+    /**
+     * @return the total count of the {@link EventListener listeners} invocations
+     */
+    long getInvocationCount();
+
+    /**
+     * @return the total count of the {@link EventListener listeners} invocations that failed
+     */
+    long getErrorCount();
+
+    /**
+     * @return the total count of the {@link EventListener listeners} invocations that exceed the slow-listener
+     * threshold
+     */
+    long getSlowCount();
+
+    /**
+     * @return the slow-listener threshold in milliseconds
+     */
+    long getSlowListenerThresholdMillis();
+
+    /**
+     * @param thresholdMillis the slow-listener threshold in milliseconds
+     */
+    void setSlowListenerThresholdMillis(long thresholdMillis);
+
+    /**
+     * @return the statistics per {@link Event} type and {@link EventListener} class
+     */
+    List<EventListenerStatistics> getListenerStatistics();
+
+    /**
+     * Reset all statistics
+     */
+    void reset();
+}
@@ -18,6 +18,8 @@ package io.microsphere.event;
 
 import java.util.concurrent.Executor;
 
+import static io.microsphere.concurrent.ExecutorUtils.newVirtualThreadPerTaskExecutor;
+
 /**
  * {@link Event Event} Dispatcher
  *
@@ -52,6 +54,18 @@ public interface EventDispatcher extends Listenable<EventListener<?>> {
         return new ParallelEventDispatcher(executor);
     }
 
+    /**
+     * The parallel implementation of {@link EventDispatcher} starts a new virtual thread for each {@link Event event}
+     * if the current runtime supports(JDK 21+), or fallback to the daemon platform threads, it's suitable for the
+     * {@link EventListener event listeners} doing blocking I/O.
+     *
+     * @return the parallel implementation of {@link EventDispatcher}
+     * @see io.microsphere.concurrent.ExecutorUtils#newVirtualThreadPerTaskExecutor(String)
+     */
+    static EventDispatcher parallelOnVirtualThreads() {
+        return parallel(newVirtualThreadPerTaskExecutor("EventDispatcher"));
+    }
+
     /**
      * Dispatch a event to the registered {@link EventListener event listeners}
      *
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.event;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The read-only snapshot of the statistics that an {@link EventListener} class handles an {@link Event} type,
+ * the latencies are in nanoseconds.
+ *
+ * @see EventDispatchMetrics
+ * @since 1.0.0
+ */
+public class EventListenerStatistics {
+
+    private final String eventType;
+
+    private final String listenerClass;
+
+    private final long invocationCount;
+
+    private final long errorCount;
+
+    private final long slowCount;
+
+    private final double meanLatency;
+
+    private final long maxLatency;
+
+    private final long p50Latency;
+
+    private final long p90Latency;
+
+    private final long p99Latency;
+
+    private final long p999Latency;
+
+    @ConstructorProperties({"eventType", "listenerClass", "invocationCount", "errorCount", "slowCount",
+            "meanLatency", "maxLatency", "p50Latency", "p90Latency", "p99Latency", "p999Latency"})
+    public EventListenerStatistics(String eventType, String listenerClass, long invocationCount, long errorCount,
+                                   long slowCount, double meanLatency, long maxLatency, long p50Latency,
+                                   long p90Latency, long p99Latency, long p999Latency) {
+        this.eventType = eventType;
+        this.listenerClass = listenerClass;
+        this.invocationCount = invocationCount;
+        this.errorCount = errorCount;
+        this.slowCount = slowCount;
+        this.meanLatency = meanLatency;
+        this.maxLatency = maxLatency;
+        this.p50Latency = p50Latency;
+        this.p90Latency = p90Latency;
+        this.p99Latency = p99Latency;
+        this.p999Latency = p999Latency;
+    }
+
+    /**
+     * @return the class name of {@link Event}
+     */
+    public String getEventType() {
+        return eventType;
+    }
+
+    /**
+     * @return the class name of {@link EventListener}
+     */
+    public String getListenerClass() {
+        return listenerClass;
+    }
+
+    public long getInvocationCount() {
+        return invocationCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * @return the count of invocations that exceed the slow-listener threshold
+     */
+    public long getSlowCount() {
+        return slowCount;
+    }
+
+    public double getMeanLatency() {
+        return meanLatency;
+    }
+
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    public long getP50Latency() {
+        return p50Latency;
+    }
+
+    public long getP90Latency() {
+        return p90Latency;
+    }
+
+    public long getP99Latency() {
+        return p99Latency;
+    }
+
+    public long getP999Latency() {
+        return p999Latency;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("EventListenerStatistics{");
+        sb.append("eventType='").append(eventType).append('\'');
+        sb.append(", listenerClass='").append(listenerClass).append('\'');
+        sb.append(", invocationCount=").append(invocationCount);
+        sb.append(", errorCount=").append(errorCount);
+        sb.append(", slowCount=").append(slowCount);
+        sb.append(", meanLatency=").append(meanLatency);
+        sb.append(", maxLatency=").append(maxLatency);
+        sb.append(", p50Latency=").append(p50Latency);
+        sb.append(", p90Latency=").append(p90Latency);
+        sb.append(", p99Latency=").append(p99Latency);
+        sb.append(", p999Latency=").append(p999Latency);
+        sb.append('}');
+        return sb.toString();
+    }
+}
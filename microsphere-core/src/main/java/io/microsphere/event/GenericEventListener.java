@@ -16,17 +16,21 @@
  */
 package io.microsphere.event;
 
-import io.microsphere.lang.function.ThrowableConsumer;
-
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import static io.microsphere.lang.function.ThrowableFunction.execute;
-import static java.util.Collections.emptySet;
+import static java.lang.invoke.MethodType.methodType;
 import static java.util.stream.Stream.of;
 
 /**
@@ -41,6 +45,11 @@ import static java.util.stream.Stream.of;
  * <li>no {@link Exception exception} declaration</li>
  * <li>only one {@link Event} type argument</li>
  * </ul>
+ * <p>
+ * The {@link Event event} handle methods are resolved and bound once per listener class, each of them is invoked by
+ * a {@link LambdaMetafactory generated} {@link HandlerInvoker invoker}, or an adapted {@link MethodHandle} if the
+ * invoker can't be generated, rather than {@link Method#invoke(Object, Object...) the reflection}, thus the dispatch
+ * costs about the same as a direct interface call without any allocation.
  *
  * @see Event
  * @see EventListener
@@ -48,37 +57,121 @@ import static java.util.stream.Stream.of;
  */
 public abstract class GenericEventListener implements EventListener<Event> {
 
-    private final Method onEventMethod;
+    private static final Method onEventMethod = execute(GenericEventListener.class,
+            type -> type.getMethod("onEvent", Event.class));
 
-    private final Map<Class<?>, Set<Method>> handleEventMethods;
+    private static final MethodType invokerType = methodType(void.class, Object.class, Event.class);
 
-    protected GenericEventListener() {
-        this.onEventMethod = findOnEventMethod();
-        this.handleEventMethods = findHandleEventMethods();
-    }
+    /**
+     * The listener class as the key, the {@link HandlerInvoker invokers} of {@link Event event} handle methods that
+     * are grouped by the {@link Event event} class as the value
+     */
+    private static final ClassValue<Map<Class<?>, HandlerInvoker[]>> handlerInvokersCache = new ClassValue<Map<Class<?>, HandlerInvoker[]>>() {
+        @Override
+        protected Map<Class<?>, HandlerInvoker[]> computeValue(Class<?> listenerClass) {
+            return findHandlerInvokers(listenerClass);
+        }
+    };
+
+    private final Map<Class<?>, HandlerInvoker[]> handlerInvokers;
 
-    private Method findOnEventMethod() {
-        return execute(getClass(), listenerClass -> listenerClass.getMethod("onEvent", Event.class));
+    protected GenericEventListener() {
+        this.handlerInvokers = handlerInvokersCache.get(getClass());
     }
 
-    private Map<Class<?>, Set<Method>> findHandleEventMethods() {
-        // Event class for key, the eventMethods' Set as value
-        Map<Class<?>, Set<Method>> eventMethods = new HashMap<>();
-        of(getClass().getMethods()).filter(this::isHandleEventMethod).forEach(method -> {
+    private static Map<Class<?>, HandlerInvoker[]> findHandlerInvokers(Class<?> listenerClass) {
+        // Event class for key, the eventMethods' List as value
+        Map<Class<?>, List<Method>> eventMethods = new LinkedHashMap<>();
+        of(listenerClass.getMethods()).filter(GenericEventListener::isHandleEventMethod).forEach(method -> {
             Class<?> paramType = method.getParameterTypes()[0];
-            Set<Method> methods = eventMethods.computeIfAbsent(paramType, key -> new LinkedHashSet<>());
+            List<Method> methods = eventMethods.computeIfAbsent(paramType, key -> new ArrayList<>());
             methods.add(method);
         });
-        return eventMethods;
+
+        Map<Class<?>, HandlerInvoker[]> handlerInvokers = new HashMap<>(eventMethods.size());
+        eventMethods.forEach((eventClass, methods) -> {
+            HandlerInvoker[] invokers = new HandlerInvoker[methods.size()];
+            for (int i = 0; i < invokers.length; i++) {
+                invokers[i] = bindInvoker(methods.get(i));
+            }
+            handlerInvokers.put(eventClass, invokers);
+        });
+        return handlerInvokers;
     }
 
     public final void onEvent(Event event) {
-        Class<?> eventClass = event.getClass();
-        handleEventMethods.getOrDefault(eventClass, emptySet()).forEach(method -> {
-            ThrowableConsumer.execute(method, m -> {
-                m.invoke(this, event);
-            });
+        HandlerInvoker[] invokers = handlerInvokers.get(event.getClass());
+        if (invokers == null) {
+            return;
+        }
+        for (int i = 0; i < invokers.length; i++) {
+            invokers[i].invoke(this, event);
+        }
+    }
+
+    /**
+     * Bind the {@link HandlerInvoker} for the specified {@link Event event} handle method, the
+     * {@link LambdaMetafactory generated} invoker is preferred, the {@link MethodHandle} will be used if the method
+     * is not accessible from current package, e.g, the declaring class is not public, or the declaring class or the
+     * {@link Event event} type is not visible from the {@link ClassLoader} of this class, where the generated
+     * invoker is defined, e.g, the listener class is loaded by a child {@link ClassLoader}.
+     *
+     * @param method the {@link Event event} handle method
+     * @return non-null
+     */
+    static HandlerInvoker bindInvoker(Method method) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        if (Modifier.isStatic(method.getModifiers())
+                || !isVisible(method.getDeclaringClass())
+                || !isVisible(method.getParameterTypes()[0])) {
+            return bindMethodHandleInvoker(lookup, method);
+        }
+        try {
+            MethodHandle methodHandle = lookup.unreflect(method);
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "invoke", methodType(HandlerInvoker.class),
+                    invokerType, methodHandle, methodHandle.type());
+            return (HandlerInvoker) callSite.getTarget().invokeExact();
+        } catch (Throwable e) {
+            return bindMethodHandleInvoker(lookup, method);
+        }
+    }
+
+    /**
+     * Whether the specified class could be resolved by its name from the {@link ClassLoader} of this class
+     *
+     * @param type the class
+     * @return <code>true</code> if visible
+     */
+    static boolean isVisible(Class<?> type) {
+        ClassLoader classLoader = GenericEventListener.class.getClassLoader();
+        if (type.getClassLoader() == classLoader) {
+            return true;
+        }
+        try {
+            return Class.forName(type.getName(), false, classLoader) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    static HandlerInvoker bindMethodHandleInvoker(MethodHandles.Lookup lookup, Method method) {
+        MethodHandle methodHandle = execute(method, m -> {
+            m.setAccessible(true);
+            MethodHandle handle = lookup.unreflect(m);
+            if (Modifier.isStatic(m.getModifiers())) { // ignore the listener argument
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle.asType(invokerType);
         });
+        return (listener, event) -> {
+            try {
+                methodHandle.invokeExact(listener, event);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        };
     }
 
     /**
@@ -94,7 +187,7 @@ public abstract class GenericEventListener implements EventListener<Event> {
      * @param method
      * @return
      */
-    private boolean isHandleEventMethod(Method method) {
+    private static boolean isHandleEventMethod(Method method) {
 
         if (onEventMethod.equals(method)) { // not {@link #onEvent(Event)} method
             return false;
@@ -122,4 +215,13 @@ public abstract class GenericEventListener implements EventListener<Event> {
         // not Event type argument
         return Event.class.isAssignableFrom(paramTypes[0]);
     }
+
+    /**
+     * The invoker of {@link Event event} handle method
+     */
+    @FunctionalInterface
+    interface HandlerInvoker {
+
+        void invoke(Object listener, Event event);
+    }
 }
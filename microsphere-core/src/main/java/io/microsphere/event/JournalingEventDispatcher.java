@@ -0,0 +1,835 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.event;
+
+import io.microsphere.io.Deserializer;
+import io.microsphere.io.Deserializers;
+import io.microsphere.io.Serializer;
+import io.microsphere.io.Serializers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import static io.microsphere.concurrent.CustomizedThreadFactory.newThreadFactory;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * The {@link EventDispatcher} decorator appends the {@link Event events} to a local segmented and memory-mapped
+ * journal before delivering them to the delegate {@link EventDispatcher}, thus the restarted process could
+ * {@link #replay(long, EventDispatcher) replay} them from a checkpoint offset.
+ * <p>
+ * The {@link Event events} are encoded by the {@link Serializers} and decoded by the {@link Deserializers}, each of
+ * them is assigned a monotonic offset. The journal consists of the fixed-size segment files named by their first
+ * offset, a new segment is rolled over if the current one is full, and the oldest segments are deleted beyond the
+ * max count of segments. The segments being {@link #replay(long, EventDispatcher) replayed} are pinned, their deletion
+ * is deferred until the replay ends.
+ * <p>
+ * The mapping of segment is released explicitly once the segment is rolled over, replayed or the journal is
+ * {@link #close() closed}, because some platforms(e.g. Windows) can't delete the mapped files. If the current runtime
+ * doesn't support the explicit unmapping, the mapping is released by the garbage collector.
+ * <p>
+ * If the group-commit interval is not negative, {@link #dispatch(Event)} will not return until the {@link Event event}
+ * is forced to the storage device, the flusher thread lingers for the interval to batch the concurrent appends into
+ * one fsync. Otherwise, the segments are forced only on rollover, {@link #flush()} and {@link #close()}.
+ *
+ * @see Serializers
+ * @see Deserializers
+ * @see EventDispatcher
+ * @since 1.0.0
+ */
+public class JournalingEventDispatcher implements EventDispatcher, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalingEventDispatcher.class);
+
+    /**
+     * The default size of segment : 64 MB
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The default max count of segments
+     */
+    public static final int DEFAULT_MAX_SEGMENTS = 16;
+
+    /**
+     * The default group-commit interval in milliseconds
+     */
+    public static final long DEFAULT_GROUP_COMMIT_INTERVAL = 2;
+
+    /**
+     * The suffix of segment file
+     */
+    public static final String SEGMENT_FILE_SUFFIX = ".journal";
+
+    /**
+     * The record header : the length of payload(int) + the CRC32 of payload(int)
+     */
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    /**
+     * The record payload : the length of event type name(short) + the event type name + the length of event data(int)
+     * + the event data + the length of source type name(short) + the source type name + the source data
+     */
+    private static final int RECORD_PAYLOAD_FIXED_SIZE = 2 + 4 + 2;
+
+    /**
+     * The instance of <code>sun.misc.Unsafe</code>, or <code>null</code> if it's not accessible
+     */
+    private static final Object UNSAFE = findUnsafe();
+
+    /**
+     * The method <code>sun.misc.Unsafe#invokeCleaner(ByteBuffer)</code> since JDK 9, or <code>null</code> if absent
+     */
+    private static final Method INVOKE_CLEANER_METHOD = findInvokeCleanerMethod();
+
+    private final EventDispatcher delegate;
+
+    private final File directory;
+
+    private final int segmentSize;
+
+    private final int maxSegments;
+
+    private final long groupCommitNanos;
+
+    private final Serializers serializers;
+
+    private final Deserializers deserializers;
+
+    private final ClassLoader classLoader;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition pendingCondition = lock.newCondition();
+
+    private final Condition flushedCondition = lock.newCondition();
+
+    /**
+     * The lock guards the forcing and the unmapping of {@link Segment segments}, it's acquired after {@link #lock}
+     * if both are required
+     */
+    private final ReentrantLock forceLock = new ReentrantLock();
+
+    private final CRC32 crc32 = new CRC32();
+
+    /**
+     * The first offset as the key, the segment file as the value
+     */
+    private final TreeMap<Long, File> segmentFiles = new TreeMap<>();
+
+    /**
+     * The first offset as the key, the count of the replays pinning the segment as the value
+     */
+    private final Map<Long, Integer> pinnedSegments = new HashMap<>();
+
+    /**
+     * The first offset as the key, the expired segment file that is pinned as the value
+     */
+    private final Map<Long, File> expiredSegmentFiles = new HashMap<>();
+
+    private final Thread flusher;
+
+    private Segment activeSegment;
+
+    private volatile long nextOffset;
+
+    private volatile long flushedOffset;
+
+    private volatile boolean closed;
+
+    /**
+     * Constructor with the default options
+     *
+     * @param delegate  the delegate {@link EventDispatcher}
+     * @param directory the directory of journal
+     * @throws IOException if the journal can't be opened
+     */
+    public JournalingEventDispatcher(EventDispatcher delegate, File directory) throws IOException {
+        this(delegate, directory, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_SEGMENTS, DEFAULT_GROUP_COMMIT_INTERVAL, MILLISECONDS);
+    }
+
+    public JournalingEventDispatcher(EventDispatcher delegate, File directory, int segmentSize, int maxSegments,
+                                     long groupCommitInterval, TimeUnit unit) throws IOException {
+        this(delegate, directory, segmentSize, maxSegments, groupCommitInterval, unit,
+                newSerializers(), newDeserializers());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param delegate            the delegate {@link EventDispatcher}
+     * @param directory           the directory of journal
+     * @param segmentSize         the size of segment in bytes
+     * @param maxSegments         the max count of segments to retain, the non-positive value means unlimited
+     * @param groupCommitInterval the group-commit interval, the negative value disables the fsync on dispatch
+     * @param unit                the {@link TimeUnit} of group-commit interval
+     * @param serializers         {@link Serializers} to encode the {@link Event events}
+     * @param deserializers       {@link Deserializers} to decode the {@link Event events}
+     * @throws NullPointerException     if any argument is <code>null</code>
+     * @throws IllegalArgumentException if <code>segmentSize</code> is too small
+     * @throws IOException              if the journal can't be opened
+     */
+    public JournalingEventDispatcher(EventDispatcher delegate, File directory, int segmentSize, int maxSegments,
+                                     long groupCommitInterval, TimeUnit unit, Serializers serializers,
+                                     Deserializers deserializers) throws NullPointerException, IllegalArgumentException, IOException {
+        if (delegate == null || directory == null || unit == null || serializers == null || deserializers == null) {
+            throw new NullPointerException("The arguments must not be null");
+        }
+        if (segmentSize <= RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("The 'segmentSize' argument is too small : " + segmentSize);
+        }
+        this.delegate = delegate;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.groupCommitNanos = groupCommitInterval < 0 ? -1 : unit.toNanos(groupCommitInterval);
+        this.serializers = serializers;
+        this.deserializers = deserializers;
+        this.classLoader = Thread.currentThread().getContextClassLoader();
+        open();
+        if (groupCommitNanos < 0) {
+            this.flusher = null;
+        } else {
+            this.flusher = newThreadFactory("JournalingEventDispatcher-Flusher", true).newThread(this::flushLoop);
+            this.flusher.start();
+        }
+    }
+
+    private static Serializers newSerializers() {
+        Serializers serializers = new Serializers();
+        serializers.loadSPI();
+        return serializers;
+    }
+
+    private static Deserializers newDeserializers() {
+        Deserializers deserializers = new Deserializers();
+        deserializers.loadSPI();
+        return deserializers;
+    }
+
+    private void open() throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("The journal directory can't be created : " + directory);
+        }
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                try {
+                    long baseOffset = Long.parseLong(name.substring(0, name.length() - SEGMENT_FILE_SUFFIX.length()));
+                    segmentFiles.put(baseOffset, file);
+                } catch (NumberFormatException e) {
+                    if (logger.isWarnEnabled()) {
+                        logger.warn("The file[{}] is not a journal segment, ignored", file);
+                    }
+                }
+            }
+        }
+        if (segmentFiles.isEmpty()) {
+            activeSegment = createSegment(0L);
+        } else {
+            Map.Entry<Long, File> lastEntry = segmentFiles.lastEntry();
+            activeSegment = recoverSegment(lastEntry.getKey(), lastEntry.getValue());
+        }
+        this.nextOffset = activeSegment.nextOffset;
+        this.flushedOffset = nextOffset;
+    }
+
+    private Segment createSegment(long baseOffset) throws IOException {
+        File file = new File(directory, format("%020d%s", baseOffset, SEGMENT_FILE_SUFFIX));
+        Segment segment = new Segment(baseOffset, map(file, segmentSize));
+        segmentFiles.put(baseOffset, file);
+        return segment;
+    }
+
+    /**
+     * Recover the segment, the torn record and the rest of bytes will be cleared
+     */
+    private Segment recoverSegment(long baseOffset, File file) throws IOException {
+        Segment segment = new Segment(baseOffset, map(file, segmentSize));
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        long offset = baseOffset;
+        int length;
+        while ((length = readRecordLength(buffer, position)) > 0) {
+            if (!verifyRecord(buffer, position, length)) {
+                if (logger.isWarnEnabled()) {
+                    logger.warn("The torn record[offset : {}] in the segment[{}] is discarded", offset, file);
+                }
+                break;
+            }
+            position += RECORD_HEADER_SIZE + length;
+            offset++;
+        }
+        for (int i = position; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        segment.writePosition = position;
+        segment.nextOffset = offset;
+        return segment;
+    }
+
+    private static MappedByteBuffer map(File file, int size) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            if (randomAccessFile.length() < size) {
+                randomAccessFile.setLength(size);
+            }
+            return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    @Override
+    public void dispatch(Event event) {
+        try {
+            long offset = append(event);
+            awaitFlushed(offset + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("The event can't be journaled : " + event, e);
+        }
+        delegate.dispatch(event);
+    }
+
+    /**
+     * Append the {@link Event event} into the journal without delivering it
+     *
+     * @param event the {@link Event event}
+     * @return the offset of {@link Event event}
+     * @throws IOException if the {@link Event event} can't be encoded or appended
+     */
+    public long append(Event event) throws IOException {
+        Class<?> eventType = event.getClass();
+        Serializer serializer = serializers.getMostCompatible(eventType);
+        if (serializer == null) {
+            throw new IOException("No Serializer was found for the event type : " + eventType.getName());
+        }
+        // the source of EventObject is transient, it's journaled separately
+        Object source = event.getSource();
+        Class<?> sourceType = source.getClass();
+        Serializer sourceSerializer = serializers.getMostCompatible(sourceType);
+        if (sourceSerializer == null) {
+            throw new IOException("No Serializer was found for the source type : " + sourceType.getName());
+        }
+        byte[] typeBytes = eventType.getName().getBytes(UTF_8);
+        byte[] data = serializer.serialize(event);
+        byte[] sourceTypeBytes = sourceType.getName().getBytes(UTF_8);
+        byte[] sourceData = sourceSerializer.serialize(source);
+        int length = RECORD_PAYLOAD_FIXED_SIZE + typeBytes.length + data.length + sourceTypeBytes.length + sourceData.length;
+        if (length > segmentSize - RECORD_HEADER_SIZE) {
+            throw new IOException(format("The size of the encoded event[%d] exceeds the segment size[%d]",
+                    length, segmentSize));
+        }
+
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            ensureOpen();
+            Segment segment = this.activeSegment;
+            if (segment.writePosition + RECORD_HEADER_SIZE + length > segmentSize) {
+                segment = rollover();
+            }
+            MappedByteBuffer buffer = segment.buffer;
+            int position = segment.writePosition;
+            buffer.position(position + RECORD_HEADER_SIZE);
+            buffer.putShort((short) typeBytes.length);
+            buffer.put(typeBytes);
+            buffer.putInt(data.length);
+            buffer.put(data);
+            buffer.putShort((short) sourceTypeBytes.length);
+            buffer.put(sourceTypeBytes);
+            buffer.put(sourceData);
+            buffer.putInt(position + 4, crc(crc32, buffer, position + RECORD_HEADER_SIZE, length));
+            // the length is written at last, so the partial record is invisible to the readers
+            buffer.putInt(position, length);
+            segment.writePosition = position + RECORD_HEADER_SIZE + length;
+            long offset = segment.nextOffset++;
+            this.nextOffset = segment.nextOffset;
+            if (groupCommitNanos >= 0) {
+                pendingCondition.signal();
+            }
+            return offset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Segment rollover() throws IOException {
+        Segment segment = this.activeSegment;
+        release(segment);
+        this.flushedOffset = segment.nextOffset;
+        Segment newSegment = createSegment(segment.nextOffset);
+        this.activeSegment = newSegment;
+        if (maxSegments > 0) {
+            while (segmentFiles.size() > maxSegments) {
+                Map.Entry<Long, File> entry = segmentFiles.pollFirstEntry();
+                if (pinnedSegments.containsKey(entry.getKey())) {
+                    // deleted after the replays end
+                    expiredSegmentFiles.put(entry.getKey(), entry.getValue());
+                } else {
+                    deleteSegmentFile(entry.getValue());
+                }
+            }
+        }
+        return newSegment;
+    }
+
+    private void deleteSegmentFile(File file) {
+        if (!file.delete() && logger.isWarnEnabled()) {
+            logger.warn("The expired segment[{}] can't be deleted", file);
+        }
+    }
+
+    /**
+     * Force and unmap the {@link Segment segment} which will not be written anymore
+     */
+    private void release(Segment segment) {
+        final ReentrantLock forceLock = this.forceLock;
+        forceLock.lock();
+        try {
+            if (!segment.released) {
+                segment.buffer.force();
+                segment.released = true;
+                unmap(segment.buffer);
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    private void awaitFlushed(long offset) {
+        if (groupCommitNanos < 0 || flushedOffset >= offset) {
+            return;
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            while (flushedOffset < offset && !closed) {
+                flushedCondition.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        final ReentrantLock lock = this.lock;
+        while (!closed) {
+            lock.lock();
+            try {
+                while (!closed && nextOffset == flushedOffset) {
+                    pendingCondition.awaitUninterruptibly();
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (closed) {
+                break;
+            }
+            if (groupCommitNanos > 0) {
+                // linger to batch the concurrent appends into one fsync
+                LockSupport.parkNanos(this, groupCommitNanos);
+            }
+            try {
+                flush();
+            } catch (Throwable e) {
+                if (logger.isErrorEnabled()) {
+                    logger.error("The journal can't be flushed", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Force the appended {@link Event events} to the storage device
+     */
+    public void flush() {
+        final ReentrantLock lock = this.lock;
+        Segment segment;
+        long offset;
+        lock.lock();
+        try {
+            segment = this.activeSegment;
+            offset = this.nextOffset;
+        } finally {
+            lock.unlock();
+        }
+        // the previous segments have been forced on rollover
+        final ReentrantLock forceLock = this.forceLock;
+        forceLock.lock();
+        try {
+            // the segment is forced before released
+            if (!segment.released) {
+                segment.buffer.force();
+            }
+        } finally {
+            forceLock.unlock();
+        }
+        lock.lock();
+        try {
+            if (offset > flushedOffset) {
+                this.flushedOffset = offset;
+            }
+            flushedCondition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replay the journaled {@link Event events} from the specified offset to the target {@link EventDispatcher}
+     *
+     * @param fromOffset the offset to start, if it's earlier than {@link #getFirstOffset() the first offset}, the
+     *                   replay starts from the first one
+     * @param target     the target {@link EventDispatcher}
+     * @return the next offset after the last replayed {@link Event event}, which could be stored as the checkpoint
+     * @throws IOException if the {@link Event events} can't be read or decoded
+     */
+    public long replay(long fromOffset, EventDispatcher target) throws IOException {
+        List<Map.Entry<Long, File>> segments;
+        long endOffset;
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            segments = new ArrayList<>(segmentFiles.entrySet());
+            endOffset = this.nextOffset;
+            // the pinned segments are not deleted by the retention during replaying
+            for (Map.Entry<Long, File> segment : segments) {
+                pinnedSegments.merge(segment.getKey(), 1, Integer::sum);
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return replay(fromOffset, target, segments, endOffset);
+        } finally {
+            unpin(segments);
+        }
+    }
+
+    private long replay(long fromOffset, EventDispatcher target, List<Map.Entry<Long, File>> segments,
+                        long endOffset) throws IOException {
+        Map<String, Class<?>> typesCache = new HashMap<>();
+        long offset = Math.max(fromOffset, segments.isEmpty() ? endOffset : segments.get(0).getKey());
+        for (int i = 0; i < segments.size() && offset < endOffset; i++) {
+            long baseOffset = segments.get(i).getKey();
+            long nextBaseOffset = i + 1 < segments.size() ? segments.get(i + 1).getKey() : endOffset;
+            if (offset >= nextBaseOffset) {
+                continue;
+            }
+            MappedByteBuffer buffer = mapReadOnly(segments.get(i).getValue());
+            try {
+                int position = 0;
+                long recordOffset = baseOffset;
+                int length;
+                while (recordOffset < nextBaseOffset && (length = readRecordLength(buffer, position)) > 0) {
+                    if (recordOffset >= offset) {
+                        if (!verifyRecord(buffer, position, length)) {
+                            throw new IOException(format("The record[offset : %d] is corrupted", recordOffset));
+                        }
+                        // the decoded event doesn't reference the mapped buffer
+                        target.dispatch(decode(buffer, position + RECORD_HEADER_SIZE, length, typesCache));
+                        offset = recordOffset + 1;
+                    }
+                    position += RECORD_HEADER_SIZE + length;
+                    recordOffset++;
+                }
+            } finally {
+                unmap(buffer);
+            }
+        }
+        return offset;
+    }
+
+    private void unpin(List<Map.Entry<Long, File>> segments) {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            for (Map.Entry<Long, File> segment : segments) {
+                Long baseOffset = segment.getKey();
+                if (pinnedSegments.merge(baseOffset, -1, Integer::sum) == 0) {
+                    pinnedSegments.remove(baseOffset);
+                    File file = expiredSegmentFiles.remove(baseOffset);
+                    if (file != null) {
+                        deleteSegmentFile(file);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static MappedByteBuffer mapReadOnly(File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            FileChannel channel = randomAccessFile.getChannel();
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private Event decode(ByteBuffer buffer, int position, int length, Map<String, Class<?>> typesCache) throws IOException {
+        ByteBuffer record = buffer.duplicate();
+        record.position(position).limit(position + length);
+        String typeName = readTypeName(record);
+        byte[] data = new byte[record.getInt()];
+        record.get(data);
+        String sourceTypeName = readTypeName(record);
+        byte[] sourceData = new byte[record.remaining()];
+        record.get(sourceData);
+
+        Object event = deserialize(typeName, data, typesCache);
+        if (!(event instanceof Event)) {
+            throw new IOException("The decoded object is not an event : " + event);
+        }
+        Event decodedEvent = (Event) event;
+        if (decodedEvent.getSource() == null) {
+            decodedEvent.restoreSource(deserialize(sourceTypeName, sourceData, typesCache));
+        }
+        return decodedEvent;
+    }
+
+    private static String readTypeName(ByteBuffer record) {
+        byte[] typeBytes = new byte[record.getShort()];
+        record.get(typeBytes);
+        return new String(typeBytes, UTF_8);
+    }
+
+    private Object deserialize(String typeName, byte[] data, Map<String, Class<?>> typesCache) throws IOException {
+        Class<?> type = typesCache.get(typeName);
+        if (type == null) {
+            try {
+                type = Class.forName(typeName, false, classLoader);
+            } catch (ClassNotFoundException e) {
+                throw new IOException("The type can't be loaded : " + typeName, e);
+            }
+            typesCache.put(typeName, type);
+        }
+        Deserializer<?> deserializer = deserializers.getMostCompatible(type);
+        if (deserializer == null) {
+            throw new IOException("No Deserializer was found for the type : " + typeName);
+        }
+        return deserializer.deserialize(data);
+    }
+
+    private static int readRecordLength(ByteBuffer buffer, int position) {
+        if (position + RECORD_HEADER_SIZE > buffer.limit()) {
+            return 0;
+        }
+        int length = buffer.getInt(position);
+        return position + RECORD_HEADER_SIZE + length > buffer.limit() ? 0 : length;
+    }
+
+    private static boolean verifyRecord(ByteBuffer buffer, int position, int length) {
+        return buffer.getInt(position + 4) == crc(new CRC32(), buffer, position + RECORD_HEADER_SIZE, length);
+    }
+
+    private static int crc(CRC32 crc32, ByteBuffer buffer, int position, int length) {
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(position + length).position(position);
+        crc32.reset();
+        crc32.update(payload);
+        return (int) crc32.getValue();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The journal has been closed : " + directory);
+        }
+    }
+
+    /**
+     * @return the offset of the first retained {@link Event event}
+     */
+    public long getFirstOffset() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return segmentFiles.isEmpty() ? nextOffset : segmentFiles.firstKey();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the offset of the next appended {@link Event event}
+     */
+    public long getNextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * @return the offset before which all {@link Event events} have been forced to the storage device
+     */
+    public long getFlushedOffset() {
+        return flushedOffset;
+    }
+
+    /**
+     * @return the count of segments
+     */
+    public int getSegmentCount() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return segmentFiles.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the directory of journal
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * {@link #flush() Flush} the journal and stop the flusher thread
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            closed = true;
+            pendingCondition.signalAll();
+            flushedCondition.signalAll();
+            release(activeSegment);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void addEventListener(EventListener<?> listener) throws NullPointerException, IllegalArgumentException {
+        delegate.addEventListener(listener);
+    }
+
+    @Override
+    public void removeEventListener(EventListener<?> listener) throws NullPointerException, IllegalArgumentException {
+        delegate.removeEventListener(listener);
+    }
+
+    @Override
+    public List<EventListener<?>> getAllEventListeners() {
+        return delegate.getAllEventListeners();
+    }
+
+    @Override
+    public Executor getExecutor() {
+        return delegate.getExecutor();
+    }
+
+    /**
+     * @return the delegate {@link EventDispatcher}
+     */
+    public EventDispatcher getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Unmap the {@link MappedByteBuffer} explicitly, it must not be accessed anymore
+     *
+     * @param buffer {@link MappedByteBuffer}
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            if (INVOKE_CLEANER_METHOD != null) {
+                INVOKE_CLEANER_METHOD.invoke(UNSAFE, buffer);
+            } else { // JDK 8
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            }
+        } catch (Throwable e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("The mapped buffer can't be unmapped explicitly, it will be released by GC", e);
+            }
+        }
+    }
+
+    private static Object findUnsafe() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return field.get(null);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private static Method findInvokeCleanerMethod() {
+        if (UNSAFE == null) {
+            return null;
+        }
+        try {
+            return UNSAFE.getClass().getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private static class Segment {
+
+        private final MappedByteBuffer buffer;
+
+        /**
+         * Whether the buffer has been unmapped or not, guarded by the force lock
+         */
+        private boolean released;
+
+        private int writePosition;
+
+        private long nextOffset;
+
+        private Segment(long baseOffset, MappedByteBuffer buffer) {
+            this.buffer = buffer;
+            this.nextOffset = baseOffset;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The concurrent latency histogram in the HDR style, the values are counted in the logarithmic buckets that are split
+ * into the linear sub-buckets, whose relative error is less than 12.5%.
+ * <p>
+ * The {@link #record(long) recording} is lock-free and allocation-free.
+ *
+ * @see EventDispatchMetrics
+ * @since 1.0.0
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The bits of linear sub-buckets per logarithmic bucket
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The values less than it are counted exactly
+     */
+    private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT << 1;
+
+    private static final int LINEAR_LIMIT_BITS = SUB_BUCKET_BITS + 1;
+
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (Long.SIZE - 1 - LINEAR_LIMIT_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLong totalCount = new AtomicLong();
+
+    private final AtomicLong totalValue = new AtomicLong();
+
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Record a value
+     *
+     * @param value the non-negative value, the negative one will be recorded as zero
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalValue.addAndGet(value);
+        long max;
+        while (value > (max = maxValue.get())) {
+            if (maxValue.compareAndSet(max, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return the count of recorded values
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * @return the max recorded value
+     */
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /**
+     * @return the mean of recorded values, or <code>0</code> if no value
+     */
+    public double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalValue.get() / count;
+    }
+
+    /**
+     * Get the value at the specified percentile, the result is the highest value that is equivalent with the
+     * recorded one in the same bucket.
+     *
+     * @param percentile the percentile in the range of [0, 100]
+     * @return <code>0</code> if no value
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        double ratio = Math.min(Math.max(percentile, 0.0), 100.0) / 100.0;
+        long targetCount = Math.max(1, (long) Math.ceil(ratio * count));
+        long cumulativeCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulativeCount += counts.get(i);
+            if (cumulativeCount >= targetCount) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Reset all recorded values
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalValue.set(0);
+        maxValue.set(0);
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = highestBit - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return LINEAR_LIMIT + (highestBit - LINEAR_LIMIT_BITS) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long highestValueOf(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int offset = index - LINEAR_LIMIT;
+        int highestBit = offset / SUB_BUCKET_COUNT + LINEAR_LIMIT_BITS;
+        int subBucket = offset % SUB_BUCKET_COUNT;
+        int shift = highestBit - SUB_BUCKET_BITS;
+        long lowestValue = ((long) (SUB_BUCKET_COUNT + subBucket)) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+}
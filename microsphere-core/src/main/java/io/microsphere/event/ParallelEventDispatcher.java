@@ -16,24 +16,203 @@
  */
 package io.microsphere.event;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.unmodifiableMap;
 
 /**
  * Parallel {@link EventDispatcher} implementation.
  * <p>
  * The default constructor uses {@link ForkJoinPool#commonPool() JDK common thread pool}.
+ * <p>
+ * If {@link #isListenerOrdered() the listener-ordered mode} is enabled, each {@link EventListener} owns a serial
+ * mailbox that is drained on the shared {@link Executor}, thus the {@link EventListener listeners} handle the
+ * {@link Event events} in parallel, meanwhile every {@link EventListener} still receives them in the published order.
  *
  * @see ForkJoinPool#commonPool()
  * @since 1.0.0
  */
 public class ParallelEventDispatcher extends AbstractEventDispatcher {
 
+    private static final Logger logger = LoggerFactory.getLogger(ParallelEventDispatcher.class);
+
+    /**
+     * The max count of {@link Event events} handled by a mailbox before yielding the thread of {@link Executor}
+     */
+    private static final int MAILBOX_THROUGHPUT = 64;
+
+    private final boolean listenerOrdered;
+
+    private final ConcurrentMap<EventListener<?>, ListenerMailbox> mailboxes = new ConcurrentHashMap<>();
+
     public ParallelEventDispatcher() {
         this(ForkJoinPool.commonPool());
     }
 
     public ParallelEventDispatcher(Executor executor) {
+        this(executor, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param executor        {@link Executor}
+     * @param listenerOrdered whether each {@link EventListener} owns a serial mailbox or not
+     * @throws NullPointerException <code>executor</code> is <code>null</code>
+     */
+    public ParallelEventDispatcher(Executor executor, boolean listenerOrdered) {
         super(executor);
+        this.listenerOrdered = listenerOrdered;
+        // the listeners loaded by the super constructor
+        getAllEventListeners().forEach(this::openMailbox);
+    }
+
+    @Override
+    public void dispatch(Event event) {
+        if (!listenerOrdered) {
+            super.dispatch(event);
+            return;
+        }
+        EventListener[] listeners = getDispatchListeners(event.getClass());
+        for (int i = 0; i < listeners.length; i++) {
+            EventListener<?> listener = listeners[i];
+            ListenerMailbox mailbox = mailboxes.get(listener);
+            // the listener has been removed concurrently
+            if (mailbox != null) {
+                mailbox.post(event);
+            }
+        }
+    }
+
+    @Override
+    public void addEventListener(EventListener<?> listener) throws NullPointerException, IllegalArgumentException {
+        super.addEventListener(listener);
+        openMailbox(listener);
+    }
+
+    @Override
+    public void removeEventListener(EventListener<?> listener) throws NullPointerException, IllegalArgumentException {
+        super.removeEventListener(listener);
+        ListenerMailbox mailbox = mailboxes.remove(listener);
+        if (mailbox != null) {
+            // The pending events of removed mailbox are still handled, but no more event is accepted
+            mailbox.closed = true;
+        }
+    }
+
+    private void openMailbox(EventListener<?> listener) {
+        // the mailboxes are not initialized yet when the super constructor loads the listeners
+        if (listenerOrdered && mailboxes != null) {
+            mailboxes.computeIfAbsent(listener, ListenerMailbox::new);
+        }
+    }
+
+    /**
+     * Whether each {@link EventListener} owns a serial mailbox or not
+     *
+     * @return <code>true</code> if the listener-ordered mode is enabled
+     */
+    public boolean isListenerOrdered() {
+        return listenerOrdered;
+    }
+
+    /**
+     * Get the count of pending {@link Event events} of the specified {@link EventListener} in the listener-ordered
+     * mode
+     *
+     * @param listener {@link EventListener}
+     * @return <code>0</code> if no pending event or the listener-ordered mode is disabled
+     */
+    public int getQueueDepth(EventListener<?> listener) {
+        ListenerMailbox mailbox = mailboxes.get(listener);
+        return mailbox == null ? 0 : mailbox.size.get();
+    }
+
+    /**
+     * Get the counts of pending {@link Event events} of all {@link EventListener listeners} in the listener-ordered
+     * mode, the slow consumers could be spotted by them.
+     *
+     * @return non-null read-only {@link Map} that the {@link EventListener} as the key and the count of pending
+     * {@link Event events} as the value
+     */
+    public Map<EventListener<?>, Integer> getQueueDepths() {
+        Map<EventListener<?>, Integer> queueDepths = new LinkedHashMap<>(mailboxes.size());
+        mailboxes.forEach((listener, mailbox) -> queueDepths.put(listener, mailbox.size.get()));
+        return unmodifiableMap(queueDepths);
+    }
+
+    /**
+     * The serial mailbox of {@link EventListener}, it's scheduled on the {@link Executor} at most once at the
+     * same time.
+     */
+    private class ListenerMailbox implements Runnable {
+
+        private final EventListener<?> listener;
+
+        private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private ListenerMailbox(EventListener<?> listener) {
+            this.listener = listener;
+        }
+
+        void post(Event event) {
+            if (closed) {
+                return;
+            }
+            queue.offer(event);
+            size.incrementAndGet();
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    getExecutor().execute(this);
+                } catch (RuntimeException e) {
+                    // the pending events are kept, and will be scheduled by the next post
+                    scheduled.set(false);
+                    logger.error("The mailbox of listener[{}] failed to be scheduled, {} pending events", listener,
+                            size.get(), e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Event event;
+                for (int i = 0; i < MAILBOX_THROUGHPUT && (event = queue.poll()) != null; i++) {
+                    size.decrementAndGet();
+                    try {
+                        invokeListener(listener, event);
+                    } catch (Throwable e) {
+                        logger.error("The listener[{}] failed to handle the event : {}", listener, event, e);
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                if (!queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,401 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.event;
+
+import io.microsphere.lang.Prioritized;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static io.microsphere.concurrent.CustomizedThreadFactory.newThreadFactory;
+import static io.microsphere.lang.Prioritized.NORMAL_PRIORITY;
+
+/**
+ * The asynchronous {@link EventDispatcher} implementation is based on a bounded priority queue, the {@link Event events}
+ * with the higher priority overtake the lower ones under load, and the {@link Event events} with the same priority are
+ * taken in the published order.
+ * <p>
+ * The priority of {@link Event event} is resolved from {@link Prioritized#getPriority()} if it implements
+ * {@link Prioritized}, or {@link Prioritized#NORMAL_PRIORITY}. The {@link EventListener listeners} are still invoked
+ * in their priority order for each {@link Event event}.
+ * <p>
+ * If the queue is full, the behavior is decided by {@link RejectionPolicy}. The {@link #dispatchAsync(Event)} returns
+ * a {@link CompletableFuture} that completes when all {@link EventListener listeners} have handled the {@link Event
+ * event}.
+ *
+ * @see Prioritized
+ * @see RejectionPolicy
+ * @see EventDispatcher
+ * @since 1.0.0
+ */
+public class PriorityEventDispatcher extends AbstractEventDispatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriorityEventDispatcher.class);
+
+    /**
+     * The default capacity of queue
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final int capacity;
+
+    private final RejectionPolicy rejectionPolicy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * The pending tasks ordered by priority and sequence, the first one is the highest priority
+     */
+    private final TreeSet<DispatchTask> queue = new TreeSet<>();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private final Thread[] workerThreads;
+
+    private long sequence;
+
+    private volatile boolean running = true;
+
+    public PriorityEventDispatcher() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PriorityEventDispatcher(int capacity) {
+        this(capacity, 1, RejectionPolicy.BLOCK);
+    }
+
+    public PriorityEventDispatcher(int capacity, int workers, RejectionPolicy rejectionPolicy) {
+        this(capacity, workers, rejectionPolicy, newThreadFactory("PriorityEventDispatcher", true));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param capacity        the capacity of queue
+     * @param workers         the number of worker threads
+     * @param rejectionPolicy the {@link RejectionPolicy} when the queue is full
+     * @param threadFactory   the {@link ThreadFactory} to create the worker threads
+     * @throws IllegalArgumentException if any argument is invalid
+     * @throws NullPointerException     if any argument is <code>null</code>
+     */
+    public PriorityEventDispatcher(int capacity, int workers, RejectionPolicy rejectionPolicy,
+                                   ThreadFactory threadFactory) throws IllegalArgumentException, NullPointerException {
+        super(DIRECT_EXECUTOR);
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The 'capacity' argument must be positive : " + capacity);
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("The 'workers' argument must be positive : " + workers);
+        }
+        if (rejectionPolicy == null || threadFactory == null) {
+            throw new NullPointerException("The 'rejectionPolicy' and 'threadFactory' arguments must not be null");
+        }
+        this.capacity = capacity;
+        this.rejectionPolicy = rejectionPolicy;
+        this.workerThreads = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            Thread thread = threadFactory.newThread(this::work);
+            workerThreads[i] = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Publish the {@link Event event} into the queue, the behavior is decided by {@link RejectionPolicy} if the
+     * queue is full.
+     *
+     * @param event a {@link Event event}
+     * @throws IllegalStateException if the dispatcher is closed, or the queue is full in
+     *                               {@link RejectionPolicy#ABORT} mode
+     */
+    @Override
+    public void dispatch(Event event) throws IllegalStateException {
+        enqueue(new DispatchTask(event, null));
+    }
+
+    /**
+     * Publish the {@link Event event} into the queue, the behavior is decided by {@link RejectionPolicy} if the
+     * queue is full.
+     *
+     * @param event a {@link Event event}
+     * @return the {@link CompletableFuture} completes when all {@link EventListener listeners} have handled the
+     * {@link Event event}, it completes exceptionally with the first failure of {@link EventListener listeners}, or
+     * is cancelled if the {@link Event event} is discarded
+     * @throws IllegalStateException if the dispatcher is closed, or the queue is full in
+     *                               {@link RejectionPolicy#ABORT} mode
+     */
+    public CompletableFuture<Void> dispatchAsync(Event event) throws IllegalStateException {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        enqueue(new DispatchTask(event, future));
+        return future;
+    }
+
+    private void enqueue(DispatchTask task) throws IllegalStateException {
+        final ReentrantLock lock = this.lock;
+        DispatchTask discarded = null;
+        boolean callerRuns = false;
+        lock.lock();
+        try {
+            assertRunning();
+            task.sequence = sequence++;
+            while (queue.size() >= capacity) {
+                switch (rejectionPolicy) {
+                    case ABORT:
+                        rejectedCount.incrementAndGet();
+                        throw new IllegalStateException("The queue is full, the event can't be dispatched : " + task.event);
+                    case DISCARD:
+                        rejectedCount.incrementAndGet();
+                        discarded = task;
+                        return;
+                    case DISCARD_LOWEST_PRIORITY:
+                        rejectedCount.incrementAndGet();
+                        DispatchTask lowest = queue.last();
+                        if (lowest.compareTo(task) < 0) { // the new task is the lowest
+                            discarded = task;
+                            return;
+                        }
+                        discarded = queue.pollLast();
+                        break;
+                    case CALLER_RUNS:
+                        callerRuns = true;
+                        return;
+                    default: // BLOCK
+                        if (isWorkerThread()) { // re-dispatched by a listener, the worker can't wait for itself
+                            callerRuns = true;
+                            return;
+                        }
+                        notFull.awaitUninterruptibly();
+                        assertRunning();
+                }
+            }
+            queue.add(task);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+            // out of the lock
+            if (callerRuns) {
+                task.run();
+            }
+            if (discarded != null) {
+                discarded.cancel();
+            }
+        }
+    }
+
+    private boolean isWorkerThread() {
+        Thread currentThread = Thread.currentThread();
+        for (Thread workerThread : workerThreads) {
+            if (workerThread == currentThread) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void assertRunning() throws IllegalStateException {
+        if (!running) {
+            throw new IllegalStateException("PriorityEventDispatcher has been closed");
+        }
+    }
+
+    private DispatchTask take() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            DispatchTask task;
+            while ((task = queue.pollFirst()) == null) {
+                if (!running) {
+                    return null;
+                }
+                notEmpty.awaitUninterruptibly();
+            }
+            notFull.signal();
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void work() {
+        DispatchTask task;
+        while ((task = take()) != null) {
+            task.run();
+        }
+    }
+
+    /**
+     * @return the capacity of queue
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the count of {@link Event events} that are published, but not handled yet
+     */
+    public int getPendingCount() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the count of {@link Event events} that were rejected or discarded when the queue is full
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Stop accepting the {@link Event events}, and wait for the worker threads to handle the pending ones.
+     * <p>
+     * If the current thread is interrupted while waiting, the interrupt status is restored and the worker threads
+     * keep handling in the background.
+     */
+    @Override
+    public void close() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        Thread currentThread = Thread.currentThread();
+        for (Thread workerThread : workerThreads) {
+            if (workerThread == currentThread) { // closed by a listener
+                continue;
+            }
+            try {
+                workerThread.join();
+            } catch (InterruptedException e) {
+                currentThread.interrupt();
+                return;
+            }
+        }
+    }
+
+    static int getPriority(Event event) {
+        return event instanceof Prioritized ? ((Prioritized) event).getPriority() : NORMAL_PRIORITY;
+    }
+
+    /**
+     * The policy when the queue is full
+     */
+    public enum RejectionPolicy {
+
+        /**
+         * Block the publisher until the queue is not full, the {@link Event event} re-dispatched by a listener on
+         * the worker thread runs in the caller instead
+         */
+        BLOCK,
+
+        /**
+         * Fail fast with {@link IllegalStateException}
+         */
+        ABORT,
+
+        /**
+         * Discard the new {@link Event event} silently
+         *
+         * @see #getRejectedCount()
+         */
+        DISCARD,
+
+        /**
+         * Discard the pending {@link Event event} with the lowest priority if it's lower than the new one, or
+         * discard the new one
+         *
+         * @see #getRejectedCount()
+         */
+        DISCARD_LOWEST_PRIORITY,
+
+        /**
+         * Handle the {@link Event event} in the publisher thread
+         */
+        CALLER_RUNS
+    }
+
+    private class DispatchTask implements Comparable<DispatchTask>, Runnable {
+
+        private final Event event;
+
+        private final int priority;
+
+        private final CompletableFuture<Void> future;
+
+        private long sequence;
+
+        private DispatchTask(Event event, CompletableFuture<Void> future) {
+            this.event = event;
+            this.priority = getPriority(event);
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            Throwable failure = null;
+            EventListener[] listeners = getDispatchListeners(event.getClass());
+            for (int i = 0; i < listeners.length; i++) {
+                EventListener listener = listeners[i];
+                try {
+                    invokeListener(listener, event);
+                } catch (Throwable e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                    logger.error("The listener[{}] failed to handle the event : {}", listener, event, e);
+                }
+            }
+            if (future != null) {
+                if (failure == null) {
+                    future.complete(null);
+                } else {
+                    future.completeExceptionally(failure);
+                }
+            }
+        }
+
+        void cancel() {
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        @Override
+        public int compareTo(DispatchTask that) {
+            int result = Integer.compare(this.priority, that.priority);
+            return result == 0 ? Long.compare(this.sequence, that.sequence) : result;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.microsphere.concurrent.CustomizedThreadFactory.newThreadFactory;
+
+/**
+ * The {@link EventDispatcher} implementation is based on a bounded and pre-allocated ring buffer, the
+ * {@link #dispatch(Event) published} {@link Event events} are drained in batches by one or more consumer threads
+ * without any task allocation per event.
+ * <p>
+ * If only one consumer thread is used, the {@link Event events} are handled in the published order, or the order is
+ * not guaranteed across the consumer threads.
+ * <p>
+ * The consumer threads are started on construction and will be stopped by {@link #close()} after the pending
+ * {@link Event events} are drained.
+ *
+ * @see EventDispatcher
+ * @see WaitStrategy
+ * @see BackpressureMode
+ * @since 1.0.0
+ */
+public class RingBufferEventDispatcher extends AbstractEventDispatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RingBufferEventDispatcher.class);
+
+    /**
+     * The default size of ring buffer
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    /**
+     * The default max size of batch drained by a consumer thread
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private final int bufferSize;
+
+    private final int mask;
+
+    private final int batchSize;
+
+    private final Event[] entries;
+
+    /**
+     * The sequence per slot : equals the position if the slot is available for the producer,
+     * equals the position plus one if the slot is published for the consumer.
+     */
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong producerPosition = new AtomicLong();
+
+    private final AtomicLong consumerPosition = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final WaitStrategy waitStrategy;
+
+    private final BackpressureMode backpressureMode;
+
+    private final Thread[] consumerThreads;
+
+    private volatile boolean running = true;
+
+    public RingBufferEventDispatcher() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    public RingBufferEventDispatcher(int bufferSize) {
+        this(bufferSize, 1);
+    }
+
+    public RingBufferEventDispatcher(int bufferSize, int consumers) {
+        this(bufferSize, consumers, DEFAULT_BATCH_SIZE, WaitStrategy.PARK, BackpressureMode.BLOCK);
+    }
+
+    public RingBufferEventDispatcher(int bufferSize, int consumers, int batchSize, WaitStrategy waitStrategy,
+                                     BackpressureMode backpressureMode) {
+        this(bufferSize, consumers, batchSize, waitStrategy, backpressureMode,
+                newThreadFactory("RingBufferEventDispatcher", true));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param bufferSize       the size of ring buffer, must be a power of 2
+     * @param consumers        the number of consumer threads
+     * @param batchSize        the max size of batch drained by a consumer thread once
+     * @param waitStrategy     the {@link WaitStrategy} for waiting the events or free slots
+     * @param backpressureMode the {@link BackpressureMode} when the ring buffer is full
+     * @param threadFactory    the {@link ThreadFactory} to create the consumer threads
+     * @throws IllegalArgumentException if any argument is invalid
+     * @throws NullPointerException     if any argument is <code>null</code>
+     */
+    public RingBufferEventDispatcher(int bufferSize, int consumers, int batchSize, WaitStrategy waitStrategy,
+                                     BackpressureMode backpressureMode, ThreadFactory threadFactory)
+            throws IllegalArgumentException, NullPointerException {
+        super(DIRECT_EXECUTOR);
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("The 'bufferSize' argument must be a power of 2 : " + bufferSize);
+        }
+        if (consumers < 1) {
+            throw new IllegalArgumentException("The 'consumers' argument must be positive : " + consumers);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The 'batchSize' argument must be positive : " + batchSize);
+        }
+        if (waitStrategy == null || backpressureMode == null || threadFactory == null) {
+            throw new NullPointerException("The 'waitStrategy', 'backpressureMode' and 'threadFactory' arguments must not be null");
+        }
+        this.bufferSize = bufferSize;
+        this.mask = bufferSize - 1;
+        this.batchSize = batchSize;
+        this.entries = new Event[bufferSize];
+        this.sequences = new AtomicLongArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            sequences.set(i, i);
+        }
+        this.waitStrategy = waitStrategy;
+        this.backpressureMode = backpressureMode;
+        this.consumerThreads = new Thread[consumers];
+        for (int i = 0; i < consumers; i++) {
+            Thread thread = threadFactory.newThread(this::consume);
+            consumerThreads[i] = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Publish the {@link Event event} into the ring buffer, the behavior is decided by {@link BackpressureMode} if
+     * the ring buffer is full. In {@link BackpressureMode#BLOCK} mode, the {@link Event event} re-dispatched by a
+     * listener on the consumer thread is handled inline rather than waiting for a free slot, because that consumer
+     * thread is the one that would free it.
+     *
+     * @param event a {@link Event event}
+     * @throws IllegalStateException if the dispatcher is closed, or the ring buffer is full in
+     *                               {@link BackpressureMode#FAIL} mode
+     */
+    @Override
+    public void dispatch(Event event) throws IllegalStateException {
+        assertRunning();
+        while (!offer(event)) {
+            switch (backpressureMode) {
+                case DROP:
+                    droppedCount.incrementAndGet();
+                    return;
+                case FAIL:
+                    throw new IllegalStateException("The ring buffer is full, the event can't be dispatched : " + event);
+                default: // BLOCK
+                    assertRunning();
+                    if (isConsumerThread()) {
+                        doDispatch(event);
+                        return;
+                    }
+                    waitStrategy.idle();
+            }
+        }
+    }
+
+    private void assertRunning() throws IllegalStateException {
+        if (!running) {
+            throw new IllegalStateException("RingBufferEventDispatcher has been closed");
+        }
+    }
+
+    private boolean isConsumerThread() {
+        Thread currentThread = Thread.currentThread();
+        for (Thread consumerThread : consumerThreads) {
+            if (consumerThread == currentThread) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean offer(Event event) {
+        for (; ; ) {
+            long position = producerPosition.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    entries[index] = event;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) { // full
+                return false;
+            }
+            // the slot has been claimed by another producer, retry
+        }
+    }
+
+    /**
+     * Drain the published {@link Event events} into the specified batch
+     *
+     * @param batch the batch array owned by current consumer thread
+     * @return the count of drained {@link Event events}
+     */
+    private int drain(Event[] batch) {
+        for (; ; ) {
+            long position = consumerPosition.get();
+            int count = 0;
+            while (count < batch.length && sequences.get((int) (position + count) & mask) == position + count + 1) {
+                count++;
+            }
+            if (count == 0) {
+                long difference = sequences.get((int) position & mask) - (position + 1);
+                if (difference < 0) { // empty
+                    return 0;
+                }
+                // the slot has been drained by another consumer, retry
+                continue;
+            }
+            if (consumerPosition.compareAndSet(position, position + count)) {
+                for (int i = 0; i < count; i++) {
+                    long slotPosition = position + i;
+                    int index = (int) slotPosition & mask;
+                    batch[i] = entries[index];
+                    entries[index] = null;
+                    // release the slot for the next round of producers
+                    sequences.lazySet(index, slotPosition + bufferSize);
+                }
+                return count;
+            }
+        }
+    }
+
+    private void consume() {
+        Event[] batch = new Event[batchSize];
+        for (; ; ) {
+            int count = drain(batch);
+            if (count > 0) {
+                for (int i = 0; i < count; i++) {
+                    Event event = batch[i];
+                    batch[i] = null;
+                    try {
+                        doDispatch(event);
+                    } catch (Throwable e) {
+                        logger.error("Failed to dispatch the event : {}", event, e);
+                    }
+                }
+            } else if (running) {
+                waitStrategy.idle();
+            } else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return the size of ring buffer
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return the count of {@link Event events} that are published, but not drained yet
+     */
+    public long getPendingCount() {
+        return Math.max(0, producerPosition.get() - consumerPosition.get());
+    }
+
+    /**
+     * @return the count of {@link Event events} that were dropped in {@link BackpressureMode#DROP} mode
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Stop accepting the {@link Event events}, and wait for the consumer threads to drain the pending ones.
+     * <p>
+     * If the current thread is interrupted while waiting, the interrupt status is restored and the consumer threads
+     * keep draining in the background.
+     */
+    @Override
+    public void close() {
+        running = false;
+        Thread currentThread = Thread.currentThread();
+        for (Thread consumerThread : consumerThreads) {
+            LockSupport.unpark(consumerThread);
+        }
+        for (Thread consumerThread : consumerThreads) {
+            if (consumerThread == currentThread) { // closed by a listener
+                continue;
+            }
+            try {
+                consumerThread.join();
+            } catch (InterruptedException e) {
+                currentThread.interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * The strategy for the consumer threads waiting the {@link Event events}, and the producers waiting the free
+     * slots in {@link BackpressureMode#BLOCK} mode.
+     */
+    public enum WaitStrategy {
+
+        /**
+         * Busy spin, the lowest latency with the highest CPU usage
+         */
+        BUSY_SPIN {
+            @Override
+            void idle() {
+            }
+        },
+
+        /**
+         * Yield the current thread
+         */
+        YIELD {
+            @Override
+            void idle() {
+                Thread.yield();
+            }
+        },
+
+        /**
+         * Park the current thread in a short period, the lowest CPU usage with the highest latency
+         */
+        PARK {
+            @Override
+            void idle() {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        };
+
+        private static final long PARK_NANOS = 50_000L;
+
+        abstract void idle();
+    }
+
+    /**
+     * The mode of backpressure when the ring buffer is full
+     */
+    public enum BackpressureMode {
+
+        /**
+         * Block the publisher until any slot is free
+         */
+        BLOCK,
+
+        /**
+         * Drop the event silently
+         *
+         * @see #getDroppedCount()
+         */
+        DROP,
+
+        /**
+         * Fail fast with {@link IllegalStateException}
+         */
+        FAIL
+    }
+}
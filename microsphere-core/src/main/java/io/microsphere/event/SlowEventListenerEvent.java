@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.event;
+
+/**
+ * The diagnostic {@link Event event} raised when an {@link EventListener} takes longer than the slow-listener
+ * threshold to handle an {@link Event event}
+ *
+ * @see EventDispatchMetrics#setSlowListenerThreshold(long, java.util.concurrent.TimeUnit)
+ * @since 1.0.0
+ */
+public class SlowEventListenerEvent extends Event {
+
+    private static final long serialVersionUID = 2317430617315938429L;
+
+    private final transient Event event;
+
+    private final long elapsedNanos;
+
+    /**
+     * @param listener     the slow {@link EventListener} as the source
+     * @param event        the handled {@link Event event}
+     * @param elapsedNanos the elapsed time in nanoseconds
+     */
+    public SlowEventListenerEvent(EventListener<?> listener, Event event, long elapsedNanos) {
+        super(listener);
+        this.event = event;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return the slow {@link EventListener}
+     */
+    public EventListener<?> getListener() {
+        return (EventListener<?>) getSource();
+    }
+
+    /**
+     * @return the handled {@link Event event}
+     */
+    public Event getEvent() {
+        return event;
+    }
+
+    /**
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SlowEventListenerEvent{");
+        sb.append("listener=").append(getListener());
+        sb.append(", event=").append(event);
+        sb.append(", elapsedNanos=").append(elapsedNanos);
+        sb.append('}');
+        return sb.toString();
+    }
+}
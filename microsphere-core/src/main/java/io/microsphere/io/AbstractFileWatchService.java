@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import io.microsphere.event.EventDispatcher;
+import io.microsphere.event.EventListener;
+import io.microsphere.io.event.FileChangedEvent;
+import io.microsphere.io.event.FileChangedListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+
+import static io.microsphere.event.EventDispatcher.parallel;
+import static java.nio.file.Files.isDirectory;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Abstract {@link FileWatchService} implementation indexes the watched files and directories by their absolute
+ * paths in a concurrent sorted map, thus the changed path is resolved by the lookups of itself and its ancestors
+ * instead of scanning all registrations.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see StandardFileWatchService
+ * @see PollingFileWatchService
+ * @since 1.0.0
+ */
+public abstract class AbstractFileWatchService implements FileWatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractFileWatchService.class);
+
+    private final Executor workerExecutor;
+
+    /**
+     * The watched files and directories sorted by their absolute paths
+     */
+    private final ConcurrentNavigableMap<Path, WatchTarget> watchTargets = new ConcurrentSkipListMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param workerExecutor the {@link Executor} to dispatch the {@link FileChangedEvent events}
+     */
+    protected AbstractFileWatchService(Executor workerExecutor) {
+        this.workerExecutor = workerExecutor;
+    }
+
+    @Override
+    public void watch(File file, FileChangedListener listener, FileChangedEvent.Kind... kinds) {
+        watch(file, false, listener, kinds);
+    }
+
+    /**
+     * Watch the specified directory and all of its sub-directories recursively, including the ones created later.
+     *
+     * @param directory the directory
+     * @param listener  one  {@link FileChangedListener listener}
+     * @param kinds     one or more {@link FileChangedEvent.Kind kinds of File Changed Events},
+     *                  all kinds should be interested if blank
+     * @throws IllegalArgumentException if <code>directory</code> is not a directory
+     */
+    @Override
+    public void watchRecursively(File directory, FileChangedListener listener, FileChangedEvent.Kind... kinds)
+            throws IllegalArgumentException {
+        if (!directory.isDirectory()) {
+            throw new IllegalArgumentException("The file[" + directory + "] is not a directory");
+        }
+        watch(directory, true, listener, kinds);
+    }
+
+    private void watch(File file, boolean recursive, FileChangedListener listener, FileChangedEvent.Kind... kinds) {
+        Path filePath = file.toPath().toAbsolutePath().normalize();
+        boolean directory = isDirectory(filePath, NOFOLLOW_LINKS);
+        WatchTarget target = watchTargets.computeIfAbsent(filePath, path ->
+                new WatchTarget(path, directory, parallel(this.workerExecutor)));
+        if (recursive) {
+            target.recursive = true;
+        }
+        target.eventDispatcher.addEventListener(toListener(listener, kinds));
+        onWatch(target);
+        logger.debug("The file[{}] is watched {}", filePath, recursive ? "recursively" : "");
+    }
+
+    /**
+     * Callback when the file or directory is watched, it may be invoked many times for the same {@link WatchTarget}.
+     *
+     * @param target {@link WatchTarget}
+     */
+    protected abstract void onWatch(WatchTarget target);
+
+    /**
+     * Dispatch the {@link FileChangedEvent} to the watched file, its parent directory, and the ancestor directories
+     * that are watched recursively
+     *
+     * @param filePath the path of changed file
+     * @param kind     the {@link FileChangedEvent.Kind kind}
+     */
+    protected void dispatchFileChangedEvent(Path filePath, FileChangedEvent.Kind kind) {
+        dispatchFileChangedEvents(singletonList(new FileChangedEvent(filePath.toFile(), kind)));
+    }
+
+    /**
+     * Dispatch the batch of {@link FileChangedEvent events}, each {@link FileChangedListener listener} receives the
+     * matched ones in a batch by {@link FileChangedListener#onFileChangedEvents(List)}.
+     *
+     * @param events the {@link FileChangedEvent events} in order
+     */
+    protected void dispatchFileChangedEvents(List<FileChangedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<WatchTarget, List<FileChangedEvent>> targetEvents = new LinkedHashMap<>();
+        for (FileChangedEvent event : events) {
+            Path filePath = event.getFile().toPath();
+            WatchTarget target = watchTargets.get(filePath);
+            if (target != null && !target.directory) {
+                targetEvents.computeIfAbsent(target, t -> new ArrayList<>()).add(event);
+            }
+            boolean parent = true;
+            for (Path dirPath = filePath.getParent(); dirPath != null; dirPath = dirPath.getParent()) {
+                target = watchTargets.get(dirPath);
+                if (target != null && target.directory && (parent || target.recursive)) {
+                    targetEvents.computeIfAbsent(target, t -> new ArrayList<>()).add(event);
+                }
+                parent = false;
+            }
+        }
+        targetEvents.forEach((target, batch) -> target.dispatch(unmodifiableList(batch)));
+    }
+
+    /**
+     * Is the specified file or directory watched by itself, its parent directory or the ancestor directory that is
+     * watched recursively
+     *
+     * @param filePath the path of file or directory
+     * @return <code>true</code> if watched
+     */
+    protected boolean isWatched(Path filePath) {
+        WatchTarget target = watchTargets.get(filePath);
+        if (target != null && !target.directory) {
+            return true;
+        }
+        Path dirPath = filePath.getParent();
+        target = dirPath == null ? null : watchTargets.get(dirPath);
+        return (target != null && target.directory) || (dirPath != null && isRecursivelyWatched(dirPath));
+    }
+
+    /**
+     * Is the specified directory watched recursively by itself or its ancestor
+     *
+     * @param dirPath the path of directory
+     * @return <code>true</code> if watched recursively
+     */
+    protected boolean isRecursivelyWatched(Path dirPath) {
+        for (Path path = dirPath; path != null; path = path.getParent()) {
+            WatchTarget target = watchTargets.get(path);
+            if (target != null && target.recursive) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the read-only view of {@link WatchTarget watch targets}
+     */
+    protected Collection<WatchTarget> getWatchTargets() {
+        return watchTargets.values();
+    }
+
+    private FileChangedListener toListener(FileChangedListener listener, FileChangedEvent.Kind[] kinds) {
+        int size = kinds == null ? 0 : kinds.length;
+        if (size < 1) {
+            return listener;
+        }
+        Set<FileChangedEvent.Kind> interestedKinds = EnumSet.noneOf(FileChangedEvent.Kind.class);
+        for (int i = 0; i < size; i++) {
+            interestedKinds.add(kinds[i]);
+        }
+        return new KindFilteringListener(listener, interestedKinds);
+    }
+
+    /**
+     * The watched file or directory
+     */
+    protected static class WatchTarget {
+
+        private final Path path;
+
+        private final boolean directory;
+
+        private final EventDispatcher eventDispatcher;
+
+        private volatile boolean recursive;
+
+        private WatchTarget(Path path, boolean directory, EventDispatcher eventDispatcher) {
+            this.path = path;
+            this.directory = directory;
+            this.eventDispatcher = eventDispatcher;
+        }
+
+        private void dispatch(List<FileChangedEvent> events) {
+            EventDispatcher eventDispatcher = this.eventDispatcher;
+            Executor executor = eventDispatcher.getExecutor();
+            List<EventListener<?>> listeners = eventDispatcher.getAllEventListeners();
+            Runnable task = () -> {
+                for (EventListener<?> listener : listeners) {
+                    try {
+                        ((FileChangedListener) listener).onFileChangedEvents(events);
+                    } catch (Throwable e) {
+                        logger.error("The listener[{}] failed to handle the events : {}", listener, events, e);
+                    }
+                }
+            };
+            if (executor == null) {
+                task.run();
+            } else {
+                executor.execute(task);
+            }
+        }
+
+        /**
+         * @return the absolute path of the watched file or directory
+         */
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * @return <code>true</code> if it's a directory
+         */
+        public boolean isDirectory() {
+            return directory;
+        }
+
+        /**
+         * @return <code>true</code> if the directory is watched recursively
+         */
+        public boolean isRecursive() {
+            return recursive;
+        }
+
+        /**
+         * @return the directory itself or the parent directory of the file
+         */
+        public Path getDirectoryPath() {
+            return directory ? path : path.getParent();
+        }
+    }
+
+    /**
+     * The {@link FileChangedListener} only handles the interested {@link FileChangedEvent.Kind kinds}
+     */
+    private static class KindFilteringListener implements FileChangedListener {
+
+        private final FileChangedListener delegate;
+
+        private final Set<FileChangedEvent.Kind> kinds;
+
+        private KindFilteringListener(FileChangedListener delegate, Set<FileChangedEvent.Kind> kinds) {
+            this.delegate = delegate;
+            this.kinds = kinds;
+        }
+
+        @Override
+        public void onEvent(FileChangedEvent event) {
+            if (kinds.contains(event.getKind())) {
+                delegate.onEvent(event);
+            }
+        }
+
+        @Override
+        public void onFileChangedEvents(List<FileChangedEvent> events) {
+            List<FileChangedEvent> interestedEvents = new ArrayList<>(events.size());
+            for (FileChangedEvent event : events) {
+                if (kinds.contains(event.getKind())) {
+                    interestedEvents.add(event);
+                }
+            }
+            if (!interestedEvents.isEmpty()) {
+                delegate.onFileChangedEvents(unmodifiableList(interestedEvents));
+            }
+        }
+
+        @Override
+        public int getPriority() {
+            return delegate.getPriority();
+        }
+    }
+}
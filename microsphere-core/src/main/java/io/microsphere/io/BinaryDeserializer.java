@@ -0,0 +1,517 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import io.microsphere.io.BinaryFormat.ClassDescriptor;
+import io.microsphere.io.BinaryFormat.Kind;
+
+import javax.annotation.Priority;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.microsphere.io.BinaryFormat.BYTE;
+import static io.microsphere.io.BinaryFormat.CHAR;
+import static io.microsphere.io.BinaryFormat.COLLECTION;
+import static io.microsphere.io.BinaryFormat.DOUBLE;
+import static io.microsphere.io.BinaryFormat.ENUM;
+import static io.microsphere.io.BinaryFormat.FALSE;
+import static io.microsphere.io.BinaryFormat.FLOAT;
+import static io.microsphere.io.BinaryFormat.INT;
+import static io.microsphere.io.BinaryFormat.JAVA;
+import static io.microsphere.io.BinaryFormat.JAVA_SERIALIZATION_MAGIC;
+import static io.microsphere.io.BinaryFormat.LONG;
+import static io.microsphere.io.BinaryFormat.MAGIC;
+import static io.microsphere.io.BinaryFormat.MAP;
+import static io.microsphere.io.BinaryFormat.NULL;
+import static io.microsphere.io.BinaryFormat.OBJECT_ARRAY;
+import static io.microsphere.io.BinaryFormat.POJO;
+import static io.microsphere.io.BinaryFormat.PRIMITIVE_ARRAY;
+import static io.microsphere.io.BinaryFormat.REFERENCE;
+import static io.microsphere.io.BinaryFormat.SHORT;
+import static io.microsphere.io.BinaryFormat.STRING;
+import static io.microsphere.io.BinaryFormat.TRUE;
+import static io.microsphere.io.BinaryFormat.getDescriptor;
+import static java.lang.String.format;
+
+/**
+ * The {@link Deserializer} for the compact binary format written by {@link BinarySerializer}, the bytes of
+ * {@link DefaultSerializer Java Standard Serialization} are also accepted for the compatibility.
+ * <p>
+ * It's declared as the lowest priority {@link Deserializer} for {@link Object}, thus it's the
+ * {@link Deserializers#getMostCompatible(Class) most compatible} one instead of {@link DefaultDeserializer}.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see BinarySerializer
+ * @see DefaultDeserializer
+ * @since 1.0.0
+ */
+@Priority(Integer.MAX_VALUE)
+public class BinaryDeserializer implements Deserializer<Object> {
+
+    private final DefaultDeserializer javaDeserializer = new DefaultDeserializer();
+
+    private final ClassLoader classLoader;
+
+    public BinaryDeserializer() {
+        this(null);
+    }
+
+    /**
+     * @param classLoader the {@link ClassLoader} to load the classes, <code>null</code> means the context
+     *                    {@link ClassLoader} of current thread
+     */
+    public BinaryDeserializer(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws IOException {
+        if (bytes == null) {
+            return null;
+        }
+        return deserialize(ByteBuffer.wrap(bytes));
+    }
+
+    @Override
+    public Object deserialize(ByteBuffer buffer) throws IOException {
+        if (!buffer.hasRemaining()) {
+            throw new StreamCorruptedException("No content");
+        }
+        byte magic = buffer.get(buffer.position());
+        if (magic == JAVA_SERIALIZATION_MAGIC) {
+            return javaDeserializer.deserialize(buffer);
+        }
+        if (magic != MAGIC) {
+            throw new StreamCorruptedException("Invalid binary header : " + magic);
+        }
+        buffer.get();
+        try {
+            return new Reader(buffer).readObject();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new StreamCorruptedException("The content is truncated");
+        }
+    }
+
+    private Class<?> loadClass(String className) throws IOException {
+        ClassLoader classLoader = this.classLoader;
+        if (classLoader == null) {
+            classLoader = Thread.currentThread().getContextClassLoader();
+        }
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            try {
+                return Class.forName(className, false, BinaryDeserializer.class.getClassLoader());
+            } catch (ClassNotFoundException ignored) {
+                throw new IOException("The class can't be found : " + className, e);
+            }
+        }
+    }
+
+    /**
+     * The reader holds the states of one deserialization
+     */
+    private class Reader {
+
+        private final ByteBuffer buffer;
+
+        private final List<Object> handles = new ArrayList<>();
+
+        private final List<Class<?>> classes = new ArrayList<>();
+
+        private final List<PojoLayout> pojoLayouts = new ArrayList<>();
+
+        private Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        Object readObject() throws IOException {
+            return readObject(buffer.get());
+        }
+
+        private Object readObject(byte tag) throws IOException {
+            switch (tag) {
+                case NULL:
+                    return null;
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case BYTE:
+                    return buffer.get();
+                case SHORT:
+                    return (short) unzigzag(readVarInt());
+                case CHAR:
+                    return (char) readVarInt();
+                case INT:
+                    return unzigzag(readVarInt());
+                case LONG:
+                    return unzigzag(readVarLong());
+                case FLOAT:
+                    return Float.intBitsToFloat(buffer.getInt());
+                case DOUBLE:
+                    return Double.longBitsToDouble(buffer.getLong());
+                case STRING:
+                    return readString();
+                case ENUM:
+                    return readEnum();
+                case PRIMITIVE_ARRAY:
+                    return readPrimitiveArray();
+                case OBJECT_ARRAY:
+                    return readObjectArray();
+                case COLLECTION:
+                    return readCollection();
+                case MAP:
+                    return readMap();
+                case POJO:
+                    return readPojo();
+                case REFERENCE:
+                    int handle = readVarInt();
+                    if (handle >= handles.size()) {
+                        throw new StreamCorruptedException("Invalid reference : " + handle);
+                    }
+                    return handles.get(handle);
+                case JAVA:
+                    int handleIndex = reserveHandle();
+                    int length = readLength(1);
+                    ByteBuffer slice = buffer.slice();
+                    slice.limit(length);
+                    buffer.position(buffer.position() + length);
+                    Object value = javaDeserializer.deserialize(slice);
+                    handles.set(handleIndex, value);
+                    return value;
+                default:
+                    throw new StreamCorruptedException("Invalid tag : " + tag);
+            }
+        }
+
+        private Object readEnum() throws IOException {
+            Class enumType = readClass();
+            if (!enumType.isEnum()) {
+                throw new StreamCorruptedException("The class is not an enum : " + enumType.getName());
+            }
+            String name = readString();
+            try {
+                return Enum.valueOf(enumType, name);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("The enum constant can't be found : " + enumType.getName() + "." + name, e);
+            }
+        }
+
+        private Object readPrimitiveArray() throws IOException {
+            byte code = buffer.get();
+            // every element takes one byte at least, the fixed-size ones are checked by their sizes
+            int length = readLength(code == DOUBLE ? 8 : code == FLOAT ? 4 : 1);
+            switch (code) {
+                case BYTE:
+                    byte[] bytes = new byte[length];
+                    handles.add(bytes);
+                    buffer.get(bytes);
+                    return bytes;
+                case INT:
+                    int[] ints = new int[length];
+                    handles.add(ints);
+                    for (int i = 0; i < length; i++) {
+                        ints[i] = unzigzag(readVarInt());
+                    }
+                    return ints;
+                case LONG:
+                    long[] longs = new long[length];
+                    handles.add(longs);
+                    for (int i = 0; i < length; i++) {
+                        longs[i] = unzigzag(readVarLong());
+                    }
+                    return longs;
+                case DOUBLE:
+                    double[] doubles = new double[length];
+                    handles.add(doubles);
+                    for (int i = 0; i < length; i++) {
+                        doubles[i] = Double.longBitsToDouble(buffer.getLong());
+                    }
+                    return doubles;
+                case FLOAT:
+                    float[] floats = new float[length];
+                    handles.add(floats);
+                    for (int i = 0; i < length; i++) {
+                        floats[i] = Float.intBitsToFloat(buffer.getInt());
+                    }
+                    return floats;
+                case TRUE:
+                    boolean[] booleans = new boolean[length];
+                    handles.add(booleans);
+                    for (int i = 0; i < length; i++) {
+                        booleans[i] = buffer.get() == TRUE;
+                    }
+                    return booleans;
+                case SHORT:
+                    short[] shorts = new short[length];
+                    handles.add(shorts);
+                    for (int i = 0; i < length; i++) {
+                        shorts[i] = (short) unzigzag(readVarInt());
+                    }
+                    return shorts;
+                case CHAR:
+                    char[] chars = new char[length];
+                    handles.add(chars);
+                    for (int i = 0; i < length; i++) {
+                        chars[i] = (char) readVarInt();
+                    }
+                    return chars;
+                default:
+                    throw new StreamCorruptedException("Invalid primitive type : " + code);
+            }
+        }
+
+        private Object readObjectArray() throws IOException {
+            Class<?> componentType = readClass();
+            int length = readLength(1);
+            Object[] array = (Object[]) Array.newInstance(componentType, length);
+            handles.add(array);
+            for (int i = 0; i < length; i++) {
+                array[i] = readObject();
+            }
+            return array;
+        }
+
+        private Object readCollection() throws IOException {
+            ClassDescriptor descriptor = readDescriptor(Kind.COLLECTION);
+            Collection<Object> collection = (Collection<Object>) descriptor.newInstance();
+            handles.add(collection);
+            int size = readLength(1);
+            for (int i = 0; i < size; i++) {
+                collection.add(readObject());
+            }
+            return collection;
+        }
+
+        private Object readMap() throws IOException {
+            ClassDescriptor descriptor = readDescriptor(Kind.MAP);
+            Map<Object, Object> map = (Map<Object, Object>) descriptor.newInstance();
+            handles.add(map);
+            int size = readLength(2);
+            for (int i = 0; i < size; i++) {
+                Object key = readObject();
+                map.put(key, readObject());
+            }
+            return map;
+        }
+
+        private Object readPojo() throws IOException {
+            PojoLayout layout = readPojoLayout();
+            Object value = layout.descriptor.newInstance();
+            handles.add(value);
+            Field[] fields = layout.fields;
+            try {
+                for (int i = 0; i < fields.length; i++) {
+                    readField(value, fields[i]);
+                }
+            } catch (IllegalAccessException e) {
+                throw new IOException(e);
+            }
+            return value;
+        }
+
+        /**
+         * Read the value of field, it will be discarded if the field is absent in current class
+         */
+        private void readField(Object target, Field field) throws IOException, IllegalAccessException {
+            byte tag = buffer.get();
+            if (field == null) {
+                readObject(tag);
+                return;
+            }
+            Class<?> fieldType = field.getType();
+            if (!fieldType.isPrimitive()) {
+                field.set(target, readObject(tag));
+                return;
+            }
+            switch (tag) {
+                case INT:
+                    field.setInt(target, unzigzag(readVarInt()));
+                    break;
+                case LONG:
+                    field.setLong(target, unzigzag(readVarLong()));
+                    break;
+                case TRUE:
+                case FALSE:
+                    field.setBoolean(target, tag == TRUE);
+                    break;
+                case DOUBLE:
+                    field.setDouble(target, Double.longBitsToDouble(buffer.getLong()));
+                    break;
+                case FLOAT:
+                    field.setFloat(target, Float.intBitsToFloat(buffer.getInt()));
+                    break;
+                case BYTE:
+                    field.setByte(target, buffer.get());
+                    break;
+                case SHORT:
+                    field.setShort(target, (short) unzigzag(readVarInt()));
+                    break;
+                case CHAR:
+                    field.setChar(target, (char) readVarInt());
+                    break;
+                default: // incompatible value, e.g, null
+                    readObject(tag);
+            }
+        }
+
+        /**
+         * Read the class and check its kind, thus the unchecked casts are safe
+         */
+        private ClassDescriptor readDescriptor(Kind kind) throws IOException {
+            ClassDescriptor descriptor = getDescriptor(readClass());
+            checkKind(descriptor, kind);
+            return descriptor;
+        }
+
+        private void checkKind(ClassDescriptor descriptor, Kind kind) throws StreamCorruptedException {
+            if (descriptor.kind != kind) {
+                throw new StreamCorruptedException(format("The class[%s] is not %s kind", descriptor.type.getName(), kind));
+            }
+        }
+
+        private int reserveHandle() {
+            handles.add(null);
+            return handles.size() - 1;
+        }
+
+        private Class<?> readClass() throws IOException {
+            int id = readVarInt();
+            if (id == 0) {
+                Class<?> type = loadClass(readString());
+                classes.add(type);
+                return type;
+            }
+            if (id > classes.size()) {
+                throw new StreamCorruptedException("Invalid class id : " + id);
+            }
+            return classes.get(id - 1);
+        }
+
+        private PojoLayout readPojoLayout() throws IOException {
+            int id = readVarInt();
+            if (id == 0) {
+                Class<?> type = loadClass(readString());
+                ClassDescriptor descriptor = getDescriptor(type);
+                checkKind(descriptor, Kind.POJO);
+                int count = readLength(1);
+                Field[] fields = new Field[count];
+                for (int i = 0; i < count; i++) {
+                    fields[i] = descriptor.fieldsMap.get(readString());
+                }
+                PojoLayout layout = new PojoLayout(descriptor, fields);
+                pojoLayouts.add(layout);
+                return layout;
+            }
+            if (id > pojoLayouts.size()) {
+                throw new StreamCorruptedException("Invalid class id : " + id);
+            }
+            return pojoLayouts.get(id - 1);
+        }
+
+        private String readString() throws IOException {
+            int length = readLength(1);
+            char[] chars = new char[length];
+            ByteBuffer buffer = this.buffer;
+            for (int i = 0; i < length; i++) {
+                int b = buffer.get() & 0xFF;
+                if (b < 0x80) {
+                    chars[i] = (char) b;
+                } else if ((b & 0xE0) == 0xC0) {
+                    chars[i] = (char) (((b & 0x1F) << 6) | (buffer.get() & 0x3F));
+                } else if ((b & 0xF0) == 0xE0) {
+                    chars[i] = (char) (((b & 0x0F) << 12) | ((buffer.get() & 0x3F) << 6) | (buffer.get() & 0x3F));
+                } else {
+                    throw new StreamCorruptedException("Invalid UTF-8 byte : " + b);
+                }
+            }
+            return new String(chars);
+        }
+
+        /**
+         * Read the length of the content, and check it against the remaining bytes before any allocation
+         *
+         * @param minElementBytes the min count of bytes that an element takes
+         * @return the non-negative length
+         * @throws IOException if the length is negative or exceeds the remaining bytes
+         */
+        private int readLength(int minElementBytes) throws IOException {
+            int length = readVarInt();
+            if (length < 0 || (long) length * minElementBytes > buffer.remaining()) {
+                throw new StreamCorruptedException("Invalid length : " + length);
+            }
+            return length;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("Invalid var int");
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("Invalid var long");
+        }
+
+        private int unzigzag(int value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+
+    /**
+     * The layout of POJO in the stream, the absent fields in current class are <code>null</code>
+     */
+    private static class PojoLayout {
+
+        private final ClassDescriptor descriptor;
+
+        private final Field[] fields;
+
+        private PojoLayout(ClassDescriptor descriptor, Field[] fields) {
+            this.descriptor = descriptor;
+            this.fields = fields;
+        }
+    }
+}
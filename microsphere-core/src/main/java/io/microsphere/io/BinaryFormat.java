@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.concurrent.BlockingQueue;
+
+import static io.microsphere.reflect.FieldUtils.enableAccessible;
+import static io.microsphere.reflect.FieldUtils.getAllDeclaredFields;
+
+/**
+ * The compact binary format shared by {@link BinarySerializer} and {@link BinaryDeserializer}, the layouts of
+ * classes are resolved once and cached per class.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see BinarySerializer
+ * @see BinaryDeserializer
+ * @since 1.0.0
+ */
+final class BinaryFormat {
+
+    /**
+     * The header byte of the binary format
+     */
+    static final byte MAGIC = (byte) 0xB1;
+
+    /**
+     * The first byte of the Java Standard Serialization stream
+     */
+    static final byte JAVA_SERIALIZATION_MAGIC = (byte) 0xAC;
+
+    static final byte NULL = 0;
+
+    static final byte TRUE = 1;
+
+    static final byte FALSE = 2;
+
+    static final byte BYTE = 3;
+
+    static final byte SHORT = 4;
+
+    static final byte CHAR = 5;
+
+    static final byte INT = 6;
+
+    static final byte LONG = 7;
+
+    static final byte FLOAT = 8;
+
+    static final byte DOUBLE = 9;
+
+    static final byte STRING = 10;
+
+    static final byte ENUM = 11;
+
+    static final byte PRIMITIVE_ARRAY = 12;
+
+    static final byte OBJECT_ARRAY = 13;
+
+    static final byte COLLECTION = 14;
+
+    static final byte MAP = 15;
+
+    static final byte POJO = 16;
+
+    static final byte REFERENCE = 17;
+
+    /**
+     * The object is encoded by Java Standard Serialization
+     */
+    static final byte JAVA = 18;
+
+    /**
+     * The containers carry the states beyond their elements, e.g, the comparator, the capacity, the access order and
+     * the defaults, they can't be rebuilt from the elements
+     */
+    private static final Class<?>[] STATEFUL_CONTAINER_TYPES = {SortedSet.class, SortedMap.class, PriorityQueue.class,
+            BlockingQueue.class, LinkedHashMap.class, Properties.class};
+
+    private static final ClassValue<ClassDescriptor> descriptorsCache = new ClassValue<ClassDescriptor>() {
+        @Override
+        protected ClassDescriptor computeValue(Class<?> type) {
+            return new ClassDescriptor(type);
+        }
+    };
+
+    private BinaryFormat() {
+    }
+
+    static ClassDescriptor getDescriptor(Class<?> type) {
+        return descriptorsCache.get(type);
+    }
+
+    static boolean isJdkClass(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.")
+                || name.startsWith("sun.") || name.startsWith("com.sun.");
+    }
+
+    /**
+     * The kind of class in the binary format
+     */
+    enum Kind {
+
+        COLLECTION,
+
+        MAP,
+
+        POJO,
+
+        /**
+         * Java Standard Serialization
+         */
+        JAVA,
+
+        UNSUPPORTED
+    }
+
+    /**
+     * The cached descriptor of class
+     */
+    static final class ClassDescriptor {
+
+        final Class<?> type;
+
+        final Kind kind;
+
+        /**
+         * The serializable fields in {@link Kind#POJO} kind
+         */
+        final Field[] fields;
+
+        /**
+         * The names of fields, the shadowed field is qualified by its declaring class
+         */
+        final String[] fieldNames;
+
+        final Map<String, Field> fieldsMap;
+
+        private volatile Constructor<?> constructor;
+
+        ClassDescriptor(Class<?> type) {
+            this.type = type;
+            this.kind = resolveKind(type);
+            if (kind == Kind.POJO) {
+                Set<Field> allFields = getAllDeclaredFields(type, field -> {
+                    int modifiers = field.getModifiers();
+                    return !Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers);
+                });
+                this.fields = allFields.toArray(new Field[0]);
+                this.fieldNames = new String[fields.length];
+                this.fieldsMap = new HashMap<>(fields.length);
+                for (int i = 0; i < fields.length; i++) {
+                    Field field = fields[i];
+                    enableAccessible(field);
+                    String name = field.getName();
+                    if (fieldsMap.containsKey(name)) {
+                        name = field.getDeclaringClass().getName() + "." + name;
+                    }
+                    fieldNames[i] = name;
+                    fieldsMap.put(name, field);
+                }
+            } else {
+                this.fields = new Field[0];
+                this.fieldNames = new String[0];
+                this.fieldsMap = new HashMap<>(0);
+            }
+        }
+
+        /**
+         * Create a new instance by the default constructor without the field values
+         *
+         * @return non-null
+         * @throws IOException if the instance can't be created
+         */
+        Object newInstance() throws IOException {
+            try {
+                Constructor<?> constructor = this.constructor;
+                if (constructor == null) {
+                    constructor = type.getDeclaredConstructor();
+                    constructor.setAccessible(true);
+                    this.constructor = constructor;
+                }
+                return constructor.newInstance();
+            } catch (Throwable e) {
+                throw new IOException("The instance of class[" + type.getName() + "] can't be created", e);
+            }
+        }
+
+        private static Kind resolveKind(Class<?> type) {
+            if (Collection.class.isAssignableFrom(type)) {
+                return isStandardContainer(type) ? Kind.COLLECTION : fallbackKind(type);
+            }
+            if (Map.class.isAssignableFrom(type)) {
+                return isStandardContainer(type) ? Kind.MAP : fallbackKind(type);
+            }
+            return isPojo(type) ? Kind.POJO : fallbackKind(type);
+        }
+
+        private static Kind fallbackKind(Class<?> type) {
+            return Serializable.class.isAssignableFrom(type) ? Kind.JAVA : Kind.UNSUPPORTED;
+        }
+
+        /**
+         * The concrete public classes with the public default constructor in "java.util" package, their states
+         * are fully restored by the elements
+         *
+         * @see #STATEFUL_CONTAINER_TYPES
+         */
+        private static boolean isStandardContainer(Class<?> type) {
+            Package typePackage = type.getPackage();
+            if (typePackage == null || !typePackage.getName().startsWith("java.util")) {
+                return false;
+            }
+            for (Class<?> statefulContainerType : STATEFUL_CONTAINER_TYPES) {
+                if (statefulContainerType.isAssignableFrom(type)) {
+                    return false;
+                }
+            }
+            int modifiers = type.getModifiers();
+            if (!Modifier.isPublic(modifiers) || Modifier.isAbstract(modifiers)) {
+                return false;
+            }
+            try {
+                return Modifier.isPublic(type.getConstructor().getModifiers());
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+
+        /**
+         * The POJO must opt in {@link Serializable} like Java Standard Serialization, and declare the default
+         * constructor, which is invoked before the fields are restored, the others are encoded by Java Standard
+         * Serialization
+         */
+        private static boolean isPojo(Class<?> type) {
+            if (type.isInterface() || type.isArray() || type.isPrimitive() || isJdkClass(type)
+                    || Modifier.isAbstract(type.getModifiers()) || !Serializable.class.isAssignableFrom(type)
+                    || Externalizable.class.isAssignableFrom(type) || !hasDefaultConstructor(type)) {
+                return false;
+            }
+            Set<Class<?>> visited = new HashSet<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                if (!visited.add(current)) {
+                    break;
+                }
+                if (isJdkClass(current)) {
+                    // the JDK super class must not have any serializable state
+                    for (Field field : current.getDeclaredFields()) {
+                        int modifiers = field.getModifiers();
+                        if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                            return false;
+                        }
+                    }
+                } else if (hasSerializationMethods(current)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean hasDefaultConstructor(Class<?> type) {
+            try {
+                type.getDeclaredConstructor();
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+
+        private static boolean hasSerializationMethods(Class<?> type) {
+            Set<String> names = new LinkedHashSet<>();
+            for (Method method : type.getDeclaredMethods()) {
+                names.add(method.getName());
+            }
+            return names.contains("writeObject") || names.contains("readObject") || names.contains("writeReplace")
+                    || names.contains("readResolve") || names.contains("readObjectNoData");
+        }
+    }
+}
@@ -0,0 +1,484 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import io.microsphere.io.BinaryFormat.ClassDescriptor;
+
+import javax.annotation.Priority;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static io.microsphere.io.BinaryFormat.BYTE;
+import static io.microsphere.io.BinaryFormat.CHAR;
+import static io.microsphere.io.BinaryFormat.COLLECTION;
+import static io.microsphere.io.BinaryFormat.DOUBLE;
+import static io.microsphere.io.BinaryFormat.ENUM;
+import static io.microsphere.io.BinaryFormat.FALSE;
+import static io.microsphere.io.BinaryFormat.FLOAT;
+import static io.microsphere.io.BinaryFormat.INT;
+import static io.microsphere.io.BinaryFormat.JAVA;
+import static io.microsphere.io.BinaryFormat.LONG;
+import static io.microsphere.io.BinaryFormat.MAGIC;
+import static io.microsphere.io.BinaryFormat.MAP;
+import static io.microsphere.io.BinaryFormat.NULL;
+import static io.microsphere.io.BinaryFormat.OBJECT_ARRAY;
+import static io.microsphere.io.BinaryFormat.POJO;
+import static io.microsphere.io.BinaryFormat.PRIMITIVE_ARRAY;
+import static io.microsphere.io.BinaryFormat.REFERENCE;
+import static io.microsphere.io.BinaryFormat.SHORT;
+import static io.microsphere.io.BinaryFormat.STRING;
+import static io.microsphere.io.BinaryFormat.TRUE;
+import static io.microsphere.io.BinaryFormat.getDescriptor;
+
+/**
+ * The compact binary {@link Serializer} supports the primitives, strings, enums, arrays, the standard collections
+ * and maps, and the {@link java.io.Serializable} POJOs with the default constructor whose non-transient fields are
+ * written by the cached field layouts, the shared and cyclic references are preserved. The other
+ * {@link java.io.Serializable} objects, e.g. the classes with customized serialization methods, are encoded by
+ * {@link DefaultSerializer Java Standard Serialization} as the fallback.
+ * <p>
+ * It's declared as the lowest priority {@link Serializer} for {@link Object}, thus it's the
+ * {@link Serializers#getMostCompatible(Class) most compatible} one instead of {@link DefaultSerializer}.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see BinaryDeserializer
+ * @see DefaultSerializer
+ * @since 1.0.0
+ */
+@Priority(Integer.MAX_VALUE)
+public class BinarySerializer implements Serializer<Object> {
+
+    /**
+     * The max capacity of the buffer retained by the thread
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<Writer> writerHolder = ThreadLocal.withInitial(Writer::new);
+
+    private final DefaultSerializer javaSerializer = new DefaultSerializer();
+
+    @Override
+    public byte[] serialize(Object source) throws IOException {
+        Writer writer = acquireWriter();
+        try {
+            writer.write(source);
+            return Arrays.copyOf(writer.buffer, writer.position);
+        } finally {
+            writer.release();
+        }
+    }
+
+    @Override
+    public void serialize(Object source, OutputStream outputStream) throws IOException {
+        Writer writer = acquireWriter();
+        try {
+            writer.write(source);
+            outputStream.write(writer.buffer, 0, writer.position);
+        } finally {
+            writer.release();
+        }
+    }
+
+    @Override
+    public int serialize(Object source, ByteBuffer buffer) throws IOException, BufferOverflowException {
+        Writer writer = acquireWriter();
+        try {
+            writer.write(source);
+            buffer.put(writer.buffer, 0, writer.position);
+            return writer.position;
+        } finally {
+            writer.release();
+        }
+    }
+
+    private Writer acquireWriter() {
+        Writer writer = writerHolder.get();
+        if (writer.inUse) { // reentrant
+            writer = new Writer();
+        }
+        writer.inUse = true;
+        writer.javaSerializer = javaSerializer;
+        return writer;
+    }
+
+    /**
+     * The writer holds the reusable buffer and the states of one serialization
+     */
+    private static class Writer {
+
+        private byte[] buffer = new byte[256];
+
+        private int position;
+
+        private boolean inUse;
+
+        private DefaultSerializer javaSerializer;
+
+        private final IdentityHashMap<Object, Integer> handles = new IdentityHashMap<>();
+
+        private final Map<Class<?>, Integer> classIds = new HashMap<>();
+
+        private final Map<Class<?>, Integer> pojoClassIds = new HashMap<>();
+
+        void write(Object source) throws IOException {
+            position = 0;
+            writeByte(MAGIC);
+            writeObject(source);
+        }
+
+        void release() {
+            handles.clear();
+            classIds.clear();
+            pojoClassIds.clear();
+            if (buffer.length > MAX_RETAINED_CAPACITY) {
+                buffer = new byte[256];
+            }
+            inUse = false;
+        }
+
+        private void writeObject(Object value) throws IOException {
+            if (value == null) {
+                writeByte(NULL);
+                return;
+            }
+            Class<?> type = value.getClass();
+            if (type == String.class) {
+                writeByte(STRING);
+                writeString((String) value);
+            } else if (type == Integer.class) {
+                writeByte(INT);
+                writeVarInt(zigzag((Integer) value));
+            } else if (type == Long.class) {
+                writeByte(LONG);
+                writeVarLong(zigzag((Long) value));
+            } else if (type == Boolean.class) {
+                writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (type == Double.class) {
+                writeByte(DOUBLE);
+                writeLong(Double.doubleToRawLongBits((Double) value));
+            } else if (type == Float.class) {
+                writeByte(FLOAT);
+                writeInt(Float.floatToRawIntBits((Float) value));
+            } else if (type == Byte.class) {
+                writeByte(BYTE);
+                writeByte((Byte) value);
+            } else if (type == Short.class) {
+                writeByte(SHORT);
+                writeVarInt(zigzag((Short) value));
+            } else if (type == Character.class) {
+                writeByte(CHAR);
+                writeVarInt((Character) value);
+            } else if (value instanceof Enum) {
+                writeByte(ENUM);
+                writeClass(((Enum<?>) value).getDeclaringClass());
+                writeString(((Enum<?>) value).name());
+            } else {
+                writeReferable(value, type);
+            }
+        }
+
+        private void writeReferable(Object value, Class<?> type) throws IOException {
+            Integer handle = handles.get(value);
+            if (handle != null) {
+                writeByte(REFERENCE);
+                writeVarInt(handle);
+                return;
+            }
+            if (type.isArray()) {
+                handles.put(value, handles.size());
+                writeArray(value, type.getComponentType());
+                return;
+            }
+            ClassDescriptor descriptor = getDescriptor(type);
+            switch (descriptor.kind) {
+                case COLLECTION:
+                    handles.put(value, handles.size());
+                    writeByte(COLLECTION);
+                    writeClass(type);
+                    Collection<?> collection = (Collection<?>) value;
+                    writeVarInt(collection.size());
+                    for (Object element : collection) {
+                        writeObject(element);
+                    }
+                    break;
+                case MAP:
+                    handles.put(value, handles.size());
+                    writeByte(MAP);
+                    writeClass(type);
+                    Map<?, ?> map = (Map<?, ?>) value;
+                    writeVarInt(map.size());
+                    for (Map.Entry<?, ?> entry : map.entrySet()) {
+                        writeObject(entry.getKey());
+                        writeObject(entry.getValue());
+                    }
+                    break;
+                case POJO:
+                    handles.put(value, handles.size());
+                    writeByte(POJO);
+                    writePojoClass(descriptor);
+                    writeFields(value, descriptor.fields);
+                    break;
+                case JAVA:
+                    handles.put(value, handles.size());
+                    writeByte(JAVA);
+                    byte[] bytes = javaSerializer.serialize(value);
+                    writeVarInt(bytes.length);
+                    writeBytes(bytes, 0, bytes.length);
+                    break;
+                default:
+                    throw new NotSerializableException(type.getName());
+            }
+        }
+
+        private void writeArray(Object array, Class<?> componentType) throws IOException {
+            int length = Array.getLength(array);
+            if (componentType.isPrimitive()) {
+                writeByte(PRIMITIVE_ARRAY);
+                writeByte(primitiveCode(componentType));
+                writeVarInt(length);
+                if (componentType == byte.class) {
+                    writeBytes((byte[]) array, 0, length);
+                } else if (componentType == int.class) {
+                    int[] values = (int[]) array;
+                    for (int i = 0; i < length; i++) {
+                        writeVarInt(zigzag(values[i]));
+                    }
+                } else if (componentType == long.class) {
+                    long[] values = (long[]) array;
+                    for (int i = 0; i < length; i++) {
+                        writeVarLong(zigzag(values[i]));
+                    }
+                } else if (componentType == double.class) {
+                    double[] values = (double[]) array;
+                    for (int i = 0; i < length; i++) {
+                        writeLong(Double.doubleToRawLongBits(values[i]));
+                    }
+                } else if (componentType == float.class) {
+                    float[] values = (float[]) array;
+                    for (int i = 0; i < length; i++) {
+                        writeInt(Float.floatToRawIntBits(values[i]));
+                    }
+                } else if (componentType == boolean.class) {
+                    boolean[] values = (boolean[]) array;
+                    for (int i = 0; i < length; i++) {
+                        writeByte(values[i] ? TRUE : FALSE);
+                    }
+                } else if (componentType == short.class) {
+                    short[] values = (short[]) array;
+                    for (int i = 0; i < length; i++) {
+                        writeVarInt(zigzag(values[i]));
+                    }
+                } else { // char
+                    char[] values = (char[]) array;
+                    for (int i = 0; i < length; i++) {
+                        writeVarInt(values[i]);
+                    }
+                }
+            } else {
+                writeByte(OBJECT_ARRAY);
+                writeClass(componentType);
+                writeVarInt(length);
+                Object[] values = (Object[]) array;
+                for (int i = 0; i < length; i++) {
+                    writeObject(values[i]);
+                }
+            }
+        }
+
+        private void writeFields(Object value, Field[] fields) throws IOException {
+            try {
+                for (int i = 0; i < fields.length; i++) {
+                    Field field = fields[i];
+                    Class<?> fieldType = field.getType();
+                    if (!fieldType.isPrimitive()) {
+                        writeObject(field.get(value));
+                    } else if (fieldType == int.class) {
+                        writeByte(INT);
+                        writeVarInt(zigzag(field.getInt(value)));
+                    } else if (fieldType == long.class) {
+                        writeByte(LONG);
+                        writeVarLong(zigzag(field.getLong(value)));
+                    } else if (fieldType == boolean.class) {
+                        writeByte(field.getBoolean(value) ? TRUE : FALSE);
+                    } else if (fieldType == double.class) {
+                        writeByte(DOUBLE);
+                        writeLong(Double.doubleToRawLongBits(field.getDouble(value)));
+                    } else if (fieldType == float.class) {
+                        writeByte(FLOAT);
+                        writeInt(Float.floatToRawIntBits(field.getFloat(value)));
+                    } else if (fieldType == byte.class) {
+                        writeByte(BYTE);
+                        writeByte(field.getByte(value));
+                    } else if (fieldType == short.class) {
+                        writeByte(SHORT);
+                        writeVarInt(zigzag(field.getShort(value)));
+                    } else { // char
+                        writeByte(CHAR);
+                        writeVarInt(field.getChar(value));
+                    }
+                }
+            } catch (IllegalAccessException e) {
+                throw new IOException(e);
+            }
+        }
+
+        /**
+         * Write the class, its name is written only at the first time, then the id is written
+         */
+        private void writeClass(Class<?> type) {
+            Integer id = classIds.get(type);
+            if (id == null) {
+                classIds.put(type, classIds.size());
+                writeVarInt(0);
+                writeString(type.getName());
+            } else {
+                writeVarInt(id + 1);
+            }
+        }
+
+        /**
+         * Write the class of POJO, its name and field names are written only at the first time, then the id is
+         * written
+         */
+        private void writePojoClass(ClassDescriptor descriptor) {
+            Integer id = pojoClassIds.get(descriptor.type);
+            if (id == null) {
+                pojoClassIds.put(descriptor.type, pojoClassIds.size());
+                writeVarInt(0);
+                writeString(descriptor.type.getName());
+                String[] fieldNames = descriptor.fieldNames;
+                writeVarInt(fieldNames.length);
+                for (int i = 0; i < fieldNames.length; i++) {
+                    writeString(fieldNames[i]);
+                }
+            } else {
+                writeVarInt(id + 1);
+            }
+        }
+
+        /**
+         * Write the count of chars and the modified UTF-8 bytes like {@link java.io.DataOutput#writeUTF(String)}
+         */
+        private void writeString(String value) {
+            int length = value.length();
+            writeVarInt(length);
+            ensureCapacity(length * 3);
+            byte[] buffer = this.buffer;
+            int position = this.position;
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c > 0 && c < 0x80) {
+                    buffer[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[position++] = (byte) (0xC0 | ((c >> 6) & 0x1F));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                } else {
+                    buffer[position++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            this.position = position;
+        }
+
+        private void writeVarInt(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeInt(int value) {
+            ensureCapacity(4);
+            buffer[position++] = (byte) (value >>> 24);
+            buffer[position++] = (byte) (value >>> 16);
+            buffer[position++] = (byte) (value >>> 8);
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, position, length);
+            position += length;
+        }
+
+        private void ensureCapacity(int length) {
+            int required = position + length;
+            if (required > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length << 1));
+            }
+        }
+
+        private static int zigzag(int value) {
+            return (value << 1) ^ (value >> 31);
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+
+        private static byte primitiveCode(Class<?> type) {
+            if (type == int.class) {
+                return INT;
+            } else if (type == long.class) {
+                return LONG;
+            } else if (type == double.class) {
+                return DOUBLE;
+            } else if (type == float.class) {
+                return FLOAT;
+            } else if (type == boolean.class) {
+                return TRUE;
+            } else if (type == byte.class) {
+                return BYTE;
+            } else if (type == short.class) {
+                return SHORT;
+            }
+            return CHAR;
+        }
+    }
+}
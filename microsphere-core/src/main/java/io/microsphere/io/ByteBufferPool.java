@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.Integer.numberOfLeadingZeros;
+
+/**
+ * The pool of {@link ByteBuffer} that recycles the buffers in the size classes of power of 2, it's used to
+ * serialize the objects into the heap or direct buffers without allocation per call, for example :
+ * <pre>{@code
+ * ByteBuffer buffer = pool.acquire(4096);
+ * try {
+ *     serializer.serialize(value, buffer);
+ *     buffer.flip();
+ *     channel.write(buffer);
+ * } finally {
+ *     pool.release(buffer);
+ * }
+ * }</pre>
+ * The buffers larger than {@link #getMaxPooledCapacity() the max pooled capacity} are allocated on demand and never
+ * pooled.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see Serializer#serialize(Object, ByteBuffer)
+ * @see Deserializer#deserialize(ByteBuffer)
+ * @since 1.0.0
+ */
+public class ByteBufferPool {
+
+    /**
+     * The min capacity of pooled buffer
+     */
+    public static final int MIN_CAPACITY = 64;
+
+    /**
+     * The default max capacity of pooled buffer : 1 MB
+     */
+    public static final int DEFAULT_MAX_POOLED_CAPACITY = 1024 * 1024;
+
+    /**
+     * The default max count of pooled buffers per size class
+     */
+    public static final int DEFAULT_MAX_BUFFERS_PER_CLASS = 16;
+
+    private static final int MIN_SHIFT = 6;
+
+    private final boolean direct;
+
+    private final int maxPooledCapacity;
+
+    private final int maxBuffersPerClass;
+
+    private final Queue<ByteBuffer>[] pools;
+
+    private final AtomicInteger[] pooledCounts;
+
+    public ByteBufferPool(boolean direct) {
+        this(direct, DEFAULT_MAX_POOLED_CAPACITY, DEFAULT_MAX_BUFFERS_PER_CLASS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param direct             the buffers are direct or heap
+     * @param maxPooledCapacity  the max capacity of pooled buffer
+     * @param maxBuffersPerClass the max count of pooled buffers per size class
+     * @throws IllegalArgumentException if any argument is invalid
+     */
+    public ByteBufferPool(boolean direct, int maxPooledCapacity, int maxBuffersPerClass) throws IllegalArgumentException {
+        if (maxPooledCapacity < MIN_CAPACITY) {
+            throw new IllegalArgumentException("The 'maxPooledCapacity' argument must not be less than "
+                    + MIN_CAPACITY + " : " + maxPooledCapacity);
+        }
+        if (maxBuffersPerClass < 1) {
+            throw new IllegalArgumentException("The 'maxBuffersPerClass' argument must be positive : " + maxBuffersPerClass);
+        }
+        this.direct = direct;
+        this.maxPooledCapacity = roundUp(Math.min(maxPooledCapacity, 1 << 30));
+        this.maxBuffersPerClass = maxBuffersPerClass;
+        int classes = indexOf(this.maxPooledCapacity) + 1;
+        this.pools = new Queue[classes];
+        this.pooledCounts = new AtomicInteger[classes];
+        for (int i = 0; i < classes; i++) {
+            pools[i] = new ConcurrentLinkedQueue<>();
+            pooledCounts[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Acquire a cleared {@link ByteBuffer} whose capacity is not less than the specified one
+     *
+     * @param capacity the min capacity
+     * @return non-null
+     * @throws IllegalArgumentException if <code>capacity</code> is negative
+     */
+    public ByteBuffer acquire(int capacity) throws IllegalArgumentException {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The 'capacity' argument must not be negative : " + capacity);
+        }
+        if (capacity > maxPooledCapacity) {
+            return allocate(capacity);
+        }
+        int actualCapacity = roundUp(capacity);
+        int index = indexOf(actualCapacity);
+        ByteBuffer buffer = pools[index].poll();
+        if (buffer == null) {
+            return allocate(actualCapacity);
+        }
+        pooledCounts[index].decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Release the {@link ByteBuffer} that was {@link #acquire(int) acquired} into the pool, the caller must not use
+     * it anymore.
+     *
+     * @param buffer {@link ByteBuffer}
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.isDirect() != direct || buffer.isReadOnly()) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        if (capacity < MIN_CAPACITY || capacity > maxPooledCapacity || Integer.bitCount(capacity) != 1) {
+            return;
+        }
+        int index = indexOf(capacity);
+        AtomicInteger pooledCount = pooledCounts[index];
+        if (pooledCount.incrementAndGet() > maxBuffersPerClass) {
+            pooledCount.decrementAndGet();
+            return;
+        }
+        pools[index].offer(buffer);
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    /**
+     * @return <code>true</code> if the buffers are direct
+     */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * @return the max capacity of pooled buffer
+     */
+    public int getMaxPooledCapacity() {
+        return maxPooledCapacity;
+    }
+
+    /**
+     * @return the count of pooled buffers
+     */
+    public int getPooledCount() {
+        int count = 0;
+        for (AtomicInteger pooledCount : pooledCounts) {
+            count += pooledCount.get();
+        }
+        return count;
+    }
+
+    static int roundUp(int capacity) {
+        if (capacity <= MIN_CAPACITY) {
+            return MIN_CAPACITY;
+        }
+        return 1 << (32 - numberOfLeadingZeros(capacity - 1));
+    }
+
+    private static int indexOf(int capacity) {
+        return 31 - numberOfLeadingZeros(capacity) - MIN_SHIFT;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+
+import static io.microsphere.util.ServiceLoaderUtils.loadServicesList;
+
+/**
+ * The {@link Deserializer} decorator decompresses the bytes that were written by {@link CompressingSerializer}
+ * before the delegate deserializes them, the {@link CompressionCodec} is detected by the frame header, and the bytes
+ * without the frame header are passed to the delegate directly.
+ *
+ * @param <T> the type to be deserialized
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see CompressingSerializer
+ * @see CompressionCodec
+ * @since 1.0.0
+ */
+public class CompressingDeserializer<T> implements Deserializer<T> {
+
+    /**
+     * The first byte of the frame header
+     */
+    static final byte MAGIC = (byte) 0xC7;
+
+    /**
+     * The id of the uncompressed frame
+     */
+    static final byte NONE = 0;
+
+    /**
+     * The size of the frame header : the magic byte, the id of codec and the uncompressed length
+     */
+    static final int HEADER_SIZE = 6;
+
+    /**
+     * The default max uncompressed length : 64 MB
+     */
+    public static final int DEFAULT_MAX_UNCOMPRESSED_LENGTH = 64 * 1024 * 1024;
+
+    private final Deserializer<T> delegate;
+
+    private final int maxUncompressedLength;
+
+    /**
+     * The {@link CompressionCodec codecs} indexed by their ids
+     */
+    private final CompressionCodec[] codecs = new CompressionCodec[128];
+
+    /**
+     * Constructor with the {@link CompressionCodec codecs} loaded by {@link java.util.ServiceLoader}
+     *
+     * @param delegate the delegate {@link Deserializer}
+     */
+    public CompressingDeserializer(Deserializer<T> delegate) {
+        this(delegate, loadServicesList(CompressionCodec.class, CompressionCodec.class.getClassLoader()));
+    }
+
+    public CompressingDeserializer(Deserializer<T> delegate, Iterable<? extends CompressionCodec> codecs) {
+        this(delegate, codecs, DEFAULT_MAX_UNCOMPRESSED_LENGTH);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param delegate              the delegate {@link Deserializer}
+     * @param codecs                the {@link CompressionCodec codecs}, the former one wins if their ids are
+     *                              duplicated
+     * @param maxUncompressedLength the max uncompressed length in the frame header, the buffer is allocated by it
+     *                              before decompressing, thus the larger one is regarded as corrupted
+     * @throws NullPointerException     if <code>delegate</code> is <code>null</code>
+     * @throws IllegalArgumentException if the id of any codec is not positive, or <code>maxUncompressedLength</code>
+     *                                  is negative
+     */
+    public CompressingDeserializer(Deserializer<T> delegate, Iterable<? extends CompressionCodec> codecs,
+                                   int maxUncompressedLength) throws NullPointerException, IllegalArgumentException {
+        if (delegate == null) {
+            throw new NullPointerException("The 'delegate' argument must not be null");
+        }
+        if (maxUncompressedLength < 0) {
+            throw new IllegalArgumentException("The 'maxUncompressedLength' argument must not be negative : "
+                    + maxUncompressedLength);
+        }
+        this.delegate = delegate;
+        this.maxUncompressedLength = maxUncompressedLength;
+        for (CompressionCodec codec : codecs) {
+            byte id = codec.getId();
+            if (id <= NONE) {
+                throw new IllegalArgumentException("The id of codec[" + codec.getName() + "] must be positive : " + id);
+            }
+            if (this.codecs[id] == null) {
+                this.codecs[id] = codec;
+            }
+        }
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws IOException {
+        if (bytes.length < HEADER_SIZE || bytes[0] != MAGIC) {
+            return delegate.deserialize(bytes);
+        }
+        byte id = bytes[1];
+        int length = ((bytes[2] & 0xFF) << 24) | ((bytes[3] & 0xFF) << 16) | ((bytes[4] & 0xFF) << 8) | (bytes[5] & 0xFF);
+        if (length < 0 || length > maxUncompressedLength) {
+            throw new StreamCorruptedException("The uncompressed length is invalid : " + length);
+        }
+        if (id == NONE) {
+            return delegate.deserialize(ByteBuffer.wrap(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE));
+        }
+        CompressionCodec codec = id > NONE ? codecs[id] : null;
+        if (codec == null) {
+            throw new IOException("The compression codec is not found by the id : " + id);
+        }
+        byte[] uncompressed = new byte[length];
+        codec.decompress(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE, uncompressed, 0, length);
+        return delegate.deserialize(uncompressed);
+    }
+
+    /**
+     * @return the delegate {@link Deserializer}
+     */
+    public Deserializer<T> getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Get the {@link CompressionCodec} by the id
+     *
+     * @param id the id of codec
+     * @return <code>null</code> if not found
+     */
+    public CompressionCodec getCodec(byte id) {
+        return id > NONE ? codecs[id] : null;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import java.io.IOException;
+
+import static io.microsphere.io.CompressingDeserializer.HEADER_SIZE;
+import static io.microsphere.io.CompressingDeserializer.MAGIC;
+import static io.microsphere.io.CompressingDeserializer.NONE;
+import static java.lang.System.arraycopy;
+import static java.util.Arrays.copyOf;
+
+/**
+ * The {@link Serializer} decorator compresses the bytes from the delegate by the {@link CompressionCodec}.
+ * <p>
+ * The compressed bytes are framed by the header : the magic byte, the id of {@link CompressionCodec} and the
+ * uncompressed length(4 bytes), which are detected by {@link CompressingDeserializer}. The payload smaller than the
+ * threshold or not compressible is written as it is.
+ *
+ * @param <S> the type to be serialized
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see CompressingDeserializer
+ * @see CompressionCodec
+ * @since 1.0.0
+ */
+public class CompressingSerializer<S> implements Serializer<S> {
+
+    /**
+     * The default threshold of bytes to be compressed
+     */
+    public static final int DEFAULT_THRESHOLD = 512;
+
+    private final Serializer<S> delegate;
+
+    private final CompressionCodec codec;
+
+    private final int threshold;
+
+    public CompressingSerializer(Serializer<S> delegate) {
+        this(delegate, new DeflateCompressionCodec());
+    }
+
+    public CompressingSerializer(Serializer<S> delegate, CompressionCodec codec) {
+        this(delegate, codec, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param delegate  the delegate {@link Serializer}
+     * @param codec     the {@link CompressionCodec}
+     * @param threshold the payload smaller than it will not be compressed
+     * @throws NullPointerException     if any argument is <code>null</code>
+     * @throws IllegalArgumentException if the id of codec is not positive
+     */
+    public CompressingSerializer(Serializer<S> delegate, CompressionCodec codec, int threshold)
+            throws NullPointerException, IllegalArgumentException {
+        if (delegate == null || codec == null) {
+            throw new NullPointerException("The 'delegate' and 'codec' arguments must not be null");
+        }
+        if (codec.getId() <= NONE) {
+            throw new IllegalArgumentException("The id of codec[" + codec.getName() + "] must be positive : "
+                    + codec.getId());
+        }
+        this.delegate = delegate;
+        this.codec = codec;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public byte[] serialize(S source) throws IOException {
+        byte[] bytes = delegate.serialize(source);
+        int length = bytes.length;
+        if (length >= threshold && length > HEADER_SIZE) {
+            // the compressed frame must be smaller than the payload
+            byte[] frame = new byte[length];
+            int compressedLength = codec.compress(bytes, 0, length, frame, HEADER_SIZE, length - HEADER_SIZE);
+            if (compressedLength > 0) {
+                writeHeader(frame, codec.getId(), length);
+                return copyOf(frame, HEADER_SIZE + compressedLength);
+            }
+        }
+        if (length > 0 && bytes[0] == MAGIC) {
+            // the uncompressed payload must be framed if it's ambiguous
+            byte[] frame = new byte[HEADER_SIZE + length];
+            writeHeader(frame, NONE, length);
+            arraycopy(bytes, 0, frame, HEADER_SIZE, length);
+            return frame;
+        }
+        return bytes;
+    }
+
+    private static void writeHeader(byte[] frame, byte codecId, int length) {
+        frame[0] = MAGIC;
+        frame[1] = codecId;
+        frame[2] = (byte) (length >>> 24);
+        frame[3] = (byte) (length >>> 16);
+        frame[4] = (byte) (length >>> 8);
+        frame[5] = (byte) length;
+    }
+
+    /**
+     * @return the delegate {@link Serializer}
+     */
+    public Serializer<S> getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * @return the {@link CompressionCodec}
+     */
+    public CompressionCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * @return the threshold of bytes to be compressed
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import java.io.IOException;
+
+/**
+ * The codec of compression that is used by {@link CompressingSerializer} and {@link CompressingDeserializer}, the
+ * implementations are loaded by {@link java.util.ServiceLoader} from
+ * "META-INF/services/io.microsphere.io.CompressionCodec", e.g LZ4 or Zstd.
+ * <p>
+ * The methods follow the block APIs of the most compression libraries, the implementation must be thread-safe.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see DeflateCompressionCodec
+ * @see CompressingSerializer
+ * @see CompressingDeserializer
+ * @since 1.0.0
+ */
+public interface CompressionCodec {
+
+    /**
+     * The id of codec that is written in the frame header, it must be unique and positive,
+     * the zero is reserved for the uncompressed frame.
+     *
+     * @return the id of codec
+     */
+    byte getId();
+
+    /**
+     * @return the name of codec
+     */
+    String getName();
+
+    /**
+     * Compress the source bytes into the target array
+     *
+     * @param source          the source bytes
+     * @param sourceOffset    the offset of source bytes
+     * @param sourceLength    the length of source bytes
+     * @param target          the target array
+     * @param targetOffset    the offset of target array
+     * @param maxTargetLength the max length of the compressed bytes
+     * @return the length of the compressed bytes, or <code>-1</code> if it exceeds <code>maxTargetLength</code>
+     * @throws IOException if the compression fails
+     */
+    int compress(byte[] source, int sourceOffset, int sourceLength, byte[] target, int targetOffset,
+                 int maxTargetLength) throws IOException;
+
+    /**
+     * Decompress the source bytes into the target array
+     *
+     * @param source       the compressed bytes
+     * @param sourceOffset the offset of compressed bytes
+     * @param sourceLength the length of compressed bytes
+     * @param target       the target array
+     * @param targetOffset the offset of target array
+     * @param targetLength the length of the uncompressed bytes
+     * @throws IOException if the compressed bytes are corrupted
+     */
+    void decompress(byte[] source, int sourceOffset, int sourceLength, byte[] target, int targetOffset,
+                    int targetLength) throws IOException;
+}
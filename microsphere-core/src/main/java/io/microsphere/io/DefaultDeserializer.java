@@ -18,8 +18,10 @@ package io.microsphere.io;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 
 /**
  * Default {@link Deserializer} based on Java Standard Serialization.
@@ -37,10 +39,19 @@ public class DefaultDeserializer implements Deserializer<Object> {
         if (bytes == null) {
             return null;
         }
+        return deserialize(new ByteArrayInputStream(bytes));
+    }
+
+    @Override
+    public Object deserialize(ByteBuffer buffer) throws IOException {
+        Object value = deserialize(new ByteBufferInputStream(buffer));
+        buffer.position(buffer.limit());
+        return value;
+    }
+
+    private Object deserialize(InputStream inputStream) throws IOException {
         Object value = null;
-        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
-             ObjectInputStream objectInputStream = new ObjectInputStream(inputStream)
-        ) {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(inputStream)) {
             // byte[] -> Value
             value = objectInputStream.readObject();
         } catch (Exception e) {
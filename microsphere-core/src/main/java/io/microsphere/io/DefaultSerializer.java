@@ -16,10 +16,12 @@
  */
 package io.microsphere.io;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 
 /**
  * Default Serializer implementation based on Java Standard Serialization.
@@ -32,17 +34,39 @@ import java.io.Serializable;
  */
 public class DefaultSerializer implements Serializer<Object> {
 
+    /**
+     * The pool of chunks for {@link FastByteArrayOutputStream}
+     */
+    private static final ByteBufferPool chunksPool = new ByteBufferPool(false, 64 * 1024,
+            ByteBufferPool.DEFAULT_MAX_BUFFERS_PER_CLASS);
+
     @Override
     public byte[] serialize(Object source) throws IOException {
         byte[] bytes = null;
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (FastByteArrayOutputStream outputStream = new FastByteArrayOutputStream(chunksPool);
              ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)
         ) {
             // Key -> byte[]
             objectOutputStream.writeObject(source);
+            objectOutputStream.flush();
             bytes = outputStream.toByteArray();
         }
         return bytes;
     }
+
+    @Override
+    public void serialize(Object source, OutputStream outputStream) throws IOException {
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+        objectOutputStream.writeObject(source);
+        // flush the block data without closing the target stream
+        objectOutputStream.flush();
+    }
+
+    @Override
+    public int serialize(Object source, ByteBuffer buffer) throws IOException, BufferOverflowException {
+        int position = buffer.position();
+        serialize(source, new ByteBufferOutputStream(buffer));
+        return buffer.position() - position;
+    }
 }
 
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static java.util.zip.Deflater.BEST_COMPRESSION;
+import static java.util.zip.Deflater.DEFAULT_COMPRESSION;
+
+/**
+ * The built-in {@link CompressionCodec} based on DEFLATE, the {@link Deflater} and {@link Inflater} are reused per
+ * thread and shared by all codecs with the same compression level, thus the native resources are neither allocated
+ * for each invocation nor for each codec.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see Deflater
+ * @see Inflater
+ * @since 1.0.0
+ */
+public class DeflateCompressionCodec implements CompressionCodec {
+
+    /**
+     * The id of DEFLATE codec
+     */
+    public static final byte ID = 1;
+
+    /**
+     * The {@link Deflater} holders indexed by the compression level plus one
+     */
+    private static final ThreadLocal<Deflater>[] deflaters = newDeflaters();
+
+    private static final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+
+    private final int level;
+
+    public DeflateCompressionCodec() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param level the compression level(0-9) or {@link Deflater#DEFAULT_COMPRESSION}
+     * @throws IllegalArgumentException if the level is invalid
+     */
+    public DeflateCompressionCodec(int level) throws IllegalArgumentException {
+        if ((level < 0 || level > BEST_COMPRESSION) && level != DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("The compression level is invalid : " + level);
+        }
+        this.level = level;
+    }
+
+    private static ThreadLocal<Deflater>[] newDeflaters() {
+        ThreadLocal<Deflater>[] deflaters = new ThreadLocal[BEST_COMPRESSION + 2];
+        for (int i = 0; i < deflaters.length; i++) {
+            int level = i - 1;
+            deflaters[i] = ThreadLocal.withInitial(() -> new Deflater(level));
+        }
+        return deflaters;
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return "deflate";
+    }
+
+    /**
+     * @return the compression level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public int compress(byte[] source, int sourceOffset, int sourceLength, byte[] target, int targetOffset,
+                        int maxTargetLength) {
+        Deflater deflater = deflaters[level + 1].get();
+        try {
+            deflater.setInput(source, sourceOffset, sourceLength);
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length >= maxTargetLength) {
+                    return -1;
+                }
+                length += deflater.deflate(target, targetOffset + length, maxTargetLength - length);
+            }
+            return length;
+        } finally {
+            // release the reference of source
+            deflater.reset();
+        }
+    }
+
+    @Override
+    public void decompress(byte[] source, int sourceOffset, int sourceLength, byte[] target, int targetOffset,
+                           int targetLength) throws IOException {
+        Inflater inflater = inflaters.get();
+        try {
+            inflater.setInput(source, sourceOffset, sourceLength);
+            int length = 0;
+            while (length < targetLength && !inflater.finished()) {
+                int count = inflater.inflate(target, targetOffset + length, targetLength - length);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += count;
+            }
+            if (length == targetLength && !inflater.finished()) {
+                // verify the trailer, no more byte is expected
+                length += inflater.inflate(new byte[1]);
+            }
+            if (length != targetLength || !inflater.finished()) {
+                throw new StreamCorruptedException("The length of decompressed bytes[" + length
+                        + "] does not match the expected : " + targetLength);
+            }
+        } catch (DataFormatException e) {
+            throw new StreamCorruptedException("The compressed bytes are corrupted : " + e.getMessage());
+        } finally {
+            inflater.reset();
+        }
+    }
+}
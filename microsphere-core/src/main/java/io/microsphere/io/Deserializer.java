@@ -17,6 +17,7 @@
 package io.microsphere.io;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Deserializer
@@ -29,4 +30,26 @@ import java.io.IOException;
 public interface Deserializer<T> {
 
     T deserialize(byte[] bytes) throws IOException;
+
+    /**
+     * Deserialize the remaining bytes of the specified {@link ByteBuffer}, the implementation should read them
+     * directly without copying if possible. The default implementation only copies the bytes if the buffer is not
+     * backed by the whole array.
+     *
+     * @param buffer the source {@link ByteBuffer}, its position will be advanced to the limit
+     * @return the deserialized object
+     * @throws IOException if I/O error occurs
+     */
+    default T deserialize(ByteBuffer buffer) throws IOException {
+        byte[] bytes;
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length) {
+            bytes = buffer.array();
+            buffer.position(buffer.limit());
+        } else {
+            bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+        }
+        return deserialize(bytes);
+    }
 }
@@ -18,13 +18,17 @@ package io.microsphere.io;
 
 import io.microsphere.util.PriorityComparator;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static io.microsphere.reflect.TypeUtils.resolveTypeArguments;
+import static io.microsphere.util.ClassUtils.getAllInheritedTypes;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
 import static java.util.ServiceLoader.load;
 
 /**
@@ -35,7 +39,13 @@ import static java.util.ServiceLoader.load;
  */
 public class Deserializers {
 
-    private final Map<Class<?>, List<Deserializer>> typedDeserializers = new HashMap<>();
+    private static final Object NOT_FOUND = new Object();
+
+    /**
+     * The immutable snapshot of the registered {@link Deserializer deserializers} and the resolution cache, it's
+     * replaced as a whole by {@link #loadSPI()}
+     */
+    private volatile Registry registry = new Registry(new HashMap<>());
 
     private final ClassLoader classLoader;
 
@@ -47,14 +57,23 @@ public class Deserializers {
         this(Thread.currentThread().getContextClassLoader());
     }
 
-    public void loadSPI() {
-        for (Deserializer deserializer : load(Deserializer.class)) {
+    /**
+     * Load the {@link Deserializer deserializers} by {@link java.util.ServiceLoader} and register them, it's safe to be
+     * invoked concurrently with the lookups.
+     */
+    public synchronized void loadSPI() {
+        Map<Class<?>, List<Deserializer>> typedDeserializers = new HashMap<>();
+        this.registry.typedDeserializers.forEach((type, deserializers) ->
+                typedDeserializers.put(type, new ArrayList<>(deserializers)));
+        for (Deserializer deserializer : load(Deserializer.class, classLoader)) {
             List<Class<?>> typeArguments = resolveTypeArguments(deserializer.getClass());
             Class<?> targetClass = typeArguments.isEmpty() ? Object.class : typeArguments.get(0);
-            List<Deserializer> deserializers = typedDeserializers.computeIfAbsent(targetClass, k -> new LinkedList());
+            List<Deserializer> deserializers = typedDeserializers.computeIfAbsent(targetClass, k -> new ArrayList<>());
             deserializers.add(deserializer);
             deserializers.sort(PriorityComparator.INSTANCE);
         }
+        typedDeserializers.replaceAll((type, deserializers) -> unmodifiableList(deserializers));
+        this.registry = new Registry(typedDeserializers);
     }
 
     /**
@@ -64,11 +83,12 @@ public class Deserializers {
      * @return <code>null</code> if not found
      */
     public Deserializer<?> getMostCompatible(Class<?> deserializedType) {
-        Deserializer<?> deserializer = getHighestPriority(deserializedType);
+        Registry registry = this.registry;
+        Object deserializer = registry.compatibleCache.get(deserializedType);
         if (deserializer == null) {
-            deserializer = getLowestPriority(Object.class);
+            deserializer = registry.compatibleCache.computeIfAbsent(deserializedType, registry::resolveMostCompatible);
         }
-        return deserializer;
+        return deserializer == NOT_FOUND ? null : (Deserializer<?>) deserializer;
     }
 
     /**
@@ -92,7 +112,7 @@ public class Deserializers {
      */
     public <T> Deserializer<T> getLowestPriority(Class<?> deserializedType) {
         List<Deserializer<T>> serializers = get(deserializedType);
-        return serializers.isEmpty() ? null : serializers.get(0);
+        return serializers.isEmpty() ? null : serializers.get(serializers.size() - 1);
     }
 
     /**
@@ -103,6 +123,47 @@ public class Deserializers {
      * @return non-null {@link List}
      */
     public <T> List<Deserializer<T>> get(Class<?> deserializedType) {
-        return (List) typedDeserializers.getOrDefault(deserializedType, emptyList());
+        return (List) registry.typedDeserializers.getOrDefault(deserializedType, emptyList());
+    }
+
+    private static class Registry {
+
+        private final Map<Class<?>, List<Deserializer>> typedDeserializers;
+
+        /**
+         * The runtime class as the key, the most compatible {@link Deserializer} or {@link #NOT_FOUND} as the value
+         */
+        private final ConcurrentMap<Class<?>, Object> compatibleCache = new ConcurrentHashMap<>();
+
+        private Registry(Map<Class<?>, List<Deserializer>> typedDeserializers) {
+            this.typedDeserializers = typedDeserializers;
+        }
+
+        /**
+         * Walk the type hierarchy once : the type itself, its super classes and interfaces, the lowest priority
+         * {@link Deserializer} of {@link Object} is the fallback.
+         */
+        private Object resolveMostCompatible(Class<?> type) {
+            // Object is resolved as the fallback
+            Deserializer deserializer = type == Object.class ? null : getHighestPriority(type);
+            if (deserializer == null) {
+                for (Class<?> inheritedType : getAllInheritedTypes(type, t -> t != Object.class)) {
+                    if ((deserializer = getHighestPriority(inheritedType)) != null) {
+                        break;
+                    }
+                }
+            }
+            if (deserializer == null) {
+                List<Deserializer> deserializers = typedDeserializers.get(Object.class);
+                deserializer = deserializers == null || deserializers.isEmpty() ? null :
+                        deserializers.get(deserializers.size() - 1);
+            }
+            return deserializer == null ? NOT_FOUND : deserializer;
+        }
+
+        private Deserializer getHighestPriority(Class<?> type) {
+            List<Deserializer> deserializers = typedDeserializers.get(type);
+            return deserializers == null || deserializers.isEmpty() ? null : deserializers.get(0);
+        }
     }
 }
@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.enumeration;
+
+/**
+ * Fast(No ThreadSafe without synchronization) {@link ByteArrayOutputStream} alternative, the bytes are written into
+ * the chunks that grow without copying the former ones, and they are optionally drawn from and recycled into the
+ * {@link ByteBufferPool}.
+ * <p>
+ * The written bytes could be read by the views without copying : {@link #toInputStream()} and
+ * {@link #toByteBuffer()}, the views are invalid after the stream is {@link #reset() reset} or {@link #close() closed}.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ByteArrayOutputStream
+ * @see FastByteArrayInputStream
+ * @see ByteBufferPool
+ * @since 1.0.0
+ */
+public class FastByteArrayOutputStream extends OutputStream {
+
+    /**
+     * The default capacity of the first chunk
+     */
+    public static final int DEFAULT_INITIAL_CAPACITY = 256;
+
+    /**
+     * The max capacity of the chunk that grows by the size, the larger write allocates the chunk of its length
+     */
+    public static final int MAX_CHUNK_CAPACITY = 1024 * 1024;
+
+    private static final byte[] EMPTY_CHUNK = new byte[0];
+
+    private final int initialCapacity;
+
+    private final ByteBufferPool pool;
+
+    /**
+     * The chunks, the limit of the former chunk is its written length
+     */
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+
+    /**
+     * The current chunk
+     */
+    private byte[] buf = EMPTY_CHUNK;
+
+    /**
+     * The position in the current chunk
+     */
+    private int pos;
+
+    /**
+     * The total count of the written bytes
+     */
+    private int count;
+
+    public FastByteArrayOutputStream() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public FastByteArrayOutputStream(int initialCapacity) {
+        this(initialCapacity, null);
+    }
+
+    public FastByteArrayOutputStream(ByteBufferPool pool) {
+        this(DEFAULT_INITIAL_CAPACITY, pool);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param initialCapacity the capacity of the first chunk
+     * @param pool            the {@link ByteBufferPool} of heap buffers that the chunks are drawn from, or
+     *                        <code>null</code> if the chunks are allocated on demand
+     * @throws IllegalArgumentException if <code>initialCapacity</code> is not positive, or the pool is direct
+     */
+    public FastByteArrayOutputStream(int initialCapacity, ByteBufferPool pool) throws IllegalArgumentException {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("The 'initialCapacity' argument must be positive : " + initialCapacity);
+        }
+        if (pool != null && pool.isDirect()) {
+            throw new IllegalArgumentException("The 'pool' argument must not be direct");
+        }
+        this.initialCapacity = initialCapacity;
+        this.pool = pool;
+    }
+
+    @Override
+    public void write(int b) {
+        if (pos == buf.length) {
+            addChunk(1);
+        }
+        buf[pos++] = (byte) b;
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            if (pos == buf.length) {
+                addChunk(len);
+            }
+            int length = Math.min(len, buf.length - pos);
+            System.arraycopy(b, off, buf, pos, length);
+            pos += length;
+            count += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+    /**
+     * Write all bytes into the specified {@link OutputStream}
+     *
+     * @param out the target {@link OutputStream}
+     * @throws IOException if I/O error occurs
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        int last = chunks.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            out.write(chunks.get(i).array(), 0, length(i, last));
+        }
+    }
+
+    /**
+     * @return the count of the written bytes
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Discard the written bytes, only the first chunk is retained
+     */
+    public void reset() {
+        if (chunks.size() > 1) {
+            for (int i = chunks.size() - 1; i > 0; i--) {
+                release(chunks.remove(i));
+            }
+            ByteBuffer first = chunks.get(0);
+            first.clear();
+            buf = first.array();
+        }
+        pos = 0;
+        count = 0;
+    }
+
+    /**
+     * @return the copy of the written bytes
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[count];
+        int offset = 0;
+        int last = chunks.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            int length = length(i, last);
+            System.arraycopy(chunks.get(i).array(), 0, bytes, offset, length);
+            offset += length;
+        }
+        return bytes;
+    }
+
+    /**
+     * The view of the written bytes without copying, the chunks are consolidated into one if there are many.
+     *
+     * @return the heap {@link ByteBuffer} from zero to {@link #size()}
+     */
+    public ByteBuffer toByteBuffer() {
+        if (chunks.size() > 1) {
+            consolidate();
+        }
+        return ByteBuffer.wrap(buf, 0, pos).slice();
+    }
+
+    /**
+     * The view of the written bytes without copying
+     *
+     * @return non-null {@link InputStream}
+     */
+    public InputStream toInputStream() {
+        int last = chunks.size() - 1;
+        if (last < 1) {
+            return new FastByteArrayInputStream(buf, 0, pos);
+        }
+        List<InputStream> inputStreams = new ArrayList<>(last + 1);
+        for (int i = 0; i <= last; i++) {
+            inputStreams.add(new FastByteArrayInputStream(chunks.get(i).array(), 0, length(i, last)));
+        }
+        return new SequenceInputStream(enumeration(inputStreams));
+    }
+
+    /**
+     * Decode the written bytes by the default charset
+     *
+     * @return the decoded {@link String}
+     */
+    @Override
+    public String toString() {
+        return new String(toByteArray());
+    }
+
+    /**
+     * Release the chunks into the {@link ByteBufferPool} if present, the stream is empty after that.
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            for (ByteBuffer chunk : chunks) {
+                pool.release(chunk);
+            }
+            chunks.clear();
+            buf = EMPTY_CHUNK;
+            pos = 0;
+            count = 0;
+        }
+    }
+
+    /**
+     * The writable view of the current chunk, the bytes written into it must be committed by {@link #advance(int)}
+     *
+     * @param minRemaining the min remaining of the view
+     * @return the heap {@link ByteBuffer} from the current position
+     */
+    ByteBuffer writableBuffer(int minRemaining) {
+        if (buf.length - pos < minRemaining) {
+            addChunk(minRemaining);
+        }
+        return ByteBuffer.wrap(buf, pos, buf.length - pos);
+    }
+
+    /**
+     * Commit the bytes written into {@link #writableBuffer(int) the writable view}
+     *
+     * @param length the count of written bytes
+     */
+    void advance(int length) {
+        pos += length;
+        count += length;
+    }
+
+    private int length(int index, int last) {
+        return index == last ? pos : chunks.get(index).limit();
+    }
+
+    private void addChunk(int minCapacity) {
+        if (!chunks.isEmpty()) {
+            chunks.get(chunks.size() - 1).limit(pos);
+        }
+        int capacity = Math.max(minCapacity, Math.min(Math.max(count, initialCapacity), MAX_CHUNK_CAPACITY));
+        useChunk(allocate(capacity));
+    }
+
+    private void consolidate() {
+        ByteBuffer chunk = allocate(count);
+        byte[] bytes = chunk.array();
+        int offset = 0;
+        int last = chunks.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            ByteBuffer current = chunks.get(i);
+            int length = length(i, last);
+            System.arraycopy(current.array(), 0, bytes, offset, length);
+            offset += length;
+            release(current);
+        }
+        chunks.clear();
+        useChunk(chunk);
+        pos = count;
+    }
+
+    private void useChunk(ByteBuffer chunk) {
+        chunks.add(chunk);
+        buf = chunk.array();
+        pos = 0;
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return pool == null ? ByteBuffer.allocate(capacity) : pool.acquire(capacity);
+    }
+
+    private void release(ByteBuffer chunk) {
+        if (pool != null) {
+            pool.release(chunk);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ThreadFactory;
+
+import static io.microsphere.concurrent.CustomizedThreadFactory.newThreadFactory;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * The engine multiplexes one {@link WatchService} and its polling thread for the {@link Subscriber subscribers},
+ * e.g {@link StandardFileWatchService}. The shared engine is created per {@link FileSystem} on demand, and closed
+ * when the last {@link Subscriber subscriber} is released.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see StandardFileWatchService
+ * @since 1.0.0
+ */
+final class FileWatchEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileWatchEngine.class);
+
+    private static final WatchEvent.Kind<?>[] ALL_WATCH_EVENT_KINDS = {
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_DELETE,
+            StandardWatchEventKinds.ENTRY_MODIFY
+    };
+
+    /**
+     * The max time of waiting for the signalled keys, the {@link Subscriber subscribers} with the pending work are
+     * notified at least once per tick
+     */
+    static final long TICK_MILLIS = 500;
+
+    private static final ThreadFactory sharedThreadFactory = newThreadFactory("FileWatchEngine", true);
+
+    /**
+     * The shared engines per {@link FileSystem}
+     */
+    private static final Map<FileSystem, FileWatchEngine> sharedEngines = new HashMap<>();
+
+    private final FileSystem fileSystem;
+
+    private final boolean shared;
+
+    private final WatchService watchService;
+
+    private final Thread pollingThread;
+
+    private final ConcurrentMap<WatchKey, Set<Subscriber>> keySubscribers = new ConcurrentHashMap<>();
+
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+
+    private FileWatchEngine(FileSystem fileSystem, boolean shared, ThreadFactory threadFactory) throws IOException {
+        this.fileSystem = fileSystem;
+        this.shared = shared;
+        this.watchService = fileSystem.newWatchService();
+        this.pollingThread = threadFactory.newThread(this::poll);
+        this.pollingThread.start();
+    }
+
+    /**
+     * Acquire the shared engine of the specified {@link FileSystem} for the {@link Subscriber subscriber}
+     *
+     * @param fileSystem {@link FileSystem}
+     * @param subscriber {@link Subscriber}
+     * @return non-null
+     * @throws IOException if the {@link WatchService} can't be created
+     */
+    static FileWatchEngine acquire(FileSystem fileSystem, Subscriber subscriber) throws IOException {
+        synchronized (sharedEngines) {
+            FileWatchEngine engine = sharedEngines.get(fileSystem);
+            if (engine == null) {
+                engine = new FileWatchEngine(fileSystem, true, sharedThreadFactory);
+                sharedEngines.put(fileSystem, engine);
+            }
+            engine.subscribers.add(subscriber);
+            return engine;
+        }
+    }
+
+    /**
+     * Create a dedicated engine of the specified {@link FileSystem} for the {@link Subscriber subscriber}
+     *
+     * @param fileSystem    {@link FileSystem}
+     * @param subscriber    {@link Subscriber}
+     * @param threadFactory the {@link ThreadFactory} to create the polling thread
+     * @return non-null
+     * @throws IOException if the {@link WatchService} can't be created
+     */
+    static FileWatchEngine dedicated(FileSystem fileSystem, Subscriber subscriber, ThreadFactory threadFactory)
+            throws IOException {
+        FileWatchEngine engine = new FileWatchEngine(fileSystem, false, threadFactory);
+        engine.subscribers.add(subscriber);
+        return engine;
+    }
+
+    /**
+     * Register the directory for the {@link Subscriber subscriber}
+     *
+     * @param dirPath    the path of directory
+     * @param subscriber {@link Subscriber}
+     * @return the {@link WatchKey} of directory
+     * @throws IOException if the directory can't be registered
+     */
+    synchronized WatchKey register(Path dirPath, Subscriber subscriber) throws IOException {
+        WatchKey watchKey = dirPath.register(watchService, ALL_WATCH_EVENT_KINDS);
+        keySubscribers.computeIfAbsent(watchKey, key -> new CopyOnWriteArraySet<>()).add(subscriber);
+        return watchKey;
+    }
+
+    /**
+     * Release the {@link Subscriber subscriber}, the {@link WatchKey keys} without any subscriber are cancelled, and
+     * the engine is closed if there is no {@link Subscriber subscriber}.
+     *
+     * @param subscriber {@link Subscriber}
+     */
+    void release(Subscriber subscriber) {
+        if (shared) {
+            synchronized (sharedEngines) {
+                if (doRelease(subscriber)) {
+                    sharedEngines.remove(fileSystem, this);
+                }
+            }
+        } else {
+            doRelease(subscriber);
+        }
+    }
+
+    private synchronized boolean doRelease(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        keySubscribers.entrySet().removeIf(entry -> {
+            Set<Subscriber> owners = entry.getValue();
+            owners.remove(subscriber);
+            if (owners.isEmpty()) {
+                entry.getKey().cancel();
+                return true;
+            }
+            return false;
+        });
+        if (subscribers.isEmpty()) {
+            close();
+            return true;
+        }
+        return false;
+    }
+
+    private void close() {
+        try {
+            // the polling thread exits on ClosedWatchServiceException
+            watchService.close();
+        } catch (IOException e) {
+            logger.warn("The WatchService of {} can't be closed", fileSystem, e);
+        }
+    }
+
+    private void poll() {
+        try {
+            while (true) {
+                WatchKey watchKey = watchService.poll(TICK_MILLIS, MILLISECONDS);
+                long polledTime = System.nanoTime();
+                Map<Subscriber, List<DirectoryEvents>> subscriberEvents = new LinkedHashMap<>();
+                // drain all signalled keys in one poll cycle
+                while (watchKey != null) {
+                    List<WatchEvent<?>> events = watchKey.pollEvents();
+                    boolean valid = watchKey.reset();
+                    DirectoryEvents directoryEvents = new DirectoryEvents(watchKey, events, valid);
+                    Set<Subscriber> owners = valid ? keySubscribers.get(watchKey) : keySubscribers.remove(watchKey);
+                    if (owners != null) {
+                        for (Subscriber subscriber : owners) {
+                            subscriberEvents.computeIfAbsent(subscriber, s -> new ArrayList<>()).add(directoryEvents);
+                        }
+                    }
+                    watchKey = watchService.poll();
+                }
+                for (Subscriber subscriber : subscribers) {
+                    List<DirectoryEvents> events = subscriberEvents.getOrDefault(subscriber, emptyList());
+                    if (events.isEmpty() && !subscriber.hasPendingWork()) {
+                        continue;
+                    }
+                    try {
+                        subscriber.onPollCycle(events, polledTime);
+                    } catch (Throwable e) {
+                        logger.error("The subscriber[{}] failed to handle the events", subscriber, e);
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            logger.debug("The WatchService of {} is closed", fileSystem);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the polling thread
+     */
+    Thread getPollingThread() {
+        return pollingThread;
+    }
+
+    /**
+     * The subscriber of {@link FileWatchEngine}
+     */
+    interface Subscriber {
+
+        /**
+         * Invoked in the polling thread per poll cycle, the shared polling thread must not be blocked, thus the
+         * events should be handed off if they are handled slowly
+         *
+         * @param events     the {@link DirectoryEvents events} of the signalled directories, it may be empty if
+         *                   there is {@link #hasPendingWork() the pending work}
+         * @param polledTime the time in nanoseconds when the keys were polled
+         */
+        void onPollCycle(List<DirectoryEvents> events, long polledTime);
+
+        /**
+         * @return <code>true</code> if {@link #onPollCycle(List, long)} should be invoked without any event
+         */
+        boolean hasPendingWork();
+    }
+
+    /**
+     * The {@link WatchEvent events} of the signalled directory
+     */
+    static final class DirectoryEvents {
+
+        final WatchKey watchKey;
+
+        final Path dirPath;
+
+        final List<WatchEvent<?>> events;
+
+        /**
+         * <code>false</code> if the {@link WatchKey} is invalid, e.g the directory was deleted
+         */
+        final boolean valid;
+
+        DirectoryEvents(WatchKey watchKey, List<WatchEvent<?>> events, boolean valid) {
+            this.watchKey = watchKey;
+            this.dirPath = (Path) watchKey.watchable();
+            this.events = events;
+            this.valid = valid;
+        }
+    }
+}
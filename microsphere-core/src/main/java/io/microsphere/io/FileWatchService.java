@@ -52,4 +52,20 @@ public interface FileWatchService {
     default void watch(File file, Iterable<FileChangedListener> listeners, FileChangedEvent.Kind... kinds) {
         listeners.forEach(listener -> watch(file, listener, kinds));
     }
+
+    /**
+     * Watch the specified directory and all of its sub-directories recursively associating a
+     * {@link FileChangedListener listener} with interest {@link FileChangedEvent.Kind kinds}, the sub-directories
+     * created later should be watched too.
+     *
+     * @param directory the directory
+     * @param listener  one  {@link FileChangedListener listener}
+     * @param kinds     one or more {@link FileChangedEvent.Kind kinds of File Changed Events},
+     *                  all kinds should be interested if blank
+     * @throws UnsupportedOperationException if the implementation does not support
+     */
+    default void watchRecursively(File directory, FileChangedListener listener, FileChangedEvent.Kind... kinds)
+            throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("The recursive watching is not supported by " + getClass().getName());
+    }
 }
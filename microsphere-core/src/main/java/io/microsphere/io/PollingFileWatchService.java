@@ -0,0 +1,506 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import io.microsphere.io.event.FileChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import static io.microsphere.concurrent.CustomizedThreadFactory.newThreadFactory;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * The polling {@link FileWatchService} implementation for the file systems whose {@link java.nio.file.WatchService}
+ * is unreliable, e.g NFS or the overlay mounts of container.
+ * <p>
+ * The watched directories are indexed by the last-modified time, size and the optional content hash of their
+ * entries, and the index is diffed in parallel at the fixed interval to raise the same {@link FileChangedEvent
+ * events} as {@link StandardFileWatchService}. The entries of directory are listed again only if its last-modified
+ * time is changed(or too recent to be trusted), thus the cost of listing scales with the changed directories, and
+ * only the watched files are checked for modification. If the content hash is enabled, the content of the files
+ * whose last-modified time and size are unchanged is only read every {@link #getHashCycles() hash cycles}.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see StandardFileWatchService
+ * @since 1.0.0
+ */
+public class PollingFileWatchService extends AbstractFileWatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PollingFileWatchService.class);
+
+    /**
+     * The default interval of polling in milliseconds
+     */
+    public static final long DEFAULT_INTERVAL = 1000;
+
+    /**
+     * The directory modified within the window is listed again, because the granularity of the last-modified time
+     * is coarse in some file systems
+     */
+    static final long RACY_WINDOW_MILLIS = 2000;
+
+    /**
+     * The default count of polls between two content hashes
+     */
+    public static final int DEFAULT_HASH_CYCLES = 10;
+
+    private final ThreadFactory threadFactory;
+
+    private final long interval;
+
+    private final TimeUnit timeUnit;
+
+    private final boolean hashContent;
+
+    private final int hashCycles;
+
+    /**
+     * The index of the polled directories
+     */
+    private final ConcurrentMap<Path, DirectoryIndex> directoryIndexes = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService scheduler;
+
+    private volatile boolean started;
+
+    private long pollCount;
+
+    public PollingFileWatchService() {
+        this(Runnable::run);
+    }
+
+    public PollingFileWatchService(Executor workerExecutor) {
+        this(workerExecutor, DEFAULT_INTERVAL, MILLISECONDS, false);
+    }
+
+    public PollingFileWatchService(Executor workerExecutor, long interval, TimeUnit timeUnit, boolean hashContent) {
+        this(workerExecutor, interval, timeUnit, hashContent, DEFAULT_HASH_CYCLES);
+    }
+
+    public PollingFileWatchService(Executor workerExecutor, long interval, TimeUnit timeUnit, boolean hashContent,
+                                   ThreadFactory threadFactory) {
+        this(workerExecutor, interval, timeUnit, hashContent, DEFAULT_HASH_CYCLES, threadFactory);
+    }
+
+    public PollingFileWatchService(Executor workerExecutor, long interval, TimeUnit timeUnit, boolean hashContent,
+                                   int hashCycles) {
+        this(workerExecutor, interval, timeUnit, hashContent, hashCycles,
+                newThreadFactory("PollingFileWatchService", true));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param workerExecutor the {@link Executor} to dispatch the {@link FileChangedEvent events}
+     * @param interval       the interval of polling
+     * @param timeUnit       the {@link TimeUnit} of interval
+     * @param hashContent    whether the content hash of the files is compared if their last-modified time and size
+     *                       are not changed
+     * @param hashCycles     the count of polls between two content hashes
+     * @param threadFactory  the {@link ThreadFactory} to create the polling thread
+     * @throws IllegalArgumentException if <code>interval</code> or <code>hashCycles</code> is not positive
+     */
+    public PollingFileWatchService(Executor workerExecutor, long interval, TimeUnit timeUnit, boolean hashContent,
+                                   int hashCycles, ThreadFactory threadFactory) throws IllegalArgumentException {
+        super(workerExecutor);
+        if (interval < 1) {
+            throw new IllegalArgumentException("The 'interval' argument must be positive : " + interval);
+        }
+        if (hashCycles < 1) {
+            throw new IllegalArgumentException("The 'hashCycles' argument must be positive : " + hashCycles);
+        }
+        this.interval = interval;
+        this.timeUnit = timeUnit;
+        this.hashContent = hashContent;
+        this.hashCycles = hashCycles;
+        this.threadFactory = threadFactory;
+    }
+
+    public synchronized void start() throws Exception {
+        if (started) {
+            throw new IllegalStateException("PollingFileWatchService has started");
+        }
+        getWatchTargets().parallelStream().forEach(this::index);
+        ScheduledExecutorService scheduler = newSingleThreadScheduledExecutor(threadFactory);
+        scheduler.scheduleWithFixedDelay(this::pollQuietly, interval, interval, timeUnit);
+        this.scheduler = scheduler;
+        started = true;
+    }
+
+    /**
+     * Stop polling, the watched files are retained for restarting.
+     */
+    public synchronized void stop() throws Exception {
+        if (started) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            directoryIndexes.clear();
+            started = false;
+        }
+    }
+
+    /**
+     * Synchronized with {@link #start()}, thus the target watched during starting is indexed either by
+     * {@link #start()} or here
+     */
+    @Override
+    protected synchronized void onWatch(WatchTarget target) {
+        if (started) {
+            index(target);
+        }
+    }
+
+    private void index(WatchTarget target) {
+        if (target.isRecursive()) {
+            indexTree(target.getPath(), null);
+        } else {
+            indexDirectory(target.getDirectoryPath(), null);
+        }
+    }
+
+    private void indexTree(Path rootPath, Collection<FileChangedEvent> events) {
+        try {
+            Files.walkFileTree(rootPath, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    DirectoryIndex directoryIndex = directoryIndexes.computeIfAbsent(dir, DirectoryIndex::new);
+                    scanQuietly(directoryIndex, events, System.currentTimeMillis(), null, false);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    // the entry may be deleted during walking
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void indexDirectory(Path dirPath, Collection<FileChangedEvent> events) {
+        DirectoryIndex directoryIndex = directoryIndexes.computeIfAbsent(dirPath, DirectoryIndex::new);
+        // the sub-directories are walked by the caller
+        scan(directoryIndex, events, System.currentTimeMillis(), null, false);
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (Throwable e) {
+            logger.error("Failed to poll the watched files", e);
+        }
+    }
+
+    /**
+     * Diff the index of the watched directories, the directories are scanned in parallel, and the
+     * {@link FileChangedEvent events} are dispatched in a batch. The failure of a directory doesn't abort the others,
+     * it will be scanned again in the next poll.
+     */
+    void poll() {
+        long now = System.currentTimeMillis();
+        boolean hashing = hashContent && ++pollCount % hashCycles == 0;
+        Set<Path> createdDirectories = ConcurrentHashMap.newKeySet();
+        Collection<FileChangedEvent> events = new ConcurrentLinkedQueue<>();
+        directoryIndexes.values().parallelStream()
+                .forEach(index -> scanQuietly(index, events, now, createdDirectories, hashing));
+        // the entries of the new directories are reported as created
+        createdDirectories.parallelStream().forEach(dirPath -> {
+            try {
+                indexTree(dirPath, events);
+            } catch (RuntimeException e) {
+                logger.warn("The directory[{}] can't be indexed", dirPath, e);
+            }
+        });
+        dispatchFileChangedEvents(new ArrayList<>(events));
+    }
+
+    private void scanQuietly(DirectoryIndex index, Collection<FileChangedEvent> events, long now,
+                             Set<Path> createdDirectories, boolean hashing) {
+        try {
+            scan(index, events, now, createdDirectories, hashing);
+        } catch (RuntimeException e) {
+            // the directory will be listed again in the next poll
+            index.lastModified = -1L;
+            logger.warn("The directory[{}] can't be scanned", index.path, e);
+        }
+    }
+
+    private void scan(DirectoryIndex index, Collection<FileChangedEvent> events, long now, Set<Path> createdDirectories,
+                      boolean hashing) {
+        Path dirPath = index.path;
+        synchronized (index) {
+            BasicFileAttributes attributes = readAttributes(dirPath);
+            if (attributes == null || !attributes.isDirectory()) {
+                // the directory was deleted
+                directoryIndexes.remove(dirPath, index);
+                for (Path entryPath : index.entries.keySet()) {
+                    collect(entryPath, FileChangedEvent.Kind.DELETED, events);
+                }
+                index.entries.clear();
+                return;
+            }
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            Set<Path> listedPaths = null;
+            if (lastModified != index.lastModified || now - lastModified < RACY_WINDOW_MILLIS) {
+                listedPaths = list(index, events, createdDirectories);
+                index.lastModified = lastModified;
+            }
+            // check the modification of files
+            Iterator<Map.Entry<Path, FileState>> iterator = index.entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Path, FileState> entry = iterator.next();
+                Path entryPath = entry.getKey();
+                FileState state = entry.getValue();
+                if (state.directory || (listedPaths != null && listedPaths.contains(entryPath))) {
+                    continue;
+                }
+                FileState currentState = newState(entryPath, state, hashing);
+                if (currentState == null) {
+                    iterator.remove();
+                    collect(entryPath, FileChangedEvent.Kind.DELETED, events);
+                    continue;
+                }
+                entry.setValue(currentState);
+                if (state.isModified(currentState)) {
+                    collect(entryPath, FileChangedEvent.Kind.MODIFIED, events);
+                }
+            }
+        }
+    }
+
+    /**
+     * List the entries of directory, and diff the created and deleted ones
+     *
+     * @return the paths of the created entries
+     */
+    private Set<Path> list(DirectoryIndex index, Collection<FileChangedEvent> events, Set<Path> createdDirectories) {
+        Set<Path> createdPaths = new HashSet<>();
+        Set<Path> existedPaths = new HashSet<>();
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(index.path)) {
+            for (Path entryPath : directoryStream) {
+                if (!isWatched(entryPath)) {
+                    continue;
+                }
+                existedPaths.add(entryPath);
+                if (index.entries.containsKey(entryPath)) {
+                    continue;
+                }
+                FileState state = newState(entryPath, null, false);
+                if (state == null) {
+                    continue;
+                }
+                index.entries.put(entryPath, state);
+                createdPaths.add(entryPath);
+                collect(entryPath, FileChangedEvent.Kind.CREATED, events);
+                if (state.directory && createdDirectories != null && isRecursivelyWatched(entryPath)) {
+                    createdDirectories.add(entryPath);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("The directory[{}] can't be listed", index.path, e);
+            return createdPaths;
+        }
+        Iterator<Path> iterator = index.entries.keySet().iterator();
+        while (iterator.hasNext()) {
+            Path entryPath = iterator.next();
+            if (!existedPaths.contains(entryPath)) {
+                iterator.remove();
+                collect(entryPath, FileChangedEvent.Kind.DELETED, events);
+            }
+        }
+        return createdPaths;
+    }
+
+    /**
+     * Collect the {@link FileChangedEvent event} if <code>events</code> is not <code>null</code>
+     */
+    private void collect(Path filePath, FileChangedEvent.Kind kind, Collection<FileChangedEvent> events) {
+        if (events != null) {
+            events.add(new FileChangedEvent(filePath.toFile(), kind));
+        }
+    }
+
+    /**
+     * Create the current state of file, the content is hashed if the file is new as the baseline, or its
+     * last-modified time and size are unchanged in the hashing cycle. The hash of the changed file is deferred to
+     * the next hashing cycle.
+     *
+     * @param path     the path of file
+     * @param previous the previous state of file, <code>null</code> if it's new
+     * @param hashing  whether the current poll is a hashing cycle
+     * @return <code>null</code> if the file does not exist
+     */
+    private FileState newState(Path path, FileState previous, boolean hashing) {
+        BasicFileAttributes attributes = readAttributes(path);
+        if (attributes == null) {
+            return null;
+        }
+        boolean directory = attributes.isDirectory();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+        if (!hashContent || directory) {
+            return new FileState(lastModified, size, directory, 0L, false);
+        }
+        if (previous == null) {
+            return new FileState(lastModified, size, false, hash(path), true);
+        }
+        if (previous.lastModified != lastModified || previous.size != size) {
+            return new FileState(lastModified, size, false, 0L, false);
+        }
+        if (hashing) {
+            return new FileState(lastModified, size, false, hash(path), true);
+        }
+        return previous;
+    }
+
+    private static BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class, NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long hash(Path path) {
+        CRC32 crc32 = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            while (channel.read(buffer) > -1) {
+                buffer.flip();
+                crc32.update(buffer.array(), 0, buffer.limit());
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            // the file may be deleted or locked, it will be compared by the attributes only
+            return 0L;
+        }
+        return crc32.getValue();
+    }
+
+    /**
+     * @return the interval of polling
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return the {@link TimeUnit} of interval
+     */
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    /**
+     * @return whether the content hash of the files is compared
+     */
+    public boolean isHashContent() {
+        return hashContent;
+    }
+
+    /**
+     * @return the count of polls between two content hashes
+     */
+    public int getHashCycles() {
+        return hashCycles;
+    }
+
+    /**
+     * The index of the watched entries in a directory
+     */
+    private static class DirectoryIndex {
+
+        private final Path path;
+
+        private final Map<Path, FileState> entries = new HashMap<>();
+
+        /**
+         * The last-modified time of directory when it's listed
+         */
+        private long lastModified = -1L;
+
+        private DirectoryIndex(Path path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * The state of file or directory
+     */
+    private static class FileState {
+
+        private final long lastModified;
+
+        private final long size;
+
+        private final boolean directory;
+
+        private final long hash;
+
+        /**
+         * Whether the content has been hashed
+         */
+        private final boolean hashed;
+
+        private FileState(long lastModified, long size, boolean directory, long hash, boolean hashed) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.directory = directory;
+            this.hash = hash;
+            this.hashed = hashed;
+        }
+
+        private boolean isModified(FileState that) {
+            return lastModified != that.lastModified || size != that.size
+                    || (hashed && that.hashed && hash != that.hash);
+        }
+    }
+}
@@ -17,6 +17,9 @@
 package io.microsphere.io;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 
 /**
  * Serializer
@@ -29,4 +32,32 @@ import java.io.IOException;
 public interface Serializer<S> {
 
     byte[] serialize(S source) throws IOException;
+
+    /**
+     * Serialize the source into the specified {@link OutputStream}, the implementation should write the content
+     * directly without the intermediate byte array if possible.
+     *
+     * @param source       the source to be serialized
+     * @param outputStream the target {@link OutputStream}, it will not be closed
+     * @throws IOException if I/O error occurs
+     */
+    default void serialize(S source, OutputStream outputStream) throws IOException {
+        outputStream.write(serialize(source));
+    }
+
+    /**
+     * Serialize the source into the specified {@link ByteBuffer} from its current position, the buffer could be a
+     * direct one, e.g, acquired from {@link ByteBufferPool}.
+     *
+     * @param source the source to be serialized
+     * @param buffer the target {@link ByteBuffer}
+     * @return the count of written bytes, the position of buffer is advanced by it
+     * @throws IOException             if I/O error occurs
+     * @throws BufferOverflowException if the remaining space of buffer is insufficient
+     */
+    default int serialize(S source, ByteBuffer buffer) throws IOException, BufferOverflowException {
+        byte[] bytes = serialize(source);
+        buffer.put(bytes);
+        return bytes.length;
+    }
 }
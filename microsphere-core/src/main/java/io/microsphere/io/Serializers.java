@@ -19,13 +19,17 @@ package io.microsphere.io;
 
 import io.microsphere.util.PriorityComparator;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static io.microsphere.reflect.TypeUtils.resolveTypeArguments;
+import static io.microsphere.util.ClassUtils.getAllInheritedTypes;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
 import static java.util.ServiceLoader.load;
 
 /**
@@ -36,7 +40,13 @@ import static java.util.ServiceLoader.load;
  */
 public class Serializers {
 
-    private final Map<Class<?>, List<Serializer>> typedSerializers = new HashMap<>();
+    private static final Object NOT_FOUND = new Object();
+
+    /**
+     * The immutable snapshot of the registered {@link Serializer serializers} and the resolution cache, it's
+     * replaced as a whole by {@link #loadSPI()}
+     */
+    private volatile Registry registry = new Registry(new HashMap<>());
 
     private final ClassLoader classLoader;
 
@@ -48,14 +58,23 @@ public class Serializers {
         this(Thread.currentThread().getContextClassLoader());
     }
 
-    public void loadSPI() {
-        for (Serializer serializer : load(Serializer.class)) {
+    /**
+     * Load the {@link Serializer serializers} by {@link java.util.ServiceLoader} and register them, it's safe to be
+     * invoked concurrently with the lookups.
+     */
+    public synchronized void loadSPI() {
+        Map<Class<?>, List<Serializer>> typedSerializers = new HashMap<>();
+        this.registry.typedSerializers.forEach((type, serializers) ->
+                typedSerializers.put(type, new ArrayList<>(serializers)));
+        for (Serializer serializer : load(Serializer.class, classLoader)) {
             List<Class<?>> typeArguments = resolveTypeArguments(serializer.getClass());
             Class<?> targetClass = typeArguments.isEmpty() ? Object.class : typeArguments.get(0);
-            List<Serializer> serializers = typedSerializers.computeIfAbsent(targetClass, k -> new LinkedList());
+            List<Serializer> serializers = typedSerializers.computeIfAbsent(targetClass, k -> new ArrayList<>());
             serializers.add(serializer);
             serializers.sort(PriorityComparator.INSTANCE);
         }
+        typedSerializers.replaceAll((type, serializers) -> unmodifiableList(serializers));
+        this.registry = new Registry(typedSerializers);
     }
 
     /**
@@ -65,11 +84,12 @@ public class Serializers {
      * @return <code>null</code> if not found
      */
     public Serializer<?> getMostCompatible(Class<?> serializedType) {
-        Serializer<?> serializer = getHighestPriority(serializedType);
+        Registry registry = this.registry;
+        Object serializer = registry.compatibleCache.get(serializedType);
         if (serializer == null) {
-            serializer = getLowestPriority(Object.class);
+            serializer = registry.compatibleCache.computeIfAbsent(serializedType, registry::resolveMostCompatible);
         }
-        return serializer;
+        return serializer == NOT_FOUND ? null : (Serializer<?>) serializer;
     }
 
     /**
@@ -105,6 +125,47 @@ public class Serializers {
      * @return non-null {@link List}
      */
     public <S> List<Serializer<S>> get(Class<S> serializedType) {
-        return (List) typedSerializers.getOrDefault(serializedType, emptyList());
+        return (List) registry.typedSerializers.getOrDefault(serializedType, emptyList());
+    }
+
+    private static class Registry {
+
+        private final Map<Class<?>, List<Serializer>> typedSerializers;
+
+        /**
+         * The runtime class as the key, the most compatible {@link Serializer} or {@link #NOT_FOUND} as the value
+         */
+        private final ConcurrentMap<Class<?>, Object> compatibleCache = new ConcurrentHashMap<>();
+
+        private Registry(Map<Class<?>, List<Serializer>> typedSerializers) {
+            this.typedSerializers = typedSerializers;
+        }
+
+        /**
+         * Walk the type hierarchy once : the type itself, its super classes and interfaces, the lowest priority
+         * {@link Serializer} of {@link Object} is the fallback.
+         */
+        private Object resolveMostCompatible(Class<?> type) {
+            // Object is resolved as the fallback
+            Serializer serializer = type == Object.class ? null : getHighestPriority(type);
+            if (serializer == null) {
+                for (Class<?> inheritedType : getAllInheritedTypes(type, t -> t != Object.class)) {
+                    if ((serializer = getHighestPriority(inheritedType)) != null) {
+                        break;
+                    }
+                }
+            }
+            if (serializer == null) {
+                List<Serializer> serializers = typedSerializers.get(Object.class);
+                serializer = serializers == null || serializers.isEmpty() ? null :
+                        serializers.get(serializers.size() - 1);
+            }
+            return serializer == null ? NOT_FOUND : serializer;
+        }
+
+        private Serializer getHighestPriority(Class<?> type) {
+            List<Serializer> serializers = typedSerializers.get(type);
+            return serializers == null || serializers.isEmpty() ? null : serializers.get(0);
+        }
     }
 }
@@ -16,56 +16,156 @@
  */
 package io.microsphere.io;
 
-import io.microsphere.event.EventDispatcher;
+import io.microsphere.io.FileWatchEngine.DirectoryEvents;
 import io.microsphere.io.event.FileChangedEvent;
 import io.microsphere.io.event.FileChangedListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
-import java.nio.file.Watchable;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import static io.microsphere.concurrent.CustomizedThreadFactory.newThreadFactory;
-import static io.microsphere.event.EventDispatcher.parallel;
+import static io.microsphere.concurrent.CustomizedThreadFactory.newVirtualThreadFactory;
+import static io.microsphere.concurrent.ExecutorUtils.newVirtualThreadPerTaskExecutor;
 import static java.nio.file.Files.isDirectory;
 import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
-import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Standard {@link FileWatchService} implementation based on JDK 7
  * {@link WatchService}
+ * <p>
+ * The directory trees could be watched {@link #watchRecursively(File, FileChangedListener, FileChangedEvent.Kind...)
+ * recursively}, whose new sub-directories are registered automatically, and the files or directories could be
+ * watched before or after {@link #start()}.
+ * <p>
+ * The {@link FileChangedEvent events} from all signalled {@link WatchKey keys} in one poll cycle are delivered in a
+ * batch by {@link FileChangedListener#onFileChangedEvents(List)}. The directory is rescanned if its events are
+ * overflowed, or exceed {@link #getMaxEventsPerSecond() the rate limit}, the entries of the registered directories are
+ * snapshotted, thus the rescan reports the created, modified and deleted entries by diffing against the snapshot.
+ * <p>
+ * By default, the instances share one {@link WatchService} and its polling thread per {@link FileSystem}, unless
+ * the dedicated {@link ThreadFactory} is specified. The poll cycles from the shared polling thread are handed off to the
+ * serial queue of each instance, which is drained on the {@link #DISPATCHER_THREADS bounded} dispatching threads shared
+ * by all instances, thus the slow {@link FileChangedListener listeners} of one instance don't stall the others, and no
+ * thread is created per instance. The service could be restarted after {@link #stop()}, and the watched files are
+ * retained.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @see WatchService
+ * @see Metrics
  * @since 1.0.0
  */
-public class StandardFileWatchService implements FileWatchService {
+public class StandardFileWatchService extends AbstractFileWatchService {
 
-    private static final WatchEvent.Kind<?>[] ALL_WATCH_EVENT_KINDS = {
-            StandardWatchEventKinds.ENTRY_CREATE,
-            StandardWatchEventKinds.ENTRY_DELETE,
-            StandardWatchEventKinds.ENTRY_MODIFY
-    };
+    private static final Logger logger = LoggerFactory.getLogger(StandardFileWatchService.class);
 
-    private WatchService watchService;
+    /**
+     * The window of rate limiting in milliseconds
+     */
+    static final long RATE_WINDOW_MILLIS = 1000;
 
-    private final ExecutorService bossExecutor;
+    /**
+     * The max count of the dispatching threads shared by the instances on the shared polling threads
+     */
+    static final int DISPATCHER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
 
-    private final Executor workerExecutor;
+    /**
+     * The max count of the poll cycles handled by an instance before yielding the dispatching thread
+     */
+    private static final int DISPATCHER_THROUGHPUT = 16;
 
-    private final Map<Path, FileChangedMetadata> fileChangedMetadataCache = new TreeMap<>();
+    private static final ThreadPoolExecutor dispatcher = newDispatcher();
+
+    /**
+     * The {@link ThreadFactory} of the dedicated polling thread, or <code>null</code> if the engine is shared
+     */
+    private final ThreadFactory bossThreadFactory;
+
+    private final int maxEventsPerSecond;
+
+    private final Subscription subscription = new Subscription();
+
+    /**
+     * The engines per {@link FileSystem}
+     */
+    private final ConcurrentMap<FileSystem, FileWatchEngine> engines = new ConcurrentHashMap<>();
+
+    /**
+     * The registered directories
+     */
+    private final ConcurrentMap<Path, WatchKey> watchKeys = new ConcurrentHashMap<>();
+
+    /**
+     * The snapshots of the entries in the registered directories, guarded by the monitor of this
+     */
+    private final Map<Path, Map<Path, EntryState>> snapshots = new HashMap<>();
+
+    /**
+     * The rates of directories in the current window, guarded by the monitor of this
+     */
+    private final Map<Path, DirectoryRate> directoryRates = new HashMap<>();
+
+    /**
+     * The directories to be rescanned, guarded by the monitor of this
+     */
+    private final Set<Path> pendingRescans = new LinkedHashSet<>();
+
+    /**
+     * Whether there is any directory to be rescanned, it's read by the polling thread without the monitor of this
+     */
+    private volatile boolean rescanPending;
+
+    private final Metrics metrics = new Metrics();
+
+    /**
+     * The poll cycles handed off by the shared polling thread, they are handled serially on {@link #dispatcher}
+     */
+    private final Queue<Runnable> pendingPollCycles = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    /**
+     * Increased on starting and stopping, the handed off poll cycles of the former generation are discarded
+     */
+    private volatile int generation;
 
     private volatile boolean started;
 
@@ -74,124 +174,411 @@ public class StandardFileWatchService implements FileWatchService {
     }
 
     public StandardFileWatchService(Executor workerExecutor) {
-        this.bossExecutor = newSingleThreadExecutor(newThreadFactory("FileWatchService", true));
-        this.workerExecutor = workerExecutor;
+        this(workerExecutor, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param workerExecutor    the {@link Executor} to dispatch the {@link FileChangedEvent events}
+     * @param bossThreadFactory the {@link ThreadFactory} to create the dedicated thread polling the
+     *                          {@link WatchService}, or <code>null</code> to share the polling thread per
+     *                          {@link FileSystem}
+     */
+    public StandardFileWatchService(Executor workerExecutor, ThreadFactory bossThreadFactory) {
+        this(workerExecutor, bossThreadFactory, 0);
     }
 
-    public void start() throws Exception {
+    /**
+     * Constructor
+     *
+     * @param workerExecutor     the {@link Executor} to dispatch the {@link FileChangedEvent events}
+     * @param bossThreadFactory  the {@link ThreadFactory} to create the dedicated thread polling the
+     *                           {@link WatchService}, or <code>null</code> to share the polling thread per
+     *                           {@link FileSystem}
+     * @param maxEventsPerSecond the max count of events per second per directory, the excess events are coalesced
+     *                           into a rescan of the directory, the non-positive value means unlimited
+     */
+    public StandardFileWatchService(Executor workerExecutor, ThreadFactory bossThreadFactory, int maxEventsPerSecond) {
+        super(workerExecutor);
+        this.bossThreadFactory = bossThreadFactory;
+        this.maxEventsPerSecond = maxEventsPerSecond;
+    }
+
+    /**
+     * Create a new {@link StandardFileWatchService} whose boss thread and workers are the virtual threads if the
+     * current runtime supports(JDK 21+), or fallback to the daemon platform threads.
+     *
+     * @return non-null
+     * @see io.microsphere.concurrent.CustomizedThreadFactory#newVirtualThreadFactory(String)
+     * @see io.microsphere.concurrent.ExecutorUtils#newVirtualThreadPerTaskExecutor(String)
+     */
+    public static StandardFileWatchService onVirtualThreads() {
+        return new StandardFileWatchService(newVirtualThreadPerTaskExecutor("FileWatchService-worker"),
+                newVirtualThreadFactory("FileWatchService"));
+    }
+
+    public synchronized void start() throws Exception {
         if (started) {
             throw new IllegalStateException("StandardFileWatchService has started");
         }
+        started = true;
+        generation++;
+        try {
+            for (WatchTarget target : getWatchTargets()) {
+                register(target);
+            }
+        } catch (RuntimeException e) {
+            stop();
+            throw e;
+        }
+    }
 
-        FileSystem fileSystem = FileSystems.getDefault();
-
-        WatchService watchService = fileSystem.newWatchService();
+    /**
+     * Stop watching, the {@link WatchKey keys} are cancelled and the engines are released, the watched files are
+     * retained for restarting.
+     */
+    public synchronized void stop() throws Exception {
+        if (!started) {
+            return;
+        }
+        started = false;
+        for (FileWatchEngine engine : engines.values()) {
+            engine.release(subscription);
+        }
+        engines.clear();
+        watchKeys.clear();
+        snapshots.clear();
+        directoryRates.clear();
+        pendingRescans.clear();
+        rescanPending = false;
+        generation++;
+        pendingPollCycles.clear();
+    }
 
-        registerDirectoriesToWatchService(watchService);
+    /**
+     * @return <code>true</code> if started
+     */
+    public boolean isStarted() {
+        return started;
+    }
 
-        dispatchFileChangedEvents(watchService);
+    private static ThreadPoolExecutor newDispatcher() {
+        ThreadPoolExecutor dispatcher = new ThreadPoolExecutor(DISPATCHER_THREADS, DISPATCHER_THREADS, 60, SECONDS,
+                new LinkedBlockingQueue<>(), newThreadFactory("StandardFileWatchService-dispatcher", true));
+        dispatcher.allowCoreThreadTimeOut(true);
+        return dispatcher;
+    }
 
-        this.watchService = watchService;
+    /**
+     * Hand off the poll cycle from the shared polling thread to the serial queue of this
+     */
+    private void handOff(List<DirectoryEvents> directoryEventsList, long polledTime) {
+        int generation = this.generation;
+        pendingPollCycles.offer(() -> {
+            if (generation == this.generation) {
+                onPollCycle(directoryEventsList, polledTime);
+            }
+        });
+        scheduleDispatching();
+    }
 
-        started = true;
+    private void scheduleDispatching() {
+        if (dispatching.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(this::dispatchPollCycles);
+            } catch (RejectedExecutionException e) {
+                // the pending poll cycles are kept, and will be scheduled by the next hand-off
+                dispatching.set(false);
+                logger.warn("The poll cycles of StandardFileWatchService can't be dispatched", e);
+            }
+        }
     }
 
-    private void dispatchFileChangedEvents(WatchService watchService) {
-        bossExecutor.submit(() -> {
-            while (true) {
-                WatchKey watchKey = watchService.take();
+    private void dispatchPollCycles() {
+        try {
+            Runnable pollCycle;
+            for (int i = 0; i < DISPATCHER_THROUGHPUT && (pollCycle = pendingPollCycles.poll()) != null; i++) {
                 try {
-                    if (watchKey.isValid()) {
-                        for (WatchEvent event : watchKey.pollEvents()) {
-                            Watchable watchable = watchKey.watchable();
-                            Path dirPath = (Path) watchable;
-                            Path fileRelativePath = (Path) event.context();
-
-                            FileChangedMetadata metadata = fileChangedMetadataCache.get(dirPath);
-                            if (metadata != null) {
-                                Path filePath = dirPath.resolve(fileRelativePath);
-                                if (metadata.filePaths.contains(filePath)) {
-                                    EventDispatcher eventDispatcher = metadata.eventDispatcher;
-                                    WatchEvent.Kind watchEventKind = event.kind();
-                                    dispatchFileChangedEvent(filePath, watchEventKind, eventDispatcher);
-                                }
-                            }
-                        }
-                    }
-                } finally {
-                    if (watchKey != null) {
-                        watchKey.reset();
+                    pollCycle.run();
+                } catch (Throwable e) {
+                    logger.error("StandardFileWatchService failed to handle the poll cycle", e);
+                }
+            }
+        } finally {
+            dispatching.set(false);
+            if (!pendingPollCycles.isEmpty()) {
+                scheduleDispatching();
+            }
+        }
+    }
+
+    /**
+     * Handle the {@link WatchEvent events} of one poll cycle in the dedicated polling thread or the dispatching
+     * thread, the {@link FileChangedEvent events} are dispatched without the monitor of this.
+     */
+    private void onPollCycle(List<DirectoryEvents> directoryEventsList, long polledTime) {
+        List<FileChangedEvent> eventsList;
+        synchronized (this) {
+            if (!started) {
+                return;
+            }
+            FileChangedEvents events = new FileChangedEvents();
+            for (DirectoryEvents directoryEvents : directoryEventsList) {
+                pollEvents(directoryEvents, events);
+            }
+            rescanIfDue(events);
+            eventsList = events.toList();
+        }
+        dispatchFileChangedEvents(eventsList);
+        if (!directoryEventsList.isEmpty() || !eventsList.isEmpty()) {
+            metrics.record(eventsList.size(), System.nanoTime() - polledTime);
+        }
+    }
+
+    private void pollEvents(DirectoryEvents directoryEvents, FileChangedEvents events) {
+        Path dirPath = directoryEvents.dirPath;
+        if (!directoryEvents.valid) {
+            // the directory was deleted
+            if (watchKeys.remove(dirPath, directoryEvents.watchKey)) {
+                snapshots.remove(dirPath);
+            }
+        }
+        for (WatchEvent<?> event : directoryEvents.events) {
+            WatchEvent.Kind<?> watchEventKind = event.kind();
+            if (StandardWatchEventKinds.OVERFLOW.equals(watchEventKind)) {
+                logger.warn("The events of directory[{}] are overflowed, it will be rescanned", dirPath);
+                rescan(dirPath, events);
+                continue;
+            }
+            if (maxEventsPerSecond > 0 && !directoryRates.computeIfAbsent(dirPath, p -> new DirectoryRate())
+                    .tryAcquire(maxEventsPerSecond)) {
+                // the events are coalesced into a rescan after the current window
+                pendingRescans.add(dirPath);
+                rescanPending = true;
+                continue;
+            }
+            Path filePath = dirPath.resolve((Path) event.context());
+            FileChangedEvent.Kind kind = toKind(watchEventKind);
+            events.add(filePath, kind);
+            updateSnapshot(dirPath, filePath, kind);
+            if (kind == FileChangedEvent.Kind.CREATED && isDirectory(filePath, NOFOLLOW_LINKS)
+                    && isRecursivelyWatched(filePath)) {
+                // the entries may be created before the new directory is registered
+                for (Path createdPath : registerTree(filePath, true)) {
+                    events.add(createdPath, kind);
+                }
+            }
+        }
+    }
+
+    private void rescanIfDue(FileChangedEvents events) {
+        long now = System.currentTimeMillis();
+        Iterator<Path> iterator = pendingRescans.iterator();
+        while (iterator.hasNext()) {
+            Path dirPath = iterator.next();
+            DirectoryRate rate = directoryRates.get(dirPath);
+            if (rate == null || rate.isExpired(now)) {
+                iterator.remove();
+                rescan(dirPath, events);
+            }
+        }
+        rescanPending = !pendingRescans.isEmpty();
+        // the rates are retained across the poll cycles until their windows are expired
+        directoryRates.values().removeIf(rate -> rate.isExpired(now));
+    }
+
+    /**
+     * Rescan the directory whose events may be lost, the entries are diffed against the snapshot of directory : the
+     * absent ones are reported as {@link FileChangedEvent.Kind#CREATED created}, the ones whose last-modified time or
+     * size are changed as {@link FileChangedEvent.Kind#MODIFIED modified}, and the disappeared ones as
+     * {@link FileChangedEvent.Kind#DELETED deleted}.
+     */
+    private void rescan(Path dirPath, FileChangedEvents events) {
+        Map<Path, EntryState> snapshot = snapshots.get(dirPath);
+        if (snapshot == null) {
+            // the directory is not registered
+            return;
+        }
+        Map<Path, EntryState> entries = listEntries(dirPath);
+        if (entries == null) {
+            if (!isDirectory(dirPath, NOFOLLOW_LINKS)) {
+                // the directory was deleted
+                watchKeys.remove(dirPath);
+                dropSnapshot(dirPath, events);
+            }
+            return;
+        }
+        snapshots.put(dirPath, entries);
+        for (Map.Entry<Path, EntryState> entry : entries.entrySet()) {
+            Path entryPath = entry.getKey();
+            EntryState state = entry.getValue();
+            EntryState previous = snapshot.remove(entryPath);
+            if (previous == null) {
+                events.add(entryPath, FileChangedEvent.Kind.CREATED);
+                if (state.directory && isRecursivelyWatched(entryPath)) {
+                    for (Path createdPath : registerTree(entryPath, true)) {
+                        events.add(createdPath, FileChangedEvent.Kind.CREATED);
                     }
                 }
+            } else if (state.isModified(previous)) {
+                events.add(entryPath, FileChangedEvent.Kind.MODIFIED);
             }
-        });
+        }
+        // the remaining entries were deleted
+        for (Map.Entry<Path, EntryState> entry : snapshot.entrySet()) {
+            Path entryPath = entry.getKey();
+            if (entry.getValue().directory) {
+                watchKeys.remove(entryPath);
+                dropSnapshot(entryPath, events);
+            }
+            events.add(entryPath, FileChangedEvent.Kind.DELETED);
+        }
+    }
+
+    /**
+     * Drop the snapshots of the deleted directory and its sub-directories, their entries are reported as
+     * {@link FileChangedEvent.Kind#DELETED deleted}
+     */
+    private void dropSnapshot(Path dirPath, FileChangedEvents events) {
+        Map<Path, EntryState> snapshot = snapshots.remove(dirPath);
+        if (snapshot == null) {
+            return;
+        }
+        for (Map.Entry<Path, EntryState> entry : snapshot.entrySet()) {
+            Path entryPath = entry.getKey();
+            if (entry.getValue().directory) {
+                watchKeys.remove(entryPath);
+                dropSnapshot(entryPath, events);
+            }
+            events.add(entryPath, FileChangedEvent.Kind.DELETED);
+        }
     }
 
-    private void dispatchFileChangedEvent(Path filePath, WatchEvent.Kind watchEventKind, EventDispatcher eventDispatcher) {
-        File file = filePath.toFile();
-        FileChangedEvent.Kind kind = toKind(watchEventKind);
-        FileChangedEvent fileChangedEvent = new FileChangedEvent(file, kind);
-        eventDispatcher.dispatch(fileChangedEvent);
+    private void updateSnapshot(Path dirPath, Path filePath, FileChangedEvent.Kind kind) {
+        Map<Path, EntryState> snapshot = snapshots.get(dirPath);
+        if (snapshot == null) {
+            return;
+        }
+        EntryState state = kind == FileChangedEvent.Kind.DELETED ? null : EntryState.of(filePath);
+        if (state == null) {
+            snapshot.remove(filePath);
+        } else {
+            snapshot.put(filePath, state);
+        }
     }
 
-    private void registerDirectoriesToWatchService(WatchService watchService) throws Exception {
-        for (Map.Entry<Path, FileChangedMetadata> entry : fileChangedMetadataCache.entrySet()) {
-            Path directoryPath = entry.getKey();
-            FileChangedMetadata metadata = entry.getValue();
-            WatchEvent.Kind[] kinds = metadata.watchEventKinds;
-            directoryPath.register(watchService, kinds);
+    /**
+     * @return the entries of directory, or <code>null</code> if it can't be listed
+     */
+    private Map<Path, EntryState> listEntries(Path dirPath) {
+        Map<Path, EntryState> entries = new HashMap<>();
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(dirPath)) {
+            for (Path entryPath : directoryStream) {
+                EntryState state = EntryState.of(entryPath);
+                if (state != null) {
+                    entries.put(entryPath, state);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("The directory[{}] can't be listed", dirPath, e);
+            return null;
         }
+        return entries;
     }
 
     @Override
-    public void watch(File file, FileChangedListener listener, FileChangedEvent.Kind... kinds) {
-        Path filePath = file.toPath();
-        FileChangedMetadata metadata = getMetadata(filePath, kinds);
-        metadata.filePaths.add(filePath);
-        metadata.eventDispatcher.addEventListener(listener);
-    }
-
-    private FileChangedMetadata getMetadata(Path filePath, FileChangedEvent.Kind... kinds) {
-        final Path dirPath = isDirectory(filePath, NOFOLLOW_LINKS) ? filePath : filePath.getParent();
-        return fileChangedMetadataCache.computeIfAbsent(dirPath, k -> {
-            FileChangedMetadata metadata = new FileChangedMetadata();
-            metadata.eventDispatcher = parallel(this.workerExecutor);
-            metadata.watchEventKinds = toWatchEventKinds(kinds);
-            return metadata;
-        });
+    protected synchronized void onWatch(WatchTarget target) {
+        if (started) {
+            register(target);
+        }
     }
 
-    @Nonnull
-    private WatchEvent.Kind<?>[] toWatchEventKinds(FileChangedEvent.Kind[] kinds) {
-        int size = kinds == null ? 0 : kinds.length;
-        if (size < 1) {
-            return ALL_WATCH_EVENT_KINDS;
+    private void register(WatchTarget target) {
+        if (target.isRecursive()) {
+            registerTree(target.getPath(), false);
+        } else {
+            registerDirectory(target.getDirectoryPath());
+        }
+    }
+
+    /**
+     * Register the directory tree
+     *
+     * @param rootPath the root directory
+     * @param collect  whether collect the entries under the root directory
+     * @return the entries under the root directory if collected
+     */
+    private List<Path> registerTree(Path rootPath, boolean collect) {
+        List<Path> entries = new ArrayList<>();
+        try {
+            Files.walkFileTree(rootPath, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    try {
+                        registerDirectory(dir);
+                    } catch (UncheckedIOException e) {
+                        // the directory may be deleted during walking
+                        logger.warn("The directory[{}] can't be registered", dir, e.getCause());
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    if (collect && !rootPath.equals(dir)) {
+                        entries.add(dir);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (collect) {
+                        entries.add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    // the entry may be deleted during walking
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return entries;
+    }
+
+    private void registerDirectory(Path dirPath) {
+        if (!started) {
+            return;
         }
-        WatchEvent.Kind<?>[] watchEventKinds = new WatchEvent.Kind[size];
-        for (int i = 0; i < size; i++) {
-            FileChangedEvent.Kind kind = kinds[i];
-            watchEventKinds[i] = toWatchEventKind(kind);
+        watchKeys.computeIfAbsent(dirPath, path -> {
+            try {
+                return getEngine(path.getFileSystem()).register(path, subscription);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (!snapshots.containsKey(dirPath)) {
+            // snapshotted after registered, thus the later changes are reported by the events
+            Map<Path, EntryState> entries = listEntries(dirPath);
+            snapshots.put(dirPath, entries == null ? new HashMap<>() : entries);
         }
-        return watchEventKinds;
     }
 
-    @Nonnull
-    private WatchEvent.Kind<?> toWatchEventKind(FileChangedEvent.Kind kind) {
-        final WatchEvent.Kind<?> watchEventKind;
-        switch (kind) {
-            case CREATED:
-                watchEventKind = StandardWatchEventKinds.ENTRY_CREATE;
-                break;
-            case MODIFIED:
-                watchEventKind = StandardWatchEventKinds.ENTRY_MODIFY;
-                break;
-            case DELETED:
-                watchEventKind = StandardWatchEventKinds.ENTRY_DELETE;
-                break;
-            default:
-                watchEventKind = StandardWatchEventKinds.OVERFLOW;
-        }
-        return watchEventKind;
+    private FileWatchEngine getEngine(FileSystem fileSystem) throws IOException {
+        FileWatchEngine engine = engines.get(fileSystem);
+        if (engine == null) {
+            synchronized (engines) {
+                engine = engines.get(fileSystem);
+                if (engine == null) {
+                    engine = bossThreadFactory == null ? FileWatchEngine.acquire(fileSystem, subscription) :
+                            FileWatchEngine.dedicated(fileSystem, subscription, bossThreadFactory);
+                    engines.put(fileSystem, engine);
+                }
+            }
+        }
+        return engine;
     }
 
     @Nonnull
@@ -207,22 +594,198 @@ public class StandardFileWatchService implements FileWatchService {
         return kind;
     }
 
-    public void stop() throws Exception {
-        if (started) {
-            if (watchService != null) {
-                watchService.close();
+    /**
+     * @return the max count of events per second per directory, the non-positive value means unlimited
+     */
+    public int getMaxEventsPerSecond() {
+        return maxEventsPerSecond;
+    }
+
+    /**
+     * @return the read-only view of the engines in use
+     */
+    Collection<FileWatchEngine> getEngines() {
+        return unmodifiableCollection(engines.values());
+    }
+
+    /**
+     * @return the {@link Metrics} of this service
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * The timing metrics of the poll cycles, the latency is measured from the {@link WatchKey keys} are polled to
+     * the {@link FileChangedEvent events} are dispatched to the worker {@link Executor}
+     */
+    public static final class Metrics {
+
+        private final LongAdder pollCycles = new LongAdder();
+
+        private final LongAdder dispatchedEvents = new LongAdder();
+
+        private final LongAdder totalLatency = new LongAdder();
+
+        private final AtomicLong lastLatency = new AtomicLong();
+
+        private final AtomicLong maxLatency = new AtomicLong();
+
+        private Metrics() {
+        }
+
+        private void record(int events, long latency) {
+            pollCycles.increment();
+            dispatchedEvents.add(events);
+            totalLatency.add(latency);
+            lastLatency.set(latency);
+            maxLatency.accumulateAndGet(latency, Math::max);
+        }
+
+        /**
+         * @return the count of the handled poll cycles
+         */
+        public long getPollCycles() {
+            return pollCycles.sum();
+        }
+
+        /**
+         * @return the count of the dispatched {@link FileChangedEvent events}
+         */
+        public long getDispatchedEvents() {
+            return dispatchedEvents.sum();
+        }
+
+        /**
+         * @param unit {@link TimeUnit}
+         * @return the latency of the last poll cycle
+         */
+        public long getLastLatency(TimeUnit unit) {
+            return unit.convert(lastLatency.get(), NANOSECONDS);
+        }
+
+        /**
+         * @param unit {@link TimeUnit}
+         * @return the max latency of the poll cycles
+         */
+        public long getMaxLatency(TimeUnit unit) {
+            return unit.convert(maxLatency.get(), NANOSECONDS);
+        }
+
+        /**
+         * @param unit {@link TimeUnit}
+         * @return the average latency of the poll cycles
+         */
+        public long getAverageLatency(TimeUnit unit) {
+            long cycles = pollCycles.sum();
+            return cycles == 0 ? 0 : unit.convert(totalLatency.sum() / cycles, NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics{pollCycles=" + getPollCycles() + ", dispatchedEvents=" + getDispatchedEvents()
+                    + ", lastLatency=" + lastLatency.get() + "ns, maxLatency=" + maxLatency.get()
+                    + "ns, averageLatency=" + getAverageLatency(NANOSECONDS) + "ns}";
+        }
+    }
+
+    /**
+     * The {@link FileWatchEngine.Subscriber} of this service
+     */
+    private class Subscription implements FileWatchEngine.Subscriber {
+
+        @Override
+        public void onPollCycle(List<DirectoryEvents> events, long polledTime) {
+            if (bossThreadFactory == null) {
+                handOff(events, polledTime);
+            } else {
+                // the dedicated polling thread
+                StandardFileWatchService.this.onPollCycle(events, polledTime);
             }
-            fileChangedMetadataCache.clear();
+        }
+
+        @Override
+        public boolean hasPendingWork() {
+            return rescanPending;
         }
     }
 
-    private static class FileChangedMetadata {
+    /**
+     * The {@link FileChangedEvent events} in one poll cycle, the event repeating the last kind of its path is
+     * collapsed, the transitions(e.g created, deleted and created again) are retained in order.
+     */
+    static class FileChangedEvents {
 
-        private final Set<Path> filePaths = new TreeSet<>();
+        private final Map<Path, FileChangedEvent.Kind> lastKinds = new HashMap<>();
 
-        private EventDispatcher eventDispatcher;
+        private final List<FileChangedEvent> events = new ArrayList<>();
 
-        private WatchEvent.Kind<?>[] watchEventKinds;
+        void add(Path filePath, FileChangedEvent.Kind kind) {
+            if (lastKinds.put(filePath, kind) != kind) {
+                events.add(new FileChangedEvent(filePath.toFile(), kind));
+            }
+        }
+
+        List<FileChangedEvent> toList() {
+            return events;
+        }
     }
 
+    /**
+     * The state of the entry in the snapshot of directory
+     */
+    private static class EntryState {
+
+        private final long lastModified;
+
+        private final long size;
+
+        private final boolean directory;
+
+        private EntryState(long lastModified, long size, boolean directory) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.directory = directory;
+        }
+
+        /**
+         * @return <code>null</code> if the entry does not exist or its attributes can't be read
+         */
+        private static EntryState of(Path path) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class, NOFOLLOW_LINKS);
+                return new EntryState(attributes.lastModifiedTime().toMillis(), attributes.size(),
+                        attributes.isDirectory());
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        private boolean isModified(EntryState that) {
+            return lastModified != that.lastModified || size != that.size;
+        }
+    }
+
+    /**
+     * The count of events of directory in the current window
+     */
+    private static class DirectoryRate {
+
+        private long windowStart = System.currentTimeMillis();
+
+        private int count;
+
+        private boolean tryAcquire(int maxEventsPerSecond) {
+            long now = System.currentTimeMillis();
+            if (now - windowStart >= RATE_WINDOW_MILLIS) {
+                windowStart = now;
+                count = 0;
+            }
+            return ++count <= maxEventsPerSecond;
+        }
+
+        private boolean isExpired(long now) {
+            return now - windowStart >= RATE_WINDOW_MILLIS;
+        }
+    }
 }
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static io.microsphere.io.StreamingEncoder.DEFAULT_BUFFER_SIZE;
+import static io.microsphere.io.StreamingEncoder.FRAME_HEADER_SIZE;
+import static java.util.Spliterators.spliteratorUnknownSize;
+
+/**
+ * The decoder reads the elements lazily from {@link ReadableByteChannel} that were written by
+ * {@link StreamingEncoder}, each element is deserialized by {@link Deserializer#deserialize(ByteBuffer)} over the
+ * slice of the reusable buffer without copying, thus only one element is held in memory at the same time.
+ * (No ThreadSafe without synchronization)
+ *
+ * @param <T> the type of element
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see StreamingEncoder
+ * @see Deserializer
+ * @since 1.0.0
+ */
+public class StreamingDecoder<T> implements Iterator<T>, AutoCloseable {
+
+    /**
+     * The default max size of frame : 64 MB
+     */
+    public static final int DEFAULT_MAX_FRAME_SIZE = 64 * 1024 * 1024;
+
+    private final ReadableByteChannel channel;
+
+    private final Deserializer<? extends T> deserializer;
+
+    private final int bufferSize;
+
+    private final int maxFrameSize;
+
+    private ByteBuffer buffer;
+
+    private boolean endOfStream;
+
+    private boolean closed;
+
+    public StreamingDecoder(ReadableByteChannel channel, Deserializer<? extends T> deserializer) {
+        this(channel, deserializer, DEFAULT_BUFFER_SIZE);
+    }
+
+    public StreamingDecoder(ReadableByteChannel channel, Deserializer<? extends T> deserializer, int bufferSize) {
+        this(channel, deserializer, bufferSize, DEFAULT_MAX_FRAME_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param channel      the source {@link ReadableByteChannel}
+     * @param deserializer the {@link Deserializer} of element
+     * @param bufferSize   the initial size of buffer, it will grow if any element is larger than it, and shrink back
+     *                     after that element is read
+     * @param maxFrameSize the max size of frame, the larger one is regarded as corrupted
+     * @throws NullPointerException     if any argument is <code>null</code>
+     * @throws IllegalArgumentException if <code>bufferSize</code> is too small, or <code>maxFrameSize</code> is
+     *                                  negative
+     */
+    public StreamingDecoder(ReadableByteChannel channel, Deserializer<? extends T> deserializer, int bufferSize,
+                            int maxFrameSize) throws NullPointerException, IllegalArgumentException {
+        if (channel == null || deserializer == null) {
+            throw new NullPointerException("The 'channel' and 'deserializer' arguments must not be null");
+        }
+        if (bufferSize <= FRAME_HEADER_SIZE) {
+            throw new IllegalArgumentException("The 'bufferSize' argument is too small : " + bufferSize);
+        }
+        if (maxFrameSize < 0) {
+            throw new IllegalArgumentException("The 'maxFrameSize' argument must not be negative : " + maxFrameSize);
+        }
+        this.channel = channel;
+        this.deserializer = deserializer;
+        this.bufferSize = bufferSize;
+        this.maxFrameSize = maxFrameSize;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        // no readable bytes initially
+        this.buffer.flip();
+    }
+
+    /**
+     * Read the next element
+     *
+     * @return the next element
+     * @throws EOFException              if no more element
+     * @throws StreamCorruptedException if the length of frame is negative or exceeds the max size of frame
+     * @throws IOException               if I/O error occurs
+     */
+    public T read() throws IOException {
+        if (!fill(FRAME_HEADER_SIZE)) {
+            throw new EOFException("No more element");
+        }
+        int length = buffer.getInt();
+        if (length < 0 || length > maxFrameSize) {
+            throw new StreamCorruptedException("Invalid frame length : " + length);
+        }
+        if (!fill(length)) {
+            throw new EOFException("The frame is truncated");
+        }
+        ByteBuffer frame = buffer.slice();
+        frame.limit(length);
+        buffer.position(buffer.position() + length);
+        T element = deserializer.deserialize(frame);
+        shrink();
+        return element;
+    }
+
+    /**
+     * Shrink the buffer grown by the large element back to the initial size
+     */
+    private void shrink() {
+        ByteBuffer buffer = this.buffer;
+        if (buffer.capacity() > bufferSize && buffer.remaining() <= bufferSize) {
+            ByteBuffer newBuffer = ByteBuffer.allocate(bufferSize);
+            newBuffer.put(buffer);
+            newBuffer.flip();
+            this.buffer = newBuffer;
+        }
+    }
+
+    /**
+     * @return <code>true</code> if there is the next element
+     * @throws UncheckedIOException if I/O error occurs
+     */
+    @Override
+    public boolean hasNext() throws UncheckedIOException {
+        try {
+            return fill(1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the next element
+     * @throws NoSuchElementException if no more element
+     * @throws UncheckedIOException   if I/O error occurs
+     */
+    @Override
+    public T next() throws NoSuchElementException, UncheckedIOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The lazy {@link Stream} of elements, the decoder will be closed when the {@link Stream} is closed, the
+     * elements may be <code>null</code> if they were encoded so
+     *
+     * @return non-null sequential {@link Stream}
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Ensure the specified count of bytes are readable in the buffer
+     *
+     * @return <code>false</code> if the end of stream is reached
+     */
+    private boolean fill(int length) throws IOException {
+        ByteBuffer buffer = this.buffer;
+        if (buffer.remaining() >= length) {
+            return true;
+        }
+        if (closed) {
+            throw new IOException("The decoder has been closed");
+        }
+        if (length > buffer.capacity()) {
+            // the frame length has been bounded by the max size of frame
+            int capacity = (int) Math.min(Math.max(length, (long) buffer.capacity() << 1),
+                    Math.max(length, (long) maxFrameSize + FRAME_HEADER_SIZE));
+            ByteBuffer newBuffer = ByteBuffer.allocate(capacity);
+            newBuffer.put(buffer);
+            this.buffer = buffer = newBuffer;
+        } else {
+            buffer.compact();
+        }
+        // the buffer is in the writing mode
+        while (buffer.position() < length && !endOfStream) {
+            if (channel.read(buffer) < 0) {
+                endOfStream = true;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= length;
+    }
+
+    /**
+     * Close the {@link ReadableByteChannel}
+     *
+     * @throws IOException if I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            channel.close();
+        }
+    }
+}
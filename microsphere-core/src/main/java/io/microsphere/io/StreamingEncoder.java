@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * The encoder writes the elements incrementally into {@link WritableByteChannel} by the {@link Serializer}, each of
+ * them is framed by its length(4 bytes), thus the large collections or object graphs could be exported in constant
+ * memory. The frames are decoded by {@link StreamingDecoder}.
+ * <p>
+ * The elements are serialized into a reusable {@link ByteBuffer} by {@link Serializer#serialize(Object, ByteBuffer)}
+ * and flushed to the {@link WritableByteChannel} when the buffer is full. The size of element is unknown until it's
+ * serialized, thus the element that overflows the remaining buffer is serialized again into a
+ * {@link FastByteArrayOutputStream}, and written directly if it's larger than the buffer, the larger buffer size
+ * reduces such twice serializations.
+ * (No ThreadSafe without synchronization)
+ *
+ * @param <T> the type of element
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see StreamingDecoder
+ * @see Serializer
+ * @since 1.0.0
+ */
+public class StreamingEncoder<T> implements Flushable, AutoCloseable {
+
+    /**
+     * The default size of buffer
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The size of frame header
+     */
+    static final int FRAME_HEADER_SIZE = 4;
+
+    private final WritableByteChannel channel;
+
+    private final Serializer<? super T> serializer;
+
+    private final ByteBuffer buffer;
+
+    private long count;
+
+    private boolean closed;
+
+    public StreamingEncoder(WritableByteChannel channel, Serializer<? super T> serializer) {
+        this(channel, serializer, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param channel    the target {@link WritableByteChannel}
+     * @param serializer the {@link Serializer} of element
+     * @param bufferSize the size of buffer
+     * @throws NullPointerException     if any argument is <code>null</code>
+     * @throws IllegalArgumentException if <code>bufferSize</code> is too small
+     */
+    public StreamingEncoder(WritableByteChannel channel, Serializer<? super T> serializer, int bufferSize)
+            throws NullPointerException, IllegalArgumentException {
+        if (channel == null || serializer == null) {
+            throw new NullPointerException("The 'channel' and 'serializer' arguments must not be null");
+        }
+        if (bufferSize <= FRAME_HEADER_SIZE) {
+            throw new IllegalArgumentException("The 'bufferSize' argument is too small : " + bufferSize);
+        }
+        this.channel = channel;
+        this.serializer = serializer;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Write an element
+     *
+     * @param element the element
+     * @throws IOException if I/O error occurs
+     */
+    public void write(T element) throws IOException {
+        assertOpen();
+        if (!tryWrite(element)) {
+            FastByteArrayOutputStream outputStream = new FastByteArrayOutputStream();
+            serializer.serialize(element, outputStream);
+            int length = outputStream.size();
+            if (buffer.remaining() < FRAME_HEADER_SIZE + length) {
+                flushBuffer();
+            }
+            buffer.putInt(length);
+            if (buffer.remaining() >= length) {
+                buffer.put(outputStream.toByteBuffer());
+            } else { // larger than the buffer
+                flushBuffer();
+                outputStream.writeTo(Channels.newOutputStream(channel));
+            }
+        }
+        count++;
+    }
+
+    /**
+     * Write the elements one by one
+     *
+     * @param elements the elements
+     * @throws IOException if I/O error occurs
+     */
+    public void writeAll(Iterable<? extends T> elements) throws IOException {
+        writeAll(elements.iterator());
+    }
+
+    /**
+     * Write the elements one by one
+     *
+     * @param elements the elements
+     * @throws IOException if I/O error occurs
+     */
+    public void writeAll(Stream<? extends T> elements) throws IOException {
+        writeAll(elements.iterator());
+    }
+
+    private void writeAll(Iterator<? extends T> iterator) throws IOException {
+        while (iterator.hasNext()) {
+            write(iterator.next());
+        }
+    }
+
+    private boolean tryWrite(T element) throws IOException {
+        ByteBuffer buffer = this.buffer;
+        int position = buffer.position();
+        if (buffer.remaining() <= FRAME_HEADER_SIZE) {
+            return false;
+        }
+        buffer.position(position + FRAME_HEADER_SIZE);
+        boolean written = false;
+        try {
+            int length = serializer.serialize(element, buffer);
+            buffer.putInt(position, length);
+            written = true;
+        } catch (BufferOverflowException e) {
+            // falls back to the FastByteArrayOutputStream
+        } finally {
+            if (!written) { // discards the partial frame for any failure
+                buffer.position(position);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Flush the buffered frames to the {@link WritableByteChannel}
+     *
+     * @throws IOException if I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        assertOpen();
+        flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    private void assertOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The encoder has been closed");
+        }
+    }
+
+    /**
+     * @return the count of written elements
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Flush the buffered frames and close the {@link WritableByteChannel}
+     *
+     * @throws IOException if I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flushBuffer();
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package io.microsphere.io;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -31,4 +32,17 @@ public class StringDeserializer implements Deserializer<String> {
     public String deserialize(byte[] bytes) throws IOException {
         return new String(bytes, StandardCharsets.UTF_8);
     }
+
+    @Override
+    public String deserialize(ByteBuffer buffer) throws IOException {
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(),
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.limit());
+        } else {
+            value = StandardCharsets.UTF_8.decode(buffer).toString();
+        }
+        return value;
+    }
 }
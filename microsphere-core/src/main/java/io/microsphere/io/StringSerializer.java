@@ -17,6 +17,13 @@
 package io.microsphere.io;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -27,8 +34,69 @@ import java.nio.charset.StandardCharsets;
  */
 public class StringSerializer implements Serializer<String> {
 
+    /**
+     * The malformed chars, e.g, a lone surrogate, are replaced as {@link String#getBytes(java.nio.charset.Charset)}
+     * does, thus all variants of serialization produce the same bytes
+     */
+    private static final ThreadLocal<CharsetEncoder> encoderHolder = ThreadLocal.withInitial(() ->
+            StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE));
+
     @Override
     public byte[] serialize(String source) throws IOException {
         return source.getBytes(StandardCharsets.UTF_8);
     }
+
+    @Override
+    public int serialize(String source, ByteBuffer buffer) throws IOException, BufferOverflowException {
+        int position = buffer.position();
+        // encode into the buffer directly without the intermediate byte array
+        CharsetEncoder encoder = encoderHolder.get().reset();
+        CoderResult result = encoder.encode(CharBuffer.wrap(source), buffer, true);
+        if (result.isUnderflow()) {
+            result = encoder.flush(buffer);
+        }
+        if (result.isOverflow()) {
+            buffer.position(position);
+            throw new BufferOverflowException();
+        }
+        if (result.isError()) {
+            result.throwException();
+        }
+        return buffer.position() - position;
+    }
+
+    /**
+     * Encode the chars into the chunks directly if the target is {@link FastByteArrayOutputStream}, the malformed
+     * chars are replaced as {@link #serialize(String)} does
+     */
+    @Override
+    public void serialize(String source, OutputStream outputStream) throws IOException {
+        if (!(outputStream instanceof FastByteArrayOutputStream)) {
+            outputStream.write(serialize(source));
+            return;
+        }
+        FastByteArrayOutputStream fastOutputStream = (FastByteArrayOutputStream) outputStream;
+        CharsetEncoder encoder = encoderHolder.get().reset();
+        // the room of a surrogate pair at least
+        int minRemaining = 2 * (int) Math.ceil(encoder.maxBytesPerChar());
+        CharBuffer chars = CharBuffer.wrap(source);
+        boolean flushing = false;
+        while (true) {
+            ByteBuffer buffer = fastOutputStream.writableBuffer(minRemaining);
+            int position = buffer.position();
+            CoderResult result = flushing ? encoder.flush(buffer) : encoder.encode(chars, buffer, true);
+            fastOutputStream.advance(buffer.position() - position);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (result.isUnderflow()) {
+                if (flushing) {
+                    break;
+                }
+                flushing = true;
+            }
+        }
+    }
 }
@@ -19,6 +19,8 @@ package io.microsphere.io.event;
 import io.microsphere.event.Event;
 import io.microsphere.event.EventListener;
 
+import java.util.List;
+
 /**
  * The event listener for {@link FileChangedEvent}
  *
@@ -69,4 +71,16 @@ public interface FileChangedListener extends EventListener<FileChangedEvent> {
      */
     default void onFileDeleted(FileChangedEvent event) {
     }
+
+    /**
+     * Invoked with the {@link FileChangedEvent events} that were collected in one poll cycle of
+     * {@link io.microsphere.io.FileWatchService}, the default implementation handles them one by one.
+     *
+     * @param events the read-only {@link List} of {@link FileChangedEvent events} in order
+     */
+    default void onFileChangedEvents(List<FileChangedEvent> events) {
+        for (FileChangedEvent event : events) {
+            onEvent(event);
+        }
+    }
 }
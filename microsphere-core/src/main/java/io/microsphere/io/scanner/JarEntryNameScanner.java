@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io.scanner;
+
+import javax.annotation.Nonnull;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+import java.util.zip.ZipException;
+
+import static io.microsphere.constants.PathConstants.SLASH;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * The lightweight scanner of the {@link JarEntry} names, only the central directory of {@link JarFile} is read by the
+ * {@link FileChannel} into the heap buffer, neither the manifest nor the signatures are verified, and no
+ * {@link JarEntry} is created. The file is not locked after scanning, since no buffer is memory-mapped.
+ * <p>
+ * It's preferred to {@link SimpleJarEntryScanner} if only the names of {@link JarEntry entries} are required.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see SimpleJarEntryScanner
+ * @since 1.0.0
+ */
+public class JarEntryNameScanner {
+
+    /**
+     * Singleton
+     */
+    public static final JarEntryNameScanner INSTANCE = new JarEntryNameScanner();
+
+    static final int END_HEADER_SIGNATURE = 0x06054b50;
+
+    static final int END_HEADER_SIZE = 22;
+
+    static final int ZIP64_END_LOCATOR_SIGNATURE = 0x07064b50;
+
+    static final int ZIP64_END_LOCATOR_SIZE = 20;
+
+    static final int ZIP64_END_HEADER_SIGNATURE = 0x06064b50;
+
+    static final int ZIP64_END_HEADER_SIZE = 56;
+
+    static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+
+    static final int CENTRAL_HEADER_SIZE = 46;
+
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    public JarEntryNameScanner() {
+    }
+
+    /**
+     * Stream the names of all {@link JarEntry entries} in the order of the central directory
+     *
+     * @param jarFile the file of {@link JarFile}
+     * @return non-null {@link Stream}, it throws {@link UncheckedIOException} if the central directory header is
+     * invalid on traversal
+     * @throws ZipException if the file is not a valid ZIP file
+     * @throws IOException  if an I/O error occurs
+     */
+    @Nonnull
+    public Stream<String> stream(File jarFile) throws ZipException, IOException {
+        CentralDirectory centralDirectory = readCentralDirectory(jarFile);
+        return StreamSupport.stream(new EntryNameSpliterator(jarFile, centralDirectory.buffer,
+                centralDirectory.entries), false);
+    }
+
+    /**
+     * Calculate the CRC-32 checksum of the central directory, which is changed if any {@link JarEntry entry} is
+     * added, removed or rewritten.
+     *
+     * @param jarFile the file of {@link JarFile}
+     * @return the CRC-32 checksum
+     * @throws ZipException if the file is not a valid ZIP file
+     * @throws IOException  if an I/O error occurs
+     */
+    public long checksum(File jarFile) throws ZipException, IOException {
+        CRC32 crc32 = new CRC32();
+        crc32.update(readCentralDirectory(jarFile).buffer);
+        return crc32.getValue();
+    }
+
+    private CentralDirectory readCentralDirectory(File jarFile) throws ZipException, IOException {
+        try (FileChannel channel = FileChannel.open(jarFile.toPath(), READ)) {
+            long size = channel.size();
+            int tailSize = (int) Math.min(size, END_HEADER_SIZE + MAX_COMMENT_SIZE + ZIP64_END_LOCATOR_SIZE);
+            long tailPosition = size - tailSize;
+            ByteBuffer tail = read(channel, tailPosition, tailSize);
+            int endPosition = findEndHeader(tail);
+            if (endPosition < 0) {
+                throw new ZipException("The end of central directory is not found in the file : " + jarFile);
+            }
+            long centralDirectorySize = tail.getInt(endPosition + 12) & 0xFFFFFFFFL;
+            long centralDirectoryEnd = tailPosition + endPosition;
+            long entriesCount = tail.getShort(endPosition + 10) & 0xFFFF;
+            int locatorPosition = endPosition - ZIP64_END_LOCATOR_SIZE;
+            if (locatorPosition >= 0 && tail.getInt(locatorPosition) == ZIP64_END_LOCATOR_SIGNATURE) {
+                // ZIP64, the offset in the locator excludes the prefixed data(e.g the launch script)
+                long zip64EndOffset = tail.getLong(locatorPosition + 8);
+                long zip64EndPosition = tailPosition + locatorPosition - ZIP64_END_HEADER_SIZE;
+                if (zip64EndOffset < 0 || zip64EndPosition < zip64EndOffset) {
+                    throw new ZipException("The ZIP64 end of central directory is invalid in the file : " + jarFile);
+                }
+                ByteBuffer zip64End = read(channel, zip64EndPosition, ZIP64_END_HEADER_SIZE);
+                if (zip64End.getInt(0) != ZIP64_END_HEADER_SIGNATURE) {
+                    // the extensible data sector is present, the prefixed data is absent
+                    zip64EndPosition = zip64EndOffset;
+                    zip64End = read(channel, zip64EndPosition, ZIP64_END_HEADER_SIZE);
+                }
+                if (zip64End.getInt(0) != ZIP64_END_HEADER_SIGNATURE) {
+                    throw new ZipException("The ZIP64 end of central directory is invalid in the file : " + jarFile);
+                }
+                entriesCount = zip64End.getLong(32);
+                centralDirectorySize = zip64End.getLong(40);
+                centralDirectoryEnd = zip64EndPosition;
+            }
+            if (centralDirectorySize > Integer.MAX_VALUE || entriesCount > Integer.MAX_VALUE
+                    || centralDirectorySize > centralDirectoryEnd) {
+                throw new ZipException("The central directory is unsupported in the file : " + jarFile);
+            }
+            // the prefixed data(e.g the launch script) is skipped
+            ByteBuffer buffer = read(channel, centralDirectoryEnd - centralDirectorySize, (int) centralDirectorySize);
+            return new CentralDirectory(buffer, (int) entriesCount);
+        }
+    }
+
+    /**
+     * Scan the names of {@link JarEntry entries} under the relative path
+     *
+     * @param jarFile      the file of {@link JarFile}
+     * @param relativePath the relative path in {@link JarFile}, e.g "META-INF/"
+     * @param recursive    is recursive on sub directories
+     * @param nameFilter   the filter of names, <code>null</code> means accepting all
+     * @return Read-only {@link Set}
+     * @throws ZipException if the file is not a valid ZIP file
+     * @throws IOException  if an I/O error occurs
+     */
+    @Nonnull
+    public Set<String> scan(File jarFile, String relativePath, boolean recursive, Predicate<String> nameFilter)
+            throws ZipException, IOException {
+        Set<String> names = new LinkedHashSet<>();
+        try (Stream<String> stream = stream(jarFile)) {
+            stream.filter(name -> accept(name, relativePath, recursive))
+                    .filter(nameFilter == null ? name -> true : nameFilter)
+                    .forEach(names::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * The same rules as {@link SimpleJarEntryScanner}
+     */
+    private static boolean accept(String name, String relativePath, boolean recursive) {
+        if (!name.startsWith(relativePath)) {
+            return false;
+        }
+        if (recursive) {
+            return true;
+        }
+        if (name.endsWith(SLASH)) { // directory
+            return name.equals(relativePath);
+        }
+        return name.indexOf(SLASH, relativePath.length()) < 0;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("The end of file is reached at the position : " + (position + buffer.position()));
+            }
+        }
+        buffer.flip();
+        return buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int findEndHeader(ByteBuffer tail) {
+        for (int position = tail.limit() - END_HEADER_SIZE; position >= 0; position--) {
+            if (tail.getInt(position) == END_HEADER_SIGNATURE
+                    // the comment must end at the end of file
+                    && position + END_HEADER_SIZE + (tail.getShort(position + 20) & 0xFFFF) == tail.limit()) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private static class CentralDirectory {
+
+        private final ByteBuffer buffer;
+
+        private final int entries;
+
+        private CentralDirectory(ByteBuffer buffer, int entries) {
+            this.buffer = buffer;
+            this.entries = entries;
+        }
+    }
+
+    private static class EntryNameSpliterator extends Spliterators.AbstractSpliterator<String> {
+
+        private final File jarFile;
+
+        private final ByteBuffer centralDirectory;
+
+        private final int entries;
+
+        private int index;
+
+        private int position;
+
+        private EntryNameSpliterator(File jarFile, ByteBuffer centralDirectory, int entries) {
+            super(entries, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED);
+            this.jarFile = jarFile;
+            this.centralDirectory = centralDirectory;
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            if (index >= entries) {
+                return false;
+            }
+            ByteBuffer buffer = this.centralDirectory;
+            if (position + CENTRAL_HEADER_SIZE > buffer.limit() || buffer.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                throw new UncheckedIOException(new ZipException("The central directory header[index : " + index
+                        + "] is invalid in the file : " + jarFile));
+            }
+            int nameLength = buffer.getShort(position + 28) & 0xFFFF;
+            int extraLength = buffer.getShort(position + 30) & 0xFFFF;
+            int commentLength = buffer.getShort(position + 32) & 0xFFFF;
+            byte[] nameBytes = new byte[nameLength];
+            ByteBuffer nameBuffer = buffer.duplicate();
+            nameBuffer.position(position + CENTRAL_HEADER_SIZE);
+            nameBuffer.get(nameBytes);
+            position += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+            index++;
+            action.accept(new String(nameBytes, UTF_8));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io.scanner;
+
+import org.apache.commons.io.filefilter.IOFileFilter;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * The parallel scanning engine based on {@link ForkJoinPool}, the class path entries (e.g JarFiles or directories)
+ * and the directory subtrees are scanned in parallel, the parallelism bounds the concurrent I/O operations.
+ * <p>
+ * The results are in the same order as the sequential scanning, e.g {@link SimpleFileScanner}.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see SimpleFileScanner
+ * @see ForkJoinPool
+ * @since 1.0.0
+ */
+public class ParallelScanEngine {
+
+    /**
+     * The System property name of the parallelism of scanning
+     */
+    public static final String PARALLELISM_PROPERTY_NAME = "microsphere.scanner.parallelism";
+
+    /**
+     * The System property value of the parallelism of scanning, the default value is the count of processors
+     */
+    public static final int DEFAULT_PARALLELISM = Integer.getInteger(PARALLELISM_PROPERTY_NAME,
+            Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Singleton
+     */
+    public static final ParallelScanEngine INSTANCE = new ParallelScanEngine(DEFAULT_PARALLELISM);
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor
+     *
+     * @param parallelism the max count of the concurrent scanning threads
+     * @throws IllegalArgumentException if <code>parallelism</code> is not positive
+     */
+    public ParallelScanEngine(int parallelism) throws IllegalArgumentException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The 'parallelism' argument must be positive : " + parallelism);
+        }
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("ParallelScanEngine-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Apply the function to the elements in parallel
+     *
+     * @param elements the elements, e.g the class paths
+     * @param function the function to apply
+     * @param <T>      the type of elements
+     * @param <R>      the type of results
+     * @return the results in the order of elements
+     */
+    @Nonnull
+    public <T, R> List<R> map(Collection<? extends T> elements, Function<? super T, ? extends R> function) {
+        if (elements.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return invoke(new MapTask<T, R>(new ArrayList<>(elements), 0, elements.size(), function));
+    }
+
+    /**
+     * Scan all {@link File} {@link Set} under root directory in parallel
+     *
+     * @param rootDirectory Root directory
+     * @param recursive     is recursive on sub directories
+     * @return Read-only {@link Set} , and the order is same as {@link SimpleFileScanner#scan(File, boolean)}
+     */
+    @Nonnull
+    public Set<File> scan(File rootDirectory, boolean recursive) {
+        return scan(rootDirectory, recursive, TrueFileFilter.INSTANCE);
+    }
+
+    /**
+     * Scan all {@link File} {@link Set} that are accepted by {@link IOFileFilter} under root directory in parallel,
+     * the sub directories are scanned in the separated tasks.
+     *
+     * @param rootDirectory Root directory
+     * @param recursive     is recursive on sub directories
+     * @param ioFileFilter  {@link IOFileFilter}
+     * @return Read-only {@link Set} , and the order is same as {@link SimpleFileScanner#scan(File, boolean, IOFileFilter)}
+     */
+    @Nonnull
+    public Set<File> scan(File rootDirectory, boolean recursive, IOFileFilter ioFileFilter) {
+        Set<File> filesSet = new LinkedHashSet<>();
+        if (ioFileFilter.accept(rootDirectory)) {
+            filesSet.add(rootDirectory);
+        }
+        filesSet.addAll(invoke(new DirectoryScanTask(rootDirectory, recursive, ioFileFilter)));
+        return Collections.unmodifiableSet(filesSet);
+    }
+
+    /**
+     * @return the parallelism of scanning
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    private <R> R invoke(ForkJoinTask<R> task) {
+        if (ForkJoinTask.getPool() == pool) {
+            // the nested scanning in the worker thread
+            return task.invoke();
+        }
+        return pool.invoke(task);
+    }
+
+    private static class MapTask<T, R> extends RecursiveTask<List<R>> {
+
+        private static final long serialVersionUID = -1L;
+
+        private final List<? extends T> elements;
+
+        private final int from;
+
+        private final int to;
+
+        private final Function<? super T, ? extends R> function;
+
+        private MapTask(List<? extends T> elements, int from, int to, Function<? super T, ? extends R> function) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+            this.function = function;
+        }
+
+        @Override
+        protected List<R> compute() {
+            if (to - from == 1) {
+                List<R> results = new ArrayList<>(1);
+                results.add(function.apply(elements.get(from)));
+                return results;
+            }
+            int middle = (from + to) >>> 1;
+            MapTask<T, R> right = new MapTask<T, R>(elements, middle, to, function);
+            right.fork();
+            List<R> results = new MapTask<T, R>(elements, from, middle, function).compute();
+            results.addAll(right.join());
+            return results;
+        }
+    }
+
+    private static class DirectoryScanTask extends RecursiveTask<List<File>> {
+
+        private static final long serialVersionUID = -1L;
+
+        private final File directory;
+
+        private final boolean recursive;
+
+        private final IOFileFilter ioFileFilter;
+
+        private DirectoryScanTask(File directory, boolean recursive, IOFileFilter ioFileFilter) {
+            this.directory = directory;
+            this.recursive = recursive;
+            this.ioFileFilter = ioFileFilter;
+        }
+
+        @Override
+        protected List<File> compute() {
+            File[] subFiles = directory.listFiles();
+            if (subFiles == null) {
+                return Collections.emptyList();
+            }
+            // the accepted files and the forked tasks of sub directories in order
+            List<Object> parts = new ArrayList<>(subFiles.length);
+            for (File subFile : subFiles) {
+                if (ioFileFilter.accept(subFile)) {
+                    parts.add(subFile);
+                }
+                if (recursive && subFile.isDirectory()) {
+                    parts.add(new DirectoryScanTask(subFile, true, ioFileFilter).fork());
+                }
+            }
+            List<File> files = new ArrayList<>(parts.size());
+            for (Object part : parts) {
+                if (part instanceof File) {
+                    files.add((File) part);
+                } else {
+                    files.addAll(((DirectoryScanTask) part).join());
+                }
+            }
+            return files;
+        }
+    }
+}
@@ -23,8 +23,10 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.management.AttributeNotFoundException;
+import javax.management.InstanceAlreadyExistsException;
 import javax.management.InstanceNotFoundException;
 import javax.management.IntrospectionException;
+import javax.management.JMException;
 import javax.management.MBeanAttributeInfo;
 import javax.management.MBeanInfo;
 import javax.management.MBeanServer;
@@ -157,6 +159,61 @@ public abstract class JmxUtils extends BaseUtils {
         return attributeValue;
     }
 
+    /**
+     * Register the MBean into the specified {@link MBeanServer}, the previous registered one with the same name will
+     * be replaced.
+     *
+     * @param mBeanServer {@link MBeanServer}
+     * @param mBean       the MBean instance
+     * @param objectName  the name of MBean
+     * @return <code>true</code> if registered successfully
+     */
+    public static boolean registerMBean(MBeanServer mBeanServer, Object mBean, ObjectName objectName) {
+        try {
+            try {
+                mBeanServer.registerMBean(mBean, objectName);
+            } catch (InstanceAlreadyExistsException e) {
+                mBeanServer.unregisterMBean(objectName);
+                mBeanServer.registerMBean(mBean, objectName);
+            }
+            return true;
+        } catch (JMException e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The MBean[name : '{}'] can't be registered into the MBeanServer[default domain : '{}']",
+                        objectName.getCanonicalName(),
+                        mBeanServer.getDefaultDomain(),
+                        e
+                );
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Unregister the MBean from the specified {@link MBeanServer}
+     *
+     * @param mBeanServer {@link MBeanServer}
+     * @param objectName  the name of MBean
+     * @return <code>true</code> if unregistered successfully
+     */
+    public static boolean unregisterMBean(MBeanServer mBeanServer, ObjectName objectName) {
+        try {
+            mBeanServer.unregisterMBean(objectName);
+            return true;
+        } catch (InstanceNotFoundException e) {
+            handleInstanceNotFoundException(e, mBeanServer, objectName);
+        } catch (JMException e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The MBean[name : '{}'] can't be unregistered from the MBeanServer[default domain : '{}']",
+                        objectName.getCanonicalName(),
+                        mBeanServer.getDefaultDomain(),
+                        e
+                );
+            }
+        }
+        return false;
+    }
+
     public static MBeanInfo getMBeanInfo(MBeanServer mBeanServer, ObjectName objectName) {
         MBeanInfo mBeanInfo = null;
         try {
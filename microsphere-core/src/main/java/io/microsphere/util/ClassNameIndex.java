@@ -0,0 +1,326 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * The compact read-only {@link Set} of class names, the names are sorted by their UTF-8 bytes and front-coded in
+ * blocks, the name shares the prefix of the previous one (e.g the package name) that is stored only once. The first
+ * name of each block is stored fully, and the blocks are binary-searched for {@link #contains(Object) lookup} and
+ * package (prefix) queries.
+ * <p>
+ * The layout of name : sharedPrefixLength(varint) suffixLength(varint) suffix(UTF-8)
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ClassPathIndex
+ * @since 1.0.0
+ */
+final class ClassNameIndex extends AbstractSet<String> {
+
+    /**
+     * The count of names per block
+     */
+    static final int BLOCK_SIZE = 16;
+
+    static final ClassNameIndex EMPTY = new ClassNameIndex(emptySet());
+
+    private final byte[] data;
+
+    private final int[] blockOffsets;
+
+    private final int size;
+
+    private final int maxLength;
+
+    ClassNameIndex(Collection<String> classNames) {
+        byte[][] names = new byte[classNames.size()][];
+        int count = 0;
+        for (String className : classNames) {
+            names[count++] = className.getBytes(UTF_8);
+        }
+        Arrays.sort(names, ClassNameIndex::compare);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        int[] blockOffsets = new int[(count + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        int size = 0;
+        int maxLength = 0;
+        byte[] previous = null;
+        for (int i = 0; i < count; i++) {
+            byte[] name = names[i];
+            if (previous != null && compare(previous, name) == 0) { // duplicated
+                continue;
+            }
+            int sharedPrefixLength = 0;
+            if (size % BLOCK_SIZE == 0) {
+                blockOffsets[size / BLOCK_SIZE] = outputStream.size();
+            } else {
+                sharedPrefixLength = sharedPrefixLength(previous, name);
+            }
+            writeVarint(outputStream, sharedPrefixLength);
+            writeVarint(outputStream, name.length - sharedPrefixLength);
+            outputStream.write(name, sharedPrefixLength, name.length - sharedPrefixLength);
+            maxLength = Math.max(maxLength, name.length);
+            previous = name;
+            size++;
+        }
+        this.data = outputStream.toByteArray();
+        this.blockOffsets = Arrays.copyOf(blockOffsets, (size + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        this.size = size;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String) || size == 0) {
+            return false;
+        }
+        byte[] key = ((String) o).getBytes(UTF_8);
+        Cursor cursor = new Cursor(floorBlock(key));
+        for (int i = 0; i < BLOCK_SIZE && cursor.next(); i++) {
+            int result = compare(cursor.current, cursor.length, key, key.length);
+            if (result == 0) {
+                return true;
+            } else if (result > 0) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+
+            private final Cursor cursor = new Cursor(0);
+
+            @Override
+            public boolean hasNext() {
+                return cursor.index < size;
+            }
+
+            @Override
+            public String next() {
+                if (!cursor.next()) {
+                    throw new NoSuchElementException();
+                }
+                return cursor.toString();
+            }
+        };
+    }
+
+    /**
+     * Get the class names in the package, the same as the names whose
+     * {@link ClassUtils#resolvePackageName(String) package name} equals the specified one
+     *
+     * @param packageName package name
+     * @return the read-only class names
+     */
+    Set<String> getClassNamesInPackage(String packageName) {
+        Set<String> classNames = new LinkedHashSet<>();
+        byte[] prefix = (packageName + '.').getBytes(UTF_8);
+        forEachWithPrefix(prefix, cursor -> {
+            if (cursor.indexOf('.', prefix.length) < 0) { // not in the sub package
+                classNames.add(cursor.toString());
+            }
+        });
+        if (packageName.indexOf('.') < 0 && contains(packageName)) {
+            // the class in the default package is regarded as its own package
+            classNames.add(packageName);
+        }
+        return classNames.isEmpty() ? emptySet() : unmodifiableSet(classNames);
+    }
+
+    /**
+     * @return the read-only package names of the class names
+     * @see ClassUtils#resolvePackageName(String)
+     */
+    Set<String> getPackageNames() {
+        Set<String> packageNames = new LinkedHashSet<>();
+        Cursor cursor = new Cursor(0);
+        while (cursor.next()) {
+            int lastDot = cursor.lastIndexOf('.');
+            packageNames.add(new String(cursor.current, 0, lastDot < 0 ? cursor.length : lastDot, UTF_8));
+        }
+        return unmodifiableSet(packageNames);
+    }
+
+    private void forEachWithPrefix(byte[] prefix, Consumer<Cursor> action) {
+        if (size == 0) {
+            return;
+        }
+        Cursor cursor = new Cursor(floorBlock(prefix));
+        while (cursor.next()) {
+            if (compare(cursor.current, cursor.length, prefix, prefix.length) < 0) {
+                continue;
+            }
+            if (sharedPrefixLength(cursor.current, cursor.length, prefix) < prefix.length) {
+                break;
+            }
+            action.accept(cursor);
+        }
+    }
+
+    /**
+     * @return the last block whose first name is less than or equal to the key, or the first block
+     */
+    private int floorBlock(byte[] key) {
+        int low = 0;
+        int high = blockOffsets.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            long lengthAndOffset = readVarint(data, blockOffsets[middle] + 1); // the block head shares nothing
+            if (compare(data, (int) lengthAndOffset, (int) (lengthAndOffset >>> 32), key, 0, key.length) <= 0) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private static int sharedPrefixLength(byte[] previous, byte[] name) {
+        return sharedPrefixLength(previous, previous.length, name);
+    }
+
+    private static int sharedPrefixLength(byte[] bytes, int length, byte[] name) {
+        int limit = Math.min(length, name.length);
+        int i = 0;
+        while (i < limit && bytes[i] == name[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    static int compare(byte[] one, byte[] another) {
+        return compare(one, 0, one.length, another, 0, another.length);
+    }
+
+    private static int compare(byte[] one, int oneLength, byte[] another, int anotherLength) {
+        return compare(one, 0, oneLength, another, 0, anotherLength);
+    }
+
+    private static int compare(byte[] one, int oneOffset, int oneLength, byte[] another, int anotherOffset,
+                               int anotherLength) {
+        int limit = Math.min(oneLength, anotherLength);
+        for (int i = 0; i < limit; i++) {
+            int result = (one[oneOffset + i] & 0xFF) - (another[anotherOffset + i] & 0xFF);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return oneLength - anotherLength;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream outputStream, int value) {
+        while ((value & ~0x7F) != 0) {
+            outputStream.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        outputStream.write(value);
+    }
+
+    /**
+     * @return the value in the high 32 bits and the offset after it in the low 32 bits
+     */
+    private static long readVarint(byte[] data, int offset) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[offset++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return ((long) value << 32) | offset;
+    }
+
+    /**
+     * The cursor decoding the names in order
+     */
+    private final class Cursor {
+
+        private final byte[] current = new byte[maxLength];
+
+        private int length;
+
+        private int index;
+
+        private int offset;
+
+        private Cursor(int block) {
+            this.index = block * BLOCK_SIZE;
+            this.offset = size == 0 ? 0 : blockOffsets[block];
+        }
+
+        private boolean next() {
+            if (index >= size) {
+                return false;
+            }
+            long sharedPrefixLength = readVarint(data, offset);
+            long suffixLength = readVarint(data, (int) sharedPrefixLength);
+            int shared = (int) (sharedPrefixLength >>> 32);
+            int suffix = (int) (suffixLength >>> 32);
+            offset = (int) suffixLength;
+            System.arraycopy(data, offset, current, shared, suffix);
+            offset += suffix;
+            length = shared + suffix;
+            index++;
+            return true;
+        }
+
+        private int indexOf(char c, int fromIndex) {
+            for (int i = fromIndex; i < length; i++) {
+                if (current[i] == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int lastIndexOf(char c) {
+            for (int i = length - 1; i >= 0; i--) {
+                if (current[i] == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public String toString() {
+            return new String(current, 0, length, UTF_8);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.util;
+
+import io.microsphere.constants.FileConstants;
+import io.microsphere.io.scanner.ParallelScanEngine;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static io.microsphere.util.ClassUtils.findClassNamesInClassPath;
+import static io.microsphere.util.ClassUtils.resolveClassName;
+import static io.microsphere.util.ClassUtils.resolvePackageName;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * The lazy index of class names in {@link ClassPathUtils#getBootstrapClassPaths() bootstrap class paths} and
+ * {@link ClassPathUtils#getClassPaths() application class paths}, the class path entry is scanned only when it's
+ * required at the first time, and the classes directory is looked up without scanning if possible.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ClassUtils
+ * @since 1.0.0
+ */
+final class ClassPathIndex {
+
+    /**
+     * The index of the current runtime, initialized when {@link ClassPathIndex} is used at the first time
+     */
+    static final ClassPathIndex INSTANCE = new ClassPathIndex(resolveClassPaths());
+
+    private final ParallelScanEngine scanEngine;
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * The class names of all class paths, initialized on demand
+     */
+    private volatile ClassNameIndex allClassNames;
+
+    ClassPathIndex(Collection<String> classPaths) {
+        this(classPaths, ParallelScanEngine.INSTANCE, classPath -> findClassNamesInClassPath(classPath, true));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param classPaths the class paths
+     * @param scanEngine the {@link ParallelScanEngine} to scan the class path entries in parallel
+     * @param scanner    the function to scan the class names of the class path entry
+     */
+    ClassPathIndex(Collection<String> classPaths, ParallelScanEngine scanEngine,
+                   Function<String, Set<String>> scanner) {
+        Map<String, Entry> entries = new LinkedHashMap<>(classPaths.size());
+        for (String classPath : classPaths) {
+            entries.put(classPath, new Entry(classPath, scanner));
+        }
+        this.scanEngine = scanEngine;
+        this.entries = unmodifiableMap(entries);
+    }
+
+    private static Set<String> resolveClassPaths() {
+        Set<String> classPaths = new LinkedHashSet<>();
+        classPaths.addAll(ClassPathUtils.getBootstrapClassPaths());
+        classPaths.addAll(ClassPathUtils.getClassPaths());
+        return classPaths;
+    }
+
+    /**
+     * @param classPath class path
+     * @return the class names in the class path, or <code>null</code> if it's not indexed
+     */
+    Set<String> getClassNames(String classPath) {
+        Entry entry = entries.get(classPath);
+        return entry == null ? null : entry.getIndex();
+    }
+
+    /**
+     * Find the first class path containing the class
+     *
+     * @param className class name
+     * @return <code>null</code> if not found
+     */
+    String findClassPath(String className) {
+        for (Entry entry : entries.values()) {
+            if (entry.contains(className)) {
+                return entry.classPath;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param packageName package name
+     * @return the read-only class names in the package of all class paths
+     */
+    Set<String> getClassNamesInPackage(String packageName) {
+        // the JarFiles can't be looked up without scanning
+        indexAll(entry -> !entry.file.isDirectory());
+        Set<String> classNames = null;
+        for (Entry entry : entries.values()) {
+            Set<String> classNamesInEntry = entry.getClassNamesInPackage(packageName);
+            if (!classNamesInEntry.isEmpty()) {
+                if (classNames == null) {
+                    classNames = new LinkedHashSet<>();
+                }
+                classNames.addAll(classNamesInEntry);
+            }
+        }
+        return classNames == null ? emptySet() : unmodifiableSet(classNames);
+    }
+
+    /**
+     * @return the read-only package names of all class paths
+     */
+    Set<String> getPackageNames() {
+        indexAll(entry -> true);
+        Set<String> packageNames = new LinkedHashSet<>();
+        for (Entry entry : entries.values()) {
+            packageNames.addAll(entry.getIndex().getPackageNames());
+        }
+        return unmodifiableSet(packageNames);
+    }
+
+    /**
+     * @return the read-only class names of all class paths
+     */
+    Set<String> getAllClassNames() {
+        ClassNameIndex allClassNames = this.allClassNames;
+        if (allClassNames == null) {
+            indexAll(entry -> true);
+            List<String> classNames = new ArrayList<>();
+            for (Entry entry : entries.values()) {
+                classNames.addAll(entry.getIndex());
+            }
+            allClassNames = new ClassNameIndex(classNames);
+            this.allClassNames = allClassNames;
+        }
+        return allClassNames;
+    }
+
+    /**
+     * @return the read-only map of all class paths, the class path as key, the class names as value
+     */
+    Map<String, Set<String>> getClassPathToClassNamesMap() {
+        indexAll(entry -> true);
+        Map<String, Set<String>> classPathToClassNamesMap = new LinkedHashMap<>(entries.size());
+        for (Entry entry : entries.values()) {
+            classPathToClassNamesMap.put(entry.classPath, entry.getIndex());
+        }
+        return unmodifiableMap(classPathToClassNamesMap);
+    }
+
+    /**
+     * Scan the class path entries that are not indexed in parallel
+     *
+     * @param filter the filter of entries
+     */
+    private void indexAll(Predicate<Entry> filter) {
+        List<Entry> entries = new ArrayList<>(this.entries.size());
+        for (Entry entry : this.entries.values()) {
+            if (entry.index == null && filter.test(entry)) {
+                entries.add(entry);
+            }
+        }
+        if (entries.size() > 1) {
+            scanEngine.map(entries, Entry::getIndex);
+        }
+    }
+
+    /**
+     * @param classPath class path
+     * @return <code>true</code> if the class path has been scanned
+     */
+    boolean isIndexed(String classPath) {
+        Entry entry = entries.get(classPath);
+        return entry != null && entry.index != null;
+    }
+
+    /**
+     * The class path entry, a JarFile or classes directory
+     */
+    private static final class Entry {
+
+        private final String classPath;
+
+        private final File file;
+
+        private final Function<String, Set<String>> scanner;
+
+        private volatile ClassNameIndex index;
+
+        /**
+         * The memoized scanning, guarded by the monitor of this
+         */
+        private ForkJoinTask<ClassNameIndex> indexTask;
+
+        private Entry(String classPath, Function<String, Set<String>> scanner) {
+            this.classPath = classPath;
+            this.file = new File(classPath);
+            this.scanner = scanner;
+        }
+
+        private boolean contains(String className) {
+            ClassNameIndex index = this.index;
+            if (index == null && file.isDirectory()) {
+                // look up the class file without scanning
+                String relativePath = className.replace('.', File.separatorChar) + FileConstants.CLASS_EXTENSION;
+                return new File(file, relativePath).isFile();
+            }
+            return getIndex().contains(className);
+        }
+
+        private Set<String> getClassNamesInPackage(String packageName) {
+            ClassNameIndex index = this.index;
+            if (index == null && file.isDirectory()) {
+                // list the package directory without scanning
+                return findClassNamesInPackageDirectory(packageName);
+            }
+            return getIndex().getClassNamesInPackage(packageName);
+        }
+
+        private Set<String> findClassNamesInPackageDirectory(String packageName) {
+            String packagePath = packageName.replace('.', '/');
+            File[] classFiles = new File(file, packagePath).listFiles(
+                    f -> f.isFile() && f.getName().endsWith(FileConstants.CLASS_EXTENSION));
+            if (classFiles == null || classFiles.length == 0) {
+                return emptySet();
+            }
+            Set<String> classNames = new LinkedHashSet<>(classFiles.length);
+            for (File classFile : classFiles) {
+                String className = resolveClassName(packagePath + '/' + classFile.getName());
+                if (packageName.equals(resolvePackageName(className))) {
+                    classNames.add(className);
+                }
+            }
+            return classNames;
+        }
+
+        /**
+         * The entry is scanned once by the first caller, the others wait for it without the monitor of this, thus
+         * the scanning could be served by the {@link ParallelScanEngine} whose worker threads are waiting, they are
+         * compensated by the {@link java.util.concurrent.ForkJoinPool pool} on {@link ForkJoinTask#join() joining}.
+         */
+        private ClassNameIndex getIndex() {
+            ClassNameIndex index = this.index;
+            if (index != null) {
+                return index;
+            }
+            ForkJoinTask<ClassNameIndex> indexTask;
+            boolean owner = false;
+            synchronized (this) {
+                indexTask = this.indexTask;
+                if (indexTask == null) {
+                    indexTask = ForkJoinTask.adapt(() -> new ClassNameIndex(scanner.apply(classPath)));
+                    this.indexTask = indexTask;
+                    owner = true;
+                }
+            }
+            if (!owner) {
+                return indexTask.join();
+            }
+            try {
+                index = indexTask.invoke();
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    // rescanned by the next caller
+                    this.indexTask = null;
+                }
+                throw e;
+            }
+            this.index = index;
+            return index;
+        }
+    }
+}
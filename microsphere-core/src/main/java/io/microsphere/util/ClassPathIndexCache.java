@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.util;
+
+import io.microsphere.io.scanner.JarEntryNameScanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+import static io.microsphere.util.SystemUtils.getSystemProperty;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.attribute.PosixFilePermission.GROUP_WRITE;
+import static java.nio.file.attribute.PosixFilePermission.OTHERS_WRITE;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * The persistent cache of the class names in the JarFiles, one index file per JarFile is stored in the cache
+ * directory. The index file is memory-mapped on loading, and invalidated automatically if the size, last-modified
+ * time, status-changed time or file key(e.g. inode) of JarFile is changed, the latter two are only validated where the
+ * file system provides them. Thus a lookup costs a file stat rather than the reading of JarFile. Optionally, the
+ * CRC-32 checksum of the central directory of JarFile is validated as well.
+ * <p>
+ * The cache is disabled by default, and it's also disabled if the cache directory is not owned by the current user,
+ * or it's writable by the others. The least recently stored index files are evicted if the count exceeds the limit.
+ * <p>
+ * The layout of index file :
+ * <pre>
+ * magic(int) version(short) path(UTF) size(long) lastModified(long) changeTime(long) fileKey(UTF) checksum(long)
+ * count(int) {length(short) name(UTF-8)}*
+ * </pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ClassUtils#CLASS_PATH_INDEX_CACHE_DIRECTORY_PROPERTY_NAME
+ * @see ClassUtils#CLASS_PATH_INDEX_CACHE_CHECKSUM_PROPERTY_NAME
+ * @see JarEntryNameScanner#checksum(File)
+ * @since 1.0.0
+ */
+final class ClassPathIndexCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassPathIndexCache.class);
+
+    static final int MAGIC = 0x4D534349;
+
+    static final short VERSION = 3;
+
+    static final String INDEX_FILE_EXTENSION = ".idx";
+
+    /**
+     * The default max count of the index files in the cache directory
+     */
+    static final int DEFAULT_MAX_INDEX_FILES = 1024;
+
+    /**
+     * The cache of the current runtime, it's enabled only if the property value of
+     * {@link ClassUtils#CLASS_PATH_INDEX_CACHE_DIRECTORY_PROPERTY_NAME} is present
+     */
+    static final ClassPathIndexCache INSTANCE = new ClassPathIndexCache(resolveDirectory(), DEFAULT_MAX_INDEX_FILES,
+            Boolean.parseBoolean(getSystemProperty(ClassUtils.CLASS_PATH_INDEX_CACHE_CHECKSUM_PROPERTY_NAME)));
+
+    /**
+     * The cache directory, or <code>null</code> if disabled
+     */
+    private final File directory;
+
+    private final int maxIndexFiles;
+
+    /**
+     * Whether the CRC-32 checksum of the central directory is validated or not
+     */
+    private final boolean checksumEnabled;
+
+    /**
+     * Whether the cache directory is trusted, <code>null</code> if not checked yet
+     */
+    private volatile Boolean trusted;
+
+    ClassPathIndexCache(File directory) {
+        this(directory, DEFAULT_MAX_INDEX_FILES);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param directory     the cache directory, or <code>null</code> if disabled
+     * @param maxIndexFiles the max count of the index files in the cache directory
+     */
+    ClassPathIndexCache(File directory, int maxIndexFiles) {
+        this(directory, maxIndexFiles, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param directory       the cache directory, or <code>null</code> if disabled
+     * @param maxIndexFiles   the max count of the index files in the cache directory
+     * @param checksumEnabled whether the CRC-32 checksum of the central directory is validated or not
+     */
+    ClassPathIndexCache(File directory, int maxIndexFiles, boolean checksumEnabled) {
+        this.directory = directory;
+        this.maxIndexFiles = maxIndexFiles;
+        this.checksumEnabled = checksumEnabled;
+    }
+
+    static File resolveDirectory() {
+        String directory = getSystemProperty(ClassUtils.CLASS_PATH_INDEX_CACHE_DIRECTORY_PROPERTY_NAME);
+        return directory == null || directory.trim().isEmpty() ? null : new File(directory);
+    }
+
+    /**
+     * Get the class names of JarFile from the cache, or scan and store them if the cache is absent or stale
+     *
+     * @param jarFile JarFile
+     * @param scanner the function to scan the class names of JarFile
+     * @return non-null
+     */
+    Set<String> getClassNames(File jarFile, Function<File, Set<String>> scanner) {
+        if (!isEnabled()) {
+            return scanner.apply(jarFile);
+        }
+        // resolved before scanning, thus the changes during scanning are detected next time
+        FileStamp stamp = stamp(jarFile);
+        if (stamp == null) {
+            return scanner.apply(jarFile);
+        }
+        Set<String> classNames = load(jarFile, stamp);
+        if (classNames == null) {
+            classNames = scanner.apply(jarFile);
+            if (!classNames.isEmpty()) {
+                store(jarFile, stamp, classNames);
+            }
+        }
+        return classNames;
+    }
+
+    /**
+     * Load the class names of JarFile
+     *
+     * @param jarFile JarFile
+     * @return <code>null</code> if the index file is absent, stale or broken
+     */
+    Set<String> load(File jarFile) {
+        if (!isEnabled()) {
+            return null;
+        }
+        FileStamp stamp = stamp(jarFile);
+        return stamp == null ? null : load(jarFile, stamp);
+    }
+
+    private Set<String> load(File jarFile, FileStamp stamp) {
+        File indexFile = getIndexFile(jarFile);
+        if (!indexFile.isFile()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(indexFile.toPath(), READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION
+                    || !jarFile.getAbsolutePath().equals(readString(buffer))
+                    || buffer.getLong() != stamp.size || buffer.getLong() != stamp.lastModified
+                    || buffer.getLong() != stamp.changeTime || !stamp.fileKey.equals(readString(buffer))
+                    || buffer.getLong() != stamp.checksum) {
+                return null;
+            }
+            int count = buffer.getInt();
+            Set<String> classNames = new LinkedHashSet<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                classNames.add(readString(buffer));
+            }
+            return classNames;
+        } catch (IOException | RuntimeException e) {
+            logger.debug("The index file[{}] of JarFile[{}] can't be loaded", indexFile, jarFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * Store the class names of JarFile, the index file is replaced atomically
+     *
+     * @param jarFile    JarFile
+     * @param classNames the class names of JarFile
+     */
+    void store(File jarFile, Set<String> classNames) {
+        if (!isEnabled()) {
+            return;
+        }
+        FileStamp stamp = stamp(jarFile);
+        if (stamp != null) {
+            store(jarFile, stamp, classNames);
+        }
+    }
+
+    private void store(File jarFile, FileStamp stamp, Set<String> classNames) {
+        Path indexPath = getIndexFile(jarFile).toPath();
+        Path tempPath = null;
+        try {
+            tempPath = Files.createTempFile(directory.toPath(), jarFile.getName(), ".tmp");
+            try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+                outputStream.writeInt(MAGIC);
+                outputStream.writeShort(VERSION);
+                writeString(outputStream, jarFile.getAbsolutePath());
+                outputStream.writeLong(stamp.size);
+                outputStream.writeLong(stamp.lastModified);
+                outputStream.writeLong(stamp.changeTime);
+                writeString(outputStream, stamp.fileKey);
+                outputStream.writeLong(stamp.checksum);
+                outputStream.writeInt(classNames.size());
+                for (String className : classNames) {
+                    writeString(outputStream, className);
+                }
+            }
+            try {
+                Files.move(tempPath, indexPath, ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, indexPath, REPLACE_EXISTING);
+            }
+            evict();
+        } catch (IOException | RuntimeException e) {
+            logger.debug("The index file[{}] of JarFile[{}] can't be stored", indexPath, jarFile, e);
+            if (tempPath != null) {
+                tempPath.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Resolve the {@link FileStamp} of JarFile
+     *
+     * @param jarFile JarFile
+     * @return <code>null</code> if the attributes or the checksum of JarFile can't be read
+     */
+    private FileStamp stamp(File jarFile) {
+        Path path = jarFile.toPath();
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long changeTime = -1L;
+            if (path.getFileSystem().supportedFileAttributeViews().contains("unix")) {
+                // changed by any rewriting, even if the last-modified time is restored
+                changeTime = ((FileTime) Files.getAttribute(path, "unix:ctime")).to(NANOSECONDS);
+            }
+            Object fileKey = attributes.fileKey();
+            long checksum = checksumEnabled ? JarEntryNameScanner.INSTANCE.checksum(jarFile) : 0L;
+            return new FileStamp(attributes.size(), attributes.lastModifiedTime().to(NANOSECONDS), changeTime,
+                    fileKey == null ? "" : fileKey.toString(), checksum);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("The stamp of JarFile[{}] can't be resolved", jarFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * Evict the least recently stored index files if the count exceeds the limit
+     */
+    private void evict() {
+        File[] indexFiles = directory.listFiles((dir, name) -> name.endsWith(INDEX_FILE_EXTENSION));
+        if (indexFiles == null || indexFiles.length <= maxIndexFiles) {
+            return;
+        }
+        Arrays.sort(indexFiles, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < indexFiles.length - maxIndexFiles; i++) {
+            indexFiles[i].delete();
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the cache directory is present and trusted
+     */
+    boolean isEnabled() {
+        if (directory == null) {
+            return false;
+        }
+        Boolean trusted = this.trusted;
+        if (trusted == null) {
+            trusted = checkDirectory();
+            this.trusted = trusted;
+        }
+        return trusted;
+    }
+
+    /**
+     * Check the cache directory is owned by the current user and not writable by the others, it's created with the
+     * owner-only permissions if absent.
+     */
+    private boolean checkDirectory() {
+        Path directoryPath = directory.toPath();
+        Path probePath = null;
+        try {
+            boolean posix = directoryPath.getFileSystem().supportedFileAttributeViews().contains("posix");
+            if (!directory.exists()) {
+                if (posix) {
+                    Files.createDirectories(directoryPath,
+                            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+                } else {
+                    Files.createDirectories(directoryPath);
+                }
+            }
+            // the owner of the new file is the current user
+            probePath = Files.createTempFile(directoryPath, "probe", ".tmp");
+            if (!Files.getOwner(directoryPath).equals(Files.getOwner(probePath))) {
+                logger.warn("The class path index cache is disabled, the directory[{}] is not owned by the current user",
+                        directory);
+                return false;
+            }
+            if (posix) {
+                Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directoryPath);
+                if (permissions.contains(GROUP_WRITE) || permissions.contains(OTHERS_WRITE)) {
+                    logger.warn("The class path index cache is disabled, the directory[{}] is writable by the others",
+                            directory);
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("The class path index cache is disabled, the directory[{}] can't be checked", directory, e);
+            return false;
+        } finally {
+            if (probePath != null) {
+                probePath.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * @param jarFile JarFile
+     * @return the index file of JarFile, the absolute path is hashed into the file name
+     */
+    File getIndexFile(File jarFile) {
+        String path = jarFile.getAbsolutePath();
+        return new File(directory, jarFile.getName() + "-" + Integer.toHexString(path.hashCode()) + INDEX_FILE_EXTENSION);
+    }
+
+    /**
+     * The stamp of JarFile validating the index file, the <code>changeTime</code> is <code>-1</code> and the
+     * <code>fileKey</code> is empty if the file system doesn't provide them, the <code>checksum</code> is
+     * <code>0</code> if it's disabled.
+     */
+    private static class FileStamp {
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final long changeTime;
+
+        private final String fileKey;
+
+        private final long checksum;
+
+        private FileStamp(long size, long lastModified, long changeTime, String fileKey, long checksum) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.changeTime = changeTime;
+            this.fileKey = fileKey;
+            this.checksum = checksum;
+        }
+    }
+
+    private static void writeString(DataOutputStream outputStream, String value) throws IOException {
+        byte[] bytes = value.getBytes(UTF_8);
+        outputStream.writeShort(bytes.length);
+        outputStream.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
@@ -8,10 +8,11 @@ import io.microsphere.collection.MapUtils;
 import io.microsphere.constants.Constants;
 import io.microsphere.constants.FileConstants;
 import io.microsphere.constants.PathConstants;
-import io.microsphere.filter.ClassFileJarEntryFilter;
 import io.microsphere.io.FileUtils;
+import io.microsphere.io.scanner.JarEntryNameScanner;
+import io.microsphere.io.scanner.ParallelScanEngine;
 import io.microsphere.io.scanner.SimpleFileScanner;
-import io.microsphere.io.scanner.SimpleJarEntryScanner;
+import org.apache.commons.io.filefilter.IOFileFilter;
 import org.apache.commons.io.filefilter.SuffixFileFilter;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -32,7 +33,6 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -42,7 +42,6 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.function.Predicate;
-import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
 import static io.microsphere.collection.SetUtils.asSet;
@@ -80,6 +79,20 @@ public abstract class ClassUtils extends BaseUtils {
      */
     public static final String ARRAY_SUFFIX = "[]";
 
+    /**
+     * The property name of the directory storing the persistent index of class names in the JarFiles, the index is
+     * not persisted if the property is absent or empty. The directory must be owned by the current user and not
+     * writable by the others, it should not be shared, e.g {@link SystemUtils#JAVA_IO_TMPDIR}.
+     */
+    public static final String CLASS_PATH_INDEX_CACHE_DIRECTORY_PROPERTY_NAME = "microsphere.class-path.index-cache.directory";
+
+    /**
+     * The property name of whether the index of class names is also validated by the CRC-32 checksum of the central
+     * directory of JarFile, which detects the JarFile rewritten within the same size and timestamps, but reads the
+     * whole central directory on every lookup. It's disabled by default.
+     */
+    public static final String CLASS_PATH_INDEX_CACHE_CHECKSUM_PROPERTY_NAME = "microsphere.class-path.index-cache.checksum";
+
     /**
      * @see {@link Class#ANNOTATION}
      */
@@ -167,12 +180,6 @@ public abstract class ClassUtils extends BaseUtils {
 
     static final Map<Class<?>, Boolean> concreteClassCache = synchronizedMap(new WeakHashMap<>());
 
-    private static final Map<String, Set<String>> classPathToClassNamesMap = initClassPathToClassNamesMap();
-
-    private static final Map<String, String> classNameToClassPathsMap = initClassNameToClassPathsMap();
-
-    private static final Map<String, Set<String>> packageNameToClassNamesMap = initPackageNameToClassNamesMap();
-
     static {
         PRIMITIVE_WRAPPER_TYPE_MAP = MapUtils.of(
                 Void.class, Void.TYPE,
@@ -474,49 +481,6 @@ public abstract class ClassUtils extends BaseUtils {
         return (modifiers & SYNTHETIC) != 0;
     }
 
-
-    private static Map<String, Set<String>> initClassPathToClassNamesMap() {
-        Map<String, Set<String>> classPathToClassNamesMap = new LinkedHashMap<>();
-        Set<String> classPaths = new LinkedHashSet<>();
-        classPaths.addAll(ClassPathUtils.getBootstrapClassPaths());
-        classPaths.addAll(ClassPathUtils.getClassPaths());
-        for (String classPath : classPaths) {
-            Set<String> classNames = findClassNamesInClassPath(classPath, true);
-            classPathToClassNamesMap.put(classPath, classNames);
-        }
-        return Collections.unmodifiableMap(classPathToClassNamesMap);
-    }
-
-    private static Map<String, String> initClassNameToClassPathsMap() {
-        Map<String, String> classNameToClassPathsMap = new LinkedHashMap<>();
-
-        for (Map.Entry<String, Set<String>> entry : classPathToClassNamesMap.entrySet()) {
-            String classPath = entry.getKey();
-            Set<String> classNames = entry.getValue();
-            for (String className : classNames) {
-                classNameToClassPathsMap.put(className, classPath);
-            }
-        }
-
-        return Collections.unmodifiableMap(classNameToClassPathsMap);
-    }
-
-    private static Map<String, Set<String>> initPackageNameToClassNamesMap() {
-        Map<String, Set<String>> packageNameToClassNamesMap = new LinkedHashMap();
-        for (Map.Entry<String, String> entry : classNameToClassPathsMap.entrySet()) {
-            String className = entry.getKey();
-            String packageName = resolvePackageName(className);
-            Set<String> classNamesInPackage = packageNameToClassNamesMap.get(packageName);
-            if (classNamesInPackage == null) {
-                classNamesInPackage = new LinkedHashSet();
-                packageNameToClassNamesMap.put(packageName, classNamesInPackage);
-            }
-            classNamesInPackage.add(className);
-        }
-
-        return Collections.unmodifiableMap(packageNameToClassNamesMap);
-    }
-
     /**
      * Get all package names in {@link ClassPathUtils#getClassPaths() class paths}
      *
@@ -524,7 +488,7 @@ public abstract class ClassUtils extends BaseUtils {
      */
     @Nonnull
     public static Set<String> getAllPackageNamesInClassPaths() {
-        return packageNameToClassNamesMap.keySet();
+        return ClassPathIndex.INSTANCE.getPackageNames();
     }
 
     /**
@@ -578,8 +542,7 @@ public abstract class ClassUtils extends BaseUtils {
 
     protected static Set<String> findClassNamesInArchiveDirectory(File classesDirectory, boolean recursive) {
         Set<String> classNames = new LinkedHashSet<>();
-        SimpleFileScanner simpleFileScanner = SimpleFileScanner.INSTANCE;
-        Set<File> classFiles = simpleFileScanner.scan(classesDirectory, recursive, new SuffixFileFilter(CLASS));
+        Set<File> classFiles = scanClassFiles(classesDirectory, recursive, new SuffixFileFilter(CLASS));
         for (File classFile : classFiles) {
             String className = resolveClassName(classesDirectory, classFile);
             classNames.add(className);
@@ -588,21 +551,7 @@ public abstract class ClassUtils extends BaseUtils {
     }
 
     protected static Set<String> findClassNamesInArchiveFile(File jarFile, boolean recursive) {
-        Set<String> classNames = new LinkedHashSet<>();
-        SimpleJarEntryScanner simpleJarEntryScanner = SimpleJarEntryScanner.INSTANCE;
-        try {
-            JarFile jarFile_ = new JarFile(jarFile);
-            Set<JarEntry> jarEntries = simpleJarEntryScanner.scan(jarFile_, recursive, ClassFileJarEntryFilter.INSTANCE);
-            for (JarEntry jarEntry : jarEntries) {
-                String jarEntryName = jarEntry.getName();
-                String className = resolveClassName(jarEntryName);
-                if (StringUtils.isNotBlank(className)) {
-                    classNames.add(className);
-                }
-            }
-        } catch (Exception ignored) {
-        }
-        return classNames;
+        return findClassNamesInJarFile(jarFile, recursive);
     }
 
     /**
@@ -624,7 +573,7 @@ public abstract class ClassUtils extends BaseUtils {
      */
     @Nullable
     public static String findClassPath(String className) {
-        return classNameToClassPathsMap.get(className);
+        return ClassPathIndex.INSTANCE.findClassPath(className);
     }
 
     /**
@@ -636,7 +585,7 @@ public abstract class ClassUtils extends BaseUtils {
      */
     @Nonnull
     public static Set<String> getClassNamesInClassPath(String classPath, boolean recursive) {
-        Set<String> classNames = classPathToClassNamesMap.get(classPath);
+        Set<String> classNames = ClassPathIndex.INSTANCE.getClassNames(classPath);
         if (CollectionUtils.isEmpty(classNames)) {
             classNames = findClassNamesInClassPath(classPath, recursive);
         }
@@ -662,15 +611,13 @@ public abstract class ClassUtils extends BaseUtils {
      */
     @Nonnull
     public static Set<String> getClassNamesInPackage(String packageName) {
-        Set<String> classNames = packageNameToClassNamesMap.get(packageName);
-        return classNames == null ? Collections.emptySet() : classNames;
+        return ClassPathIndex.INSTANCE.getClassNamesInPackage(packageName);
     }
 
 
     protected static Set<String> findClassNamesInDirectory(File classesDirectory, boolean recursive) {
         Set<String> classNames = new LinkedHashSet();
-        SimpleFileScanner simpleFileScanner = SimpleFileScanner.INSTANCE;
-        Set<File> classFiles = simpleFileScanner.scan(classesDirectory, recursive, new SuffixFileFilter(FileConstants.CLASS_EXTENSION));
+        Set<File> classFiles = scanClassFiles(classesDirectory, recursive, new SuffixFileFilter(FileConstants.CLASS_EXTENSION));
         for (File classFile : classFiles) {
             String className = resolveClassName(classesDirectory, classFile);
             classNames.add(className);
@@ -678,30 +625,39 @@ public abstract class ClassUtils extends BaseUtils {
         return classNames;
     }
 
+    private static Set<File> scanClassFiles(File classesDirectory, boolean recursive, IOFileFilter ioFileFilter) {
+        if (recursive) {
+            // the sub directories are scanned in parallel
+            return ParallelScanEngine.INSTANCE.scan(classesDirectory, true, ioFileFilter);
+        }
+        return SimpleFileScanner.INSTANCE.scan(classesDirectory, false, ioFileFilter);
+    }
+
     protected static Set<String> findClassNamesInJarFile(File jarFile, boolean recursive) {
         if (!jarFile.exists()) {
             return Collections.emptySet();
         }
+        if (recursive) {
+            return ClassPathIndexCache.INSTANCE.getClassNames(jarFile, file -> scanClassNamesInJarFile(file, true));
+        }
+        return scanClassNamesInJarFile(jarFile, false);
+    }
 
+    private static Set<String> scanClassNamesInJarFile(File jarFile, boolean recursive) {
         Set<String> classNames = new LinkedHashSet();
-
-        SimpleJarEntryScanner simpleJarEntryScanner = SimpleJarEntryScanner.INSTANCE;
         try {
-            JarFile jarFile_ = new JarFile(jarFile);
-            Set<JarEntry> jarEntries = simpleJarEntryScanner.scan(jarFile_, recursive, ClassFileJarEntryFilter.INSTANCE);
-
-            for (JarEntry jarEntry : jarEntries) {
-                String jarEntryName = jarEntry.getName();
+            // only the central directory is read
+            Set<String> jarEntryNames = JarEntryNameScanner.INSTANCE.scan(jarFile, StringUtils.EMPTY, recursive,
+                    name -> name.endsWith(FileConstants.CLASS_EXTENSION));
+            for (String jarEntryName : jarEntryNames) {
                 String className = resolveClassName(jarEntryName);
                 if (StringUtils.isNotBlank(className)) {
                     classNames.add(className);
                 }
             }
-
         } catch (Exception e) {
 
         }
-
         return classNames;
     }
 
@@ -733,7 +689,7 @@ public abstract class ClassUtils extends BaseUtils {
      */
     @Nonnull
     public static Map<String, Set<String>> getClassPathToClassNamesMap() {
-        return classPathToClassNamesMap;
+        return ClassPathIndex.INSTANCE.getClassPathToClassNamesMap();
     }
 
     /**
@@ -743,11 +699,7 @@ public abstract class ClassUtils extends BaseUtils {
      */
     @Nonnull
     public static Set<String> getAllClassNamesInClassPaths() {
-        Set<String> allClassNames = new LinkedHashSet();
-        for (Set<String> classNames : classPathToClassNamesMap.values()) {
-            allClassNames.addAll(classNames);
-        }
-        return Collections.unmodifiableSet(allClassNames);
+        return ClassPathIndex.INSTANCE.getAllClassNames();
     }
 
 
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static io.microsphere.event.CoalescingEventDispatcher.keyBySource;
+import static io.microsphere.event.CoalescingEventDispatcher.latest;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link CoalescingEventDispatcher} Test
+ *
+ * @since 1.0.0
+ */
+public class CoalescingEventDispatcherTest {
+
+    private DirectEventDispatcher delegate;
+
+    private List<EchoEvent> events;
+
+    private CountDownLatch latch;
+
+    @BeforeEach
+    public void init() {
+        delegate = new DirectEventDispatcher();
+        delegate.removeAllEventListeners();
+        events = new ArrayList<>();
+        latch = new CountDownLatch(1);
+        delegate.addEventListener(new EchoEventListener() {
+            @Override
+            public void handleEvent(EchoEvent event) {
+                synchronized (events) {
+                    events.add(event);
+                }
+                latch.countDown();
+            }
+        });
+    }
+
+    @AfterEach
+    public void destroy() {
+        delegate.removeAllEventListeners();
+    }
+
+    @Test
+    public void testFlush() {
+        CoalescingEventDispatcher dispatcher = new CoalescingEventDispatcher(delegate, keyBySource(), 1, HOURS);
+        EchoEvent event = new EchoEvent("Hello,World");
+        dispatcher.dispatch(new EchoEvent("Hello,World"));
+        dispatcher.dispatch(new EchoEvent("Hello,World"));
+        dispatcher.dispatch(event);
+        dispatcher.dispatch(new EchoEvent("Others"));
+
+        assertTrue(events.isEmpty());
+        assertEquals(2, dispatcher.getPendingCount());
+
+        dispatcher.flush();
+        assertEquals(2, events.size());
+        assertTrue(events.contains(event));
+        assertEquals(0, dispatcher.getPendingCount());
+
+        dispatcher.close();
+    }
+
+    @Test
+    public void testTimeWindow() throws InterruptedException {
+        CoalescingEventDispatcher dispatcher = new CoalescingEventDispatcher(delegate, keyBySource(), 50, MILLISECONDS);
+        EchoEvent event = new EchoEvent("Hello,World");
+        dispatcher.dispatch(new EchoEvent("Hello,World"));
+        dispatcher.dispatch(event);
+
+        assertTrue(latch.await(5, SECONDS));
+        assertEquals(1, events.size());
+        assertSame(event, events.get(0));
+
+        dispatcher.close();
+    }
+
+    @Test
+    public void testCountWindow() {
+        CoalescingEventDispatcher dispatcher = new CoalescingEventDispatcher(delegate, keyBySource(), 1, HOURS,
+                3, latest());
+        for (int i = 0; i < 7; i++) {
+            dispatcher.dispatch(new EchoEvent("Hello,World"));
+        }
+        assertEquals(2, events.size());
+        assertEquals(1, dispatcher.getPendingCount());
+
+        dispatcher.close();
+        assertEquals(3, events.size());
+    }
+
+    @Test
+    public void testMerger() {
+        CoalescingEventDispatcher dispatcher = new CoalescingEventDispatcher(delegate, event -> "key", 1, HOURS,
+                Integer.MAX_VALUE, (previous, current) -> new EchoEvent(previous.getSource() + "," + current.getSource()));
+        dispatcher.dispatch(new EchoEvent("A"));
+        dispatcher.dispatch(new EchoEvent("B"));
+        dispatcher.dispatch(new EchoEvent("C"));
+        dispatcher.close();
+        assertEquals(1, events.size());
+        assertEquals("A,B,C", events.get(0).getSource());
+    }
+
+    @Test
+    public void testNullKey() {
+        CoalescingEventDispatcher dispatcher = new CoalescingEventDispatcher(delegate, event -> null, 1, HOURS);
+        dispatcher.dispatch(new EchoEvent("Hello,World"));
+        assertEquals(1, events.size());
+        dispatcher.close();
+    }
+
+    @Test
+    public void testDispatchAfterClose() {
+        CoalescingEventDispatcher dispatcher = new CoalescingEventDispatcher(delegate, keyBySource(), 1, HOURS);
+        dispatcher.close();
+        assertThrows(IllegalStateException.class, () -> dispatcher.dispatch(new EchoEvent("Hello,World")));
+        assertEquals(0, events.size());
+    }
+
+    @Test
+    public void testConstructorWithoutWindow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CoalescingEventDispatcher(delegate, keyBySource(), 0, HOURS));
+    }
+}
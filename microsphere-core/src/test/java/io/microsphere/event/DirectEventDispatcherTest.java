@@ -19,6 +19,10 @@ package io.microsphere.event;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -145,4 +149,57 @@ public class DirectEventDispatcherTest {
         assertEquals(2, echoEventListener.getEventOccurs());
         assertEquals(3, echoEventListener2.getEventOccurs());
     }
+
+    @Test
+    public void testDispatchEventAfterListenersChanged() {
+
+        // build the dispatch table entries of EchoEvent and Event
+        dispatcher.dispatch(new EchoEvent("Hello,World"));
+        dispatcher.dispatch(new Event("Test") {
+        });
+
+        // the dispatch table entries must be rebuilt after adding
+        dispatcher.addEventListeners(echoEventListener, echoEventListener2);
+
+        dispatcher.dispatch(new EchoEvent("Hello,World"));
+        assertEquals(1, echoEventListener.getEventOccurs());
+        assertEquals(1, echoEventListener2.getEventOccurs());
+
+        // the dispatch table entries must be rebuilt after removing
+        dispatcher.removeEventListener(echoEventListener2);
+
+        dispatcher.dispatch(new EchoEvent("Hello,World"));
+        assertEquals(2, echoEventListener.getEventOccurs());
+        assertEquals(1, echoEventListener2.getEventOccurs());
+    }
+
+    @Test
+    public void testConcurrentRegistration() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    dispatcher.addEventListener(new EchoEventListener() {
+                        @Override
+                        public void handleEvent(EchoEvent event) {
+                            counter.incrementAndGet();
+                        }
+                    });
+                    dispatcher.dispatch(new EchoEvent("Hello,World"));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(800, dispatcher.getAllEventListeners().size());
+
+        counter.set(0);
+        dispatcher.dispatch(new EchoEvent("Hello,World"));
+        assertEquals(800, counter.get());
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.microsphere.management.JmxUtils.getAttribute;
+import static java.lang.management.ManagementFactory.getPlatformMBeanServer;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link EventDispatchMetrics} Test
+ *
+ * @since 1.0.0
+ */
+public class EventDispatchMetricsTest {
+
+    private DirectEventDispatcher dispatcher;
+
+    private EventDispatchMetrics metrics;
+
+    @BeforeEach
+    public void init() {
+        dispatcher = new DirectEventDispatcher();
+        dispatcher.removeAllEventListeners();
+        metrics = new EventDispatchMetrics();
+        dispatcher.setMetrics(metrics);
+    }
+
+    @Test
+    public void testRecord() {
+        EchoEventListener listener = new EchoEventListener();
+        dispatcher.addEventListener(listener);
+        dispatcher.addEventListener(new FailedEventListener());
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(IllegalStateException.class, () -> dispatcher.dispatch(new EchoEvent("Hello,World")));
+        }
+
+        assertEquals(20, metrics.getInvocationCount());
+        assertEquals(10, metrics.getErrorCount());
+        assertEquals(0, metrics.getSlowCount());
+
+        List<EventListenerStatistics> statistics = metrics.getListenerStatistics();
+        assertEquals(2, statistics.size());
+        for (EventListenerStatistics statistic : statistics) {
+            assertEquals(EchoEvent.class.getName(), statistic.getEventType());
+            assertEquals(10, statistic.getInvocationCount());
+            assertTrue(statistic.getP99Latency() <= statistic.getMaxLatency());
+        }
+
+        LatencyHistogram histogram = metrics.getLatencyHistogram(EchoEvent.class, EchoEventListener.class);
+        assertNotNull(histogram);
+        assertEquals(10, histogram.getCount());
+
+        metrics.reset();
+        assertEquals(0, metrics.getInvocationCount());
+        assertTrue(metrics.getListenerStatistics().isEmpty());
+    }
+
+    @Test
+    public void testSlowListener() {
+        AtomicReference<SlowEventListenerEvent> slowEvent = new AtomicReference<>();
+        EventDispatcher diagnosticEventDispatcher = new DirectEventDispatcher();
+        diagnosticEventDispatcher.removeAllEventListeners();
+        diagnosticEventDispatcher.addEventListener(new SlowEventListenerEventListener(slowEvent));
+
+        metrics.setDiagnosticEventDispatcher(diagnosticEventDispatcher);
+        metrics.setSlowListenerThreshold(1, MILLISECONDS);
+        assertEquals(1, metrics.getSlowListenerThresholdMillis());
+
+        SlowEventListener listener = new SlowEventListener();
+        dispatcher.addEventListener(listener);
+        EchoEvent event = new EchoEvent("Hello,World");
+        dispatcher.dispatch(event);
+
+        assertEquals(1, metrics.getSlowCount());
+        assertEquals(listener, slowEvent.get().getListener());
+        assertEquals(event, slowEvent.get().getEvent());
+        assertTrue(slowEvent.get().getElapsedNanos() > MILLISECONDS.toNanos(1));
+
+        metrics.setSlowListenerThreshold(0, MILLISECONDS);
+        assertEquals(-1, metrics.getSlowListenerThresholdMillis());
+    }
+
+    @Test
+    public void testRegisterMBean() {
+        dispatcher.addEventListener(new EchoEventListener());
+        dispatcher.dispatch(new EchoEvent("Hello,World"));
+
+        ObjectName objectName = metrics.registerMBean("test");
+        assertNotNull(objectName);
+        try {
+            assertEquals(1L, getAttribute(getPlatformMBeanServer(), objectName, "InvocationCount"));
+            assertEquals(-1L, getAttribute(getPlatformMBeanServer(), objectName, "SlowListenerThresholdMillis"));
+            assertNotNull(getAttribute(getPlatformMBeanServer(), objectName, "ListenerStatistics"));
+        } finally {
+            assertTrue(metrics.unregisterMBean("test"));
+        }
+    }
+
+    static class FailedEventListener implements EventListener<EchoEvent> {
+
+        @Override
+        public void onEvent(EchoEvent event) {
+            throw new IllegalStateException("For testing");
+        }
+    }
+
+    static class SlowEventListener implements EventListener<EchoEvent> {
+
+        @Override
+        public void onEvent(EchoEvent event) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+            }
+        }
+    }
+
+    static class SlowEventListenerEventListener implements EventListener<SlowEventListenerEvent> {
+
+        private final AtomicReference<SlowEventListenerEvent> slowEvent;
+
+        SlowEventListenerEventListener(AtomicReference<SlowEventListenerEvent> slowEvent) {
+            this.slowEvent = slowEvent;
+        }
+
+        @Override
+        public void onEvent(SlowEventListenerEvent event) {
+            slowEvent.set(event);
+        }
+    }
+}
@@ -18,8 +18,13 @@ package io.microsphere.event;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CountDownLatch;
+
 import static io.microsphere.event.EventDispatcher.DIRECT_EXECUTOR;
+import static io.microsphere.event.EventDispatcher.parallelOnVirtualThreads;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * {@link EventDispatcher} Test
@@ -41,4 +46,21 @@ public class EventDispatcherTest {
         assertEquals(DIRECT_EXECUTOR, defaultInstance.getExecutor());
         assertEquals(2, defaultInstance.getAllEventListeners().size());
     }
+
+    @Test
+    public void testParallelOnVirtualThreads() throws InterruptedException {
+        EventDispatcher dispatcher = parallelOnVirtualThreads();
+        assertEquals(ParallelEventDispatcher.class, dispatcher.getClass());
+
+        dispatcher.removeAllEventListeners();
+        CountDownLatch latch = new CountDownLatch(1);
+        dispatcher.addEventListener(new EchoEventListener() {
+            @Override
+            public void handleEvent(EchoEvent event) {
+                latch.countDown();
+            }
+        });
+        dispatcher.dispatch(new EchoEvent("Hello,World"));
+        assertTrue(latch.await(1, SECONDS));
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JMH benchmark of {@link GenericEventListener} dispatch comparing with the direct interface call and the
+ * {@link Method#invoke(Object, Object...) reflection}.
+ * <p>
+ * Run it by {@link #main(String[])}, or "mvn test-compile exec:java" with the main class in the test scope.
+ *
+ * @see GenericEventListener
+ * @since 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenericEventListenerBenchmark {
+
+    private EchoEvent event;
+
+    private DirectEventListener directListener;
+
+    private BenchmarkGenericEventListener genericListener;
+
+    private Method handleMethod;
+
+    private EventDispatcher eventDispatcher;
+
+    @Setup
+    public void setup() throws Exception {
+        this.event = new EchoEvent("Hello,World");
+        this.directListener = new DirectEventListener();
+        this.genericListener = new BenchmarkGenericEventListener();
+        this.handleMethod = BenchmarkGenericEventListener.class.getMethod("onEcho", EchoEvent.class);
+        this.eventDispatcher = EventDispatcher.newDefault();
+        this.eventDispatcher.addEventListener(genericListener);
+    }
+
+    @Benchmark
+    public void directInterfaceCall(Blackhole blackhole) {
+        directListener.onEvent(event);
+        blackhole.consume(directListener.count);
+    }
+
+    @Benchmark
+    public void reflectionInvoke(Blackhole blackhole) throws Exception {
+        handleMethod.invoke(genericListener, event);
+        blackhole.consume(genericListener.count);
+    }
+
+    @Benchmark
+    public void genericEventListener(Blackhole blackhole) {
+        genericListener.onEvent(event);
+        blackhole.consume(genericListener.count);
+    }
+
+    @Benchmark
+    public void dispatchToGenericEventListener(Blackhole blackhole) {
+        eventDispatcher.dispatch(event);
+        blackhole.consume(genericListener.count);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GenericEventListenerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    static class DirectEventListener implements EventListener<EchoEvent> {
+
+        private int count;
+
+        @Override
+        public void onEvent(EchoEvent event) {
+            count++;
+        }
+    }
+
+    public static class BenchmarkGenericEventListener extends GenericEventListener {
+
+        private int count;
+
+        public void onEcho(EchoEvent event) {
+            count++;
+        }
+    }
+}
@@ -16,11 +16,22 @@
  */
 package io.microsphere.event;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * {@link GenericEventListener} Test
@@ -54,6 +65,114 @@ public class GenericEventListenerTest {
         assertEquals(value, listener.getEchoEvent().getSource());
     }
 
+    @Test
+    public void testOnEventWithMultipleHandlers() {
+        CountingEventListener countingListener = new CountingEventListener();
+        eventDispatcher.addEventListener(countingListener);
+        eventDispatcher.dispatch(new EchoEvent("Hello,World"));
+        eventDispatcher.dispatch(new GenericEvent<>("Ignored"));
+        assertEquals(2, countingListener.count);
+        assertEquals(1, CountingEventListener.staticCount);
+    }
+
+    @Test
+    public void testOnEventOnException() {
+        FailedEventListener failedListener = new FailedEventListener();
+        assertThrows(IllegalStateException.class, () -> failedListener.onEvent(new EchoEvent("Hello,World")));
+    }
+
+    @Test
+    public void testBindMethodHandleInvoker() throws Throwable {
+        Method method = MyGenericEventListener.class.getMethod("onEvent", EchoEvent.class);
+        EchoEvent echoEvent = new EchoEvent("Hello,World");
+        GenericEventListener.bindMethodHandleInvoker(MethodHandles.lookup(), method).invoke(listener, echoEvent);
+        assertSame(echoEvent, listener.getEchoEvent());
+
+        Method failedMethod = FailedEventListener.class.getMethod("onEvent", EchoEvent.class);
+        GenericEventListener.HandlerInvoker invoker = GenericEventListener.bindMethodHandleInvoker(MethodHandles.lookup(), failedMethod);
+        assertThrows(IllegalStateException.class, () -> invoker.invoke(new FailedEventListener(), echoEvent));
+    }
+
+    @Test
+    public void testOnEventInChildClassLoader() throws Exception {
+        ClassLoader classLoader = new ChildFirstClassLoader(ChildEventListener.class);
+        Class<?> listenerClass = classLoader.loadClass(ChildEventListener.class.getName());
+        assertNotSame(ChildEventListener.class, listenerClass);
+        assertFalse(GenericEventListener.isVisible(listenerClass));
+
+        GenericEventListener childListener = (GenericEventListener) listenerClass.getConstructor().newInstance();
+        AtomicInteger counter = new AtomicInteger();
+        childListener.onEvent(new GenericEvent<>(counter));
+        childListener.onEvent(new GenericEvent<>(counter));
+        assertEquals(2, counter.get());
+    }
+
+    public static class ChildEventListener extends GenericEventListener {
+
+        public void onEvent(GenericEvent<AtomicInteger> event) {
+            event.getSource().incrementAndGet();
+        }
+    }
+
+    /**
+     * Define the specified class by itself, and delegate the others to the parent
+     */
+    static class ChildFirstClassLoader extends ClassLoader {
+
+        private final Class<?> childClass;
+
+        ChildFirstClassLoader(Class<?> childClass) {
+            super(childClass.getClassLoader());
+            this.childClass = childClass;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!childClass.getName().equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> type = findLoadedClass(name);
+                if (type == null) {
+                    String resource = name.replace('.', '/') + ".class";
+                    try (InputStream inputStream = getParent().getResourceAsStream(resource)) {
+                        byte[] bytes = IOUtils.toByteArray(inputStream);
+                        type = defineClass(name, bytes, 0, bytes.length);
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+                return type;
+            }
+        }
+    }
+
+    static class CountingEventListener extends GenericEventListener {
+
+        private static int staticCount;
+
+        private int count;
+
+        public void onEcho(EchoEvent event) {
+            count++;
+        }
+
+        public void onEchoAgain(EchoEvent event) {
+            count++;
+        }
+
+        public static void onStaticEcho(EchoEvent event) {
+            staticCount++;
+        }
+    }
+
+    static class FailedEventListener extends GenericEventListener {
+
+        public void onEvent(EchoEvent event) {
+            throw new IllegalStateException("Failed");
+        }
+    }
+
     class MyGenericEventListener extends GenericEventListener {
 
         private EchoEvent echoEvent;
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link JournalingEventDispatcher} Test
+ *
+ * @since 1.0.0
+ */
+public class JournalingEventDispatcherTest {
+
+    private File directory;
+
+    private DirectEventDispatcher delegate;
+
+    private List<String> messages;
+
+    @BeforeEach
+    public void init() throws IOException {
+        directory = Files.createTempDirectory("journal").toFile();
+        delegate = new DirectEventDispatcher();
+        delegate.removeAllEventListeners();
+        messages = new ArrayList<>();
+        delegate.addEventListener(new JournaledEventListener(messages));
+    }
+
+    @AfterEach
+    public void destroy() {
+        delegate.removeAllEventListeners();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testDispatchAndReplay() throws IOException {
+        try (JournalingEventDispatcher dispatcher = newDispatcher(4096, 0, 1)) {
+            for (int i = 0; i < 10; i++) {
+                dispatcher.dispatch(new JournaledEvent("message-" + i));
+            }
+            assertEquals(10, messages.size());
+            assertEquals(10, dispatcher.getNextOffset());
+            assertEquals(10, dispatcher.getFlushedOffset());
+        }
+
+        // reopen
+        try (JournalingEventDispatcher dispatcher = newDispatcher(4096, 0, 1)) {
+            assertEquals(10, dispatcher.getNextOffset());
+            List<String> replayed = new ArrayList<>();
+            DirectEventDispatcher target = new DirectEventDispatcher();
+            target.removeAllEventListeners();
+            target.addEventListener(new JournaledEventListener(replayed));
+
+            assertEquals(10, dispatcher.replay(4, target));
+            assertEquals(6, replayed.size());
+            assertEquals("message-4", replayed.get(0));
+            assertEquals("message-9", replayed.get(5));
+
+            dispatcher.dispatch(new JournaledEvent("message-10"));
+            replayed.clear();
+            assertEquals(11, dispatcher.replay(10, target));
+            assertEquals(1, replayed.size());
+            assertEquals("message-10", replayed.get(0));
+        }
+    }
+
+    @Test
+    public void testRolloverAndRetention() throws IOException {
+        try (JournalingEventDispatcher dispatcher = newDispatcher(512, 3, -1)) {
+            for (int i = 0; i < 100; i++) {
+                dispatcher.dispatch(new JournaledEvent("message-" + i));
+            }
+            assertEquals(3, dispatcher.getSegmentCount());
+            assertEquals(3, directory.listFiles().length);
+            long firstOffset = dispatcher.getFirstOffset();
+            assertTrue(firstOffset > 0);
+
+            List<String> replayed = new ArrayList<>();
+            DirectEventDispatcher target = new DirectEventDispatcher();
+            target.removeAllEventListeners();
+            target.addEventListener(new JournaledEventListener(replayed));
+            assertEquals(100, dispatcher.replay(0, target));
+            assertEquals(100 - firstOffset, replayed.size());
+            assertEquals("message-" + firstOffset, replayed.get(0));
+            assertEquals("message-99", replayed.get(replayed.size() - 1));
+        }
+    }
+
+    @Test
+    public void testRetentionDuringReplay() throws IOException {
+        try (JournalingEventDispatcher dispatcher = newDispatcher(512, 3, -1)) {
+            for (int i = 0; i < 30; i++) {
+                dispatcher.dispatch(new JournaledEvent("message-" + i));
+            }
+            assertEquals(3, dispatcher.getSegmentCount());
+            long firstOffset = dispatcher.getFirstOffset();
+
+            List<String> replayed = new ArrayList<>();
+            DirectEventDispatcher target = new DirectEventDispatcher();
+            target.removeAllEventListeners();
+            target.addEventListener(new JournaledEventListener(replayed));
+            target.addEventListener(new EventListener<JournaledEvent>() {
+                @Override
+                public void onEvent(JournaledEvent event) {
+                    if (replayed.size() == 1) {
+                        // all the replayed segments are expired by the retention
+                        for (int i = 30; i < 100; i++) {
+                            dispatcher.dispatch(new JournaledEvent("message-" + i));
+                        }
+                    }
+                }
+            });
+            // the pinned segments are still replayed
+            assertEquals(30, dispatcher.replay(0, target));
+            assertEquals(30 - firstOffset, replayed.size());
+            assertEquals("message-29", replayed.get(replayed.size() - 1));
+
+            // the expired segments are deleted after the replay
+            assertEquals(3, dispatcher.getSegmentCount());
+            assertEquals(3, directory.listFiles().length);
+        }
+    }
+
+    @Test
+    public void testGroupCommit() throws Exception {
+        int threads = 4;
+        int count = 50;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try (JournalingEventDispatcher dispatcher = newDispatcher(64 * 1024, 0, 1)) {
+            CountDownLatch latch = new CountDownLatch(threads);
+            for (int t = 0; t < threads; t++) {
+                executorService.execute(() -> {
+                    for (int i = 0; i < count; i++) {
+                        dispatcher.dispatch(new JournaledEvent("message"));
+                    }
+                    latch.countDown();
+                });
+            }
+            assertTrue(latch.await(10, SECONDS));
+            assertEquals(threads * count, dispatcher.getNextOffset());
+            assertEquals(threads * count, dispatcher.getFlushedOffset());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private JournalingEventDispatcher newDispatcher(int segmentSize, int maxSegments, long groupCommitInterval) throws IOException {
+        return new JournalingEventDispatcher(delegate, directory, segmentSize, maxSegments, groupCommitInterval, MILLISECONDS);
+    }
+
+    static class JournaledEvent extends Event {
+
+        JournaledEvent(String message) {
+            super(message);
+        }
+    }
+
+    static class JournaledEventListener implements EventListener<JournaledEvent> {
+
+        private final List<String> messages;
+
+        JournaledEventListener(List<String> messages) {
+            this.messages = messages;
+        }
+
+        @Override
+        public void onEvent(JournaledEvent event) {
+            synchronized (messages) {
+                messages.add((String) event.getSource());
+            }
+        }
+    }
+}
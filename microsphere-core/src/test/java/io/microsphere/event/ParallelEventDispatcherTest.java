@@ -20,10 +20,19 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * {@link ParallelEventDispatcher} Test
@@ -51,6 +60,136 @@ public class ParallelEventDispatcherTest {
         assertEquals(1, listener.getEventOccurs());
     }
 
+    @Test
+    public void testDispatchEventInListenerOrderedMode() throws InterruptedException {
+        ExecutorService executor = newFixedThreadPool(4);
+        ParallelEventDispatcher dispatcher = new ParallelEventDispatcher(executor, true);
+        dispatcher.removeAllEventListeners();
+
+        CountDownLatch blocked = new CountDownLatch(1);
+        RecordingEventListener slowListener = new RecordingEventListener(blocked);
+        RecordingEventListener fastListener = new RecordingEventListener(null);
+        dispatcher.addEventListeners(slowListener, fastListener);
+
+        for (int i = 0; i < 100; i++) {
+            dispatcher.dispatch(new EchoEvent(i));
+        }
+
+        // the fast listener is not stalled by the slow one
+        fastListener.awaitEvents(100);
+        assertTrue(dispatcher.isListenerOrdered());
+        assertEquals(0, dispatcher.getQueueDepth(fastListener));
+        assertTrue(dispatcher.getQueueDepth(slowListener) > 0);
+        assertEquals(2, dispatcher.getQueueDepths().size());
+
+        blocked.countDown();
+        slowListener.awaitEvents(100);
+        assertEquals(0, dispatcher.getQueueDepth(slowListener));
+
+        // in the published order
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, slowListener.sources.get(i));
+            assertEquals(i, fastListener.sources.get(i));
+        }
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void testDispatchEventAfterRejection() throws InterruptedException {
+        AtomicBoolean rejecting = new AtomicBoolean(true);
+        ExecutorService executor = newFixedThreadPool(1);
+        ParallelEventDispatcher dispatcher = new ParallelEventDispatcher(command -> {
+            if (rejecting.get()) {
+                throw new RejectedExecutionException();
+            }
+            executor.execute(command);
+        }, true);
+        dispatcher.removeAllEventListeners();
+        RecordingEventListener listener = new RecordingEventListener(null);
+        RecordingEventListener otherListener = new RecordingEventListener(null);
+        dispatcher.addEventListeners(listener, otherListener);
+
+        // the rejection is logged, and doesn't break the dispatching to the other listeners
+        dispatcher.dispatch(new EchoEvent(0));
+        assertEquals(1, dispatcher.getQueueDepth(listener));
+        assertEquals(1, dispatcher.getQueueDepth(otherListener));
+        rejecting.set(false);
+        // the mailbox is scheduled again, and drains the pending event as well
+        dispatcher.dispatch(new EchoEvent(1));
+        listener.awaitEvents(2);
+        assertEquals(2, listener.sources.size());
+        assertEquals(0, dispatcher.getQueueDepth(listener));
+        otherListener.awaitEvents(2);
+        assertEquals(2, otherListener.sources.size());
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void testDispatchEventAfterRemoval() throws InterruptedException {
+        ExecutorService executor = newFixedThreadPool(2);
+        ParallelEventDispatcher dispatcher = new ParallelEventDispatcher(executor, true);
+        dispatcher.removeAllEventListeners();
+        RecordingEventListener listener = new RecordingEventListener(null);
+        RecordingEventListener removedListener = new RecordingEventListener(null);
+        dispatcher.addEventListeners(listener, removedListener);
+        assertEquals(2, dispatcher.getQueueDepths().size());
+
+        dispatcher.removeEventListener(removedListener);
+        for (int i = 0; i < 10; i++) {
+            dispatcher.dispatch(new EchoEvent(i));
+        }
+        listener.awaitEvents(10);
+
+        // the mailbox of removed listener is not recreated
+        assertEquals(1, dispatcher.getQueueDepths().size());
+        assertFalse(dispatcher.getQueueDepths().containsKey(removedListener));
+        assertTrue(removedListener.sources.isEmpty());
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void testLoadedListenersInListenerOrderedMode() {
+        ParallelEventDispatcher dispatcher = new ParallelEventDispatcher(Runnable::run, true);
+        // the mailboxes of the listeners loaded by ServiceLoader are opened
+        assertEquals(dispatcher.getAllEventListeners().size(), dispatcher.getQueueDepths().size());
+    }
+
+    static class RecordingEventListener extends AbstractEventListener<EchoEvent> {
+
+        private final List<Object> sources = new ArrayList<>();
+
+        private final CountDownLatch blocked;
+
+        RecordingEventListener(CountDownLatch blocked) {
+            this.blocked = blocked;
+        }
+
+        @Override
+        protected void handleEvent(EchoEvent event) {
+            try {
+                if (blocked != null) {
+                    blocked.await();
+                }
+            } catch (InterruptedException e) {
+            }
+            synchronized (sources) {
+                sources.add(event.getSource());
+                sources.notifyAll();
+            }
+        }
+
+        void awaitEvents(int count) throws InterruptedException {
+            synchronized (sources) {
+                while (sources.size() < count) {
+                    sources.wait(1000);
+                }
+            }
+        }
+    }
+
     @AfterAll
     public static void destroy() {
         ForkJoinPool.commonPool().shutdown();
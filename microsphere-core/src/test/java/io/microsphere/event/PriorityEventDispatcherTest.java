@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.event;
+
+import io.microsphere.lang.Prioritized;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import static io.microsphere.event.PriorityEventDispatcher.RejectionPolicy.ABORT;
+import static io.microsphere.event.PriorityEventDispatcher.RejectionPolicy.BLOCK;
+import static io.microsphere.event.PriorityEventDispatcher.RejectionPolicy.DISCARD_LOWEST_PRIORITY;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link PriorityEventDispatcher} Test
+ *
+ * @since 1.0.0
+ */
+public class PriorityEventDispatcherTest {
+
+    private PriorityEventDispatcher dispatcher;
+
+    private final CountDownLatch blocker = new CountDownLatch(1);
+
+    private final List<Integer> priorities = new ArrayList<>();
+
+    @AfterEach
+    public void destroy() {
+        blocker.countDown();
+        dispatcher.close();
+    }
+
+    @Test
+    public void testPriorityOrder() throws Exception {
+        dispatcher = newDispatcher(16, BLOCK);
+        // occupy the worker thread
+        CompletableFuture<Void> blocking = dispatcher.dispatchAsync(new PrioritizedEvent(0));
+        waitForPending(0);
+
+        dispatcher.dispatch(new PrioritizedEvent(5));
+        dispatcher.dispatch(new PrioritizedEvent(1));
+        dispatcher.dispatch(new PrioritizedEvent(3));
+        CompletableFuture<Void> last = dispatcher.dispatchAsync(new PrioritizedEvent(9));
+        dispatcher.dispatch(new PrioritizedEvent(-1));
+        assertEquals(5, dispatcher.getPendingCount());
+
+        blocker.countDown();
+        blocking.get(5, SECONDS);
+        last.get(5, SECONDS);
+
+        synchronized (priorities) {
+            assertEquals(6, priorities.size());
+            assertEquals(0, (int) priorities.get(0));
+            assertEquals(-1, (int) priorities.get(1));
+            assertEquals(1, (int) priorities.get(2));
+            assertEquals(3, (int) priorities.get(3));
+            assertEquals(5, (int) priorities.get(4));
+            assertEquals(9, (int) priorities.get(5));
+        }
+    }
+
+    @Test
+    public void testAbort() throws Exception {
+        dispatcher = newDispatcher(1, ABORT);
+        dispatcher.dispatch(new PrioritizedEvent(0));
+        waitForPending(0);
+        dispatcher.dispatch(new PrioritizedEvent(1));
+        assertThrows(IllegalStateException.class, () -> dispatcher.dispatch(new PrioritizedEvent(2)));
+        assertEquals(1, dispatcher.getRejectedCount());
+    }
+
+    @Test
+    public void testDiscardLowestPriority() throws Exception {
+        dispatcher = newDispatcher(2, DISCARD_LOWEST_PRIORITY);
+        dispatcher.dispatch(new PrioritizedEvent(0));
+        waitForPending(0);
+        CompletableFuture<Void> low = dispatcher.dispatchAsync(new PrioritizedEvent(8));
+        CompletableFuture<Void> normal = dispatcher.dispatchAsync(new PrioritizedEvent(4));
+        CompletableFuture<Void> high = dispatcher.dispatchAsync(new PrioritizedEvent(1));
+        CompletableFuture<Void> lowest = dispatcher.dispatchAsync(new PrioritizedEvent(9));
+
+        assertTrue(low.isCancelled());
+        assertTrue(lowest.isCancelled());
+        assertEquals(2, dispatcher.getRejectedCount());
+
+        blocker.countDown();
+        high.get(5, SECONDS);
+        normal.get(5, SECONDS);
+    }
+
+    @Test
+    public void testDispatchAsyncOnFailure() throws Exception {
+        dispatcher = newDispatcher(4, BLOCK);
+        blocker.countDown();
+        dispatcher.addEventListener(new EventListener<PrioritizedEvent>() {
+            @Override
+            public void onEvent(PrioritizedEvent event) {
+                throw new IllegalArgumentException("Failed");
+            }
+        });
+        CompletableFuture<Void> future = dispatcher.dispatchAsync(new PrioritizedEvent(0));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, SECONDS));
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        dispatcher = newDispatcher(4, BLOCK);
+        blocker.countDown();
+        dispatcher.close();
+        assertThrows(IllegalStateException.class, () -> dispatcher.dispatch(new PrioritizedEvent(0)));
+    }
+
+    @Test
+    public void testRedispatchOnWorkerThread() throws Exception {
+        dispatcher = newDispatcher(1, BLOCK);
+        blocker.countDown();
+        dispatcher.addEventListener(new EventListener<PrioritizedEvent>() {
+            @Override
+            public void onEvent(PrioritizedEvent event) {
+                // the queue is full after the first re-dispatch
+                if (event.getPriority() == 0) {
+                    for (int i = 1; i <= 5; i++) {
+                        dispatcher.dispatch(new PrioritizedEvent(i));
+                    }
+                }
+            }
+        });
+        dispatcher.dispatchAsync(new PrioritizedEvent(0)).get(5, SECONDS);
+        dispatcher.close();
+        synchronized (priorities) {
+            assertEquals(6, priorities.size());
+        }
+    }
+
+    private PriorityEventDispatcher newDispatcher(int capacity, PriorityEventDispatcher.RejectionPolicy policy) {
+        PriorityEventDispatcher dispatcher = new PriorityEventDispatcher(capacity, 1, policy);
+        dispatcher.removeAllEventListeners();
+        dispatcher.addEventListener(new EventListener<PrioritizedEvent>() {
+            @Override
+            public void onEvent(PrioritizedEvent event) {
+                try {
+                    blocker.await(5, SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (priorities) {
+                    priorities.add(event.getPriority());
+                }
+            }
+        });
+        return dispatcher;
+    }
+
+    private void waitForPending(int pendingCount) throws InterruptedException {
+        while (dispatcher.getPendingCount() != pendingCount) {
+            Thread.sleep(1);
+        }
+    }
+
+    static class PrioritizedEvent extends Event implements Prioritized {
+
+        private final int priority;
+
+        PrioritizedEvent(int priority) {
+            super(priority);
+            this.priority = priority;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+    }
+}
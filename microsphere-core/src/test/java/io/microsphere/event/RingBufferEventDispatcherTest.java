@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.microsphere.event.RingBufferEventDispatcher.BackpressureMode.BLOCK;
+import static io.microsphere.event.RingBufferEventDispatcher.BackpressureMode.DROP;
+import static io.microsphere.event.RingBufferEventDispatcher.BackpressureMode.FAIL;
+import static io.microsphere.event.RingBufferEventDispatcher.WaitStrategy.PARK;
+import static io.microsphere.event.RingBufferEventDispatcher.WaitStrategy.YIELD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link RingBufferEventDispatcher} Test
+ *
+ * @since 1.0.0
+ */
+public class RingBufferEventDispatcherTest {
+
+    @Test
+    public void testDispatchEvent() throws Exception {
+        RingBufferEventDispatcher dispatcher = new RingBufferEventDispatcher(16, 2, 4, YIELD, BLOCK);
+        dispatcher.removeAllEventListeners();
+        AtomicInteger counter = new AtomicInteger();
+        dispatcher.addEventListener(new EchoEventListener() {
+            @Override
+            public void handleEvent(EchoEvent event) {
+                counter.incrementAndGet();
+            }
+        });
+
+        Thread[] producers = new Thread[4];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    dispatcher.dispatch(new EchoEvent(j));
+                }
+            });
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        dispatcher.close();
+        assertEquals(4000, counter.get());
+        assertEquals(0, dispatcher.getPendingCount());
+        assertThrows(IllegalStateException.class, () -> dispatcher.dispatch(new EchoEvent("closed")));
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        testBackpressure(new RingBufferEventDispatcher(2, 1, 1, PARK, DROP));
+
+        RingBufferEventDispatcher dispatcher = new RingBufferEventDispatcher(2, 1, 1, PARK, FAIL);
+        assertThrows(IllegalStateException.class, () -> testBackpressure(dispatcher));
+    }
+
+    private void testBackpressure(RingBufferEventDispatcher dispatcher) throws Exception {
+        dispatcher.removeAllEventListeners();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        dispatcher.addEventListener(new EchoEventListener() {
+            @Override
+            public void handleEvent(EchoEvent event) {
+                entered.countDown();
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                }
+            }
+        });
+        try {
+            // the consumer thread is blocked by the first event
+            dispatcher.dispatch(new EchoEvent(0));
+            entered.await();
+            // fill the ring buffer
+            dispatcher.dispatch(new EchoEvent(1));
+            dispatcher.dispatch(new EchoEvent(2));
+            assertEquals(2, dispatcher.getPendingCount());
+            // overflow
+            dispatcher.dispatch(new EchoEvent(3));
+            assertEquals(1, dispatcher.getDroppedCount());
+        } finally {
+            blocked.countDown();
+            dispatcher.close();
+        }
+    }
+
+    @Test
+    public void testRedispatchOnConsumerThread() throws Exception {
+        RingBufferEventDispatcher dispatcher = new RingBufferEventDispatcher(2, 1, 1, PARK, BLOCK);
+        dispatcher.removeAllEventListeners();
+        AtomicInteger counter = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(11);
+        dispatcher.addEventListener(new EchoEventListener() {
+            @Override
+            public void handleEvent(EchoEvent event) {
+                counter.incrementAndGet();
+                // the ring buffer is full after the first two re-dispatches
+                if ("root".equals(event.getSource())) {
+                    for (int i = 0; i < 10; i++) {
+                        dispatcher.dispatch(new EchoEvent(i));
+                    }
+                }
+                latch.countDown();
+            }
+        });
+        dispatcher.dispatch(new EchoEvent("root"));
+        latch.await();
+        dispatcher.close();
+        assertEquals(11, counter.get());
+    }
+
+    @Test
+    public void testConstructorOnInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferEventDispatcher(3));
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferEventDispatcher(4, 0));
+        assertThrows(NullPointerException.class, () -> new RingBufferEventDispatcher(4, 1, 1, null, DROP));
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link BinarySerializer} and {@link BinaryDeserializer} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class BinarySerializerAndDeserializerTest {
+
+    private BinarySerializer serializer = new BinarySerializer();
+
+    private BinaryDeserializer deserializer = new BinaryDeserializer();
+
+    @Test
+    public void testPrimitivesAndStrings() throws IOException {
+        Object[] values = {null, true, false, (byte) -1, (short) -300, 'c', 0, -1, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                Long.MIN_VALUE, 12345678901L, 1.5f, -2.25d, "", "Hello,World", "中文\u0000😀"};
+        for (Object value : values) {
+            assertEquals(value, roundTrip(value));
+        }
+    }
+
+    @Test
+    public void testArraysAndEnums() throws IOException {
+        assertArrayEquals(new int[]{1, -2, 3}, (int[]) roundTrip(new int[]{1, -2, 3}));
+        assertArrayEquals(new long[]{1L, Long.MAX_VALUE}, (long[]) roundTrip(new long[]{1L, Long.MAX_VALUE}));
+        assertArrayEquals(new byte[]{1, 2}, (byte[]) roundTrip(new byte[]{1, 2}));
+        assertArrayEquals(new char[]{'a', '中'}, (char[]) roundTrip(new char[]{'a', '中'}));
+        assertArrayEquals(new double[]{1.0, 2.0}, (double[]) roundTrip(new double[]{1.0, 2.0}), 0);
+        assertArrayEquals(new String[]{"a", null, "b"}, (String[]) roundTrip(new String[]{"a", null, "b"}));
+        assertEquals(TimeUnit.SECONDS, roundTrip(TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCollectionsAndMaps() throws IOException {
+        List<Object> list = new ArrayList<>(Arrays.asList(1, "2", 3L, null));
+        assertEquals(list, roundTrip(list));
+        LinkedList<String> linkedList = new LinkedList<>(Arrays.asList("a", "b"));
+        Object value = roundTrip(linkedList);
+        assertTrue(value instanceof LinkedList);
+        assertEquals(linkedList, value);
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", 1);
+        map.put("b", singletonList("c"));
+        map.put("c", new HashMap<>());
+        assertEquals(map, roundTrip(map));
+
+        // Java Standard Serialization as the fallback
+        TreeMap<String, BigDecimal> treeMap = new TreeMap<>();
+        treeMap.put("x", new BigDecimal("1.23"));
+        assertEquals(treeMap, roundTrip(treeMap));
+    }
+
+    @Test
+    public void testStatefulContainers() throws IOException {
+        LinkedHashMap<String, Integer> accessOrderMap = new LinkedHashMap<>(16, 0.75f, true);
+        accessOrderMap.put("a", 1);
+        accessOrderMap.put("b", 2);
+        accessOrderMap.get("a");
+        LinkedHashMap<String, Integer> accessOrderMapCopy = (LinkedHashMap<String, Integer>) roundTrip(accessOrderMap);
+        accessOrderMapCopy.get("b");
+        assertEquals(Arrays.asList("a", "b"), new ArrayList<>(accessOrderMapCopy.keySet()));
+
+        PriorityBlockingQueue<Integer> queue = new PriorityBlockingQueue<>(4, Collections.reverseOrder());
+        queue.addAll(Arrays.asList(1, 3, 2));
+        assertEquals(3, (int) ((PriorityBlockingQueue<Integer>) roundTrip(queue)).peek());
+
+        LinkedBlockingQueue<Integer> boundedQueue = new LinkedBlockingQueue<>(2);
+        boundedQueue.add(1);
+        assertEquals(1, ((LinkedBlockingQueue<Integer>) roundTrip(boundedQueue)).remainingCapacity());
+
+        Properties defaults = new Properties();
+        defaults.setProperty("a", "1");
+        Properties properties = new Properties(defaults);
+        assertEquals("1", ((Properties) roundTrip(properties)).getProperty("a"));
+    }
+
+    @Test
+    public void testPojo() throws IOException {
+        User user = new User("Mercy", 18);
+        user.tags.add("admin");
+        user.friend = new User("Someone", 20);
+        user.friend.friend = user; // cyclic reference
+        user.password = "secret";
+
+        User copy = (User) roundTrip(user);
+        assertEquals("Mercy", copy.name);
+        assertEquals(18, copy.age);
+        assertEquals(singletonList("admin"), copy.tags);
+        assertEquals("Someone", copy.friend.name);
+        assertSame(copy, copy.friend.friend);
+        assertNull(copy.password);
+        assertEquals(Status.ACTIVE, copy.status);
+
+        User[] users = {user, user};
+        User[] copies = (User[]) roundTrip(users);
+        assertSame(copies[0], copies[1]);
+    }
+
+    @Test
+    public void testUnsupported() {
+        assertThrows(NotSerializableException.class, () -> serializer.serialize(new Object()));
+        // not Serializable
+        assertThrows(NotSerializableException.class, () -> serializer.serialize(new Account()));
+    }
+
+    @Test
+    public void testPojoWithoutDefaultConstructor() throws IOException {
+        // Java Standard Serialization as the fallback
+        assertEquals(new BigDecimal("1.23"), roundTrip(new BigDecimal("1.23")));
+        Point copy = (Point) roundTrip(new Point(1, 2));
+        assertEquals(1, copy.x);
+        assertEquals(2, copy.y);
+    }
+
+    @Test
+    public void testCorruptedKind() {
+        // the POJO tag with a non-Serializable class
+        assertThrows(StreamCorruptedException.class, () -> deserializer.deserialize(
+                encode(BinaryFormat.POJO, Account.class.getName())));
+        // the COLLECTION and MAP tags with a non-container class
+        assertThrows(StreamCorruptedException.class, () -> deserializer.deserialize(
+                encode(BinaryFormat.COLLECTION, String.class.getName())));
+        assertThrows(StreamCorruptedException.class, () -> deserializer.deserialize(
+                encode(BinaryFormat.MAP, ArrayList.class.getName())));
+        // the ENUM tag with a non-enum class
+        assertThrows(StreamCorruptedException.class, () -> deserializer.deserialize(
+                encode(BinaryFormat.ENUM, String.class.getName())));
+    }
+
+    @Test
+    public void testCorruptedLength() {
+        byte[] maxLength = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        byte[] negativeLength = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+        // the lengths exceed the remaining bytes
+        assertThrows(StreamCorruptedException.class, () -> deserializer.deserialize(
+                concat(new byte[]{BinaryFormat.MAGIC, BinaryFormat.STRING}, maxLength)));
+        assertThrows(StreamCorruptedException.class, () -> deserializer.deserialize(
+                concat(new byte[]{BinaryFormat.MAGIC, BinaryFormat.JAVA}, maxLength)));
+        assertThrows(StreamCorruptedException.class, () -> deserializer.deserialize(
+                concat(new byte[]{BinaryFormat.MAGIC, BinaryFormat.PRIMITIVE_ARRAY, BinaryFormat.INT}, maxLength)));
+        // 2 doubles in 8 bytes
+        assertThrows(StreamCorruptedException.class, () -> deserializer.deserialize(
+                new byte[]{BinaryFormat.MAGIC, BinaryFormat.PRIMITIVE_ARRAY, BinaryFormat.DOUBLE, 2, 0, 0, 0, 0, 0, 0, 0, 0}));
+        // the negative lengths
+        assertThrows(StreamCorruptedException.class, () -> deserializer.deserialize(
+                concat(new byte[]{BinaryFormat.MAGIC, BinaryFormat.PRIMITIVE_ARRAY, BinaryFormat.BYTE}, negativeLength)));
+        assertThrows(StreamCorruptedException.class, () -> deserializer.deserialize(
+                concat(new byte[]{BinaryFormat.MAGIC, BinaryFormat.JAVA}, negativeLength)));
+    }
+
+    private byte[] concat(byte[] first, byte[] second) {
+        byte[] bytes = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, bytes, first.length, second.length);
+        return bytes;
+    }
+
+    /**
+     * Encode the tag and the new class id with its name
+     */
+    private byte[] encode(byte tag, String className) {
+        byte[] name = className.getBytes(StandardCharsets.US_ASCII);
+        byte[] bytes = new byte[4 + name.length + 2];
+        bytes[0] = BinaryFormat.MAGIC;
+        bytes[1] = tag;
+        bytes[2] = 0; // new class id
+        bytes[3] = (byte) name.length;
+        System.arraycopy(name, 0, bytes, 4, name.length);
+        return bytes;
+    }
+
+    @Test
+    public void testJavaSerializationCompatibility() throws IOException {
+        byte[] bytes = new DefaultSerializer().serialize("Test");
+        assertEquals("Test", deserializer.deserialize(bytes));
+    }
+
+    @Test
+    public void testByteBuffer() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+        int length = serializer.serialize(new User("Mercy", 18), buffer);
+        assertEquals(length, buffer.position());
+        buffer.flip();
+        assertEquals("Mercy", ((User) deserializer.deserialize(buffer)).name);
+    }
+
+    @Test
+    public void testMostCompatible() {
+        Serializers serializers = new Serializers();
+        serializers.loadSPI();
+        Deserializers deserializers = new Deserializers();
+        deserializers.loadSPI();
+        assertTrue(serializers.getMostCompatible(User.class) instanceof BinarySerializer);
+        assertTrue(deserializers.getMostCompatible(User.class) instanceof BinaryDeserializer);
+    }
+
+    private Object roundTrip(Object value) throws IOException {
+        return deserializer.deserialize(serializer.serialize(value));
+    }
+
+    enum Status {
+        ACTIVE
+    }
+
+    static class User implements Serializable {
+
+        private final String name;
+
+        private final int age;
+
+        private final List<String> tags = new ArrayList<>();
+
+        private User friend;
+
+        private transient String password;
+
+        private Status status = Status.ACTIVE;
+
+        private User() {
+            this(null, 0);
+        }
+
+        User(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+    }
+
+    static class Point implements Serializable {
+
+        private final int x;
+
+        private final int y;
+
+        Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    static class Account {
+
+        private String id = "Mercy";
+    }
+}
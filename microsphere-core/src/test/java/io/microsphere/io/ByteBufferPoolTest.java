@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link ByteBufferPool} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class ByteBufferPoolTest {
+
+    @Test
+    public void testAcquireAndRelease() {
+        ByteBufferPool pool = new ByteBufferPool(false, 4096, 1);
+        ByteBuffer buffer = pool.acquire(100);
+        assertEquals(128, buffer.capacity());
+        assertFalse(buffer.isDirect());
+        buffer.put((byte) 1);
+
+        pool.release(buffer);
+        assertEquals(1, pool.getPooledCount());
+        ByteBuffer another = pool.acquire(120);
+        assertSame(buffer, another);
+        assertEquals(0, another.position());
+        assertEquals(0, pool.getPooledCount());
+
+        // exceeds the max count per class
+        pool.release(another);
+        pool.release(ByteBuffer.allocate(128));
+        assertEquals(1, pool.getPooledCount());
+
+        // not pooled
+        pool.release(ByteBuffer.allocateDirect(128));
+        pool.release(ByteBuffer.allocate(100));
+        ByteBuffer large = pool.acquire(10000);
+        assertEquals(10000, large.capacity());
+        pool.release(large);
+        assertEquals(1, pool.getPooledCount());
+        assertNotSame(large, pool.acquire(10000));
+    }
+
+    @Test
+    public void testDirect() {
+        ByteBufferPool pool = new ByteBufferPool(true);
+        ByteBuffer buffer = pool.acquire(0);
+        assertTrue(buffer.isDirect());
+        assertEquals(ByteBufferPool.MIN_CAPACITY, buffer.capacity());
+        assertEquals(ByteBufferPool.DEFAULT_MAX_POOLED_CAPACITY, pool.getMaxPooledCapacity());
+        assertThrows(IllegalArgumentException.class, () -> pool.acquire(-1));
+    }
+
+    @Test
+    public void testRoundUp() {
+        assertEquals(64, ByteBufferPool.roundUp(1));
+        assertEquals(64, ByteBufferPool.roundUp(64));
+        assertEquals(128, ByteBufferPool.roundUp(65));
+        assertEquals(1024, ByteBufferPool.roundUp(1024));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static io.microsphere.io.CompressingDeserializer.HEADER_SIZE;
+import static io.microsphere.io.CompressingDeserializer.MAGIC;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link CompressingSerializer} and {@link CompressingDeserializer} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class CompressingSerializerAndDeserializerTest {
+
+    private CompressingSerializer<String> serializer = new CompressingSerializer<>(new StringSerializer());
+
+    private CompressingDeserializer<String> deserializer = new CompressingDeserializer<>(new StringDeserializer());
+
+    @Test
+    public void testCompress() throws IOException {
+        String value = repeat("microsphere,", 1000);
+        byte[] bytes = serializer.serialize(value);
+        assertTrue(bytes.length < value.length() / 10);
+        assertEquals(MAGIC, bytes[0]);
+        assertEquals(DeflateCompressionCodec.ID, bytes[1]);
+        assertEquals(value, deserializer.deserialize(bytes));
+        assertTrue(deserializer.getCodec(DeflateCompressionCodec.ID) instanceof DeflateCompressionCodec);
+    }
+
+    @Test
+    public void testBypass() throws IOException {
+        // smaller than the threshold
+        String text = "Test";
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), this.serializer.serialize(text));
+        assertEquals(text, this.deserializer.deserialize(this.serializer.serialize(text)));
+
+        // the ambiguous payload
+        byte[] value = new byte[]{MAGIC, 1, 2, 3, 4, 5, 6};
+        CompressingSerializer<byte[]> serializer = new CompressingSerializer<>(bytes -> bytes);
+        CompressingDeserializer<byte[]> deserializer = new CompressingDeserializer<>(bytes -> bytes);
+        byte[] bytes = serializer.serialize(value);
+        assertEquals(HEADER_SIZE + value.length, bytes.length);
+        assertArrayEquals(value, deserializer.deserialize(bytes));
+    }
+
+    @Test
+    public void testCustomizedCodec() throws IOException {
+        CompressionCodec codec = new DeflateCompressionCodec(9) {
+            @Override
+            public byte getId() {
+                return 2;
+            }
+        };
+        CompressingSerializer<String> serializer = new CompressingSerializer<>(new StringSerializer(), codec, 0);
+        String value = repeat("a", 100);
+        byte[] bytes = serializer.serialize(value);
+        assertEquals(2, bytes[1]);
+        assertThrows(IOException.class, () -> deserializer.deserialize(bytes));
+
+        CompressingDeserializer<String> deserializer = new CompressingDeserializer<>(new StringDeserializer(),
+                Collections.singletonList(codec));
+        assertEquals(value, deserializer.deserialize(bytes));
+        assertNull(deserializer.getCodec(DeflateCompressionCodec.ID));
+    }
+
+    @Test
+    public void testCorrupted() throws IOException {
+        byte[] bytes = serializer.serialize(repeat("microsphere,", 100));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 4);
+        assertThrows(StreamCorruptedException.class, () -> deserializer.deserialize(truncated));
+        assertThrows(IllegalArgumentException.class, () -> new DeflateCompressionCodec(10));
+    }
+
+    @Test
+    public void testSharedDeflatersAcrossCodecs() throws IOException {
+        String value = repeat("microsphere,", 100);
+        for (int level = 0; level <= 9; level++) {
+            // the Deflater of the same level is shared by the codecs
+            for (int i = 0; i < 2; i++) {
+                CompressingSerializer<String> serializer = new CompressingSerializer<>(new StringSerializer(),
+                        new DeflateCompressionCodec(level), 0);
+                assertEquals(value, deserializer.deserialize(serializer.serialize(value)));
+            }
+        }
+    }
+
+    @Test
+    public void testOversizedUncompressedLength() throws IOException {
+        // claims about 2 GB uncompressed
+        byte[] bytes = {MAGIC, DeflateCompressionCodec.ID, 0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xF0, 1};
+        assertThrows(StreamCorruptedException.class, () -> deserializer.deserialize(bytes));
+
+        String value = repeat("microsphere,", 100);
+        byte[] compressed = serializer.serialize(value);
+        CompressingDeserializer<String> deserializer = new CompressingDeserializer<>(new StringDeserializer(),
+                Collections.singletonList(new DeflateCompressionCodec()), value.length() - 1);
+        assertThrows(StreamCorruptedException.class, () -> deserializer.deserialize(compressed));
+    }
+
+    private static String repeat(String value, int times) {
+        StringBuilder builder = new StringBuilder(value.length() * times);
+        for (int i = 0; i < times; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
@@ -18,7 +18,9 @@ package io.microsphere.io;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -44,4 +46,26 @@ public class DefaultSerializerAndDeserializerTest {
         bytes = serializer.serialize(value);
         assertEquals(value, deserializer.deserialize(bytes));
     }
+
+    @Test
+    public void testOutputStream() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        serializer.serialize("Test", outputStream);
+        assertEquals("Test", deserializer.deserialize(outputStream.toByteArray()));
+    }
+
+    @Test
+    public void testByteBuffer() throws IOException {
+        ByteBufferPool pool = new ByteBufferPool(true);
+        ByteBuffer buffer = pool.acquire(256);
+        try {
+            int length = serializer.serialize("Test", buffer);
+            assertEquals(length, buffer.position());
+            buffer.flip();
+            assertEquals("Test", deserializer.deserialize(buffer));
+            assertEquals(buffer.limit(), buffer.position());
+        } finally {
+            pool.release(buffer);
+        }
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link FastByteArrayOutputStream} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class FastByteArrayOutputStreamTest {
+
+    @Test
+    public void testWrite() throws IOException {
+        FastByteArrayOutputStream outputStream = new FastByteArrayOutputStream(4);
+        byte[] expected = write(outputStream);
+        assertEquals(expected.length, outputStream.size());
+        assertArrayEquals(expected, outputStream.toByteArray());
+
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        outputStream.writeTo(target);
+        assertArrayEquals(expected, target.toByteArray());
+
+        assertArrayEquals(expected, readAll(outputStream.toInputStream()));
+
+        ByteBuffer buffer = outputStream.toByteBuffer();
+        assertEquals(expected.length, buffer.remaining());
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertArrayEquals(expected, bytes);
+        // consolidated, no more copy
+        assertSame(outputStream.toByteBuffer().array(), buffer.array());
+
+        outputStream.write(9);
+        assertEquals(expected.length + 1, outputStream.size());
+        assertEquals(9, outputStream.toByteArray()[expected.length]);
+
+        outputStream.reset();
+        assertEquals(0, outputStream.size());
+        assertEquals(0, outputStream.toByteArray().length);
+        assertArrayEquals(expected, write(outputStream));
+        assertArrayEquals(expected, outputStream.toByteArray());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> outputStream.write(new byte[1], 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new FastByteArrayOutputStream(0));
+    }
+
+    @Test
+    public void testPooled() throws IOException {
+        ByteBufferPool pool = new ByteBufferPool(false);
+        FastByteArrayOutputStream outputStream = new FastByteArrayOutputStream(64, pool);
+        byte[] expected = write(outputStream);
+        assertArrayEquals(expected, outputStream.toByteArray());
+        outputStream.close();
+        assertEquals(0, outputStream.size());
+        int pooledCount = pool.getPooledCount();
+        assertEquals(true, pooledCount > 0);
+
+        // reuse the pooled chunks
+        outputStream = new FastByteArrayOutputStream(64, pool);
+        assertArrayEquals(expected, write(outputStream));
+        assertArrayEquals(expected, outputStream.toByteArray());
+        assertEquals(true, pool.getPooledCount() < pooledCount);
+        outputStream.close();
+
+        assertThrows(IllegalArgumentException.class, () -> new FastByteArrayOutputStream(64, new ByteBufferPool(true)));
+    }
+
+    private byte[] write(FastByteArrayOutputStream outputStream) {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (int i = 0; i < 100; i++) {
+            outputStream.write(i);
+            expected.write(i);
+        }
+        byte[] bytes = new byte[1000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        outputStream.write(bytes, 10, 900);
+        expected.write(bytes, 10, 900);
+        return expected.toByteArray();
+    }
+
+    private byte[] readAll(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[7];
+        int n;
+        while ((n = inputStream.read(buffer)) > -1) {
+            outputStream.write(buffer, 0, n);
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import io.microsphere.io.event.FileChangedEvent;
+import io.microsphere.io.event.FileChangedListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static io.microsphere.io.StandardFileWatchServiceTest.deleteRecursively;
+import static io.microsphere.io.event.FileChangedEvent.Kind.CREATED;
+import static io.microsphere.io.event.FileChangedEvent.Kind.DELETED;
+import static io.microsphere.io.event.FileChangedEvent.Kind.MODIFIED;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link PollingFileWatchService} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class PollingFileWatchServiceTest {
+
+    private Path rootPath;
+
+    private List<String> events;
+
+    private List<List<FileChangedEvent>> batches;
+
+    @BeforeEach
+    public void init() throws Exception {
+        rootPath = Files.createTempDirectory("polling");
+        events = Collections.synchronizedList(new ArrayList<>());
+        batches = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @AfterEach
+    public void destroy() throws Exception {
+        deleteRecursively(rootPath);
+    }
+
+    @Test
+    public void testWatchRecursively() throws Exception {
+        Path existedPath = write(rootPath.resolve("existed.txt"), "1");
+        PollingFileWatchService fileWatchService = new PollingFileWatchService(Runnable::run, 1, HOURS, false);
+        fileWatchService.watchRecursively(rootPath.toFile(), new RecordingListener(events, batches));
+        fileWatchService.start();
+        try {
+            fileWatchService.poll();
+            assertTrue(events.isEmpty());
+
+            Path newPath = write(rootPath.resolve("new.txt"), "1");
+            fileWatchService.poll();
+            assertEquals(Collections.singletonList(CREATED + ":" + newPath), events);
+
+            events.clear();
+            write(existedPath, "12");
+            fileWatchService.poll();
+            assertEquals(Collections.singletonList(MODIFIED + ":" + existedPath), events);
+
+            events.clear();
+            batches.clear();
+            Path subPath = Files.createDirectories(rootPath.resolve("a/b"));
+            Path subFilePath = write(subPath.resolve("sub.txt"), "1");
+            fileWatchService.poll();
+            assertTrue(events.contains(CREATED + ":" + rootPath.resolve("a")));
+            assertTrue(events.contains(CREATED + ":" + subPath));
+            assertTrue(events.contains(CREATED + ":" + subFilePath));
+            assertEquals(3, events.size());
+            // in a batch
+            assertEquals(1, batches.size());
+
+            events.clear();
+            Files.delete(newPath);
+            write(subFilePath, "123");
+            fileWatchService.poll();
+            assertTrue(events.contains(DELETED + ":" + newPath));
+            assertTrue(events.contains(MODIFIED + ":" + subFilePath));
+            assertEquals(2, events.size());
+        } finally {
+            fileWatchService.stop();
+        }
+    }
+
+    @Test
+    public void testWatchFileWithHash() throws Exception {
+        Path filePath = write(rootPath.resolve("file.txt"), "1");
+        Path otherPath = write(rootPath.resolve("other.txt"), "1");
+        PollingFileWatchService fileWatchService = new PollingFileWatchService(Runnable::run, 1, HOURS, true, 2);
+        fileWatchService.start();
+        try {
+            // watch after start
+            fileWatchService.watch(filePath.toFile(), new RecordingListener(events, batches));
+            FileTime lastModifiedTime = Files.getLastModifiedTime(filePath);
+            write(filePath, "2");
+            Files.setLastModifiedTime(filePath, lastModifiedTime);
+            write(otherPath, "2");
+            // not a hashing cycle
+            fileWatchService.poll();
+            assertTrue(events.isEmpty());
+            fileWatchService.poll();
+            assertEquals(Collections.singletonList(MODIFIED + ":" + filePath), events);
+        } finally {
+            fileWatchService.stop();
+        }
+    }
+
+    @Test
+    public void testUnreadableDirectory() throws Exception {
+        Path aPath = Files.createDirectories(rootPath.resolve("a"));
+        Path subPath = Files.createDirectories(aPath.resolve("sub"));
+        Path bPath = Files.createDirectories(rootPath.resolve("b"));
+        PollingFileWatchService fileWatchService = new PollingFileWatchService(Runnable::run, 1, HOURS, false);
+        fileWatchService.watchRecursively(rootPath.toFile(), new RecordingListener(events, batches));
+        fileWatchService.start();
+        try {
+            Path newPath = write(bPath.resolve("new.txt"), "1");
+            // the directory "a" is replaced by a file, the attributes of "a/sub" can't be read
+            Files.delete(subPath);
+            Files.delete(aPath);
+            write(aPath, "1");
+            fileWatchService.poll();
+            assertTrue(events.contains(CREATED + ":" + newPath));
+        } finally {
+            fileWatchService.stop();
+        }
+    }
+
+    private static Path write(Path path, String content) throws Exception {
+        return Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class RecordingListener implements FileChangedListener {
+
+        private final List<String> events;
+
+        private final List<List<FileChangedEvent>> batches;
+
+        private RecordingListener(List<String> events, List<List<FileChangedEvent>> batches) {
+            this.events = events;
+            this.batches = batches;
+        }
+
+        @Override
+        public void onFileChangedEvents(List<FileChangedEvent> events) {
+            batches.add(events);
+            FileChangedListener.super.onFileChangedEvents(events);
+        }
+
+        @Override
+        public void onEvent(FileChangedEvent event) {
+            events.add(event.getKind() + ":" + event.getFile().toPath());
+        }
+    }
+}
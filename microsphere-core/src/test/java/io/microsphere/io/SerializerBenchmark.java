@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JMH benchmark of {@link BinarySerializer}/{@link BinaryDeserializer} comparing with
+ * {@link DefaultSerializer}/{@link DefaultDeserializer}
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    private final BinarySerializer binarySerializer = new BinarySerializer();
+
+    private final BinaryDeserializer binaryDeserializer = new BinaryDeserializer();
+
+    private final DefaultSerializer defaultSerializer = new DefaultSerializer();
+
+    private final DefaultDeserializer defaultDeserializer = new DefaultDeserializer();
+
+    private Order order;
+
+    private byte[] binaryBytes;
+
+    private byte[] defaultBytes;
+
+    @Setup
+    public void setup() throws IOException {
+        order = new Order();
+        order.id = 1234567890L;
+        order.customer = "Mercy";
+        order.amount = 99.5;
+        for (int i = 0; i < 10; i++) {
+            order.items.add("item-" + i);
+            order.attributes.put("key-" + i, i);
+        }
+        binaryBytes = binarySerializer.serialize(order);
+        defaultBytes = defaultSerializer.serialize(order);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() throws IOException {
+        return binarySerializer.serialize(order);
+    }
+
+    @Benchmark
+    public byte[] defaultSerialize() throws IOException {
+        return defaultSerializer.serialize(order);
+    }
+
+    @Benchmark
+    public Object binaryDeserialize() throws IOException {
+        return binaryDeserializer.deserialize(binaryBytes);
+    }
+
+    @Benchmark
+    public Object defaultDeserialize() throws IOException {
+        return defaultDeserializer.deserialize(defaultBytes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SerializerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    public static class Order implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private long id;
+
+        private String customer;
+
+        private double amount;
+
+        private List<String> items = new ArrayList<>();
+
+        private Map<String, Integer> attributes = new HashMap<>();
+    }
+}
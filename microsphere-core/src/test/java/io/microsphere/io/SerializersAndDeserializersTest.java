@@ -21,9 +21,17 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * {@link Serializers} and {@link Deserializers} Test
@@ -63,4 +71,47 @@ public class SerializersAndDeserializersTest {
         Deserializer deserializer = deserializers.getMostCompatible(Integer.class);
         assertEquals(value, deserializer.deserialize(bytes));
     }
+
+    @Test
+    public void testGetMostCompatibleWithHierarchy() {
+        // String is resolved by the exact type
+        assertTrue(serializers.getMostCompatible(String.class) instanceof StringSerializer);
+        assertTrue(deserializers.getMostCompatible(String.class) instanceof StringDeserializer);
+        // the fallback
+        assertSame(serializers.getMostCompatible(Object.class), serializers.getMostCompatible(ArrayList.class));
+        assertSame(serializers.getLowestPriority(Object.class), serializers.getMostCompatible(Integer.class));
+        assertSame(deserializers.getLowestPriority(Object.class), deserializers.getMostCompatible(Integer.class));
+        // cached
+        assertSame(serializers.getMostCompatible(Integer.class), serializers.getMostCompatible(Integer.class));
+    }
+
+    @Test
+    public void testLoadSPIConcurrently() throws InterruptedException {
+        int threads = 4;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+        List<Throwable> failures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            executorService.execute(() -> {
+                try {
+                    for (int j = 0; j < 100; j++) {
+                        if (index == 0 && j % 10 == 0) {
+                            serializers.loadSPI();
+                        }
+                        assertTrue(serializers.getMostCompatible(String.class) instanceof StringSerializer);
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executorService.shutdown();
+        assertTrue(failures.isEmpty());
+    }
 }
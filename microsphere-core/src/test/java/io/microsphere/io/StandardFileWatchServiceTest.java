@@ -25,13 +25,35 @@ import org.junit.platform.commons.logging.Logger;
 import org.junit.platform.commons.logging.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
+import static io.microsphere.concurrent.CustomizedThreadFactory.newThreadFactory;
+import static io.microsphere.io.StandardFileWatchService.DISPATCHER_THREADS;
+import static io.microsphere.io.StandardFileWatchService.RATE_WINDOW_MILLIS;
 import static io.microsphere.util.ClassLoaderUtils.getResource;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * {@link StandardFileWatchService} Test
@@ -79,6 +101,292 @@ public class StandardFileWatchServiceTest {
         countDownLatch.await();
     }
 
+    @Test
+    public void testWatchRecursively() throws Exception {
+        Path rootPath = Files.createTempDirectory("watch");
+        Path existedPath = Files.createDirectories(rootPath.resolve("a/b"));
+        try {
+            fileWatchService.start();
+            Set<File> createdFiles = ConcurrentHashMap.newKeySet();
+            CountDownLatch latch = new CountDownLatch(3);
+            // watch after start
+            fileWatchService.watchRecursively(rootPath.toFile(), new FileChangedListener() {
+                @Override
+                public void onFileCreated(FileChangedEvent event) {
+                    if (createdFiles.add(event.getFile())) {
+                        latch.countDown();
+                    }
+                }
+            }, FileChangedEvent.Kind.CREATED);
+
+            Files.write(existedPath.resolve("1.txt"), "1".getBytes(StandardCharsets.UTF_8));
+            // the new sub-directory is registered automatically
+            Path newPath = Files.createDirectories(rootPath.resolve("c"));
+            Thread.sleep(100);
+            Files.write(newPath.resolve("2.txt"), "2".getBytes(StandardCharsets.UTF_8));
+
+            assertTrue(latch.await(30, SECONDS));
+            assertTrue(createdFiles.contains(existedPath.resolve("1.txt").toFile()));
+            assertTrue(createdFiles.contains(newPath.toFile()));
+            assertTrue(createdFiles.contains(newPath.resolve("2.txt").toFile()));
+            assertThrows(IllegalArgumentException.class, () -> fileWatchService.watchRecursively(resourceFile,
+                    new MyFileChangedListener(countDownLatch)));
+        } finally {
+            deleteRecursively(rootPath);
+        }
+    }
+
+    @Test
+    public void testBatchAndRateLimit() throws Exception {
+        Path rootPath = Files.createTempDirectory("watch");
+        StandardFileWatchService fileWatchService = new StandardFileWatchService(Runnable::run,
+                newThreadFactory("StandardFileWatchServiceTest", true), 5);
+        try {
+            int count = 50;
+            Set<File> changedFiles = ConcurrentHashMap.newKeySet();
+            List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+            AtomicInteger modifiedEvents = new AtomicInteger();
+            CountDownLatch latch = new CountDownLatch(count);
+            fileWatchService.watch(rootPath.toFile(), new FileChangedListener() {
+                @Override
+                public void onFileChangedEvents(List<FileChangedEvent> events) {
+                    batchSizes.add(events.size());
+                    FileChangedListener.super.onFileChangedEvents(events);
+                }
+
+                @Override
+                public void onEvent(FileChangedEvent event) {
+                    if (event.getKind() == FileChangedEvent.Kind.MODIFIED) {
+                        modifiedEvents.incrementAndGet();
+                    }
+                    if (changedFiles.add(event.getFile())) {
+                        latch.countDown();
+                    }
+                }
+            });
+            fileWatchService.start();
+            long startTime = System.currentTimeMillis();
+            for (int i = 0; i < count; i++) {
+                Files.write(rootPath.resolve(i + ".txt"), "1".getBytes(StandardCharsets.UTF_8));
+                // spread the events over the poll cycles
+                Thread.sleep(20);
+            }
+            // the excess events are coalesced into a rescan
+            assertTrue(latch.await(30, SECONDS));
+            // at most 5 events and a rescan are delivered per window
+            long windows = (System.currentTimeMillis() - startTime) / RATE_WINDOW_MILLIS + 2;
+            assertTrue(batchSizes.size() <= 6 * windows, batchSizes.size() + " batches in " + windows + " windows");
+            assertTrue(batchSizes.stream().anyMatch(size -> size > 1));
+            // the created files are not reported as modified by the rescan
+            assertTrue(modifiedEvents.get() <= 5 * windows, modifiedEvents + " modified events");
+            assertEquals(5, fileWatchService.getMaxEventsPerSecond());
+        } finally {
+            fileWatchService.stop();
+            deleteRecursively(rootPath);
+        }
+    }
+
+    @Test
+    public void testRescanAgainstSnapshot() throws Exception {
+        Path rootPath = Files.createTempDirectory("watch");
+        Path existedPath = Files.write(rootPath.resolve("existed.txt"), "1".getBytes(StandardCharsets.UTF_8));
+        Path existedDirectory = Files.createDirectories(rootPath.resolve("a"));
+        Path existedEntry = Files.write(existedDirectory.resolve("entry.txt"), "1".getBytes(StandardCharsets.UTF_8));
+        // one event per second, the others are coalesced into a rescan
+        StandardFileWatchService fileWatchService = new StandardFileWatchService(Runnable::run,
+                newThreadFactory("StandardFileWatchServiceTest", true), 1);
+        try {
+            List<String> events = new CopyOnWriteArrayList<>();
+            fileWatchService.watchRecursively(rootPath.toFile(), new FileChangedListener() {
+                @Override
+                public void onEvent(FileChangedEvent event) {
+                    events.add(event.getKind() + ":" + event.getFile().toPath());
+                }
+            });
+            fileWatchService.start();
+            Path firstPath = Files.write(rootPath.resolve("1.txt"), "1".getBytes(StandardCharsets.UTF_8));
+            Path secondPath = Files.write(rootPath.resolve("2.txt"), "2".getBytes(StandardCharsets.UTF_8));
+            Files.delete(existedPath);
+            Files.delete(existedEntry);
+            Files.delete(existedDirectory);
+            List<String> expectedEvents = asList(FileChangedEvent.Kind.CREATED + ":" + firstPath,
+                    FileChangedEvent.Kind.CREATED + ":" + secondPath,
+                    FileChangedEvent.Kind.DELETED + ":" + existedPath,
+                    FileChangedEvent.Kind.DELETED + ":" + existedDirectory,
+                    FileChangedEvent.Kind.DELETED + ":" + existedEntry);
+            for (int i = 0; i < 300 && !events.containsAll(expectedEvents); i++) {
+                Thread.sleep(100);
+            }
+            assertTrue(events.containsAll(expectedEvents), events.toString());
+            assertFalse(events.contains(FileChangedEvent.Kind.MODIFIED + ":" + secondPath), events.toString());
+        } finally {
+            fileWatchService.stop();
+            deleteRecursively(rootPath);
+        }
+    }
+
+    @Test
+    public void testFileChangedEvents() {
+        Path path = new File("test.txt").toPath();
+        StandardFileWatchService.FileChangedEvents events = new StandardFileWatchService.FileChangedEvents();
+        events.add(path, FileChangedEvent.Kind.CREATED);
+        events.add(path, FileChangedEvent.Kind.MODIFIED);
+        events.add(path, FileChangedEvent.Kind.MODIFIED);
+        events.add(path, FileChangedEvent.Kind.DELETED);
+        events.add(path, FileChangedEvent.Kind.CREATED);
+        List<FileChangedEvent.Kind> kinds = new ArrayList<>();
+        events.toList().forEach(event -> kinds.add(event.getKind()));
+        // the repeated kind is collapsed, the transitions are retained
+        assertEquals(asList(FileChangedEvent.Kind.CREATED, FileChangedEvent.Kind.MODIFIED,
+                FileChangedEvent.Kind.DELETED, FileChangedEvent.Kind.CREATED), kinds);
+    }
+
+    @Test
+    public void testSharedEngineAndRestart() throws Exception {
+        Path rootPath = Files.createTempDirectory("watch");
+        StandardFileWatchService anotherService = new StandardFileWatchService();
+        try {
+            CountDownLatch latch = new CountDownLatch(2);
+            FileChangedListener listener = new FileChangedListener() {
+                @Override
+                public void onFileCreated(FileChangedEvent event) {
+                    latch.countDown();
+                }
+            };
+            fileWatchService.watch(rootPath.toFile(), listener, FileChangedEvent.Kind.CREATED);
+            anotherService.watch(rootPath.toFile(), listener, FileChangedEvent.Kind.CREATED);
+            fileWatchService.start();
+            anotherService.start();
+            assertThrows(IllegalStateException.class, anotherService::start);
+
+            // one polling thread per FileSystem
+            FileWatchEngine engine = fileWatchService.getEngines().iterator().next();
+            assertSame(engine, anotherService.getEngines().iterator().next());
+
+            Files.write(rootPath.resolve("1.txt"), "1".getBytes(StandardCharsets.UTF_8));
+            assertTrue(latch.await(30, SECONDS));
+
+            StandardFileWatchService.Metrics metrics = fileWatchService.getMetrics();
+            // the metrics are recorded after the events are dispatched
+            for (int i = 0; i < 100 && metrics.getPollCycles() == 0; i++) {
+                Thread.sleep(100);
+            }
+            assertTrue(metrics.getPollCycles() > 0);
+            assertTrue(metrics.getDispatchedEvents() > 0);
+            assertTrue(metrics.getMaxLatency(NANOSECONDS) >= metrics.getAverageLatency(NANOSECONDS));
+
+            // the engine is closed when the last service is stopped
+            fileWatchService.stop();
+            anotherService.stop();
+            assertTrue(fileWatchService.getEngines().isEmpty());
+            engine.getPollingThread().join(SECONDS.toMillis(10));
+            assertFalse(engine.getPollingThread().isAlive());
+
+            // the watched files are retained after restarting
+            CountDownLatch restartLatch = new CountDownLatch(1);
+            anotherService.watch(rootPath.toFile(), new FileChangedListener() {
+                @Override
+                public void onFileCreated(FileChangedEvent event) {
+                    restartLatch.countDown();
+                }
+            }, FileChangedEvent.Kind.CREATED);
+            anotherService.start();
+            assertNotSame(engine, anotherService.getEngines().iterator().next());
+            Files.write(rootPath.resolve("2.txt"), "2".getBytes(StandardCharsets.UTF_8));
+            assertTrue(restartLatch.await(30, SECONDS));
+        } finally {
+            anotherService.stop();
+            deleteRecursively(rootPath);
+        }
+    }
+
+    @Test
+    public void testBlockingListenerNotStallOthers() throws Exception {
+        Path rootPath = Files.createTempDirectory("watch");
+        StandardFileWatchService blockingService = new StandardFileWatchService();
+        StandardFileWatchService anotherService = new StandardFileWatchService();
+        CountDownLatch blockingLatch = new CountDownLatch(1);
+        try {
+            CountDownLatch blockedLatch = new CountDownLatch(1);
+            blockingService.watch(rootPath.toFile(), new FileChangedListener() {
+                @Override
+                public void onFileCreated(FileChangedEvent event) {
+                    blockedLatch.countDown();
+                    try {
+                        blockingLatch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }, FileChangedEvent.Kind.CREATED);
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            CountDownLatch latch = new CountDownLatch(2);
+            anotherService.watch(rootPath.toFile(), new FileChangedListener() {
+                @Override
+                public void onFileCreated(FileChangedEvent event) {
+                    threads.add(Thread.currentThread());
+                    latch.countDown();
+                }
+            }, FileChangedEvent.Kind.CREATED);
+            blockingService.start();
+            anotherService.start();
+            FileWatchEngine engine = blockingService.getEngines().iterator().next();
+            assertSame(engine, anotherService.getEngines().iterator().next());
+
+            Files.write(rootPath.resolve("1.txt"), "1".getBytes(StandardCharsets.UTF_8));
+            assertTrue(blockedLatch.await(30, SECONDS));
+            // the blocked listener neither stalls the shared polling thread nor stopping its service
+            Files.write(rootPath.resolve("2.txt"), "2".getBytes(StandardCharsets.UTF_8));
+            assertTrue(latch.await(30, SECONDS));
+            assertFalse(threads.contains(engine.getPollingThread()));
+            blockingService.stop();
+        } finally {
+            blockingLatch.countDown();
+            blockingService.stop();
+            anotherService.stop();
+            deleteRecursively(rootPath);
+        }
+    }
+
+    @Test
+    public void testDispatchingThreadsShared() throws Exception {
+        Path rootPath = Files.createTempDirectory("watch");
+        List<StandardFileWatchService> services = new ArrayList<>();
+        try {
+            int count = DISPATCHER_THREADS + 4;
+            CountDownLatch latch = new CountDownLatch(count);
+            for (int i = 0; i < count; i++) {
+                StandardFileWatchService service = new StandardFileWatchService();
+                service.watch(rootPath.toFile(), new FileChangedListener() {
+                    @Override
+                    public void onFileCreated(FileChangedEvent event) {
+                        latch.countDown();
+                    }
+                }, FileChangedEvent.Kind.CREATED);
+                service.start();
+                services.add(service);
+            }
+            Files.write(rootPath.resolve("1.txt"), "1".getBytes(StandardCharsets.UTF_8));
+            assertTrue(latch.await(30, SECONDS));
+            // no thread per instance
+            long dispatchingThreads = Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> thread.getName().startsWith("StandardFileWatchService-dispatcher"))
+                    .count();
+            assertTrue(dispatchingThreads <= DISPATCHER_THREADS, dispatchingThreads + " dispatching threads");
+        } finally {
+            for (StandardFileWatchService service : services) {
+                service.stop();
+            }
+            deleteRecursively(rootPath);
+        }
+    }
+
+    static void deleteRecursively(Path rootPath) throws IOException {
+        try (Stream<Path> paths = Files.walk(rootPath)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
     private static class MyFileChangedListener implements FileChangedListener {
 
         private static final Logger logger = LoggerFactory.getLogger(MyFileChangedListener.class);
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link StreamingEncoder} and {@link StreamingDecoder} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class StreamingEncoderAndDecoderTest {
+
+    @Test
+    public void testEncodeAndDecode() throws IOException {
+        List<String> elements = IntStream.range(0, 10000).mapToObj(i -> "element-" + i).collect(Collectors.toList());
+        byte[] bytes = encode(elements.stream(), new StringSerializer(), 64);
+
+        try (StreamingDecoder<String> decoder = newDecoder(bytes, new StringDeserializer(), 16)) {
+            List<String> decoded = new ArrayList<>();
+            decoder.forEachRemaining(decoded::add);
+            assertEquals(elements, decoded);
+            assertFalse(decoder.hasNext());
+            assertThrows(NoSuchElementException.class, decoder::next);
+            assertThrows(EOFException.class, decoder::read);
+        }
+
+        try (Stream<String> stream = newDecoder(bytes, new StringDeserializer(), 1024).stream()) {
+            assertEquals(elements, stream.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testLargeElements() throws IOException {
+        char[] chars = new char[1000];
+        Arrays.fill(chars, 'a');
+        String large = new String(chars);
+        List<Object> elements = Arrays.asList("small", large, Arrays.asList(1, 2, 3), large + large);
+        byte[] bytes = encode(elements.stream(), new DefaultSerializer(), 128);
+
+        try (Stream<Object> stream = newDecoder(bytes, new DefaultDeserializer(), 8).stream()) {
+            assertEquals(elements, stream.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testLargeElementSerializedTwice() throws IOException {
+        AtomicInteger counter = new AtomicInteger();
+        StringSerializer serializer = new StringSerializer() {
+            @Override
+            public int serialize(String source, ByteBuffer buffer) throws IOException {
+                counter.incrementAndGet();
+                return super.serialize(source, buffer);
+            }
+
+            @Override
+            public void serialize(String source, OutputStream outputStream) throws IOException {
+                counter.incrementAndGet();
+                super.serialize(source, outputStream);
+            }
+        };
+        char[] chars = new char[1000];
+        Arrays.fill(chars, 'a');
+        String large = new String(chars);
+        byte[] bytes = encode(Stream.of(large), serializer, 64);
+        // the failed attempt into the buffer, and the one into FastByteArrayOutputStream
+        assertEquals(2, counter.get());
+        try (StreamingDecoder<String> decoder = newDecoder(bytes, new StringDeserializer(), 16)) {
+            assertEquals(large, decoder.read());
+        }
+    }
+
+    @Test
+    public void testFailedElementDiscarded() throws IOException {
+        StringSerializer serializer = new StringSerializer() {
+            @Override
+            public int serialize(String source, ByteBuffer buffer) throws IOException {
+                if ("failed".equals(source)) {
+                    // the partial content
+                    buffer.put((byte) 1);
+                    throw new IOException("failed");
+                }
+                return super.serialize(source, buffer);
+            }
+        };
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (StreamingEncoder<String> encoder = new StreamingEncoder<>(Channels.newChannel(outputStream), serializer,
+                64)) {
+            encoder.write("a");
+            assertThrows(IOException.class, () -> encoder.write("failed"));
+            encoder.write("b");
+            assertEquals(2, encoder.getCount());
+        }
+        try (Stream<String> stream = newDecoder(outputStream.toByteArray(), new StringDeserializer(), 16).stream()) {
+            assertEquals(Arrays.asList("a", "b"), stream.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testCorruptedFrameLength() throws IOException {
+        byte[] bytes = {0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xF0, 1};
+        try (StreamingDecoder<String> decoder = newDecoder(bytes, new StringDeserializer(), 16)) {
+            assertThrows(StreamCorruptedException.class, decoder::read);
+        }
+        byte[] encoded = encode(Stream.of("element"), new StringSerializer(), 64);
+        try (StreamingDecoder<String> decoder = new StreamingDecoder<>(Channels.newChannel(new ByteArrayInputStream(encoded)),
+                new StringDeserializer(), 16, 4)) {
+            assertThrows(StreamCorruptedException.class, decoder::read);
+        }
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        byte[] bytes = encode(Stream.of("a", "b"), new StringSerializer(), 64);
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        try (StreamingDecoder<String> decoder = newDecoder(truncated, new StringDeserializer(), 64)) {
+            assertEquals("a", decoder.read());
+            assertThrows(EOFException.class, decoder::read);
+        }
+    }
+
+    @Test
+    public void testClosed() throws IOException {
+        StreamingEncoder<String> encoder = new StreamingEncoder<>(Channels.newChannel(new ByteArrayOutputStream()),
+                new StringSerializer());
+        encoder.close();
+        assertThrows(IOException.class, () -> encoder.write("a"));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingEncoder<>(
+                Channels.newChannel(new ByteArrayOutputStream()), new StringSerializer(), 4));
+    }
+
+    private <T> byte[] encode(Stream<T> elements, Serializer<? super T> serializer, int bufferSize) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (StreamingEncoder<T> encoder = new StreamingEncoder<>(Channels.newChannel(outputStream), serializer,
+                bufferSize)) {
+            encoder.writeAll(elements);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private <T> StreamingDecoder<T> newDecoder(byte[] bytes, Deserializer<T> deserializer, int bufferSize) {
+        return new StreamingDecoder<>(Channels.newChannel(new ByteArrayInputStream(bytes)), deserializer, bufferSize);
+    }
+}
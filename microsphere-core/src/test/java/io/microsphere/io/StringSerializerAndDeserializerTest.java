@@ -19,10 +19,13 @@ package io.microsphere.io;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * {@link StringSerializer} and {@link StringDeserializer} Test
@@ -43,4 +46,53 @@ public class StringSerializerAndDeserializerTest {
         assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), bytes);
         assertEquals(value, deserializer.deserialize(bytes));
     }
+
+    @Test
+    public void testByteBuffer() throws IOException {
+        String value = "Test,\u4e2d\u6587";
+        int length = value.getBytes(StandardCharsets.UTF_8).length;
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64)}) {
+            buffer.put((byte) 1);
+            assertEquals(length, serializer.serialize(value, buffer));
+            buffer.flip();
+            buffer.get();
+            assertEquals(value, deserializer.deserialize(buffer.slice()));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(2);
+        assertThrows(BufferOverflowException.class, () -> serializer.serialize(value, buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void testByteBufferOnLoneSurrogate() throws IOException {
+        String value = "Test,\ud83d,\ude00";
+        byte[] bytes = serializer.serialize(value);
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        assertEquals(bytes.length, serializer.serialize(value, buffer));
+        buffer.flip();
+        byte[] encoded = new byte[buffer.remaining()];
+        buffer.get(encoded);
+        assertArrayEquals(bytes, encoded);
+    }
+
+    @Test
+    public void testFastByteArrayOutputStream() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.append("Test,\u4e2d\u6587,\ud83d\ude00");
+        }
+        String value = builder.toString();
+        FastByteArrayOutputStream outputStream = new FastByteArrayOutputStream(8);
+        serializer.serialize(value, outputStream);
+        assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), outputStream.toByteArray());
+        assertEquals(value, deserializer.deserialize(outputStream.toByteBuffer()));
+    }
+
+    @Test
+    public void testFastByteArrayOutputStreamOnLoneSurrogate() throws IOException {
+        String value = "Test,\ud83d,\ude00";
+        FastByteArrayOutputStream outputStream = new FastByteArrayOutputStream(8);
+        serializer.serialize(value, outputStream);
+        assertArrayEquals(serializer.serialize(value), outputStream.toByteArray());
+    }
 }
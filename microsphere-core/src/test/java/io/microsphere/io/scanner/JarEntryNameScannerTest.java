@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io.scanner;
+
+import io.microsphere.AbstractTestCase;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipException;
+
+import static io.microsphere.collection.SetUtils.of;
+import static io.microsphere.io.scanner.JarEntryNameScanner.END_HEADER_SIGNATURE;
+import static io.microsphere.io.scanner.JarEntryNameScanner.END_HEADER_SIZE;
+import static io.microsphere.io.scanner.JarEntryNameScanner.ZIP64_END_HEADER_SIGNATURE;
+import static io.microsphere.io.scanner.JarEntryNameScanner.ZIP64_END_HEADER_SIZE;
+import static io.microsphere.io.scanner.JarEntryNameScanner.ZIP64_END_LOCATOR_SIGNATURE;
+import static io.microsphere.io.scanner.JarEntryNameScanner.ZIP64_END_LOCATOR_SIZE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link JarEntryNameScanner} {@link Test}
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see JarEntryNameScanner
+ * @since 1.0.0
+ */
+public class JarEntryNameScannerTest extends AbstractTestCase {
+
+    private JarEntryNameScanner jarEntryNameScanner = JarEntryNameScanner.INSTANCE;
+
+    private File jarFile;
+
+    @BeforeEach
+    public void init() throws IOException {
+        jarFile = File.createTempFile("test", ".jar");
+    }
+
+    @AfterEach
+    public void destroy() {
+        jarFile.delete();
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        File file = new File(StringUtils.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        List<String> names;
+        try (Stream<String> stream = jarEntryNameScanner.stream(file)) {
+            names = stream.collect(Collectors.toList());
+        }
+        try (JarFile jarFile = new JarFile(file)) {
+            assertEquals(jarFile.stream().map(JarEntry::getName).collect(Collectors.toList()), names);
+        }
+    }
+
+    @Test
+    public void testScan() throws IOException {
+        try (OutputStream outputStream = new FileOutputStream(jarFile)) {
+            // the prefixed launch script
+            outputStream.write("#!/bin/sh\nexec java -jar $0\n".getBytes(UTF_8));
+            writeEntries(outputStream, "META-INF/", "META-INF/MANIFEST.MF", "a/", "a/A.class", "a/b/B.class", "C.class");
+        }
+        assertEquals(of("META-INF/", "META-INF/MANIFEST.MF", "a/", "a/A.class", "a/b/B.class", "C.class"),
+                jarEntryNameScanner.scan(jarFile, "", true, null));
+        assertEquals(of("C.class"), jarEntryNameScanner.scan(jarFile, "", false, name -> name.endsWith(".class")));
+        assertEquals(of("a/", "a/A.class"), jarEntryNameScanner.scan(jarFile, "a/", false, null));
+        assertEquals(of("a/A.class", "a/b/B.class"), jarEntryNameScanner.scan(jarFile, "a/", true,
+                name -> name.endsWith(".class")));
+    }
+
+    @Test
+    public void testScanZip64WithPrefix() throws IOException {
+        ByteArrayOutputStream zipOutputStream = new ByteArrayOutputStream();
+        writeEntries(zipOutputStream, "a/A.class", "a/b/B.class");
+        byte[] zip = zipOutputStream.toByteArray();
+        ByteBuffer end = ByteBuffer.wrap(zip, zip.length - END_HEADER_SIZE, END_HEADER_SIZE).slice()
+                .order(ByteOrder.LITTLE_ENDIAN);
+        int entries = end.getShort(10) & 0xFFFF;
+        long centralDirectorySize = end.getInt(12) & 0xFFFFFFFFL;
+        long centralDirectoryOffset = end.getInt(16) & 0xFFFFFFFFL;
+        // the ZIP64 records are inserted before the end of central directory
+        ByteBuffer zip64 = ByteBuffer.allocate(ZIP64_END_HEADER_SIZE + ZIP64_END_LOCATOR_SIZE + END_HEADER_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        zip64.putInt(ZIP64_END_HEADER_SIGNATURE).putLong(ZIP64_END_HEADER_SIZE - 12)
+                .putShort((short) 45).putShort((short) 45).putInt(0).putInt(0)
+                .putLong(entries).putLong(entries).putLong(centralDirectorySize).putLong(centralDirectoryOffset);
+        zip64.putInt(ZIP64_END_LOCATOR_SIGNATURE).putInt(0)
+                .putLong(centralDirectoryOffset + centralDirectorySize).putInt(1);
+        zip64.putInt(END_HEADER_SIGNATURE).putShort((short) 0).putShort((short) 0)
+                .putShort((short) 0xFFFF).putShort((short) 0xFFFF).putInt(-1).putInt(-1).putShort((short) 0);
+        try (OutputStream outputStream = new FileOutputStream(jarFile)) {
+            // the prefixed launch script, the offsets in the archive exclude it
+            outputStream.write("#!/bin/sh\nexec java -jar $0\n".getBytes(UTF_8));
+            outputStream.write(zip, 0, zip.length - END_HEADER_SIZE);
+            outputStream.write(zip64.array());
+        }
+        assertEquals(of("a/A.class", "a/b/B.class"), jarEntryNameScanner.scan(jarFile, "", true, null));
+    }
+
+    @Test
+    public void testChecksum() throws IOException {
+        try (OutputStream outputStream = new FileOutputStream(jarFile)) {
+            writeEntries(outputStream, "a/A.class", "a/B.class");
+        }
+        long checksum = jarEntryNameScanner.checksum(jarFile);
+        assertEquals(checksum, jarEntryNameScanner.checksum(jarFile));
+        try (OutputStream outputStream = new FileOutputStream(jarFile)) {
+            writeEntries(outputStream, "a/A.class", "a/C.class");
+        }
+        assertNotEquals(checksum, jarEntryNameScanner.checksum(jarFile));
+    }
+
+    @Test
+    public void testInvalidFile() throws IOException {
+        Files.write(jarFile.toPath(), "Not a JarFile".getBytes(UTF_8));
+        assertThrows(ZipException.class, () -> jarEntryNameScanner.stream(jarFile));
+    }
+
+    private void writeEntries(OutputStream outputStream, String... names) throws IOException {
+        JarOutputStream jarOutputStream = new JarOutputStream(outputStream);
+        for (String name : names) {
+            jarOutputStream.putNextEntry(new JarEntry(name));
+            jarOutputStream.closeEntry();
+        }
+        jarOutputStream.finish();
+    }
+}
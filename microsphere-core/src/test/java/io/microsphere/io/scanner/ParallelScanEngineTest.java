@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.io.scanner;
+
+import io.microsphere.AbstractTestCase;
+import io.microsphere.util.SystemUtils;
+import org.apache.commons.io.filefilter.DirectoryFileFilter;
+import org.apache.commons.io.filefilter.NameFileFilter;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link ParallelScanEngine} {@link Test}
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ParallelScanEngine
+ * @since 1.0.0
+ */
+public class ParallelScanEngineTest extends AbstractTestCase {
+
+    private ParallelScanEngine parallelScanEngine = new ParallelScanEngine(4);
+
+    @Test
+    public void testScan() {
+        File jarHome = new File(SystemUtils.JAVA_HOME);
+        Set<File> directories = parallelScanEngine.scan(jarHome, true, DirectoryFileFilter.INSTANCE);
+        assertFalse(directories.isEmpty());
+        // same order as the sequential scanning
+        assertEquals(new ArrayList<>(SimpleFileScanner.INSTANCE.scan(jarHome, true, DirectoryFileFilter.INSTANCE)),
+                new ArrayList<>(directories));
+
+        directories = parallelScanEngine.scan(jarHome, false, new NameFileFilter("bin"));
+        assertEquals(1, directories.size());
+    }
+
+    @Test
+    public void testMap() {
+        List<Integer> results = parallelScanEngine.map(asList("a", "bb", "ccc", "dddd", "eeeee"), String::length);
+        assertEquals(asList(1, 2, 3, 4, 5), results);
+
+        // nested in the worker threads
+        List<List<Integer>> nestedResults = parallelScanEngine.map(asList(1, 2),
+                i -> parallelScanEngine.map(asList(i, i * 10), j -> j + 1));
+        assertEquals(asList(asList(2, 11), asList(3, 21)), nestedResults);
+
+        assertEquals(4, parallelScanEngine.getParallelism());
+        assertThrows(IllegalArgumentException.class, () -> new ParallelScanEngine(0));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.util;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static io.microsphere.collection.SetUtils.of;
+import static io.microsphere.util.ClassUtils.findClassNamesInClassPath;
+import static io.microsphere.util.ClassUtils.resolvePackageName;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link ClassNameIndex} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class ClassNameIndexTest {
+
+    @Test
+    public void testContainsAndIterator() {
+        List<String> classNames = asList("a.b.C", "a.b.c.D", "a.b.C", "a.b.E", "Main", "module-info", "a.é.F");
+        ClassNameIndex index = new ClassNameIndex(classNames);
+        assertEquals(6, index.size());
+        assertEquals(new HashSet<>(classNames), new HashSet<>(index));
+        for (String className : classNames) {
+            assertTrue(index.contains(className));
+        }
+        assertFalse(index.contains("a.b"));
+        assertFalse(index.contains("a.b.CC"));
+        assertFalse(index.contains("z"));
+        assertFalse(index.contains(null));
+        assertTrue(ClassNameIndex.EMPTY.isEmpty());
+        assertFalse(ClassNameIndex.EMPTY.contains("a.b.C"));
+    }
+
+    @Test
+    public void testGetClassNamesInPackage() {
+        ClassNameIndex index = new ClassNameIndex(asList("a.b.C", "a.b.c.D", "a.b.E", "a.bc.F", "Main", "a.é.F"));
+        assertEquals(of("a.b.C", "a.b.E"), index.getClassNamesInPackage("a.b"));
+        assertEquals(of("a.b.c.D"), index.getClassNamesInPackage("a.b.c"));
+        assertEquals(of("a.é.F"), index.getClassNamesInPackage("a.é"));
+        assertEquals(of("Main"), index.getClassNamesInPackage("Main"));
+        assertTrue(index.getClassNamesInPackage("a").isEmpty());
+        assertEquals(of("Main", "a.b", "a.b.c", "a.bc", "a.é"), index.getPackageNames());
+    }
+
+    @Test
+    public void testLargeIndex() throws Exception {
+        File jarFile = new File(StringUtils.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Set<String> classNames = findClassNamesInClassPath(jarFile, true);
+        ClassNameIndex index = new ClassNameIndex(classNames);
+        assertEquals(classNames.size(), index.size());
+        assertEquals(classNames, index);
+
+        Set<String> packageNames = new LinkedHashSet<>();
+        for (String className : classNames) {
+            assertTrue(index.contains(className));
+            assertFalse(index.contains(className + "X"));
+            packageNames.add(resolvePackageName(className));
+        }
+        assertEquals(packageNames, index.getPackageNames());
+        for (String packageName : packageNames) {
+            List<String> expected = new ArrayList<>();
+            for (String className : classNames) {
+                if (packageName.equals(resolvePackageName(className))) {
+                    expected.add(className);
+                }
+            }
+            assertEquals(new HashSet<>(expected), index.getClassNamesInPackage(packageName));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static io.microsphere.collection.SetUtils.of;
+import static io.microsphere.util.ClassPathIndexCache.DEFAULT_MAX_INDEX_FILES;
+import static io.microsphere.util.ClassUtils.CLASS_PATH_INDEX_CACHE_DIRECTORY_PROPERTY_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link ClassPathIndexCache} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class ClassPathIndexCacheTest {
+
+    private Path rootPath;
+
+    private File jarFile;
+
+    private ClassPathIndexCache cache;
+
+    @BeforeEach
+    public void init() throws IOException {
+        rootPath = Files.createTempDirectory("classpath");
+        jarFile = rootPath.resolve("test.jar").toFile();
+        writeJarFile("a/b/C.class", "a/b/D.class");
+        cache = new ClassPathIndexCache(rootPath.resolve("cache").toFile());
+    }
+
+    @AfterEach
+    public void destroy() throws IOException {
+        try (Stream<Path> paths = Files.walk(rootPath)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testGetClassNames() throws IOException {
+        AtomicInteger scans = new AtomicInteger();
+        assertNull(cache.load(jarFile));
+        Set<String> classNames = cache.getClassNames(jarFile, file -> {
+            scans.incrementAndGet();
+            return of("a.b.C", "a.b.D");
+        });
+        assertEquals(of("a.b.C", "a.b.D"), classNames);
+        assertTrue(cache.getIndexFile(jarFile).isFile());
+
+        // loaded from the index file
+        assertEquals(classNames, cache.getClassNames(jarFile, file -> {
+            scans.incrementAndGet();
+            return of("a.b.C", "a.b.D");
+        }));
+        assertEquals(1, scans.get());
+
+        // invalidated if the JarFile is rewritten within the same size and last-modified time, by the checksum
+        ClassPathIndexCache checksumCache = new ClassPathIndexCache(rootPath.resolve("cache").toFile(),
+                DEFAULT_MAX_INDEX_FILES, true);
+        checksumCache.store(jarFile, classNames);
+        assertEquals(classNames, checksumCache.load(jarFile));
+        long length = jarFile.length();
+        long lastModified = jarFile.lastModified();
+        writeJarFile("a/b/C.class", "a/b/E.class");
+        jarFile.setLastModified(lastModified);
+        assertEquals(length, jarFile.length());
+        assertNull(checksumCache.load(jarFile));
+        assertEquals(of("a.b.C", "a.b.E"), checksumCache.getClassNames(jarFile, file -> of("a.b.C", "a.b.E")));
+        assertEquals(of("a.b.C", "a.b.E"), checksumCache.load(jarFile));
+    }
+
+    @Test
+    public void testStatKey() throws IOException {
+        cache.store(jarFile, of("a.b.C", "a.b.D"));
+        assertEquals(of("a.b.C", "a.b.D"), cache.load(jarFile));
+        // invalidated by the last-modified time
+        jarFile.setLastModified(jarFile.lastModified() - 10000L);
+        assertNull(cache.load(jarFile));
+        cache.store(jarFile, of("a.b.C", "a.b.D"));
+        // invalidated by the size
+        writeJarFile("a/b/C.class", "a/b/D.class", "a/b/E.class");
+        assertNull(cache.load(jarFile));
+
+        // invalidated by the status-changed time even if the size and last-modified time are restored
+        if (jarFile.toPath().getFileSystem().supportedFileAttributeViews().contains("unix")) {
+            cache.store(jarFile, of("a.b.C", "a.b.D", "a.b.E"));
+            long lastModified = jarFile.lastModified();
+            writeJarFile("a/b/C.class", "a/b/D.class", "a/b/F.class");
+            jarFile.setLastModified(lastModified);
+            assertNull(cache.load(jarFile));
+        }
+    }
+
+    @Test
+    public void testHitWithoutReadingJarFile() throws IOException {
+        // not a valid ZIP file, the central directory can't be read
+        Files.write(jarFile.toPath(), new byte[]{1, 2, 3});
+        AtomicInteger scans = new AtomicInteger();
+        Function<File, Set<String>> scanner = file -> {
+            scans.incrementAndGet();
+            return of("a.b.C");
+        };
+        assertEquals(of("a.b.C"), cache.getClassNames(jarFile, scanner));
+        assertEquals(of("a.b.C"), cache.getClassNames(jarFile, scanner));
+        // the hit costs the file stat only
+        assertEquals(1, scans.get());
+
+        ClassPathIndexCache checksumCache = new ClassPathIndexCache(rootPath.resolve("checksum").toFile(),
+                DEFAULT_MAX_INDEX_FILES, true);
+        assertEquals(of("a.b.C"), checksumCache.getClassNames(jarFile, scanner));
+        assertNull(checksumCache.load(jarFile));
+        assertEquals(2, scans.get());
+    }
+
+    @Test
+    public void testHitCheaperThanScan() throws IOException {
+        String[] names = new String[5000];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "a/b/c/d/Class" + i + ".class";
+        }
+        writeJarFile(names);
+        if (ClassPathIndexCache.INSTANCE.isEnabled()) {
+            return;
+        }
+        // the scanning of ClassUtils without the cache
+        Function<File, Set<String>> scanner = file -> ClassUtils.findClassNamesInJarFile(file, true);
+        Set<String> classNames = cache.getClassNames(jarFile, scanner);
+        assertEquals(names.length, classNames.size());
+
+        long scanTime = Long.MAX_VALUE;
+        long hitTime = Long.MAX_VALUE;
+        for (int i = 0; i < 20; i++) {
+            long startTime = System.nanoTime();
+            assertEquals(classNames, scanner.apply(jarFile));
+            scanTime = Math.min(scanTime, System.nanoTime() - startTime);
+            startTime = System.nanoTime();
+            assertEquals(classNames, cache.load(jarFile));
+            hitTime = Math.min(hitTime, System.nanoTime() - startTime);
+        }
+        assertTrue(hitTime < scanTime, "hit : " + hitTime + "ns , scan : " + scanTime + "ns");
+    }
+
+    @Test
+    public void testUntrustedDirectory() throws IOException {
+        File directory = rootPath.resolve("shared").toFile();
+        assertTrue(directory.mkdir());
+        if (!directory.toPath().getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return;
+        }
+        Files.setPosixFilePermissions(directory.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"));
+        ClassPathIndexCache cache = new ClassPathIndexCache(directory);
+        assertFalse(cache.isEnabled());
+        assertEquals(of("a.b.C", "a.b.D"), cache.getClassNames(jarFile, file -> of("a.b.C", "a.b.D")));
+        assertFalse(cache.getIndexFile(jarFile).exists());
+
+        // the absent directory is created with the owner-only permissions
+        File ownedDirectory = rootPath.resolve("owned").toFile();
+        assertTrue(new ClassPathIndexCache(ownedDirectory).isEnabled());
+        assertEquals(PosixFilePermissions.fromString("rwx------"),
+                Files.getPosixFilePermissions(ownedDirectory.toPath()));
+    }
+
+    @Test
+    public void testEvict() throws IOException {
+        ClassPathIndexCache cache = new ClassPathIndexCache(rootPath.resolve("cache").toFile(), 2);
+        for (int i = 0; i < 3; i++) {
+            File jarFile = rootPath.resolve(i + ".jar").toFile();
+            Files.copy(this.jarFile.toPath(), jarFile.toPath());
+            cache.store(jarFile, of("a.b.C", "a.b.D"));
+            cache.getIndexFile(jarFile).setLastModified(System.currentTimeMillis() - (3 - i) * 1000L);
+        }
+        assertNull(cache.load(rootPath.resolve("0.jar").toFile()));
+        assertEquals(of("a.b.C", "a.b.D"), cache.load(rootPath.resolve("2.jar").toFile()));
+    }
+
+    @Test
+    public void testDisabled() {
+        ClassPathIndexCache cache = new ClassPathIndexCache(null);
+        assertFalse(cache.isEnabled());
+        assertEquals(of("a.b.C", "a.b.D"), cache.getClassNames(jarFile, file -> of("a.b.C", "a.b.D")));
+        assertNull(cache.load(jarFile));
+        // disabled by default
+        if (System.getProperty(CLASS_PATH_INDEX_CACHE_DIRECTORY_PROPERTY_NAME) == null) {
+            assertNull(ClassPathIndexCache.resolveDirectory());
+        }
+    }
+
+    private void writeJarFile(String... names) throws IOException {
+        try (JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(jarFile))) {
+            for (String name : names) {
+                outputStream.putNextEntry(new JarEntry(name));
+                outputStream.closeEntry();
+            }
+        }
+    }
+}
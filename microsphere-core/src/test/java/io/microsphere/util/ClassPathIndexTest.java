@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.util;
+
+import io.microsphere.io.scanner.ParallelScanEngine;
+import org.apache.commons.io.filefilter.SuffixFileFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static io.microsphere.collection.SetUtils.of;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link ClassPathIndex} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class ClassPathIndexTest {
+
+    private Path rootPath;
+
+    private String classesPath;
+
+    private String jarPath;
+
+    private ClassPathIndex classPathIndex;
+
+    @BeforeEach
+    public void init() throws IOException {
+        rootPath = Files.createTempDirectory("classpath");
+        Path classesDirectory = Files.createDirectories(rootPath.resolve("classes/a/b"));
+        Files.createFile(classesDirectory.resolve("C.class"));
+        Files.createFile(classesDirectory.resolve("C$D.class"));
+        Files.createFile(classesDirectory.resolve("readme.txt"));
+        classesPath = rootPath.resolve("classes").toString();
+
+        File jarFile = rootPath.resolve("test.jar").toFile();
+        try (JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(jarFile))) {
+            for (String name : asList("a/b/E.class", "x/y/Z.class", "META-INF/test.properties")) {
+                outputStream.putNextEntry(new JarEntry(name));
+                outputStream.closeEntry();
+            }
+        }
+        jarPath = jarFile.getPath();
+        classPathIndex = new ClassPathIndex(asList(classesPath, jarPath));
+    }
+
+    @AfterEach
+    public void destroy() throws IOException {
+        try (Stream<Path> paths = Files.walk(rootPath)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testFindClassPath() {
+        assertEquals(classesPath, classPathIndex.findClassPath("a.b.C"));
+        assertEquals(classesPath, classPathIndex.findClassPath("a.b.C$D"));
+        // the classes directory is not scanned
+        assertFalse(classPathIndex.isIndexed(classesPath));
+        assertFalse(classPathIndex.isIndexed(jarPath));
+
+        assertEquals(jarPath, classPathIndex.findClassPath("x.y.Z"));
+        assertTrue(classPathIndex.isIndexed(jarPath));
+        assertNull(classPathIndex.findClassPath("x.y.NotFound"));
+    }
+
+    @Test
+    public void testGetClassNamesInPackage() {
+        assertEquals(of("a.b.C", "a.b.C$D", "a.b.E"), classPathIndex.getClassNamesInPackage("a.b"));
+        assertFalse(classPathIndex.isIndexed(classesPath));
+        assertTrue(classPathIndex.getClassNamesInPackage("not.found").isEmpty());
+
+        assertEquals(of("a.b", "x.y"), classPathIndex.getPackageNames());
+        assertTrue(classPathIndex.isIndexed(classesPath));
+        assertEquals(of("a.b.C", "a.b.C$D", "a.b.E"), classPathIndex.getClassNamesInPackage("a.b"));
+        assertEquals(of("a.b.E", "x.y.Z"), classPathIndex.getClassNames(jarPath));
+        assertEquals(2, classPathIndex.getClassPathToClassNamesMap().size());
+    }
+
+    @Test
+    public void testConcurrentIndexingAtParallelismOne() throws Exception {
+        ParallelScanEngine scanEngine = new ParallelScanEngine(1);
+        CountDownLatch scanning = new CountDownLatch(1);
+        ClassPathIndex classPathIndex = new ClassPathIndex(asList(classesPath, jarPath), scanEngine, classPath -> {
+            File file = new File(classPath);
+            if (!file.isDirectory()) {
+                return ClassUtils.findClassNamesInClassPath(classPath, true);
+            }
+            if (ForkJoinTask.getPool() == null) {
+                scanning.countDown();
+                try {
+                    // the worker thread is waiting for the same class path
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            // the class files are scanned by the same engine
+            Set<String> classNames = new LinkedHashSet<>();
+            for (File classFile : scanEngine.scan(file, true, new SuffixFileFilter(".class"))) {
+                classNames.add(ClassUtils.resolveClassName(file, classFile));
+            }
+            return classNames;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Set<String>> classNames = executor.submit(() -> classPathIndex.getClassNames(classesPath));
+            assertTrue(scanning.await(10, SECONDS));
+            // the class paths are scanned by the only worker thread
+            Future<Set<String>> allClassNames = executor.submit(classPathIndex::getAllClassNames);
+            assertEquals(of("a.b.C", "a.b.C$D"), classNames.get(10, SECONDS));
+            assertEquals(of("a.b.C", "a.b.C$D", "a.b.E", "x.y.Z"), allClassNames.get(10, SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}